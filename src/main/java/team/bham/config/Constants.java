@@ -11,5 +11,8 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Time zone the pitches and fixtures are scheduled in
+    public static final String DEFAULT_TIME_ZONE = "Europe/London";
+
     private Constants() {}
 }
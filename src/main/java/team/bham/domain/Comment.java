@@ -39,8 +39,7 @@ public class Comment implements Serializable {
     private Integer likeCount;
 
     @JsonIgnoreProperties(value = { "replyingTo", "author", "targetUser", "match" }, allowSetters = true)
-    @OneToOne
-    @JoinColumn(unique = true)
+    @ManyToOne
     private Comment replyingTo;
 
     @JsonIgnoreProperties(value = { "contacts", "availableDates", "teamOwned", "team" }, allowSetters = true)
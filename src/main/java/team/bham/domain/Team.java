@@ -60,6 +60,10 @@ public class Team implements Serializable {
     @Column(name = "play_type")
     private PlayType playType;
 
+    // Only ever written by the TeamRatingService, a new team gets the default of the column
+    @Column(name = "rating", insertable = false, updatable = false)
+    private Double rating;
+
     @JsonIgnoreProperties(value = { "contacts", "availableDates", "teamOwned", "team" }, allowSetters = true)
     @OneToOne
     @JoinColumn(unique = true)
@@ -209,6 +213,19 @@ public class Team implements Serializable {
         this.playType = playType;
     }
 
+    public Double getRating() {
+        return this.rating;
+    }
+
+    public Team rating(Double rating) {
+        this.setRating(rating);
+        return this;
+    }
+
+    public void setRating(Double rating) {
+        this.rating = rating;
+    }
+
     public UserProfile getOwner() {
         return this.owner;
     }
@@ -409,6 +426,7 @@ public class Team implements Serializable {
             ", colour='" + getColour() + "'" +
             ", schedule='" + getSchedule() + "'" +
             ", playType='" + getPlayType() + "'" +
+            ", rating=" + getRating() +
             "}";
     }
 }
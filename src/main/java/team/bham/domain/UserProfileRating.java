@@ -0,0 +1,136 @@
+package team.bham.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * The ratings a {@link UserProfile} has been given in comments: how many, and how many of each value from
+ * {@link #MIN_RATING} to {@link #MAX_RATING}.
+ */
+@Entity
+@Table(name = "user_profile_rating")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class UserProfileRating implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MIN_RATING = 0;
+
+    public static final int MAX_RATING = 5;
+
+    @Id
+    @Column(name = "user_profile_id")
+    private Long userProfileId;
+
+    @Column(name = "rating_count", nullable = false)
+    private long count;
+
+    @Column(name = "count_0", nullable = false)
+    private long count0;
+
+    @Column(name = "count_1", nullable = false)
+    private long count1;
+
+    @Column(name = "count_2", nullable = false)
+    private long count2;
+
+    @Column(name = "count_3", nullable = false)
+    private long count3;
+
+    @Column(name = "count_4", nullable = false)
+    private long count4;
+
+    @Column(name = "count_5", nullable = false)
+    private long count5;
+
+    protected UserProfileRating() {
+        // Needed by JPA.
+    }
+
+    public UserProfileRating(Long userProfileId) {
+        this.userProfileId = userProfileId;
+    }
+
+    public Long getUserProfileId() {
+        return this.userProfileId;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return the number of ratings of each value, indexed by the value.
+     */
+    public long[] getDistribution() {
+        return new long[] { count0, count1, count2, count3, count4, count5 };
+    }
+
+    /**
+     * @return the sum of all ratings.
+     */
+    public long getSum() {
+        return count1 + 2 * count2 + 3 * count3 + 4 * count4 + 5 * count5;
+    }
+
+    /**
+     * Counts a rating in, or out with a negative {@code delta}.
+     */
+    public void add(int rating, int delta) {
+        switch (rating) {
+            case 0:
+                count0 += delta;
+                break;
+            case 1:
+                count1 += delta;
+                break;
+            case 2:
+                count2 += delta;
+                break;
+            case 3:
+                count3 += delta;
+                break;
+            case 4:
+                count4 += delta;
+                break;
+            case 5:
+                count5 += delta;
+                break;
+            default:
+                throw new IllegalArgumentException("Rating out of range: " + rating);
+        }
+        count += delta;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserProfileRating)) {
+            return false;
+        }
+        return userProfileId != null && userProfileId.equals(((UserProfileRating) o).userProfileId);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserProfileRating{" +
+            "userProfileId=" + getUserProfileId() +
+            ", count=" + getCount() +
+            ", count0=" + count0 +
+            ", count1=" + count1 +
+            ", count2=" + count2 +
+            ", count3=" + count3 +
+            ", count4=" + count4 +
+            ", count5=" + count5 +
+            "}";
+    }
+}
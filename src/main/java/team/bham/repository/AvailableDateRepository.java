@@ -1,6 +1,10 @@
 package team.bham.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team.bham.domain.AvailableDate;
 
@@ -9,4 +13,75 @@ import team.bham.domain.AvailableDate;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AvailableDateRepository extends JpaRepository<AvailableDate, Long> {}
+public interface AvailableDateRepository extends JpaRepository<AvailableDate, Long> {
+    @Query(
+        "select availableDate from AvailableDate availableDate where availableDate.userProfile.id = :userProfileId " +
+        "and availableDate.fromTime < :to and availableDate.toTime > :from " +
+        "order by availableDate.fromTime"
+    )
+    List<AvailableDate> findOverlappingByUserProfileId(
+        @Param("userProfileId") Long userProfileId,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    @Query(
+        "select availableDate from AvailableDate availableDate where availableDate.userProfile.id = :userProfileId " +
+        "and availableDate.isAvailable = :isAvailable and availableDate.fromTime <= :to and availableDate.toTime >= :from"
+    )
+    List<AvailableDate> findTouchingByUserProfileId(
+        @Param("userProfileId") Long userProfileId,
+        @Param("isAvailable") Boolean isAvailable,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    @Query(
+        "select availableDate from AvailableDate availableDate where availableDate.userProfile.id = :userProfileId " +
+        "and availableDate.fromTime < :from and availableDate.toTime > :to"
+    )
+    List<AvailableDate> findSpanningByUserProfileId(
+        @Param("userProfileId") Long userProfileId,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update AvailableDate availableDate set availableDate.toTime = :from where availableDate.userProfile.id = :userProfileId " +
+        "and availableDate.fromTime < :from and availableDate.toTime > :from"
+    )
+    int trimEndsByUserProfileId(@Param("userProfileId") Long userProfileId, @Param("from") Instant from);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update AvailableDate availableDate set availableDate.fromTime = :to where availableDate.userProfile.id = :userProfileId " +
+        "and availableDate.fromTime >= :from and availableDate.fromTime < :to and availableDate.toTime > :to"
+    )
+    int trimStartsByUserProfileId(@Param("userProfileId") Long userProfileId, @Param("from") Instant from, @Param("to") Instant to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "delete from AvailableDate availableDate where availableDate.userProfile.id = :userProfileId " +
+        "and availableDate.fromTime >= :from and availableDate.toTime <= :to"
+    )
+    int deleteWithinByUserProfileId(@Param("userProfileId") Long userProfileId, @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query(
+        "select availableDate from AvailableDate availableDate where availableDate.userProfile.id in :userProfileIds " +
+        "and availableDate.fromTime < :to and availableDate.toTime > :from " +
+        "order by availableDate.userProfile.id, availableDate.fromTime"
+    )
+    List<AvailableDate> findOverlappingByUserProfileIds(
+        @Param("userProfileIds") Collection<Long> userProfileIds,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    @Query(
+        "select availableDate from AvailableDate availableDate where availableDate.team.id in :teamIds " +
+        "and availableDate.fromTime < :to and availableDate.toTime > :from " +
+        "order by availableDate.team.id, availableDate.fromTime"
+    )
+    List<AvailableDate> findOverlappingByTeamIds(@Param("teamIds") Collection<Long> teamIds, @Param("from") Instant from, @Param("to") Instant to);
+}
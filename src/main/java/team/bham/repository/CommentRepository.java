@@ -1,10 +1,15 @@
 package team.bham.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team.bham.domain.Comment;
-import team.bham.domain.UserProfile;
 
 /**
  * Spring Data JPA repository for the Comment entity.
@@ -12,5 +17,135 @@ import team.bham.domain.UserProfile;
 @SuppressWarnings("unused")
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByTargetUser(UserProfile targetUser);
+    /**
+     * Locks a comment until the end of the transaction, so the rating it is counted out with is the one it has.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select comment from Comment comment where comment.id = :id")
+    Optional<Comment> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * A comment with the ids of what it refers to and the name of its author.
+     */
+    interface CommentSummary {
+        Long getId();
+
+        Integer getRating();
+
+        String getContent();
+
+        Integer getLikeCount();
+
+        Long getReplyingToId();
+
+        Long getAuthorId();
+
+        String getAuthorName();
+
+        Long getTargetUserId();
+
+        Long getMatchId();
+    }
+
+    /**
+     * A comment of a thread and how deep it is below the root comment of the thread.
+     */
+    interface ThreadComment extends CommentSummary {
+        Integer getDepth();
+
+        Long getReplyCount();
+    }
+
+    /**
+     * Get the given root comments and their replies down to {@code maxDepth} levels below them, walking the replies in
+     * a single recursive query.
+     *
+     * @param rootIds the ids of the root comments.
+     * @param maxDepth the deepest level of replies to get, 0 for the root comments only.
+     * @param maxComments the most comments to get; the shallowest are kept.
+     * @return the comments, level by level and in order of id within a level.
+     */
+    @Query(
+        value = "with recursive thread (id, depth) as (" +
+        "select c.id, 0 from comment c where c.id in (:rootIds) " +
+        "union all " +
+        "select c.id, t.depth + 1 from comment c join thread t on c.replying_to_id = t.id where t.depth < :maxDepth) " +
+        "select c.id as id, c.rating as rating, c.content as content, c.like_count as likeCount, " +
+        "c.replying_to_id as replyingToId, c.author_id as authorId, a.name as authorName, " +
+        "c.target_user_id as targetUserId, c.match_id as matchId, t.depth as depth, " +
+        "(select count(*) from comment r where r.replying_to_id = c.id) as replyCount " +
+        "from thread t join comment c on c.id = t.id left join user_profile a on a.id = c.author_id " +
+        "order by t.depth, c.id limit :maxComments",
+        nativeQuery = true
+    )
+    List<ThreadComment> findThreads(
+        @Param("rootIds") Collection<Long> rootIds,
+        @Param("maxDepth") int maxDepth,
+        @Param("maxComments") int maxComments
+    );
+
+    @Query(
+        value = "select comment.id from Comment comment where comment.match.id = :matchId and comment.replyingTo is null order by comment.id desc",
+        countQuery = "select count(comment) from Comment comment where comment.match.id = :matchId and comment.replyingTo is null"
+    )
+    Page<Long> findRootIdsByMatchId(@Param("matchId") Long matchId, Pageable pageable);
+
+    @Query(
+        value = "select comment.id from Comment comment where comment.targetUser.id = :targetUserId and comment.replyingTo is null order by comment.id desc",
+        countQuery = "select count(comment) from Comment comment where comment.targetUser.id = :targetUserId and comment.replyingTo is null"
+    )
+    Page<Long> findRootIdsByTargetUserId(@Param("targetUserId") Long targetUserId, Pageable pageable);
+
+    /**
+     * Adds the same number of likes to each of the given comments, never leaving fewer than none.
+     *
+     * @return the number of comments updated.
+     */
+    @Modifying
+    @Query(
+        "update Comment comment set comment.likeCount = case when coalesce(comment.likeCount, 0) + :delta < 0 then 0 " +
+        "else coalesce(comment.likeCount, 0) + :delta end where comment.id in :ids"
+    )
+    int addLikes(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    /**
+     * Keyset page of the comments on a match that come before {@code beforeId}, newest first. The page size is
+     * taken from {@code pageable}, its offset must be 0.
+     */
+    @Query(
+        "select comment.id as id, comment.rating as rating, comment.content as content, comment.likeCount as likeCount, " +
+        "comment.replyingTo.id as replyingToId, author.id as authorId, author.name as authorName, " +
+        "comment.targetUser.id as targetUserId, comment.match.id as matchId " +
+        "from Comment comment left join comment.author author " +
+        "where comment.match.id = :matchId and comment.id < :beforeId order by comment.id desc"
+    )
+    List<CommentSummary> findFeedByMatchId(@Param("matchId") Long matchId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Same as {@link #findFeedByMatchId} for the comments about a user profile.
+     */
+    @Query(
+        "select comment.id as id, comment.rating as rating, comment.content as content, comment.likeCount as likeCount, " +
+        "comment.replyingTo.id as replyingToId, author.id as authorId, author.name as authorName, " +
+        "comment.targetUser.id as targetUserId, comment.match.id as matchId " +
+        "from Comment comment left join comment.author author " +
+        "where comment.targetUser.id = :targetUserId and comment.id < :beforeId order by comment.id desc"
+    )
+    List<CommentSummary> findFeedByTargetUserId(
+        @Param("targetUserId") Long targetUserId,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    /**
+     * Same as {@link #findFeedByMatchId} for the comments written by a user profile.
+     */
+    @Query(
+        "select comment.id as id, comment.rating as rating, comment.content as content, comment.likeCount as likeCount, " +
+        "comment.replyingTo.id as replyingToId, author.id as authorId, author.name as authorName, " +
+        "comment.targetUser.id as targetUserId, comment.match.id as matchId " +
+        "from Comment comment left join comment.author author " +
+        "where comment.author.id = :authorId and comment.id < :beforeId order by comment.id desc"
+    )
+    List<CommentSummary> findFeedByAuthorId(@Param("authorId") Long authorId, @Param("beforeId") Long beforeId, Pageable pageable);
 }
@@ -1,8 +1,15 @@
 package team.bham.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team.bham.domain.Match;
 
@@ -12,5 +19,111 @@ import team.bham.domain.Match;
 @SuppressWarnings("unused")
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
+    /**
+     * The fields of a match the standings of its tournament are computed from.
+     */
+    interface MatchResult {
+        Long getId();
+
+        Long getHomeTeamId();
+
+        String getHomeTeamName();
+
+        Long getAwayTeamId();
+
+        String getAwayTeamName();
+
+        Integer getHomeScore();
+
+        Integer getAwayScore();
+    }
+
+    /**
+     * The fields of a match shown in the calendar, its teams are looked up separately.
+     */
+    interface MatchSummary {
+        Long getId();
+
+        Integer getHomeScore();
+
+        Integer getAwayScore();
+
+        Instant getDate();
+
+        Long getHomeTeamId();
+
+        Long getAwayTeamId();
+
+        Long getRefereeId();
+
+        String getRefereeName();
+
+        Long getPitchId();
+
+        String getPitchName();
+
+        Long getTournamentId();
+
+        String getTournamentName();
+    }
+
+    /**
+     * The fields of a match shown on its own page, with the names and images of its teams.
+     */
+    interface MatchDetail extends MatchSummary {
+        String getHomeTeamName();
+
+        byte[] getHomeTeamImage();
+
+        String getHomeTeamImageContentType();
+
+        String getAwayTeamName();
+
+        byte[] getAwayTeamImage();
+
+        String getAwayTeamImageContentType();
+    }
+
     List<Match> findByDateBetween(Instant begin, Instant end);
+
+    @Query(
+        "select match.id as id, match.homeScore as homeScore, match.awayScore as awayScore, match.date as date, " +
+        "home.id as homeTeamId, away.id as awayTeamId, referee.id as refereeId, referee.name as refereeName, " +
+        "pitch.id as pitchId, pitch.name as pitchName, tournament.id as tournamentId, tournament.name as tournamentName " +
+        "from Match match left join match.home home left join match.away away left join match.referee referee " +
+        "left join match.pitch pitch left join match.tournament tournament " +
+        "where match.date >= :from and match.date < :to order by match.date, match.id"
+    )
+    List<MatchSummary> findSummariesByDateRange(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query(
+        "select match.id as id, match.homeScore as homeScore, match.awayScore as awayScore, match.date as date, " +
+        "home.id as homeTeamId, home.name as homeTeamName, home.image as homeTeamImage, home.imageContentType as homeTeamImageContentType, " +
+        "away.id as awayTeamId, away.name as awayTeamName, away.image as awayTeamImage, away.imageContentType as awayTeamImageContentType, " +
+        "referee.id as refereeId, referee.name as refereeName, pitch.id as pitchId, pitch.name as pitchName, " +
+        "tournament.id as tournamentId, tournament.name as tournamentName " +
+        "from Match match left join match.home home left join match.away away left join match.referee referee " +
+        "left join match.pitch pitch left join match.tournament tournament where match.id = :id"
+    )
+    Optional<MatchDetail> findDetailById(@Param("id") Long id);
+
+    boolean existsByTournamentId(Long tournamentId);
+
+    List<Match> findByTournamentIdOrderByDateAscIdAsc(Long tournamentId);
+
+    @Query(
+        "select match.id as id, home.id as homeTeamId, home.name as homeTeamName, away.id as awayTeamId, away.name as awayTeamName, " +
+        "match.homeScore as homeScore, match.awayScore as awayScore " +
+        "from Match match left join match.home home left join match.away away where match.tournament.id = :tournamentId"
+    )
+    List<MatchResult> findResultsByTournamentId(@Param("tournamentId") Long tournamentId);
+
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    @Query(
+        "select match.id as id, home.id as homeTeamId, home.name as homeTeamName, away.id as awayTeamId, away.name as awayTeamName, " +
+        "match.homeScore as homeScore, match.awayScore as awayScore " +
+        "from Match match join match.home home join match.away away " +
+        "where match.homeScore is not null and match.awayScore is not null order by match.date, match.id"
+    )
+    Stream<MatchResult> streamPlayedResults();
 }
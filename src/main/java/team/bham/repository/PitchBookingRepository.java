@@ -2,6 +2,7 @@ package team.bham.repository;
 
 import java.time.Instant;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,13 +16,48 @@ import team.bham.domain.User;
 @SuppressWarnings("unused")
 @Repository
 public interface PitchBookingRepository extends JpaRepository<PitchBooking, Long> {
-    List<PitchBooking> findByPitchIdAndStartTimeLessThanEqualAndEndTimeGreaterThanEqual(Long pitchId, Instant startTime, Instant endTime);
-
-    // Retrieve the list of booked pitches based on the provided date
-    @Query("SELECT pb FROM PitchBooking pb WHERE pb.bookingDate = :date")
-    List<PitchBooking> findBookedPitchesBasedOnDate(@Param("date") Instant date);
-
     List<PitchBooking> findPitchByPitchName(String keyword);
 
     List<PitchBooking> findByUserProfileId(Long userProfileId);
+
+    List<PitchBooking> findByPitchId(Long pitchId);
+
+    /**
+     * Keyset page of the bookings starting in {@code [from, to)} that come after {@code (afterStartTime, afterId)}
+     * in {@code (startTime, id)} order. The page size is taken from {@code pageable}, its offset must be 0.
+     */
+    @Query(
+        "select pitchBooking from PitchBooking pitchBooking" +
+        " where pitchBooking.startTime >= :from and pitchBooking.startTime < :to" +
+        " and pitchBooking.startTime >= :afterStartTime" +
+        " and (pitchBooking.startTime > :afterStartTime or pitchBooking.id > :afterId)" +
+        " order by pitchBooking.startTime asc, pitchBooking.id asc"
+    )
+    List<PitchBooking> findPage(
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("afterStartTime") Instant afterStartTime,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Same as {@link #findPage} restricted to the bookings of one user profile.
+     */
+    @Query(
+        "select pitchBooking from PitchBooking pitchBooking" +
+        " where pitchBooking.userProfileId = :userProfileId" +
+        " and pitchBooking.startTime >= :from and pitchBooking.startTime < :to" +
+        " and pitchBooking.startTime >= :afterStartTime" +
+        " and (pitchBooking.startTime > :afterStartTime or pitchBooking.id > :afterId)" +
+        " order by pitchBooking.startTime asc, pitchBooking.id asc"
+    )
+    List<PitchBooking> findPageByUserProfileId(
+        @Param("userProfileId") Long userProfileId,
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("afterStartTime") Instant afterStartTime,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
 }
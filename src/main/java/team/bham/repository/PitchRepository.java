@@ -1,5 +1,6 @@
 package team.bham.repository;
 
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import team.bham.domain.Pitch;
@@ -9,4 +10,7 @@ import team.bham.domain.Pitch;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PitchRepository extends JpaRepository<Pitch, Long> {}
+public interface PitchRepository extends JpaRepository<Pitch, Long> {
+    @Query("select pitch.id from Pitch pitch order by pitch.id")
+    List<Long> findAllIds();
+}
@@ -1,13 +1,16 @@
 package team.bham.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team.bham.domain.Team;
 import team.bham.domain.Tournament;
+import team.bham.domain.enumeration.PlayType;
 
 /**
  * Spring Data JPA repository for the Team entity.
@@ -15,9 +18,70 @@ import team.bham.domain.Tournament;
 @SuppressWarnings("unused")
 @Repository
 public interface TeamRepository extends TeamRepositoryWithBagRelationships, JpaRepository<Team, Long> {
+    /**
+     * The fields of a team opponents are matched on, the location is the one of its owner.
+     */
+    interface TeamListing {
+        Long getId();
+
+        String getName();
+
+        PlayType getPlayType();
+
+        String getLocation();
+    }
+
+    /**
+     * The fields of a team shown next to its matches.
+     */
+    interface TeamBadge {
+        Long getId();
+
+        String getName();
+
+        byte[] getImage();
+
+        String getImageContentType();
+    }
+
     List<Team> findByNameContainingIgnoreCase(String name);
     Optional<Team> findOneByOwnerId(Long ownerId);
 
+    @Query("select team.id from Team team order by team.id")
+    List<Long> findAllIds();
+
+    @Query(
+        "select team.id as id, team.name as name, team.playType as playType, owner.location as location " +
+        "from Team team left join team.owner owner order by team.id"
+    )
+    List<TeamListing> findAllListings();
+
+    @Query(
+        "select team.id as id, team.name as name, team.image as image, team.imageContentType as imageContentType " +
+        "from Team team where team.id in :ids"
+    )
+    List<TeamBadge> findBadgesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select team.id from Team team where lower(team.name) like lower(concat('%', :name, '%')) order by team.id")
+    List<Long> findIdsByNameContainingIgnoreCase(@Param("name") String name);
+
+    @Modifying
+    @Query("update Team team set team.rating = :rating where team.id = :id")
+    int updateRating(@Param("id") Long id, @Param("rating") double rating);
+
+    @Modifying
+    @Query("update Team team set team.rating = :rating where team.rating <> :rating")
+    int resetRatings(@Param("rating") double rating);
+
+    default List<Team> findAllWithMembers() {
+        return this.fetchWithMembers(this.findAllIds());
+    }
+
+    default List<Team> findByNameContainingIgnoreCaseWithMembers(String name) {
+        List<Team> teams = this.fetchWithMembers(this.findIdsByNameContainingIgnoreCase(name));
+        return teams.isEmpty() ? teams : this.fetchBagRelationships(teams);
+    }
+
     default List<Team> findByNameContainingIgnoreCaseWithEagerRelationships(String name) {
         return this.fetchBagRelationships(this.findByNameContainingIgnoreCase(name));
     }
@@ -11,4 +11,6 @@ public interface TeamRepositoryWithBagRelationships {
     List<Team> fetchBagRelationships(List<Team> teams);
 
     Page<Team> fetchBagRelationships(Page<Team> teams);
+
+    List<Team> fetchWithMembers(List<Long> teamIds);
 }
@@ -1,5 +1,6 @@
 package team.bham.repository;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -54,4 +55,30 @@ public class TeamRepositoryWithBagRelationshipsImpl implements TeamRepositoryWit
         Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
         return result;
     }
+
+    /**
+     * Loads the given teams together with their owner and members in a single query, so listing
+     * a page of teams does not issue one member query per team. The order of {@code teamIds} is kept.
+     */
+    @Override
+    public List<Team> fetchWithMembers(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        HashMap<Object, Integer> order = new HashMap<>();
+        IntStream.range(0, teamIds.size()).forEach(index -> order.put(teamIds.get(index), index));
+        List<Team> result = entityManager
+            .createQuery(
+                "select distinct team from Team team " +
+                "left join fetch team.owner owner left join fetch owner.teamOwned " +
+                "left join fetch team.members member left join fetch member.teamOwned " +
+                "where team.id in :teamIds",
+                Team.class
+            )
+            .setParameter("teamIds", teamIds)
+            .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+            .getResultList();
+        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
+        return result;
+    }
 }
@@ -1,7 +1,9 @@
 package team.bham.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -17,6 +19,32 @@ import team.bham.domain.Tournament;
  */
 @Repository
 public interface TournamentRepository extends TournamentRepositoryWithBagRelationships, JpaRepository<Tournament, Long> {
+    Optional<Tournament> findFirstByStartDateAfterOrderByStartDateAscIdAsc(Instant now);
+
+    boolean existsByIdAndTeamsId(Long id, Long teamId);
+
+    /**
+     * Locks the row of a tournament until the end of the transaction, enrolments into it are serialized on it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select tournament from Tournament tournament where tournament.id = :id")
+    Optional<Tournament> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Adds a team to a tournament unless it is full or the team is already in it.
+     *
+     * @return 1 if the team was added, 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        value = "insert into rel_tournament__teams (tournament_id, teams_id) " +
+        "select t.id, :teamId from tournament t where t.id = :tournamentId " +
+        "and (select count(*) from rel_tournament__teams r where r.tournament_id = t.id) < t.max_teams " +
+        "and not exists (select 1 from rel_tournament__teams r where r.tournament_id = t.id and r.teams_id = :teamId)",
+        nativeQuery = true
+    )
+    int insertTeamIfNotFull(@Param("tournamentId") Long tournamentId, @Param("teamId") Long teamId);
+
     default Optional<Tournament> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
@@ -0,0 +1,55 @@
+package team.bham.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import team.bham.domain.UserProfileRating;
+import team.bham.domain.enumeration.Positions;
+
+/**
+ * Spring Data JPA repository for the UserProfileRating entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface UserProfileRatingRepository extends JpaRepository<UserProfileRating, Long> {
+    /**
+     * The ratings of a user profile with what the profile is filtered on in rankings.
+     */
+    interface RatedProfile {
+        UserProfileRating getRating();
+
+        String getName();
+
+        Positions getPosition();
+
+        Boolean getReferee();
+    }
+
+    /**
+     * Locks the ratings of a user profile until the end of the transaction, comments about it are counted one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select rating from UserProfileRating rating where rating.userProfileId = :userProfileId")
+    Optional<UserProfileRating> findByIdForUpdate(@Param("userProfileId") Long userProfileId);
+
+    @Query(
+        "select rating as rating, profile.name as name, profile.position as position, profile.referee as referee " +
+        "from UserProfileRating rating join UserProfile profile on profile.id = rating.userProfileId " +
+        "where rating.userProfileId = :userProfileId and rating.count > 0"
+    )
+    Optional<RatedProfile> findRatedProfile(@Param("userProfileId") Long userProfileId);
+
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    @Query(
+        "select rating as rating, profile.name as name, profile.position as position, profile.referee as referee " +
+        "from UserProfileRating rating join UserProfile profile on profile.id = rating.userProfileId where rating.count > 0"
+    )
+    Stream<RatedProfile> streamRatedProfiles();
+}
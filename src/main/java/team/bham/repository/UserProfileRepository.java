@@ -1,7 +1,11 @@
 package team.bham.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import team.bham.domain.Team;
 import team.bham.domain.UserProfile;
@@ -12,6 +16,52 @@ import team.bham.domain.UserProfile;
 @SuppressWarnings("unused")
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
+    /**
+     * A user profile and the team it is a member of.
+     */
+    interface TeamMember {
+        Long getTeamId();
+
+        Long getUserProfileId();
+    }
+
+    /**
+     * A member of a team as listed on the page of a match.
+     */
+    interface TeamMemberBadge {
+        Long getTeamId();
+
+        Long getId();
+
+        String getName();
+
+        byte[] getProfilePic();
+
+        String getProfilePicContentType();
+    }
+
     List<UserProfile> findByTeamId(Long teamId);
+
+    /**
+     * Locks the row of a user profile until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select userProfile from UserProfile userProfile where userProfile.id = :id")
+    Optional<UserProfile> findByIdForUpdate(@Param("id") Long id);
+
+    long countByTeamId(Long teamId);
     List<UserProfile> findByNameContainingIgnoreCase(String name);
+
+    @Query(
+        "select userProfile.team.id as teamId, userProfile.id as userProfileId from UserProfile userProfile " +
+        "where userProfile.team is not null order by userProfile.id"
+    )
+    List<TeamMember> findAllTeamMembers();
+
+    @Query(
+        "select userProfile.team.id as teamId, userProfile.id as id, userProfile.name as name, " +
+        "userProfile.profilePic as profilePic, userProfile.profilePicContentType as profilePicContentType " +
+        "from UserProfile userProfile where userProfile.team.id in :teamIds order by userProfile.name, userProfile.id"
+    )
+    List<TeamMemberBadge> findMemberBadgesByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
 }
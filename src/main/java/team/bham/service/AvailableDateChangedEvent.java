@@ -0,0 +1,26 @@
+package team.bham.service;
+
+/**
+ * Published by {@link AvailableDateService} after a committed change to the availability of a user profile,
+ * so views derived from it can be refreshed.
+ */
+public class AvailableDateChangedEvent {
+
+    private final Long userProfileId;
+
+    public AvailableDateChangedEvent(Long userProfileId) {
+        this.userProfileId = userProfileId;
+    }
+
+    public Long getUserProfileId() {
+        return userProfileId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AvailableDateChangedEvent{" +
+            "userProfileId=" + userProfileId +
+            "}";
+    }
+}
@@ -0,0 +1,177 @@
+package team.bham.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.domain.AvailableDate;
+import team.bham.domain.Team;
+import team.bham.domain.UserProfile;
+import team.bham.repository.AvailableDateRepository;
+
+/**
+ * Service for writing {@link AvailableDate}s.
+ * <p>
+ * The dates of a user profile are kept normalized: a saved date absorbs every date of the same user, team
+ * and {@code isAvailable} flag that overlaps or touches it, so no two such dates overlap or are adjacent.
+ * Every write publishes an {@link AvailableDateChangedEvent} for the user profiles it touched once the
+ * transaction has committed.
+ */
+@Service
+@Transactional
+public class AvailableDateService {
+
+    private final Logger log = LoggerFactory.getLogger(AvailableDateService.class);
+
+    private final AvailableDateRepository availableDateRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public AvailableDateService(AvailableDateRepository availableDateRepository, ApplicationEventPublisher applicationEventPublisher) {
+        this.availableDateRepository = availableDateRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Save an availableDate, merged with the dates of its user it overlaps or touches.
+     *
+     * @param availableDate the entity to save.
+     * @return the persisted entity, covering the merged window.
+     */
+    public AvailableDate save(AvailableDate availableDate) {
+        log.debug("Request to save AvailableDate : {}", availableDate);
+        Long previousUserProfileId = availableDate.getId() == null ? null : findUserProfileId(availableDate.getId()).orElse(null);
+        AvailableDate result = availableDateRepository.save(coalesce(availableDate));
+        changed(previousUserProfileId);
+        if (result.getUserProfile() != null && !Objects.equals(result.getUserProfile().getId(), previousUserProfileId)) {
+            changed(result.getUserProfile().getId());
+        }
+        return result;
+    }
+
+    /**
+     * Delete the availableDate by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete AvailableDate : {}", id);
+        Optional<Long> userProfileId = findUserProfileId(id);
+        availableDateRepository.deleteById(id);
+        userProfileId.ifPresent(this::changed);
+    }
+
+    /**
+     * Clears {@code [from, to)} from the dates of a user profile. Dates inside the range are deleted, dates
+     * crossing one of its ends are cut back, and a date spanning the whole range is split in two.
+     *
+     * @param userProfileId the id of the user profile.
+     * @param from the start of the range.
+     * @param to the end of the range, after {@code from}.
+     */
+    public void deleteRange(Long userProfileId, Instant from, Instant to) {
+        log.debug("Request to delete AvailableDates of UserProfile : {} from {} to {}", userProfileId, from, to);
+        List<AvailableDate> tails = new ArrayList<>();
+        for (AvailableDate spanning : availableDateRepository.findSpanningByUserProfileId(userProfileId, from, to)) {
+            tails.add(
+                new AvailableDate()
+                    .fromTime(to)
+                    .toTime(spanning.getToTime())
+                    .isAvailable(spanning.getIsAvailable())
+                    .userProfile(spanning.getUserProfile())
+                    .team(spanning.getTeam())
+            );
+        }
+        availableDateRepository.saveAll(tails);
+        availableDateRepository.trimEndsByUserProfileId(userProfileId, from);
+        availableDateRepository.trimStartsByUserProfileId(userProfileId, from, to);
+        availableDateRepository.deleteWithinByUserProfileId(userProfileId, from, to);
+        changed(userProfileId);
+    }
+
+    /**
+     * Widens the date to cover the dates of the same user, team and flag it overlaps or touches, and deletes
+     * those. The widened window may touch further dates if they were not normalized yet, so this repeats
+     * until nothing is left to absorb.
+     */
+    private AvailableDate coalesce(AvailableDate availableDate) {
+        if (availableDate.getUserProfile() == null || availableDate.getUserProfile().getId() == null) {
+            return availableDate;
+        }
+        Long userProfileId = availableDate.getUserProfile().getId();
+        Long teamId = teamId(availableDate);
+        Instant from = availableDate.getFromTime();
+        Instant to = availableDate.getToTime();
+        Set<Long> absorbed = new HashSet<>();
+        boolean widened = true;
+        while (widened) {
+            widened = false;
+            List<AvailableDate> touching = availableDateRepository.findTouchingByUserProfileId(
+                userProfileId,
+                availableDate.getIsAvailable(),
+                from,
+                to
+            );
+            for (AvailableDate other : touching) {
+                if (Objects.equals(other.getId(), availableDate.getId()) || !Objects.equals(teamId(other), teamId)) {
+                    continue;
+                }
+                if (absorbed.add(other.getId())) {
+                    if (other.getFromTime().isBefore(from)) {
+                        from = other.getFromTime();
+                        widened = true;
+                    }
+                    if (other.getToTime().isAfter(to)) {
+                        to = other.getToTime();
+                        widened = true;
+                    }
+                }
+            }
+        }
+        if (!absorbed.isEmpty()) {
+            log.debug("Merging AvailableDates {} into {}", absorbed, availableDate);
+            availableDateRepository.deleteAllByIdInBatch(absorbed);
+            availableDate.setFromTime(from);
+            availableDate.setToTime(to);
+        }
+        return availableDate;
+    }
+
+    private static Long teamId(AvailableDate availableDate) {
+        Team team = availableDate.getTeam();
+        return team == null ? null : team.getId();
+    }
+
+    private Optional<Long> findUserProfileId(Long id) {
+        return availableDateRepository.findById(id).map(AvailableDate::getUserProfile).map(UserProfile::getId);
+    }
+
+    private void changed(Long userProfileId) {
+        if (userProfileId == null) {
+            return;
+        }
+        AvailableDateChangedEvent event = new AvailableDateChangedEvent(userProfileId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        applicationEventPublisher.publishEvent(event);
+                    }
+                }
+            );
+        } else {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+}
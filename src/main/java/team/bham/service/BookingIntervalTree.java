@@ -0,0 +1,266 @@
+package team.bham.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Augmented interval tree (AVL balanced, keyed by start time) holding the bookings of a single pitch.
+ * <p>
+ * Every node keeps the greatest end time of its subtree, so an overlap query only descends into
+ * subtrees that can contain a clashing booking: {@link #overlaps} runs in {@code O(log n)} and
+ * {@link #findOverlapping} in {@code O(log n + k)}. Intervals are half-open, a booking ending at
+ * 18:00 does not clash with one starting at 18:00.
+ * <p>
+ * This class is not thread-safe, callers must synchronize on the tree.
+ */
+public class BookingIntervalTree {
+
+    /**
+     * A booked interval of a pitch.
+     */
+    public static final class Interval {
+
+        private final long bookingId;
+        private final long start;
+        private final long end;
+
+        Interval(long bookingId, long start, long end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getBookingId() {
+            return bookingId;
+        }
+
+        public Instant getStart() {
+            return Instant.ofEpochMilli(start);
+        }
+
+        public Instant getEnd() {
+            return Instant.ofEpochMilli(end);
+        }
+
+        long startMillis() {
+            return start;
+        }
+
+        long endMillis() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "Interval{bookingId=" + bookingId + ", start=" + getStart() + ", end=" + getEnd() + "}";
+        }
+    }
+
+    private static final class Node {
+
+        private final Interval interval;
+        private Node left;
+        private Node right;
+        private long maxEnd;
+        private int height = 1;
+
+        private Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end;
+        }
+    }
+
+    private final Map<Long, Interval> byBookingId = new HashMap<>();
+    private Node root;
+
+    public int size() {
+        return byBookingId.size();
+    }
+
+    public boolean contains(long bookingId) {
+        return byBookingId.containsKey(bookingId);
+    }
+
+    public Interval get(long bookingId) {
+        return byBookingId.get(bookingId);
+    }
+
+    /**
+     * Adds a booking, replacing the previous interval of the same booking if there was one.
+     */
+    public void put(long bookingId, Instant start, Instant end) {
+        remove(bookingId);
+        Interval interval = new Interval(bookingId, start.toEpochMilli(), end.toEpochMilli());
+        byBookingId.put(bookingId, interval);
+        root = insert(root, interval);
+    }
+
+    public void remove(long bookingId) {
+        Interval interval = byBookingId.remove(bookingId);
+        if (interval != null) {
+            root = delete(root, interval);
+        }
+    }
+
+    /**
+     * @return true if any booking other than {@code ignoredBookingId} overlaps {@code [start, end)}.
+     */
+    public boolean overlaps(Instant start, Instant end, Long ignoredBookingId) {
+        return anyOverlap(root, start.toEpochMilli(), end.toEpochMilli(), ignoredBookingId);
+    }
+
+    /**
+     * @return the bookings overlapping {@code [from, to)}, ordered by start time.
+     */
+    public List<Interval> findOverlapping(Instant from, Instant to) {
+        List<Interval> result = new ArrayList<>();
+        collect(root, from.toEpochMilli(), to.toEpochMilli(), result);
+        return result;
+    }
+
+    private static boolean anyOverlap(Node node, long start, long end, Long ignoredBookingId) {
+        if (ignoredBookingId != null) {
+            return anyOverlapIgnoring(node, start, end, ignoredBookingId);
+        }
+        // If anything overlaps and the left subtree reaches past start, something in the left subtree overlaps.
+        while (node != null) {
+            if (node.interval.start < end && start < node.interval.end) {
+                return true;
+            }
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+        }
+        return false;
+    }
+
+    private static boolean anyOverlapIgnoring(Node node, long start, long end, long ignoredBookingId) {
+        if (node == null || node.maxEnd <= start) {
+            return false;
+        }
+        if (anyOverlapIgnoring(node.left, start, end, ignoredBookingId)) {
+            return true;
+        }
+        Interval interval = node.interval;
+        if (interval.start >= end) {
+            return false;
+        }
+        if (start < interval.end && interval.bookingId != ignoredBookingId) {
+            return true;
+        }
+        return anyOverlapIgnoring(node.right, start, end, ignoredBookingId);
+    }
+
+    private static void collect(Node node, long from, long to, List<Interval> result) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        Interval interval = node.interval;
+        if (interval.start >= to) {
+            return;
+        }
+        if (from < interval.end) {
+            result.add(interval);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static int compare(Interval a, Interval b) {
+        int byStart = Long.compare(a.start, b.start);
+        return byStart != 0 ? byStart : Long.compare(a.bookingId, b.bookingId);
+    }
+
+    private static Node insert(Node node, Interval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return rebalance(node);
+    }
+
+    private static Node delete(Node node, Interval interval) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = delete(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.interval);
+            replacement.right = delete(node.right, successor.interval);
+            replacement.left = node.left;
+            node = replacement;
+        }
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.interval.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,156 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.domain.Comment;
+import team.bham.repository.CommentRepository;
+import team.bham.service.dto.CommentLikesDTO;
+
+/**
+ * Service counting the likes of {@link Comment}s.
+ * <p>
+ * A like or unlike only adds to an in-memory counter of the comment, and the counted likes are added to
+ * the comments every {@link #FLUSH_SECONDS} seconds, one update for all the comments with the same number
+ * of new likes. Until then the counted likes are added to the stored count wherever this service reads it,
+ * so clients of this instance see every like straight away.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CommentLikeService {
+
+    static final long FLUSH_SECONDS = 5;
+
+    static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(CommentLikeService.class);
+
+    private final CommentRepository commentRepository;
+
+    // Likes not yet added to the comments, by comment id; only changed through atomic remappings so that a like
+    // is never added to a counter that a flush is removing
+    private final ConcurrentMap<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public CommentLikeService(CommentRepository commentRepository) {
+        this.commentRepository = commentRepository;
+    }
+
+    /**
+     * Likes a comment.
+     *
+     * @param id the id of the comment.
+     * @return the number of likes of the comment, or empty if there is no such comment.
+     */
+    public Optional<CommentLikesDTO> like(Long id) {
+        log.debug("Request to like Comment : {}", id);
+        return commentRepository
+            .findById(id)
+            .map(comment -> {
+                count(id, 1);
+                return likes(comment);
+            });
+    }
+
+    /**
+     * Takes back a like of a comment, unless it has none.
+     *
+     * @param id the id of the comment.
+     * @return the number of likes of the comment, or empty if there is no such comment.
+     */
+    public Optional<CommentLikesDTO> unlike(Long id) {
+        log.debug("Request to unlike Comment : {}", id);
+        return commentRepository
+            .findById(id)
+            .map(comment -> {
+                if (likeCount(comment.getId(), comment.getLikeCount()) > 0) {
+                    count(id, -1);
+                }
+                return likes(comment);
+            });
+    }
+
+    /**
+     * Get the number of likes of a comment.
+     *
+     * @param id the id of the comment.
+     * @return the number of likes of the comment, or empty if there is no such comment.
+     */
+    public Optional<CommentLikesDTO> findLikes(Long id) {
+        return commentRepository.findById(id).map(this::likes);
+    }
+
+    /**
+     * Adds the likes not yet written to a like count read from a comment.
+     *
+     * @param id the id of the comment.
+     * @param storedLikeCount the like count read from the comment.
+     * @return the number of likes of the comment.
+     */
+    public Integer likeCount(Long id, Integer storedLikeCount) {
+        long delta = pending.getOrDefault(id, 0L);
+        if (delta == 0) {
+            return storedLikeCount;
+        }
+        return (int) Math.max(0, (storedLikeCount == null ? 0 : storedLikeCount) + delta);
+    }
+
+    /**
+     * Adds the likes counted since the last flush to the comments. They are taken off the counters once the
+     * transaction has committed, so a failed flush leaves them to the next one.
+     */
+    @Scheduled(fixedDelay = FLUSH_SECONDS, timeUnit = TimeUnit.SECONDS)
+    @Transactional
+    public void flush() {
+        Map<Long, Long> flushed = new HashMap<>();
+        Map<Integer, List<Long>> idsByDelta = new HashMap<>();
+        pending.forEach((id, delta) -> {
+            if (delta != 0) {
+                flushed.put(id, delta);
+                idsByDelta.computeIfAbsent(delta.intValue(), d -> new ArrayList<>()).add(id);
+            } else {
+                // Liked and unliked since the last flush, dropped unless liked again meanwhile
+                pending.remove(id, 0L);
+            }
+        });
+        if (flushed.isEmpty()) {
+            return;
+        }
+        idsByDelta.forEach((delta, ids) -> {
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                commentRepository.addLikes(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), delta);
+            }
+        });
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Counters left at zero are dropped, likes counted since the flush are kept
+                    flushed.forEach((id, delta) -> pending.computeIfPresent(id, (key, likes) -> likes - delta == 0 ? null : likes - delta));
+                }
+            }
+        );
+        log.debug("Saved the likes of {} Comments in {} updates", flushed.size(), idsByDelta.size());
+    }
+
+    private void count(Long id, int delta) {
+        // Counters are only removed by a flush, through remappings that are atomic with this one
+        pending.merge(id, (long) delta, Long::sum);
+    }
+
+    private CommentLikesDTO likes(Comment comment) {
+        Integer likeCount = likeCount(comment.getId(), comment.getLikeCount());
+        return new CommentLikesDTO(comment.getId(), likeCount == null ? 0 : likeCount);
+    }
+}
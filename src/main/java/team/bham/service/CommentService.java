@@ -1,34 +1,358 @@
 package team.bham.service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import team.bham.domain.Comment;
 import team.bham.domain.UserProfile;
+import team.bham.domain.UserProfileRating;
 import team.bham.repository.CommentRepository;
+import team.bham.repository.UserProfileRatingRepository;
 import team.bham.repository.UserProfileRepository;
+import team.bham.service.dto.CommentSummaryDTO;
+import team.bham.service.dto.CommentThreadDTO;
+import team.bham.service.dto.UserRatingDTO;
 
+/**
+ * Service for writing {@link Comment}s, keeping the {@link UserProfileRating} of the user profile a comment
+ * rates up to date in the same transaction.
+ */
 @Service
+@Transactional
 public class CommentService {
 
+    /**
+     * The rating every user profile is assumed to start from for its Bayesian score, the middle of the scale.
+     */
+    static final double PRIOR_RATING = (UserProfileRating.MIN_RATING + UserProfileRating.MAX_RATING) / 2.0;
+
+    /**
+     * How many ratings the prior is worth.
+     */
+    static final double PRIOR_WEIGHT = 5;
+
+    /**
+     * The deepest level of replies a thread is read to.
+     */
+    public static final int MAX_THREAD_DEPTH = 10;
+
+    /**
+     * The most comments read for one request of threads; the deepest replies are left out first.
+     */
+    public static final int MAX_THREAD_COMMENTS = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(CommentService.class);
+
     private final CommentRepository commentRepository;
 
-    @Autowired
-    public CommentService(CommentRepository commentRepository) {
+    private final UserProfileRatingRepository userProfileRatingRepository;
+
+    private final UserProfileRepository userProfileRepository;
+
+    private final CommentLikeService commentLikeService;
+
+    private final UserProfileService userProfileService;
+
+    public CommentService(
+        CommentRepository commentRepository,
+        UserProfileRatingRepository userProfileRatingRepository,
+        UserProfileRepository userProfileRepository,
+        CommentLikeService commentLikeService,
+        UserProfileService userProfileService
+    ) {
         this.commentRepository = commentRepository;
+        this.userProfileRatingRepository = userProfileRatingRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.commentLikeService = commentLikeService;
+        this.userProfileService = userProfileService;
+    }
+
+    /**
+     * Creates or updates a comment.
+     *
+     * @param comment the comment to save.
+     * @return the saved comment.
+     */
+    public Comment save(Comment comment) {
+        log.debug("Request to save Comment : {}", comment);
+        Long previousTargetUserId = null;
+        Integer previousRating = null;
+        if (comment.getId() != null) {
+            Optional<Comment> existingComment = commentRepository.findByIdForUpdate(comment.getId());
+            if (existingComment.isPresent()) {
+                previousTargetUserId = targetUserId(existingComment.get());
+                previousRating = existingComment.get().getRating();
+            }
+        }
+        Comment result = commentRepository.save(comment);
+        recount(previousTargetUserId, previousRating, targetUserId(result), result.getRating());
+        return result;
+    }
+
+    /**
+     * Updates the rating, content and like count of a comment, those that are not null.
+     *
+     * @param comment the fields to update.
+     * @return the updated comment, or empty if there is no such comment.
+     */
+    public Optional<Comment> partialUpdate(Comment comment) {
+        log.debug("Request to partially update Comment : {}", comment);
+        return commentRepository
+            .findByIdForUpdate(comment.getId())
+            .map(existingComment -> {
+                Integer previousRating = existingComment.getRating();
+                if (comment.getRating() != null) {
+                    existingComment.setRating(comment.getRating());
+                }
+                if (comment.getContent() != null) {
+                    existingComment.setContent(comment.getContent());
+                }
+                if (comment.getLikeCount() != null) {
+                    existingComment.setLikeCount(comment.getLikeCount());
+                }
+                Long targetUserId = targetUserId(existingComment);
+                recount(targetUserId, previousRating, targetUserId, existingComment.getRating());
+                return existingComment;
+            })
+            .map(commentRepository::save);
+    }
+
+    /**
+     * Deletes a comment if it exists.
+     *
+     * @param id the id of the comment.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Comment : {}", id);
+        commentRepository
+            .findByIdForUpdate(id)
+            .ifPresent(existingComment -> {
+                Long targetUserId = targetUserId(existingComment);
+                Integer rating = existingComment.getRating();
+                commentRepository.delete(existingComment);
+                count(targetUserId, rating, -1);
+            });
+    }
+
+    /**
+     * Get the ratings a user profile has been given, read from its {@link UserProfileRating} without looking at the comments.
+     *
+     * @param userProfileId the id of the user profile.
+     * @return the ratings, or empty if there is no such user profile.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserRatingDTO> findRating(Long userProfileId) {
+        Optional<UserProfileRating> rating = userProfileRatingRepository.findById(userProfileId);
+        if (rating.isEmpty() && !userProfileRepository.existsById(userProfileId)) {
+            return Optional.empty();
+        }
+        return Optional.of(toDto(rating.orElseGet(() -> new UserProfileRating(userProfileId))));
+    }
+
+    /**
+     * Get a comment with its replies, nested.
+     *
+     * @param id the id of the comment.
+     * @param depth the deepest level of replies to read, at most {@link #MAX_THREAD_DEPTH}.
+     * @return the thread, or empty if there is no such comment.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CommentThreadDTO> findThread(Long id, int depth) {
+        log.debug("Request to get the thread of Comment : {}", id);
+        return threads(Collections.singletonList(id), depth).stream().findFirst();
+    }
+
+    /**
+     * Get a page of the comments on a match that do not reply to another comment, newest first, each with its replies.
+     *
+     * @param matchId the id of the match.
+     * @param depth the deepest level of replies to read, at most {@link #MAX_THREAD_DEPTH}.
+     * @param pageable the pagination information, of which the sort is ignored.
+     * @return the page of threads.
+     */
+    @Transactional(readOnly = true)
+    public Page<CommentThreadDTO> findThreadsByMatch(Long matchId, int depth, Pageable pageable) {
+        log.debug("Request to get the comment threads of Match : {}", matchId);
+        return threads(commentRepository.findRootIdsByMatchId(matchId, unsorted(pageable)), depth);
+    }
+
+    /**
+     * Get a page of the comments about a user profile that do not reply to another comment, newest first, each with its replies.
+     *
+     * @param targetUserId the id of the user profile.
+     * @param depth the deepest level of replies to read, at most {@link #MAX_THREAD_DEPTH}.
+     * @param pageable the pagination information, of which the sort is ignored.
+     * @return the page of threads.
+     */
+    @Transactional(readOnly = true)
+    public Page<CommentThreadDTO> findThreadsByTargetUser(Long targetUserId, int depth, Pageable pageable) {
+        log.debug("Request to get the comment threads of UserProfile : {}", targetUserId);
+        return threads(commentRepository.findRootIdsByTargetUserId(targetUserId, unsorted(pageable)), depth);
+    }
+
+    /**
+     * Get the comments on a match written before a given comment, newest first.
+     *
+     * @param matchId the id of the match.
+     * @param beforeId the id of the last comment of the previous page, or null for the first page.
+     * @param limit the most comments to get.
+     * @return the comments.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentSummaryDTO> findFeedByMatch(Long matchId, Long beforeId, int limit) {
+        log.debug("Request to get the Comments on Match : {} before : {}", matchId, beforeId);
+        return feed(commentRepository.findFeedByMatchId(matchId, before(beforeId), PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Get the comments about a user profile written before a given comment, newest first.
+     *
+     * @param targetUserId the id of the user profile.
+     * @param beforeId the id of the last comment of the previous page, or null for the first page.
+     * @param limit the most comments to get.
+     * @return the comments.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentSummaryDTO> findFeedByTargetUser(Long targetUserId, Long beforeId, int limit) {
+        log.debug("Request to get the Comments about UserProfile : {} before : {}", targetUserId, beforeId);
+        return feed(commentRepository.findFeedByTargetUserId(targetUserId, before(beforeId), PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Get the comments written by a user profile before a given comment, newest first.
+     *
+     * @param authorId the id of the user profile.
+     * @param beforeId the id of the last comment of the previous page, or null for the first page.
+     * @param limit the most comments to get.
+     * @return the comments.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentSummaryDTO> findFeedByAuthor(Long authorId, Long beforeId, int limit) {
+        log.debug("Request to get the Comments by UserProfile : {} before : {}", authorId, beforeId);
+        return feed(commentRepository.findFeedByAuthorId(authorId, before(beforeId), PageRequest.of(0, limit)));
+    }
+
+    private List<CommentSummaryDTO> feed(List<CommentRepository.CommentSummary> rows) {
+        return rows.stream().map(row -> copy(row, new CommentSummaryDTO())).collect(Collectors.toList());
+    }
+
+    private static Long before(Long beforeId) {
+        return beforeId != null ? beforeId : Long.MAX_VALUE;
+    }
+
+    private Page<CommentThreadDTO> threads(Page<Long> rootIds, int depth) {
+        return new PageImpl<>(threads(rootIds.getContent(), depth), rootIds.getPageable(), rootIds.getTotalElements());
+    }
+
+    /**
+     * Reads the given root comments and their replies with one query, and nests the replies.
+     *
+     * @return the threads, in the order of {@code rootIds}.
+     */
+    private List<CommentThreadDTO> threads(List<Long> rootIds, int depth) {
+        if (rootIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int maxDepth = Math.max(0, Math.min(depth, MAX_THREAD_DEPTH));
+        Map<Long, CommentThreadDTO> comments = new HashMap<>();
+        // Comments come level by level, so the comment a reply is to has always been seen before it
+        for (CommentRepository.ThreadComment row : commentRepository.findThreads(rootIds, maxDepth, MAX_THREAD_COMMENTS)) {
+            if (comments.containsKey(row.getId())) {
+                // Replies that loop back to an earlier comment of the thread
+                continue;
+            }
+            CommentThreadDTO comment = toDto(row);
+            if (row.getDepth() > 0) {
+                CommentThreadDTO parent = comments.get(row.getReplyingToId());
+                if (parent == null) {
+                    continue;
+                }
+                parent.getReplies().add(comment);
+            }
+            comments.put(comment.getId(), comment);
+        }
+        return rootIds.stream().map(comments::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private CommentThreadDTO toDto(CommentRepository.ThreadComment row) {
+        CommentThreadDTO comment = copy(row, new CommentThreadDTO());
+        comment.setReplyCount(row.getReplyCount());
+        return comment;
     }
 
-    public double calculateAverageRate(UserProfile targetUser) {
-        List<Comment> comments = commentRepository.findByTargetUser(targetUser);
-        if (comments.isEmpty()) {
-            return 0;
+    private <T extends CommentSummaryDTO> T copy(CommentRepository.CommentSummary row, T comment) {
+        comment.setId(row.getId());
+        comment.setRating(row.getRating());
+        comment.setContent(row.getContent());
+        comment.setLikeCount(commentLikeService.likeCount(row.getId(), row.getLikeCount()));
+        comment.setReplyingToId(row.getReplyingToId());
+        comment.setAuthorId(row.getAuthorId());
+        comment.setAuthorName(row.getAuthorName());
+        comment.setTargetUserId(row.getTargetUserId());
+        comment.setMatchId(row.getMatchId());
+        return comment;
+    }
+
+    private static Pageable unsorted(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+
+    static UserRatingDTO toDto(UserProfileRating rating) {
+        long count = rating.getCount();
+        long sum = rating.getSum();
+        double average = count == 0 ? 0 : (double) sum / count;
+        double bayesianScore = (PRIOR_WEIGHT * PRIOR_RATING + sum) / (PRIOR_WEIGHT + count);
+        return new UserRatingDTO(rating.getUserProfileId(), count, average, bayesianScore, rating.getDistribution());
+    }
+
+    /**
+     * Counts the previous rating of a comment out and its new one in, locking the aggregates in the order of
+     * their ids so that comments moved between two user profiles at once cannot deadlock.
+     */
+    private void recount(Long previousTargetUserId, Integer previousRating, Long targetUserId, Integer rating) {
+        if (Objects.equals(previousTargetUserId, targetUserId) && Objects.equals(previousRating, rating)) {
+            return;
         }
+        if (previousTargetUserId != null && targetUserId != null && previousTargetUserId > targetUserId) {
+            count(targetUserId, rating, 1);
+            count(previousTargetUserId, previousRating, -1);
+        } else {
+            count(previousTargetUserId, previousRating, -1);
+            count(targetUserId, rating, 1);
+        }
+    }
 
-        int totalRating = 0;
-        for (Comment comment : comments) {
-            totalRating += comment.getRating();
+    private void count(Long userProfileId, Integer rating, int delta) {
+        if (userProfileId == null || rating == null) {
+            return;
         }
+        UserProfileRating aggregate = userProfileRatingRepository
+            .findByIdForUpdate(userProfileId)
+            .orElseGet(() -> {
+                // The first rating of the user profile: its row is locked so that concurrent first ratings create a single aggregate
+                userProfileRepository.findByIdForUpdate(userProfileId);
+                return userProfileRatingRepository
+                    .findByIdForUpdate(userProfileId)
+                    .orElseGet(() -> userProfileRatingRepository.save(new UserProfileRating(userProfileId)));
+            });
+        aggregate.add(rating, delta);
+        userProfileService.ratingsChanged(userProfileId);
+    }
 
-        return (double) totalRating / comments.size();
+    private static Long targetUserId(Comment comment) {
+        UserProfile targetUser = comment.getTargetUser();
+        return targetUser == null ? null : targetUser.getId();
     }
 }
@@ -0,0 +1,202 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Elo ratings of teams, updated one played match at a time and kept ranked.
+ * <p>
+ * Every team starts at {@link #INITIAL_RATING}. After a match both teams move by the same amount in opposite
+ * directions: {@link #K_FACTOR} times the difference between the result and the expected result, scaled up
+ * for wins by two goals or more as in the World Football Elo Ratings. The table remembers which matches it
+ * has rated and with what result, so the caller can tell a new result from a corrected one.
+ * <p>
+ * Not thread-safe, see {@link TeamRatingService}.
+ */
+public final class EloRatingTable {
+
+    public static final double INITIAL_RATING = 1500;
+
+    public static final double K_FACTOR = 32;
+
+    /**
+     * A played match as far as the ratings are concerned.
+     */
+    public static final class Result {
+
+        private final Long homeTeamId;
+        private final Long awayTeamId;
+        private final int homeScore;
+        private final int awayScore;
+
+        public Result(Long homeTeamId, Long awayTeamId, int homeScore, int awayScore) {
+            this.homeTeamId = homeTeamId;
+            this.awayTeamId = awayTeamId;
+            this.homeScore = homeScore;
+            this.awayScore = awayScore;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Result)) {
+                return false;
+            }
+            Result other = (Result) o;
+            return (
+                homeTeamId.equals(other.homeTeamId) &&
+                awayTeamId.equals(other.awayTeamId) &&
+                homeScore == other.homeScore &&
+                awayScore == other.awayScore
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(homeTeamId, awayTeamId, homeScore, awayScore);
+        }
+    }
+
+    /**
+     * The rating of one team.
+     */
+    public static final class Entry {
+
+        private final Long teamId;
+        private String teamName;
+        private double rating = INITIAL_RATING;
+        private int played;
+
+        private Entry(Long teamId) {
+            this.teamId = teamId;
+        }
+
+        public Long getTeamId() {
+            return teamId;
+        }
+
+        public String getTeamName() {
+            return teamName;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public int getPlayed() {
+            return played;
+        }
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator
+        .comparingDouble(Entry::getRating)
+        .reversed()
+        .thenComparing(Entry::getTeamId);
+
+    private final Map<Long, Entry> entriesByTeam = new HashMap<>();
+
+    private final NavigableSet<Entry> ranked = new TreeSet<>(RANKING);
+
+    private final Map<Long, Result> resultsByMatch = new HashMap<>();
+
+    /**
+     * Rates a match that has not been rated before, a team playing itself is not rated.
+     *
+     * @return false if the match had already been rated, in which case nothing changes.
+     */
+    public boolean apply(Long matchId, Result result, String homeTeamName, String awayTeamName) {
+        if (resultsByMatch.containsKey(matchId)) {
+            return false;
+        }
+        resultsByMatch.put(matchId, result);
+        if (result.homeTeamId.equals(result.awayTeamId)) {
+            return true;
+        }
+        Entry home = entriesByTeam.computeIfAbsent(result.homeTeamId, Entry::new);
+        Entry away = entriesByTeam.computeIfAbsent(result.awayTeamId, Entry::new);
+        ranked.remove(home);
+        ranked.remove(away);
+        double change = change(home.rating, away.rating, result.homeScore, result.awayScore);
+        home.rating += change;
+        away.rating -= change;
+        home.played++;
+        away.played++;
+        home.teamName = homeTeamName;
+        away.teamName = awayTeamName;
+        ranked.add(home);
+        ranked.add(away);
+        return true;
+    }
+
+    /**
+     * @return the result the match was rated with, or null if it has not been rated.
+     */
+    public Result getResult(Long matchId) {
+        return resultsByMatch.get(matchId);
+    }
+
+    /**
+     * @return the rating of the team, {@link #INITIAL_RATING} if it has not played a rated match.
+     */
+    public double getRating(Long teamId) {
+        Entry entry = entriesByTeam.get(teamId);
+        return entry == null ? INITIAL_RATING : entry.rating;
+    }
+
+    /**
+     * @return the ids of the teams that have played a rated match.
+     */
+    public Set<Long> teamIds() {
+        return entriesByTeam.keySet();
+    }
+
+    /**
+     * @return the number of teams that have played a rated match.
+     */
+    public int size() {
+        return ranked.size();
+    }
+
+    /**
+     * @return the number of matches rated.
+     */
+    public int matchCount() {
+        return resultsByMatch.size();
+    }
+
+    /**
+     * @return up to {@code limit} teams from position {@code offset}, the highest rating first.
+     */
+    public List<Entry> ranked(long offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, ranked.size()));
+        Iterator<Entry> iterator = ranked.iterator();
+        for (long i = 0; i < offset && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (entries.size() < limit && iterator.hasNext()) {
+            entries.add(iterator.next());
+        }
+        return entries;
+    }
+
+    /**
+     * @return the rating points the home team gains, and the away team loses, with the given result.
+     */
+    static double change(double homeRating, double awayRating, int homeScore, int awayScore) {
+        double expected = 1 / (1 + Math.pow(10, (awayRating - homeRating) / 400));
+        double actual = homeScore > awayScore ? 1 : homeScore == awayScore ? 0.5 : 0;
+        int margin = Math.abs(homeScore - awayScore);
+        double multiplier = margin <= 1 ? 1 : margin == 2 ? 1.5 : (11 + margin) / 8.0;
+        return K_FACTOR * multiplier * (actual - expected);
+    }
+}
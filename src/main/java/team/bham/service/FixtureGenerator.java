@@ -0,0 +1,136 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the pairings of a tournament, without dates or pitches.
+ * <p>
+ * A round-robin uses the circle method: one team stays put while the others rotate around it, so every
+ * pair meets exactly once in {@code n - 1} rounds ({@code n} rounded up to even, the odd one out has a
+ * bye). A knockout places the seeds in the usual bracket order so that the top seeds can only meet late,
+ * and gives byes to the top seeds when the number of teams is not a power of two.
+ */
+public final class FixtureGenerator {
+
+    /**
+     * A match of a round, its teams are null when they depend on results that are not known yet.
+     */
+    public static final class Fixture {
+
+        private final int round;
+        private final Long home;
+        private final Long away;
+
+        public Fixture(int round, Long home, Long away) {
+            this.round = round;
+            this.home = home;
+            this.away = away;
+        }
+
+        /**
+         * @return the round, starting at 1.
+         */
+        public int getRound() {
+            return round;
+        }
+
+        public Long getHome() {
+            return home;
+        }
+
+        public Long getAway() {
+            return away;
+        }
+    }
+
+    private FixtureGenerator() {}
+
+    /**
+     * @param teamIds the teams, at least 2.
+     * @return the fixtures ordered by round, every pair of teams meets once.
+     */
+    public static List<Fixture> roundRobin(List<Long> teamIds) {
+        int size = teamIds.size() + (teamIds.size() & 1);
+        Long[] circle = Arrays.copyOf(teamIds.toArray(new Long[0]), size);
+        int rotating = size - 1;
+        List<Fixture> fixtures = new ArrayList<>(size / 2 * rotating);
+        for (int round = 0; round < rotating; round++) {
+            for (int i = 0; i < size / 2; i++) {
+                Long first = i == 0 ? circle[0] : circle[1 + (i - 1 + round) % rotating];
+                Long second = circle[1 + (size - 2 - i + round) % rotating];
+                if (first == null || second == null) {
+                    continue;
+                }
+                // The fixed team would otherwise always play at home
+                boolean swap = i == 0 && (round & 1) == 1;
+                fixtures.add(new Fixture(round + 1, swap ? second : first, swap ? first : second));
+            }
+        }
+        return fixtures;
+    }
+
+    /**
+     * @param seededTeamIds the teams, best seed first, at least 2.
+     * @return the fixtures of every round ordered by round and bracket position, the better seed at home.
+     */
+    public static List<Fixture> knockout(List<Long> seededTeamIds) {
+        int size = Integer.highestOneBit(seededTeamIds.size() - 1) << 1;
+        int[] order = bracketOrder(size);
+        Long[] slots = new Long[size];
+        for (int position = 0; position < size; position++) {
+            int seed = order[position];
+            slots[position] = seed <= seededTeamIds.size() ? seededTeamIds.get(seed - 1) : null;
+        }
+
+        List<Fixture> fixtures = new ArrayList<>(size - 1);
+        int round = 1;
+        boolean firstRound = true;
+        while (slots.length > 1) {
+            Long[] winners = new Long[slots.length / 2];
+            for (int i = 0; i < winners.length; i++) {
+                Long home = slots[2 * i];
+                Long away = slots[2 * i + 1];
+                if (firstRound && (home == null || away == null)) {
+                    // A bye, the team goes straight through
+                    winners[i] = home != null ? home : away;
+                } else {
+                    fixtures.add(new Fixture(round, home, away));
+                }
+            }
+            slots = winners;
+            firstRound = false;
+            round++;
+        }
+        return fixtures;
+    }
+
+    /**
+     * @return the seeds, starting at 1, in bracket order, seed {@code s} meets seed {@code size + 1 - s} first.
+     */
+    static int[] bracketOrder(int size) {
+        int[] order = { 1 };
+        while (order.length < size) {
+            int length = order.length * 2;
+            int[] next = new int[length];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = length + 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /**
+     * @return the number of rounds of the fixtures.
+     */
+    public static int roundCount(List<Fixture> fixtures) {
+        int rounds = 0;
+        for (Fixture fixture : fixtures) {
+            rounds = Math.max(rounds, fixture.getRound());
+        }
+        return rounds;
+    }
+}
@@ -0,0 +1,77 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.Match;
+import team.bham.domain.Team;
+import team.bham.domain.Tournament;
+import team.bham.repository.TeamRepository;
+
+/**
+ * Service creating the {@link Match}es of a {@link Tournament} from the pairings of a {@link FixtureGenerator}.
+ * <p>
+ * The rounds are spread evenly from the start of the tournament to its end, all matches of a round share
+ * its date. Every match is inserted in one {@link MatchService#saveAll}, which Hibernate sends in JDBC batches.
+ */
+@Service
+@Transactional
+public class FixtureService {
+
+    /**
+     * The format of a tournament.
+     */
+    public enum Format {
+        ROUND_ROBIN,
+        KNOCKOUT,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(FixtureService.class);
+
+    private final MatchService matchService;
+
+    private final TeamRepository teamRepository;
+
+    public FixtureService(MatchService matchService, TeamRepository teamRepository) {
+        this.matchService = matchService;
+        this.teamRepository = teamRepository;
+    }
+
+    /**
+     * Creates the matches of a tournament.
+     *
+     * @param tournament the tournament, it must end after it starts.
+     * @param format the format.
+     * @param seededTeamIds the teams of the tournament, at least 2, best seed first for a knockout.
+     * @return the persisted matches ordered by date.
+     */
+    public List<Match> generate(Tournament tournament, Format format, List<Long> seededTeamIds) {
+        log.debug("Request to generate {} fixtures of Tournament : {}", format, tournament.getId());
+        List<FixtureGenerator.Fixture> fixtures = format == Format.ROUND_ROBIN
+            ? FixtureGenerator.roundRobin(seededTeamIds)
+            : FixtureGenerator.knockout(seededTeamIds);
+        Duration roundSpacing = Duration.between(tournament.getStartDate(), tournament.getEndDate()).dividedBy(
+            FixtureGenerator.roundCount(fixtures)
+        );
+
+        List<Match> matches = new ArrayList<>(fixtures.size());
+        for (FixtureGenerator.Fixture fixture : fixtures) {
+            matches.add(
+                new Match()
+                    .date(tournament.getStartDate().plus(roundSpacing.multipliedBy(fixture.getRound() - 1L)))
+                    .home(team(fixture.getHome()))
+                    .away(team(fixture.getAway()))
+                    .tournament(tournament)
+            );
+        }
+        return matchService.saveAll(matches);
+    }
+
+    private Team team(Long teamId) {
+        return teamId == null ? null : teamRepository.getReferenceById(teamId);
+    }
+}
@@ -0,0 +1,161 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel running short-lived timeouts, such as slot hold expiry, without a scan over all of them.
+ * <p>
+ * Time is cut into ticks and a timeout goes into bucket {@code deadlineTick % ticksPerWheel} with the
+ * number of full turns left before it is due. Scheduling and cancelling are {@code O(1)}, and each tick
+ * only looks at one bucket. Timeouts fire up to one tick late, never early.
+ * <p>
+ * {@link #schedule} and {@link Timeout#cancel} may be called from any thread, the buckets are only
+ * touched by the thread calling {@link #advance}.
+ */
+public class HashedTimingWheel {
+
+    private final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    /**
+     * A scheduled task.
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Prevents the task from running if it has not run yet.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private long tick;
+    private ScheduledExecutorService driver;
+
+    /**
+     * @param tickDuration the resolution of the wheel.
+     * @param ticksPerWheel the number of buckets, rounded up to a power of two.
+     */
+    public HashedTimingWheel(Duration tickDuration, int ticksPerWheel) {
+        this(tickDuration, ticksPerWheel, System::nanoTime);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    HashedTimingWheel(Duration tickDuration, int ticksPerWheel, LongSupplier nanoClock) {
+        int size = Integer.highestOneBit(Math.max(ticksPerWheel, 2) - 1) << 1;
+        this.tickNanos = tickDuration.toNanos();
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Runs {@code task} on the wheel thread once {@code delay} has passed.
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        Timeout timeout = new Timeout(task, nanoClock.getAsLong() - startNanos + delay.toNanos());
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Runs the timeouts of every tick that has passed since the last call.
+     */
+    public void advance() {
+        long now = nanoClock.getAsLong() - startNanos;
+        while ((tick + 1) * tickNanos <= now) {
+            transferPending();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /**
+     * Starts a daemon thread advancing the wheel every tick.
+     */
+    public synchronized void start(String threadName) {
+        if (driver != null) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        driver = executor;
+    }
+
+    public synchronized void stop() {
+        if (driver != null) {
+            driver.shutdownNow();
+            driver = null;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            // The first tick whose end lies at or after the deadline
+            long deadlineTick = Math.max((timeout.deadline + tickNanos - 1) / tickNanos - 1, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Timeout task failed", e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+}
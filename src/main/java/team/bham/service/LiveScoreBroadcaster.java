@@ -0,0 +1,330 @@
+package team.bham.service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import team.bham.domain.Match;
+import team.bham.service.dto.MatchScoreDTO;
+
+/**
+ * Service pushing the scores of {@link Match}es to the spectators of a match or of a tournament.
+ * <p>
+ * Every {@link MatchChangedEvent} is turned into one {@link MatchScoreDTO} and handed to the subscribers of
+ * its match and of its tournament, so pushing costs no database reads however many spectators there are.
+ * The publishing thread never writes to a client: each subscriber keeps the latest unsent score of every
+ * match, drained in order by a small pool of sender threads, so a burst of changes to the same matches, such
+ * as a whole schedule being saved, only costs one write per match. A subscriber with unsent scores of more
+ * than {@link #MAX_PENDING_MATCHES} matches has fallen too far behind and is dropped, which closes its
+ * connection, while the others carry on.
+ * A heartbeat is sent every {@link #HEARTBEAT_SECONDS} seconds so that clients which have gone away are
+ * noticed when writing to them fails.
+ */
+@Service
+public class LiveScoreBroadcaster {
+
+    static final int MAX_PENDING_MATCHES = 1024;
+
+    static final int MAX_SUBSCRIBERS = 10_000;
+
+    static final int SENDER_THREADS = 4;
+
+    static final long HEARTBEAT_SECONDS = 30;
+
+    /**
+     * Where the scores of a subscriber are written to, called from one sender thread at a time.
+     */
+    public interface Sink {
+        void send(MatchScoreDTO score) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        /**
+         * Ends the connection of a subscriber that has been dropped.
+         */
+        void close();
+    }
+
+    /**
+     * A subscription to the scores of a match or of a tournament.
+     */
+    public interface Subscription {
+        /**
+         * Stops sending to the subscriber, without closing its {@link Sink}. For clients that have gone away.
+         */
+        void cancel();
+    }
+
+    private final Logger log = LoggerFactory.getLogger(LiveScoreBroadcaster.class);
+
+    private final Map<Long, Set<Subscriber>> matchSubscribers = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Subscriber>> tournamentSubscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ExecutorService senders;
+
+    private final int maxSubscribers;
+
+    public LiveScoreBroadcaster() {
+        // A subscriber is queued at most once, so the queue never overflows below MAX_SUBSCRIBERS
+        this(
+            new ThreadPoolExecutor(
+                SENDER_THREADS,
+                SENDER_THREADS,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_SUBSCRIBERS),
+                new CustomizableThreadFactory("live-score-")
+            ),
+            MAX_SUBSCRIBERS
+        );
+    }
+
+    LiveScoreBroadcaster(ExecutorService senders, int maxSubscribers) {
+        this.senders = senders;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Subscribes to the scores of a match.
+     *
+     * @param matchId the id of the match.
+     * @param sink where to write the scores.
+     * @return the subscription, or empty if there are too many subscribers already.
+     */
+    public Optional<Subscription> subscribeToMatch(Long matchId, Sink sink) {
+        return subscribe(matchSubscribers, matchId, sink);
+    }
+
+    /**
+     * Subscribes to the scores of all matches of a tournament.
+     *
+     * @param tournamentId the id of the tournament.
+     * @param sink where to write the scores.
+     * @return the subscription, or empty if there are too many subscribers already.
+     */
+    public Optional<Subscription> subscribeToTournament(Long tournamentId, Sink sink) {
+        return subscribe(tournamentSubscribers, tournamentId, sink);
+    }
+
+    /**
+     * @return the number of subscribers of matches and tournaments.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @EventListener
+    public void onMatchChanged(MatchChangedEvent event) {
+        MatchScoreDTO score = new MatchScoreDTO();
+        score.setMatchId(event.getMatchId());
+        score.setTournamentId(event.getTournamentId());
+        score.setDate(event.getDate());
+        score.setHomeTeamId(event.getHomeTeamId());
+        score.setHomeTeamName(event.getHomeTeamName());
+        score.setAwayTeamId(event.getAwayTeamId());
+        score.setAwayTeamName(event.getAwayTeamName());
+        score.setHomeScore(event.getHomeScore());
+        score.setAwayScore(event.getAwayScore());
+        score.setDeleted(event.isDeleted());
+        offer(matchSubscribers.get(event.getMatchId()), score);
+        if (event.getTournamentId() != null) {
+            offer(tournamentSubscribers.get(event.getTournamentId()), score);
+        }
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        matchSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::heartbeat));
+        tournamentSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private Optional<Subscription> subscribe(Map<Long, Set<Subscriber>> topics, Long key, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            log.warn("Refused a subscriber to live scores, there are {} already", maxSubscribers);
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(topics, key, sink);
+        topics.compute(
+            key,
+            (id, subscribers) -> {
+                Set<Subscriber> result = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                result.add(subscriber);
+                return result;
+            }
+        );
+        return Optional.of(subscriber);
+    }
+
+    private static void offer(Set<Subscriber> subscribers, MatchScoreDTO score) {
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(score));
+        }
+    }
+
+    private final class Subscriber implements Subscription, Runnable {
+
+        private final Map<Long, Set<Subscriber>> topics;
+        private final Long key;
+        private final Sink sink;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // The latest unsent score of each match, in the order the matches first changed; guarded by this
+        private final Map<Long, MatchScoreDTO> pending = new LinkedHashMap<>();
+
+        // Guarded by this
+        private boolean heartbeatPending;
+
+        // Whether a sender is draining this subscriber; guarded by this
+        private boolean scheduled;
+
+        private Subscriber(Map<Long, Set<Subscriber>> topics, Long key, Sink sink) {
+            this.topics = topics;
+            this.key = key;
+            this.sink = sink;
+        }
+
+        private void offer(MatchScoreDTO score) {
+            if (closed.get()) {
+                return;
+            }
+            boolean behind = false;
+            boolean start = false;
+            synchronized (this) {
+                if (pending.size() >= MAX_PENDING_MATCHES && !pending.containsKey(score.getMatchId())) {
+                    behind = true;
+                } else {
+                    // A newer score of a match replaces the unsent one, in its place
+                    pending.put(score.getMatchId(), score);
+                    start = schedule();
+                }
+            }
+            if (behind) {
+                log.debug("Dropped a subscriber to live scores of {} that fell behind", key);
+                drop();
+            } else if (start) {
+                start();
+            }
+        }
+
+        private void heartbeat() {
+            if (closed.get()) {
+                return;
+            }
+            boolean start;
+            synchronized (this) {
+                heartbeatPending = true;
+                start = schedule();
+            }
+            if (start) {
+                start();
+            }
+        }
+
+        /**
+         * Marks this subscriber scheduled, the caller must hold its lock.
+         *
+         * @return true if it was not, so the caller is to hand it to a sender.
+         */
+        private boolean schedule() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        private void start() {
+            try {
+                senders.execute(this);
+            } catch (RejectedExecutionException e) {
+                drop();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed.get()) {
+                    MatchScoreDTO score = null;
+                    boolean beat = false;
+                    synchronized (this) {
+                        Iterator<MatchScoreDTO> scores = pending.values().iterator();
+                        if (scores.hasNext()) {
+                            score = scores.next();
+                            scores.remove();
+                        } else if (heartbeatPending) {
+                            heartbeatPending = false;
+                            beat = true;
+                        } else {
+                            // Cleared under the lock, so whatever is offered from now on schedules a sender again
+                            scheduled = false;
+                            return;
+                        }
+                    }
+                    if (beat) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(score);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Dropped a subscriber to live scores of {}: {}", key, e.toString());
+                drop();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (closed.compareAndSet(false, true)) {
+                remove();
+            }
+        }
+
+        private void drop() {
+            if (closed.compareAndSet(false, true)) {
+                remove();
+                sink.close();
+            }
+        }
+
+        private void remove() {
+            synchronized (this) {
+                pending.clear();
+            }
+            topics.computeIfPresent(
+                key,
+                (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                }
+            );
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
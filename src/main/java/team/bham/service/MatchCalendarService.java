@@ -0,0 +1,207 @@
+package team.bham.service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.Match;
+import team.bham.repository.MatchRepository;
+import team.bham.repository.TeamRepository;
+import team.bham.service.dto.MatchSummaryDTO;
+
+/**
+ * Service serving the {@link Match}es of a calendar month from memory.
+ * <p>
+ * A month is read with one projection query for its matches and one for the badges of their teams, and
+ * kept until a {@link MatchChangedEvent} touches it: a match that was in the month, or that now falls into
+ * it. Other months stay cached. At most {@link #MAX_CACHED_MONTHS} months are kept, the least recently
+ * viewed is dropped first. Names and images of teams, pitches and referees are those at the time the month
+ * was read.
+ * <p>
+ * Each read of a month gets a new version from a counter shared by all months, to be used as its ETag.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MatchCalendarService {
+
+    static final int MAX_CACHED_MONTHS = 64;
+
+    /**
+     * The matches of a month at one version.
+     */
+    public static final class CalendarMonth {
+
+        private final long version;
+        private final Instant from;
+        private final Instant to;
+        private final List<MatchSummaryDTO> matches;
+        private final Set<Long> matchIds;
+
+        private CalendarMonth(long version, Instant from, Instant to, List<MatchSummaryDTO> matches) {
+            this.version = version;
+            this.from = from;
+            this.to = to;
+            this.matches = Collections.unmodifiableList(matches);
+            this.matchIds = matches.stream().map(MatchSummaryDTO::getId).collect(Collectors.toSet());
+        }
+
+        /**
+         * @return a number that changes whenever the matches of the month do, and never goes back to an earlier value.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return the matches ordered by date.
+         */
+        public List<MatchSummaryDTO> getMatches() {
+            return matches;
+        }
+
+        private boolean isAffectedBy(MatchChangedEvent event) {
+            if (matchIds.contains(event.getMatchId())) {
+                return true;
+            }
+            Instant date = event.getDate();
+            return !event.isDeleted() && date != null && !date.isBefore(from) && date.isBefore(to);
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(MatchCalendarService.class);
+
+    private final MatchRepository matchRepository;
+
+    private final TeamRepository teamRepository;
+
+    private final Map<MonthKey, CalendarMonth> months = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MonthKey, CalendarMonth> eldest) {
+            return size() > MAX_CACHED_MONTHS;
+        }
+    };
+
+    // Starts from the clock so that versions, and the ETags made of them, are not handed out again after a restart
+    private long version = System.currentTimeMillis();
+
+    public MatchCalendarService(MatchRepository matchRepository, TeamRepository teamRepository) {
+        this.matchRepository = matchRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    /**
+     * Get the matches starting in a calendar month.
+     *
+     * @param month the month.
+     * @param zone the zone the month starts and ends in.
+     * @return the matches of the month.
+     */
+    public synchronized CalendarMonth findMonth(YearMonth month, ZoneId zone) {
+        MonthKey key = new MonthKey(month, zone);
+        CalendarMonth cached = months.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Instant from = month.atDay(1).atStartOfDay(zone).toInstant();
+        Instant to = month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant();
+        CalendarMonth loaded = new CalendarMonth(++version, from, to, load(from, to));
+        months.put(key, loaded);
+        log.debug("Cached {} matches of {} in {}", loaded.matches.size(), month, zone);
+        return loaded;
+    }
+
+    @EventListener
+    public synchronized void onMatchChanged(MatchChangedEvent event) {
+        Iterator<CalendarMonth> iterator = months.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isAffectedBy(event)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private List<MatchSummaryDTO> load(Instant from, Instant to) {
+        List<MatchRepository.MatchSummary> summaries = matchRepository.findSummariesByDateRange(from, to);
+        Set<Long> teamIds = new HashSet<>();
+        for (MatchRepository.MatchSummary summary : summaries) {
+            if (summary.getHomeTeamId() != null) {
+                teamIds.add(summary.getHomeTeamId());
+            }
+            if (summary.getAwayTeamId() != null) {
+                teamIds.add(summary.getAwayTeamId());
+            }
+        }
+        // One reference per team, shared by all of its matches of the month
+        Map<Long, MatchSummaryDTO.TeamReference> teams = new HashMap<>();
+        if (!teamIds.isEmpty()) {
+            for (TeamRepository.TeamBadge badge : teamRepository.findBadgesByIdIn(teamIds)) {
+                teams.put(
+                    badge.getId(),
+                    new MatchSummaryDTO.TeamReference(badge.getId(), badge.getName(), badge.getImage(), badge.getImageContentType())
+                );
+            }
+        }
+        return summaries
+            .stream()
+            .map(summary -> {
+                MatchSummaryDTO match = new MatchSummaryDTO();
+                match.setId(summary.getId());
+                match.setHomeScore(summary.getHomeScore());
+                match.setAwayScore(summary.getAwayScore());
+                match.setDate(summary.getDate());
+                match.setReferee(reference(summary.getRefereeId(), summary.getRefereeName()));
+                match.setPitch(reference(summary.getPitchId(), summary.getPitchName()));
+                match.setHome(summary.getHomeTeamId() == null ? null : teams.get(summary.getHomeTeamId()));
+                match.setAway(summary.getAwayTeamId() == null ? null : teams.get(summary.getAwayTeamId()));
+                match.setTournament(reference(summary.getTournamentId(), summary.getTournamentName()));
+                return match;
+            })
+            .collect(Collectors.toList());
+    }
+
+    private static MatchSummaryDTO.Reference reference(Long id, String name) {
+        return id == null ? null : new MatchSummaryDTO.Reference(id, name);
+    }
+
+    private static final class MonthKey {
+
+        private final YearMonth month;
+        private final ZoneId zone;
+
+        private MonthKey(YearMonth month, ZoneId zone) {
+            this.month = month;
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MonthKey)) {
+                return false;
+            }
+            MonthKey other = (MonthKey) o;
+            return month.equals(other.month) && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(month, zone);
+        }
+    }
+}
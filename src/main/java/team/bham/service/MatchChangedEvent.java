@@ -0,0 +1,113 @@
+package team.bham.service;
+
+import java.time.Instant;
+import team.bham.domain.Match;
+import team.bham.domain.Team;
+
+/**
+ * Published by {@link MatchService} after a committed change to a {@link Match}, with the state of the
+ * match as it was written, so views derived from matches can be updated without reading it back.
+ */
+public class MatchChangedEvent {
+
+    private final Long matchId;
+    private final Long tournamentId;
+    private final Instant date;
+    private final Long homeTeamId;
+    private final String homeTeamName;
+    private final Long awayTeamId;
+    private final String awayTeamName;
+    private final Integer homeScore;
+    private final Integer awayScore;
+    private final boolean deleted;
+
+    public MatchChangedEvent(Match match, boolean deleted) {
+        this(match, teamName(match.getHome()), teamName(match.getAway()), deleted);
+    }
+
+    /**
+     * @param homeTeamName the name of the home team as stored, the team of the match may only hold its id.
+     * @param awayTeamName the name of the away team as stored, the team of the match may only hold its id.
+     */
+    public MatchChangedEvent(Match match, String homeTeamName, String awayTeamName, boolean deleted) {
+        this.matchId = match.getId();
+        this.tournamentId = match.getTournament() == null ? null : match.getTournament().getId();
+        this.date = match.getDate();
+        this.homeTeamId = teamId(match.getHome());
+        this.homeTeamName = homeTeamName;
+        this.awayTeamId = teamId(match.getAway());
+        this.awayTeamName = awayTeamName;
+        this.homeScore = match.getHomeScore();
+        this.awayScore = match.getAwayScore();
+        this.deleted = deleted;
+    }
+
+    private static Long teamId(Team team) {
+        return team == null ? null : team.getId();
+    }
+
+    private static String teamName(Team team) {
+        return team == null ? null : team.getName();
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * @return the tournament of the match, or null if it is not part of one.
+     */
+    public Long getTournamentId() {
+        return tournamentId;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public Long getHomeTeamId() {
+        return homeTeamId;
+    }
+
+    public String getHomeTeamName() {
+        return homeTeamName;
+    }
+
+    public Long getAwayTeamId() {
+        return awayTeamId;
+    }
+
+    public String getAwayTeamName() {
+        return awayTeamName;
+    }
+
+    public Integer getHomeScore() {
+        return homeScore;
+    }
+
+    public Integer getAwayScore() {
+        return awayScore;
+    }
+
+    /**
+     * @return true if the match has been deleted, the other fields then hold its last state.
+     */
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MatchChangedEvent{" +
+            "matchId=" + matchId +
+            ", tournamentId=" + tournamentId +
+            ", date='" + date + "'" +
+            ", homeTeamId=" + homeTeamId +
+            ", awayTeamId=" + awayTeamId +
+            ", homeScore=" + homeScore +
+            ", awayScore=" + awayScore +
+            ", deleted=" + deleted +
+            "}";
+    }
+}
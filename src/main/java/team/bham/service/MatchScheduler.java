@@ -0,0 +1,283 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Places matches into a grid of equally long time slots and pitches, without any persistence.
+ * <p>
+ * A match needs a slot in which both its teams are free and not already playing, and a pitch that is free
+ * in that slot. Pitches are interchangeable within a slot, so the search only picks slots and counts the
+ * free pitches of each, the pitches are handed out once the slots are known. A match whose teams are not
+ * known yet, such as a knockout final, must also start after every match of the earlier rounds.
+ * <p>
+ * Matches are placed round by round, the most constrained first, each into its earliest possible slot. A
+ * match that fits nowhere sends the search back to move the previous one to its next slot. The search stops
+ * at a deadline, the deepest assignment reached is then completed by placing whatever still fits.
+ */
+public final class MatchScheduler {
+
+    public static final int UNSCHEDULED = -1;
+
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * The outcome of a search, indexed like the matches in the order they were added.
+     */
+    public static final class Schedule {
+
+        private final int[] slots;
+        private final int[] pitches;
+        private final boolean complete;
+
+        private Schedule(int[] slots, int[] pitches, boolean complete) {
+            this.slots = slots;
+            this.pitches = pitches;
+            this.complete = complete;
+        }
+
+        /**
+         * @return the slot of the match, or {@link #UNSCHEDULED}.
+         */
+        public int getSlot(int match) {
+            return slots[match];
+        }
+
+        /**
+         * @return the pitch of the match, or {@link #UNSCHEDULED}.
+         */
+        public int getPitch(int match) {
+            return pitches[match];
+        }
+
+        /**
+         * @return true if every match has a slot.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private final int slotCount;
+    private final boolean[][] pitchFree;
+    private final boolean[][] teamFree;
+    private final int[] capacity;
+    private final List<int[]> matches = new ArrayList<>();
+
+    /**
+     * @param slotCount the number of slots, in chronological order.
+     * @param pitchFree for each pitch, whether it is free in each slot.
+     * @param teamFree for each team, whether it can play in each slot.
+     */
+    public MatchScheduler(int slotCount, boolean[][] pitchFree, boolean[][] teamFree) {
+        this.slotCount = slotCount;
+        this.pitchFree = pitchFree;
+        this.teamFree = teamFree;
+        this.capacity = new int[slotCount];
+        for (boolean[] free : pitchFree) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (free[slot]) {
+                    capacity[slot]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a match to place.
+     *
+     * @param home the index of the home team, or {@link #UNSCHEDULED} if it is not known yet.
+     * @param away the index of the away team, or {@link #UNSCHEDULED} if it is not known yet.
+     * @param round the round of the match, from 0, matches of a later round are placed after those of an earlier one.
+     * @return the index of the match.
+     */
+    public int addMatch(int home, int away, int round) {
+        matches.add(new int[] { home, away, round });
+        return matches.size() - 1;
+    }
+
+    /**
+     * Searches until every match is placed, the search space is exhausted or {@code deadlineNanos}, as
+     * given by {@link System#nanoTime()}, has passed.
+     */
+    public Schedule solve(long deadlineNanos) {
+        int n = matches.size();
+        int[][] candidates = new int[n][];
+        for (int m = 0; m < n; m++) {
+            candidates[m] = candidateSlots(matches.get(m));
+        }
+        Integer[] byRound = new Integer[n];
+        for (int m = 0; m < n; m++) {
+            byRound[m] = m;
+        }
+        Arrays.sort(
+            byRound,
+            Comparator.<Integer>comparingInt(m -> matches.get(m)[2]).thenComparingInt(m -> candidates[m].length).thenComparingInt(m -> m)
+        );
+        int[] order = new int[n];
+        int[] roundStart = new int[n];
+        for (int d = 0; d < n; d++) {
+            order[d] = byRound[d];
+            boolean sameRound = d > 0 && matches.get(order[d])[2] == matches.get(order[d - 1])[2];
+            roundStart[d] = sameRound ? roundStart[d - 1] : d;
+        }
+
+        int[] slots = new int[n];
+        Arrays.fill(slots, UNSCHEDULED);
+        int[] used = new int[slotCount];
+        boolean[][] teamBusy = new boolean[teamFree.length][slotCount];
+        // latestBefore[d] is the latest slot taken by the matches placed before depth d
+        int[] latestBefore = new int[n + 1];
+        latestBefore[0] = UNSCHEDULED;
+        int[] cursor = new int[n];
+        int[] best = slots.clone();
+        int bestDepth = 0;
+
+        int depth = 0;
+        long steps = 0;
+        while (depth < n && depth >= 0) {
+            if (++steps % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+                break;
+            }
+            int m = order[depth];
+            int[] match = matches.get(m);
+            int earliest = dependsOnEarlierRounds(match) ? latestBefore[roundStart[depth]] + 1 : 0;
+            int found = UNSCHEDULED;
+            for (int k = cursor[depth]; k < candidates[m].length; k++) {
+                int slot = candidates[m][k];
+                if (slot >= earliest && fits(match, slot, used, teamBusy)) {
+                    found = k;
+                    break;
+                }
+            }
+            if (found != UNSCHEDULED) {
+                int slot = candidates[m][found];
+                place(match, slot, used, teamBusy, true);
+                slots[m] = slot;
+                cursor[depth] = found + 1;
+                latestBefore[depth + 1] = Math.max(latestBefore[depth], slot);
+                depth++;
+                if (depth > bestDepth) {
+                    bestDepth = depth;
+                    best = slots.clone();
+                }
+            } else {
+                cursor[depth] = 0;
+                depth--;
+                if (depth >= 0) {
+                    int previous = order[depth];
+                    place(matches.get(previous), slots[previous], used, teamBusy, false);
+                    slots[previous] = UNSCHEDULED;
+                }
+            }
+        }
+
+        boolean complete = bestDepth == n;
+        if (!complete) {
+            fillRemaining(best, order, candidates);
+        }
+        return new Schedule(best, assignPitches(best), complete);
+    }
+
+    /**
+     * Places the matches left over by an incomplete search wherever they still fit, skipping those that do not.
+     */
+    private void fillRemaining(int[] slots, int[] order, int[][] candidates) {
+        int[] used = new int[slotCount];
+        boolean[][] teamBusy = new boolean[teamFree.length][slotCount];
+        int[] latestOfRound = new int[maxRound() + 1];
+        Arrays.fill(latestOfRound, UNSCHEDULED);
+        for (int m = 0; m < slots.length; m++) {
+            if (slots[m] != UNSCHEDULED) {
+                place(matches.get(m), slots[m], used, teamBusy, true);
+                int round = matches.get(m)[2];
+                latestOfRound[round] = Math.max(latestOfRound[round], slots[m]);
+            }
+        }
+        for (int m : order) {
+            int[] match = matches.get(m);
+            if (slots[m] != UNSCHEDULED) {
+                continue;
+            }
+            int earliest = 0;
+            if (dependsOnEarlierRounds(match)) {
+                for (int round = 0; round < match[2]; round++) {
+                    earliest = Math.max(earliest, latestOfRound[round] + 1);
+                }
+            }
+            for (int slot : candidates[m]) {
+                if (slot >= earliest && fits(match, slot, used, teamBusy)) {
+                    place(match, slot, used, teamBusy, true);
+                    slots[m] = slot;
+                    latestOfRound[match[2]] = Math.max(latestOfRound[match[2]], slot);
+                    break;
+                }
+            }
+        }
+    }
+
+    private int[] assignPitches(int[] slots) {
+        int[] pitches = new int[slots.length];
+        int[] nextPitch = new int[slotCount];
+        for (int m = 0; m < slots.length; m++) {
+            int slot = slots[m];
+            if (slot == UNSCHEDULED) {
+                pitches[m] = UNSCHEDULED;
+                continue;
+            }
+            int pitch = nextPitch[slot];
+            while (!pitchFree[pitch][slot]) {
+                pitch++;
+            }
+            pitches[m] = pitch;
+            nextPitch[slot] = pitch + 1;
+        }
+        return pitches;
+    }
+
+    private int[] candidateSlots(int[] match) {
+        int[] slots = new int[slotCount];
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (capacity[slot] > 0 && teamCanPlay(match[0], slot) && teamCanPlay(match[1], slot)) {
+                slots[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    private boolean teamCanPlay(int team, int slot) {
+        return team == UNSCHEDULED || teamFree[team][slot];
+    }
+
+    private boolean fits(int[] match, int slot, int[] used, boolean[][] teamBusy) {
+        return (
+            used[slot] < capacity[slot] &&
+            (match[0] == UNSCHEDULED || !teamBusy[match[0]][slot]) &&
+            (match[1] == UNSCHEDULED || !teamBusy[match[1]][slot])
+        );
+    }
+
+    private static void place(int[] match, int slot, int[] used, boolean[][] teamBusy, boolean placed) {
+        used[slot] += placed ? 1 : -1;
+        for (int side = 0; side < 2; side++) {
+            if (match[side] != UNSCHEDULED) {
+                teamBusy[match[side]][slot] = placed;
+            }
+        }
+    }
+
+    private static boolean dependsOnEarlierRounds(int[] match) {
+        return match[0] == UNSCHEDULED || match[1] == UNSCHEDULED;
+    }
+
+    private int maxRound() {
+        int max = 0;
+        for (int[] match : matches) {
+            max = Math.max(max, match[2]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,192 @@
+package team.bham.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.domain.Match;
+import team.bham.domain.Team;
+import team.bham.repository.MatchRepository;
+import team.bham.repository.TeamRepository;
+import team.bham.repository.UserProfileRepository;
+import team.bham.service.dto.MatchDetailDTO;
+import team.bham.service.dto.MatchSummaryDTO;
+
+/**
+ * Service for {@link Match}es, every committed write is published as a {@link MatchChangedEvent}.
+ */
+@Service
+@Transactional
+public class MatchService {
+
+    private final Logger log = LoggerFactory.getLogger(MatchService.class);
+
+    private final MatchRepository matchRepository;
+
+    private final UserProfileRepository userProfileRepository;
+
+    private final TeamRepository teamRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public MatchService(
+        MatchRepository matchRepository,
+        UserProfileRepository userProfileRepository,
+        TeamRepository teamRepository,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.matchRepository = matchRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.teamRepository = teamRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Get a match with both of its teams and their members, in one query for the match and one for the members.
+     *
+     * @param id the id of the match.
+     * @return the match, or empty if there is no such match.
+     */
+    @Transactional(readOnly = true)
+    public Optional<MatchDetailDTO> findDetail(Long id) {
+        log.debug("Request to get the detail of Match : {}", id);
+        return matchRepository
+            .findDetailById(id)
+            .map(detail -> {
+                MatchDetailDTO match = new MatchDetailDTO();
+                match.setId(detail.getId());
+                match.setHomeScore(detail.getHomeScore());
+                match.setAwayScore(detail.getAwayScore());
+                match.setDate(detail.getDate());
+                match.setReferee(reference(detail.getRefereeId(), detail.getRefereeName()));
+                match.setPitch(reference(detail.getPitchId(), detail.getPitchName()));
+                match.setTournament(reference(detail.getTournamentId(), detail.getTournamentName()));
+                Map<Long, MatchDetailDTO.Team> teams = new HashMap<>();
+                if (detail.getHomeTeamId() != null) {
+                    match.setHome(
+                        new MatchDetailDTO.Team(
+                            detail.getHomeTeamId(),
+                            detail.getHomeTeamName(),
+                            detail.getHomeTeamImage(),
+                            detail.getHomeTeamImageContentType()
+                        )
+                    );
+                    teams.put(detail.getHomeTeamId(), match.getHome());
+                }
+                if (detail.getAwayTeamId() != null) {
+                    match.setAway(
+                        new MatchDetailDTO.Team(
+                            detail.getAwayTeamId(),
+                            detail.getAwayTeamName(),
+                            detail.getAwayTeamImage(),
+                            detail.getAwayTeamImageContentType()
+                        )
+                    );
+                    teams.putIfAbsent(detail.getAwayTeamId(), match.getAway());
+                }
+                if (!teams.isEmpty()) {
+                    for (UserProfileRepository.TeamMemberBadge member : userProfileRepository.findMemberBadgesByTeamIdIn(teams.keySet())) {
+                        teams
+                            .get(member.getTeamId())
+                            .getMembers()
+                            .add(
+                                new MatchDetailDTO.Member(
+                                    member.getId(),
+                                    member.getName(),
+                                    member.getProfilePic(),
+                                    member.getProfilePicContentType()
+                                )
+                            );
+                    }
+                    if (match.getAway() != null && teams.get(match.getAway().getId()) != match.getAway()) {
+                        // A team playing itself, its members are shown on both sides
+                        match.getAway().setMembers(match.getHome().getMembers());
+                    }
+                }
+                return match;
+            });
+    }
+
+    /**
+     * Creates or updates a match.
+     *
+     * @param match the match to save.
+     * @return the saved match.
+     */
+    public Match save(Match match) {
+        log.debug("Request to save Match : {}", match);
+        Match result = matchRepository.save(match);
+        changed(event(result, false));
+        return result;
+    }
+
+    /**
+     * Creates or updates matches together, so Hibernate sends the inserts in JDBC batches.
+     *
+     * @param matches the matches to save.
+     * @return the saved matches.
+     */
+    public List<Match> saveAll(List<Match> matches) {
+        log.debug("Request to save {} Matches", matches.size());
+        List<Match> result = matchRepository.saveAll(matches);
+        result.forEach(match -> changed(event(match, false)));
+        return result;
+    }
+
+    /**
+     * Deletes a match if it exists.
+     *
+     * @param id the id of the match.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Match : {}", id);
+        matchRepository
+            .findById(id)
+            .ifPresent(match -> {
+                MatchChangedEvent event = event(match, true);
+                matchRepository.delete(match);
+                changed(event);
+            });
+    }
+
+    private MatchChangedEvent event(Match match, boolean deleted) {
+        return new MatchChangedEvent(match, teamName(match.getHome()), teamName(match.getAway()), deleted);
+    }
+
+    /**
+     * Reads the stored name of a team, as a match sent by a client may only hold the ids of its teams. Teams
+     * already loaded in the transaction are not read again.
+     */
+    private String teamName(Team team) {
+        if (team == null || team.getId() == null) {
+            return null;
+        }
+        return teamRepository.findById(team.getId()).map(Team::getName).orElse(null);
+    }
+
+    private void changed(MatchChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        applicationEventPublisher.publishEvent(event);
+                    }
+                }
+            );
+        } else {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+
+    private static MatchSummaryDTO.Reference reference(Long id, String name) {
+        return id == null ? null : new MatchSummaryDTO.Reference(id, name);
+    }
+}
@@ -0,0 +1,281 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.config.Constants;
+import team.bham.domain.AvailableDate;
+import team.bham.domain.enumeration.PlayType;
+import team.bham.repository.AvailableDateRepository;
+import team.bham.repository.TeamRepository;
+import team.bham.repository.UserProfileRepository;
+import team.bham.service.dto.OpponentDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Ranks the possible opponents of a team by how much availability the two teams share.
+ * <p>
+ * Every team is summarized as a {@link TeamAvailabilityBitmap} of the next {@link #HORIZON_DAYS} days in
+ * which a slot is set when at least half of its members are free for all of it, see
+ * {@link TeamAvailabilityService}. Ranking is then one AND and bit count per word and team. Summaries are
+ * kept until an {@link AvailableDateChangedEvent} touches one of the members, the members of the team
+ * change or the day rolls over. The teams and their members are read once and kept until a
+ * {@link TeamChangedEvent} or a {@link UserProfileChangedEvent} of the profile itself. Everything is read
+ * outside of the lock and only swapped in under it, unless an event came in while reading.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OpponentMatchmakingService {
+
+    public static final Duration SLOT_LENGTH = Duration.ofMinutes(30);
+
+    public static final int HORIZON_DAYS = 28;
+
+    private static final int SLOTS_PER_DAY = (int) (Duration.ofDays(1).toMillis() / SLOT_LENGTH.toMillis());
+
+    private static final int MEMBER_BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(OpponentMatchmakingService.class);
+
+    private final TeamRepository teamRepository;
+
+    private final UserProfileRepository userProfileRepository;
+
+    private final AvailableDateRepository availableDateRepository;
+
+    private final ZoneId zone = ZoneId.of(Constants.DEFAULT_TIME_ZONE);
+
+    // Guards all the fields below
+    private final Map<Long, Summary> summaries = new HashMap<>();
+
+    // Bumped for a team when one of its members changes their availability
+    private final Map<Long, Long> summaryVersions = new HashMap<>();
+
+    // Null until read, and again after a team or profile change
+    private Teams teams;
+
+    private long teamsVersion;
+
+    private Map<Long, Long> teamByMember = Collections.emptyMap();
+
+    private LocalDate origin;
+
+    public OpponentMatchmakingService(
+        TeamRepository teamRepository,
+        UserProfileRepository userProfileRepository,
+        AvailableDateRepository availableDateRepository
+    ) {
+        this.teamRepository = teamRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.availableDateRepository = availableDateRepository;
+    }
+
+    /**
+     * Get the teams sharing the most availability with a team over the next days.
+     *
+     * @param teamId the id of the team looking for an opponent.
+     * @param days the number of days to look ahead, from 1 to {@link #HORIZON_DAYS}, today included.
+     * @param playType only rank teams of this play type, if not null.
+     * @param location only rank teams whose owner is in this location, if not null.
+     * @param limit the maximum number of opponents.
+     * @return the opponents sharing any availability, the most shared first.
+     */
+    public List<OpponentDTO> rankOpponents(Long teamId, int days, PlayType playType, String location, int limit) {
+        log.debug("Request to rank opponents of Team : {} over {} days", teamId, days);
+        Teams read = teams();
+        LocalDate today = LocalDate.now(zone);
+        Map<Long, TeamAvailabilityBitmap> bitmaps = new HashMap<>();
+        Map<Long, Long> stale = new HashMap<>();
+        synchronized (summaries) {
+            if (!today.equals(origin)) {
+                origin = today;
+                summaries.clear();
+            }
+            summaries.keySet().retainAll(read.membersByTeam.keySet());
+            summaryVersions.keySet().retainAll(read.membersByTeam.keySet());
+            read.membersByTeam.forEach((id, memberIds) -> {
+                Summary summary = summaries.get(id);
+                if (summary != null && summary.memberIds.equals(memberIds)) {
+                    bitmaps.put(id, summary.bitmap);
+                } else {
+                    stale.put(id, summaryVersions.getOrDefault(id, 0L));
+                }
+            });
+        }
+        if (!stale.isEmpty()) {
+            Map<Long, Summary> summarized = summarize(stale.keySet(), read.membersByTeam, today);
+            summarized.forEach((id, summary) -> bitmaps.put(id, summary.bitmap));
+            synchronized (summaries) {
+                // Teams whose availability or members changed while summarizing are summarized again next time
+                if (read == teams && today.equals(origin)) {
+                    summarized.forEach((id, summary) -> {
+                        if (stale.get(id).equals(summaryVersions.getOrDefault(id, 0L))) {
+                            summaries.put(id, summary);
+                        }
+                    });
+                }
+            }
+        }
+        TeamAvailabilityBitmap mine = bitmaps.get(teamId);
+        if (mine == null) {
+            return Collections.emptyList();
+        }
+
+        Instant start = today.atStartOfDay(zone).toInstant();
+        int fromSlot = (int) Math.max(Duration.between(start, Instant.now()).toMillis() / SLOT_LENGTH.toMillis(), 0);
+        int toSlot = days * SLOTS_PER_DAY;
+        List<OpponentDTO> opponents = new ArrayList<>();
+        for (TeamRepository.TeamListing listing : read.listings) {
+            TeamAvailabilityBitmap theirs = bitmaps.get(listing.getId());
+            if (
+                theirs == null ||
+                listing.getId().equals(teamId) ||
+                (playType != null && playType != listing.getPlayType()) ||
+                (location != null && !location.equalsIgnoreCase(listing.getLocation()))
+            ) {
+                continue;
+            }
+            int shared = mine.sharedSlots(theirs, fromSlot, toSlot);
+            if (shared > 0) {
+                long sharedMinutes = shared * SLOT_LENGTH.toMinutes();
+                opponents.add(new OpponentDTO(listing.getId(), listing.getName(), listing.getPlayType(), listing.getLocation(), sharedMinutes));
+            }
+        }
+        opponents.sort(Comparator.comparingLong(OpponentDTO::getSharedMinutes).reversed().thenComparing(OpponentDTO::getTeamId));
+        return opponents.size() > limit ? new ArrayList<>(opponents.subList(0, limit)) : opponents;
+    }
+
+    @EventListener
+    public void onAvailableDateChanged(AvailableDateChangedEvent event) {
+        synchronized (summaries) {
+            Long teamId = teamByMember.get(event.getUserProfileId());
+            if (teamId != null) {
+                summaries.remove(teamId);
+                summaryVersions.merge(teamId, 1L, Long::sum);
+            }
+        }
+    }
+
+    @EventListener
+    public void onTeamChanged(TeamChangedEvent event) {
+        forgetTeams();
+    }
+
+    @EventListener
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        // The team and location of a profile are all that is read of it
+        if (!event.isRatingsOnly()) {
+            forgetTeams();
+        }
+    }
+
+    private void forgetTeams() {
+        synchronized (summaries) {
+            teams = null;
+            teamsVersion++;
+        }
+    }
+
+    /**
+     * Returns the teams and their members, reading them unless they are kept.
+     */
+    private Teams teams() {
+        long version;
+        synchronized (summaries) {
+            if (teams != null) {
+                return teams;
+            }
+            version = teamsVersion;
+        }
+
+        List<TeamRepository.TeamListing> listings = teamRepository.findAllListings();
+        Map<Long, List<Long>> membersByTeam = new HashMap<>();
+        Map<Long, Long> members = new HashMap<>();
+        for (UserProfileRepository.TeamMember member : userProfileRepository.findAllTeamMembers()) {
+            membersByTeam.computeIfAbsent(member.getTeamId(), id -> new ArrayList<>()).add(member.getUserProfileId());
+            members.put(member.getUserProfileId(), member.getTeamId());
+        }
+        Teams read = new Teams(listings, membersByTeam);
+        synchronized (summaries) {
+            // A team or profile changed while reading, so this is only good for the request that read it
+            if (teamsVersion == version) {
+                teams = read;
+                teamByMember = members;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Summarizes the availability of some teams on the {@link #HORIZON_DAYS} days from a day, reading the
+     * available dates of all their members in a few batched queries.
+     */
+    private Map<Long, Summary> summarize(Collection<Long> teamIds, Map<Long, List<Long>> membersByTeam, LocalDate day) {
+        log.debug("Summarizing the availability of {} teams", teamIds.size());
+        Instant from = day.atStartOfDay(zone).toInstant();
+        int slotCount = HORIZON_DAYS * SLOTS_PER_DAY;
+        Instant to = from.plus(SLOT_LENGTH.multipliedBy(slotCount));
+        List<Long> memberIds = teamIds.stream().flatMap(teamId -> membersByTeam.get(teamId).stream()).collect(Collectors.toList());
+        Map<Long, List<AvailableDate>> datesByMember = new HashMap<>();
+        for (int i = 0; i < memberIds.size(); i += MEMBER_BATCH_SIZE) {
+            List<Long> batch = memberIds.subList(i, Math.min(i + MEMBER_BATCH_SIZE, memberIds.size()));
+            for (AvailableDate date : availableDateRepository.findOverlappingByUserProfileIds(batch, from, to)) {
+                datesByMember.computeIfAbsent(date.getUserProfile().getId(), id -> new ArrayList<>()).add(date);
+            }
+        }
+        Map<Long, Summary> summarized = new HashMap<>();
+        for (Long teamId : teamIds) {
+            List<Long> members = membersByTeam.get(teamId);
+            List<TimeSlotDTO> freeWindows = new ArrayList<>();
+            for (Long memberId : members) {
+                List<AvailableDate> dates = datesByMember.getOrDefault(memberId, Collections.emptyList());
+                freeWindows.addAll(TeamAvailabilityService.memberFreeWindows(dates, from, to));
+            }
+            int quorum = (members.size() + 1) / 2;
+            TeamAvailabilityBitmap bitmap = TeamAvailabilityBitmap.of(
+                TeamAvailabilityService.sweep(freeWindows, quorum),
+                from,
+                SLOT_LENGTH,
+                slotCount
+            );
+            summarized.put(teamId, new Summary(members, bitmap));
+        }
+        return summarized;
+    }
+
+    private static final class Teams {
+
+        private final List<TeamRepository.TeamListing> listings;
+        private final Map<Long, List<Long>> membersByTeam;
+
+        private Teams(List<TeamRepository.TeamListing> listings, Map<Long, List<Long>> membersByTeam) {
+            this.listings = listings;
+            this.membersByTeam = membersByTeam;
+        }
+    }
+
+    private static final class Summary {
+
+        private final List<Long> memberIds;
+        private final TeamAvailabilityBitmap bitmap;
+
+        private Summary(List<Long> memberIds, TeamAvailabilityBitmap bitmap) {
+            this.memberIds = memberIds;
+            this.bitmap = bitmap;
+        }
+    }
+}
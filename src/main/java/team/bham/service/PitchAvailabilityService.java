@@ -0,0 +1,266 @@
+package team.bham.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.domain.PitchBooking;
+import team.bham.repository.PitchBookingRepository;
+import team.bham.repository.PitchRepository;
+
+/**
+ * Answers pitch availability questions from an in-memory {@link BookingIntervalTree} per pitch.
+ * <p>
+ * The tree of a pitch is loaded from the database the first time the pitch is queried, afterwards
+ * it is kept current through {@link #bookingSaved} and {@link #bookingDeleted}, which are applied
+ * once the surrounding transaction has committed. Only trees of existing pitches are kept, and a
+ * tree is not kept if a booking changed while it was being loaded. Every applied change is announced with a
+ * {@link PitchBookingChangedEvent} for the old and the new interval of the booking.
+ * <p>
+ * Slot holds taken during checkout are kept in a second tree per pitch, they count as booked for
+ * every query until they are released.
+ */
+@Service
+public class PitchAvailabilityService {
+
+    private static final BookingIntervalTree EMPTY = new BookingIntervalTree();
+
+    private final Logger log = LoggerFactory.getLogger(PitchAvailabilityService.class);
+
+    private final PitchBookingRepository pitchBookingRepository;
+
+    private final PitchRepository pitchRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Map<Long, BookingIntervalTree> treesByPitch = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> pitchByBooking = new ConcurrentHashMap<>();
+
+    private final Map<Long, BookingIntervalTree> holdsByPitch = new ConcurrentHashMap<>();
+
+    private final AtomicLong bookingChanges = new AtomicLong();
+
+    public PitchAvailabilityService(
+        PitchBookingRepository pitchBookingRepository,
+        PitchRepository pitchRepository,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.pitchBookingRepository = pitchBookingRepository;
+        this.pitchRepository = pitchRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * @return true if no booking of the pitch overlaps {@code [startTime, endTime)}.
+     */
+    public boolean isAvailable(Long pitchId, Instant startTime, Instant endTime) {
+        return isAvailable(pitchId, startTime, endTime, null);
+    }
+
+    /**
+     * @param ignoredBookingId a booking that does not count as a clash, used when moving an existing booking.
+     * @return true if no booking of the pitch other than {@code ignoredBookingId} overlaps {@code [startTime, endTime)}.
+     */
+    public boolean isAvailable(Long pitchId, Instant startTime, Instant endTime, Long ignoredBookingId) {
+        return !overlaps(tree(pitchId), startTime, endTime, ignoredBookingId) && !overlaps(holds(pitchId), startTime, endTime, null);
+    }
+
+    /**
+     * @param holdId the hold being turned into a booking, it does not count as a clash.
+     * @return true if no booking and no hold of the pitch other than {@code holdId} overlaps {@code [startTime, endTime)}.
+     */
+    public boolean isAvailableExceptHold(Long pitchId, Instant startTime, Instant endTime, long holdId) {
+        return !overlaps(tree(pitchId), startTime, endTime, null) && !overlaps(holds(pitchId), startTime, endTime, holdId);
+    }
+
+    /**
+     * @return the bookings and holds of the pitch overlapping {@code [from, to)}, ordered by start time.
+     */
+    public List<BookingIntervalTree.Interval> findBookedIntervals(Long pitchId, Instant from, Instant to) {
+        List<BookingIntervalTree.Interval> booked;
+        BookingIntervalTree tree = tree(pitchId);
+        synchronized (tree) {
+            booked = tree.findOverlapping(from, to);
+        }
+        List<BookingIntervalTree.Interval> held;
+        BookingIntervalTree holds = holds(pitchId);
+        synchronized (holds) {
+            if (holds.size() == 0) {
+                return booked;
+            }
+            held = holds.findOverlapping(from, to);
+        }
+        List<BookingIntervalTree.Interval> result = new ArrayList<>(booked.size() + held.size());
+        int i = 0;
+        int j = 0;
+        while (i < booked.size() || j < held.size()) {
+            if (j == held.size() || (i < booked.size() && booked.get(i).startMillis() <= held.get(j).startMillis())) {
+                result.add(booked.get(i++));
+            } else {
+                result.add(held.get(j++));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads the booking index of the pitch if it is not loaded yet.
+     *
+     * @return true if the index of the pitch is kept in memory, false for unknown pitches.
+     */
+    public boolean isIndexed(Long pitchId) {
+        tree(pitchId);
+        return treesByPitch.containsKey(pitchId);
+    }
+
+    /**
+     * Marks {@code [startTime, endTime)} of the pitch as held, callers must hold the {@link PitchLocks} lock of the pitch.
+     *
+     * @return false if a booking or another hold overlaps the interval, in which case nothing is held.
+     */
+    public boolean addHold(long holdId, Long pitchId, Instant startTime, Instant endTime) {
+        if (!isAvailable(pitchId, startTime, endTime)) {
+            return false;
+        }
+        BookingIntervalTree holds = holdsByPitch.computeIfAbsent(pitchId, id -> new BookingIntervalTree());
+        synchronized (holds) {
+            holds.put(holdId, startTime, endTime);
+        }
+        applicationEventPublisher.publishEvent(new PitchBookingChangedEvent(pitchId, startTime, endTime));
+        return true;
+    }
+
+    public void removeHold(long holdId, Long pitchId) {
+        BookingIntervalTree holds = holdsByPitch.get(pitchId);
+        if (holds == null) {
+            return;
+        }
+        BookingIntervalTree.Interval previous;
+        synchronized (holds) {
+            previous = holds.get(holdId);
+            holds.remove(holdId);
+        }
+        if (previous != null) {
+            applicationEventPublisher.publishEvent(new PitchBookingChangedEvent(pitchId, previous.getStart(), previous.getEnd()));
+        }
+    }
+
+    /**
+     * Records a created or updated booking once the current transaction commits.
+     */
+    public void bookingSaved(PitchBooking pitchBooking) {
+        Long bookingId = pitchBooking.getId();
+        Long pitchId = pitchBooking.getPitch() != null ? pitchBooking.getPitch().getId() : null;
+        Instant startTime = pitchBooking.getStartTime();
+        Instant endTime = pitchBooking.getEndTime();
+        afterCommit(() -> {
+            removeFromIndex(bookingId);
+            if (pitchId != null && startTime != null && endTime != null) {
+                pitchByBooking.put(bookingId, pitchId);
+                treesByPitch.computeIfPresent(
+                    pitchId,
+                    (id, tree) -> {
+                        synchronized (tree) {
+                            tree.put(bookingId, startTime, endTime);
+                        }
+                        return tree;
+                    }
+                );
+                applicationEventPublisher.publishEvent(new PitchBookingChangedEvent(pitchId, startTime, endTime));
+            }
+        });
+    }
+
+    /**
+     * Forgets a deleted booking once the current transaction commits.
+     */
+    public void bookingDeleted(Long bookingId) {
+        afterCommit(() -> removeFromIndex(bookingId));
+    }
+
+    private void removeFromIndex(Long bookingId) {
+        // Counted before the trees are touched, so a tree loaded concurrently is not kept (see tree()).
+        bookingChanges.incrementAndGet();
+        Long previousPitchId = pitchByBooking.remove(bookingId);
+        if (previousPitchId == null) {
+            return;
+        }
+        BookingIntervalTree tree = treesByPitch.get(previousPitchId);
+        if (tree == null) {
+            return;
+        }
+        BookingIntervalTree.Interval previous;
+        synchronized (tree) {
+            previous = tree.get(bookingId);
+            tree.remove(bookingId);
+        }
+        if (previous != null) {
+            applicationEventPublisher.publishEvent(new PitchBookingChangedEvent(previousPitchId, previous.getStart(), previous.getEnd()));
+        }
+    }
+
+    private static boolean overlaps(BookingIntervalTree tree, Instant startTime, Instant endTime, Long ignoredId) {
+        synchronized (tree) {
+            return tree.overlaps(startTime, endTime, ignoredId);
+        }
+    }
+
+    private BookingIntervalTree holds(Long pitchId) {
+        // Only holds create a tree, so pitches that are merely queried leave no entry behind.
+        BookingIntervalTree holds = holdsByPitch.get(pitchId);
+        return holds != null ? holds : EMPTY;
+    }
+
+    private BookingIntervalTree tree(Long pitchId) {
+        BookingIntervalTree tree = treesByPitch.get(pitchId);
+        if (tree != null) {
+            return tree;
+        }
+        if (pitchId == null || !pitchRepository.existsById(pitchId)) {
+            return EMPTY;
+        }
+        // The tree is loaded outside of the map lock and only kept if no booking changed meanwhile,
+        // otherwise a change applied before the tree was published could be missing from it.
+        long changes = bookingChanges.get();
+        BookingIntervalTree loaded = load(pitchId);
+        BookingIntervalTree published = treesByPitch.compute(
+            pitchId,
+            (id, current) -> current != null ? current : bookingChanges.get() == changes ? loaded : null
+        );
+        return published != null ? published : loaded;
+    }
+
+    private BookingIntervalTree load(Long pitchId) {
+        log.debug("Loading booking index of Pitch : {}", pitchId);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (PitchBooking pitchBooking : pitchBookingRepository.findByPitchId(pitchId)) {
+            tree.put(pitchBooking.getId(), pitchBooking.getStartTime(), pitchBooking.getEndTime());
+            pitchByBooking.put(pitchBooking.getId(), pitchId);
+        }
+        return tree;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+}
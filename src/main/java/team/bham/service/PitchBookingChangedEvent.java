@@ -0,0 +1,42 @@
+package team.bham.service;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link PitchAvailabilityService} after a committed change touched the interval
+ * {@code [startTime, endTime)} of a pitch, so views derived from the bookings can be refreshed.
+ */
+public class PitchBookingChangedEvent {
+
+    private final Long pitchId;
+    private final Instant startTime;
+    private final Instant endTime;
+
+    public PitchBookingChangedEvent(Long pitchId, Instant startTime, Instant endTime) {
+        this.pitchId = pitchId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public Long getPitchId() {
+        return pitchId;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PitchBookingChangedEvent{" +
+            "pitchId=" + pitchId +
+            ", startTime='" + startTime + "'" +
+            ", endTime='" + endTime + "'" +
+            "}";
+    }
+}
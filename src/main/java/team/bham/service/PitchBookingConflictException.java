@@ -0,0 +1,20 @@
+package team.bham.service;
+
+import java.util.List;
+import team.bham.service.dto.TimeSlotDTO;
+
+public class PitchBookingConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<TimeSlotDTO> conflicts;
+
+    public PitchBookingConflictException(List<TimeSlotDTO> conflicts) {
+        super(conflicts.size() + " requested slot(s) clash with existing bookings, the first starts at " + conflicts.get(0).getStart());
+        this.conflicts = conflicts;
+    }
+
+    public List<TimeSlotDTO> getConflicts() {
+        return conflicts;
+    }
+}
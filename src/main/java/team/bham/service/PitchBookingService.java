@@ -0,0 +1,215 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.config.Constants;
+import team.bham.domain.PitchBooking;
+import team.bham.repository.PitchBookingRepository;
+import team.bham.service.dto.RecurringPitchBookingDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Service for writing {@link PitchBooking}s.
+ * <p>
+ * Writes to the same pitch are serialized with the {@link PitchLocks} lock of the pitch, which is held
+ * from the availability check until the transaction has completed and the availability index has caught up.
+ */
+@Service
+@Transactional
+public class PitchBookingService {
+
+    private final Logger log = LoggerFactory.getLogger(PitchBookingService.class);
+
+    private final ZoneId zone = ZoneId.of(Constants.DEFAULT_TIME_ZONE);
+
+    private final PitchBookingRepository pitchBookingRepository;
+
+    private final PitchAvailabilityService pitchAvailabilityService;
+
+    private final PitchLocks pitchLocks;
+
+    public PitchBookingService(
+        PitchBookingRepository pitchBookingRepository,
+        PitchAvailabilityService pitchAvailabilityService,
+        PitchLocks pitchLocks
+    ) {
+        this.pitchBookingRepository = pitchBookingRepository;
+        this.pitchAvailabilityService = pitchAvailabilityService;
+        this.pitchLocks = pitchLocks;
+    }
+
+    /**
+     * Creates or updates a booking, checking under the pitch lock that it clashes with no other booking of the pitch.
+     *
+     * @param pitchBooking the booking to save.
+     * @return the saved booking.
+     * @throws PitchBookingConflictException if the booking clashes with another booking of the pitch.
+     */
+    public PitchBooking save(PitchBooking pitchBooking) {
+        log.debug("Request to save PitchBooking : {}", pitchBooking);
+        if (pitchBooking.getPitch() != null && pitchBooking.getStartTime() != null && pitchBooking.getEndTime() != null) {
+            Long pitchId = pitchBooking.getPitch().getId();
+            Instant startTime = pitchBooking.getStartTime();
+            Instant endTime = pitchBooking.getEndTime();
+            pitchLocks.lockUntilCompletion(pitchId);
+            if (!pitchAvailabilityService.isAvailable(pitchId, startTime, endTime, pitchBooking.getId())) {
+                throw new PitchBookingConflictException(List.of(new TimeSlotDTO(startTime, endTime)));
+            }
+        }
+        PitchBooking result = pitchBookingRepository.save(pitchBooking);
+        pitchAvailabilityService.bookingSaved(result);
+        return result;
+    }
+
+    /**
+     * Creates a booking for the slot of a hold, the hold itself does not count as a clash.
+     *
+     * @throws PitchBookingConflictException if the booking clashes with another booking or hold of the pitch.
+     */
+    public PitchBooking saveHeld(PitchBooking pitchBooking, long holdId) {
+        log.debug("Request to save held PitchBooking : {}", pitchBooking);
+        Long pitchId = pitchBooking.getPitch().getId();
+        Instant startTime = pitchBooking.getStartTime();
+        Instant endTime = pitchBooking.getEndTime();
+        pitchLocks.lockUntilCompletion(pitchId);
+        if (!pitchAvailabilityService.isAvailableExceptHold(pitchId, startTime, endTime, holdId)) {
+            throw new PitchBookingConflictException(List.of(new TimeSlotDTO(startTime, endTime)));
+        }
+        PitchBooking result = pitchBookingRepository.save(pitchBooking);
+        pitchAvailabilityService.bookingSaved(result);
+        return result;
+    }
+
+    /**
+     * Books every occurrence of a recurring booking, or none of them.
+     * <p>
+     * All occurrences are checked against the bookings of the pitch in a single pass and then inserted
+     * together, so Hibernate sends them in JDBC batches of {@code hibernate.jdbc.batch_size}.
+     *
+     * @param series the first occurrence and the recurrence rule.
+     * @return the saved occurrences, ordered by start time.
+     * @throws PitchBookingConflictException if any occurrence clashes with an existing booking or with another occurrence.
+     */
+    public List<PitchBooking> createSeries(RecurringPitchBookingDTO series) {
+        log.debug("Request to save recurring PitchBooking : {}", series);
+        List<PitchBooking> occurrences = expand(series, zone);
+        PitchBooking first = occurrences.get(0);
+        PitchBooking last = occurrences.get(occurrences.size() - 1);
+        pitchLocks.lockUntilCompletion(first.getPitch().getId());
+        List<TimeSlotDTO> conflicts = findConflicts(
+            pitchAvailabilityService.findBookedIntervals(first.getPitch().getId(), first.getStartTime(), last.getEndTime()),
+            occurrences
+        );
+        if (!conflicts.isEmpty()) {
+            throw new PitchBookingConflictException(conflicts);
+        }
+        List<PitchBooking> result = pitchBookingRepository.saveAll(occurrences);
+        result.forEach(pitchAvailabilityService::bookingSaved);
+        return result;
+    }
+
+    /**
+     * Creates bookings spread over any number of pitches, or none of them.
+     *
+     * @param bookings the new bookings, each with a pitch and times.
+     * @return the saved bookings.
+     * @throws PitchBookingConflictException if any booking clashes with an existing booking or with another of the bookings.
+     */
+    public List<PitchBooking> createAll(List<PitchBooking> bookings) {
+        log.debug("Request to save {} PitchBookings", bookings.size());
+        Map<Long, List<PitchBooking>> bookingsByPitch = bookings
+            .stream()
+            .collect(Collectors.groupingBy(booking -> booking.getPitch().getId()));
+        pitchLocks.lockAllUntilCompletion(bookingsByPitch.keySet());
+        List<TimeSlotDTO> conflicts = new ArrayList<>();
+        for (Map.Entry<Long, List<PitchBooking>> entry : bookingsByPitch.entrySet()) {
+            List<PitchBooking> sorted = new ArrayList<>(entry.getValue());
+            sorted.sort(Comparator.comparing(PitchBooking::getStartTime));
+            Instant latestEnd = Instant.MIN;
+            for (PitchBooking booking : sorted) {
+                if (
+                    latestEnd.isAfter(booking.getStartTime()) ||
+                    !pitchAvailabilityService.isAvailable(entry.getKey(), booking.getStartTime(), booking.getEndTime())
+                ) {
+                    conflicts.add(new TimeSlotDTO(booking.getStartTime(), booking.getEndTime()));
+                }
+                if (booking.getEndTime().isAfter(latestEnd)) {
+                    latestEnd = booking.getEndTime();
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new PitchBookingConflictException(conflicts);
+        }
+        List<PitchBooking> result = pitchBookingRepository.saveAll(bookings);
+        result.forEach(pitchAvailabilityService::bookingSaved);
+        return result;
+    }
+
+    /**
+     * Expands a recurring booking into its occurrences. Occurrences keep the wall-clock start time of the
+     * first one in {@code zone}, so a 19:00 booking stays at 19:00 across a clock change.
+     */
+    static List<PitchBooking> expand(RecurringPitchBookingDTO series, ZoneId zone) {
+        PitchBooking template = series.getBooking();
+        ZonedDateTime firstStart = template.getStartTime().atZone(zone);
+        Duration length = Duration.between(template.getStartTime(), template.getEndTime());
+        List<PitchBooking> occurrences = new ArrayList<>();
+        for (int i = 0;; i++) {
+            long steps = (long) i * series.getInterval();
+            ZonedDateTime start = series.getFrequency() == RecurringPitchBookingDTO.Frequency.DAILY
+                ? firstStart.plusDays(steps)
+                : firstStart.plusWeeks(steps);
+            if (start.toLocalDate().isAfter(series.getUntil())) {
+                return occurrences;
+            }
+            PitchBooking occurrence = new PitchBooking()
+                .bookingDate(template.getBookingDate())
+                .startTime(start.toInstant())
+                .endTime(start.toInstant().plus(length))
+                .team(template.getTeam())
+                .pitch(template.getPitch());
+            occurrence.setUserProfileId(template.getUserProfileId());
+            occurrences.add(occurrence);
+        }
+    }
+
+    /**
+     * Finds the occurrences clashing with a booked interval or with an earlier occurrence.
+     * <p>
+     * Both lists are ordered by start time and all occurrences have the same length, so their end times
+     * grow too: an occurrence clashes exactly when the latest end among the bookings starting before it
+     * ends lies after its start. That maximum only grows, so one pass over both lists is enough.
+     */
+    static List<TimeSlotDTO> findConflicts(List<BookingIntervalTree.Interval> booked, List<PitchBooking> occurrences) {
+        List<TimeSlotDTO> conflicts = new ArrayList<>();
+        long maxBookedEnd = Long.MIN_VALUE;
+        long previousEnd = Long.MIN_VALUE;
+        int next = 0;
+        for (PitchBooking occurrence : occurrences) {
+            long start = occurrence.getStartTime().toEpochMilli();
+            long end = occurrence.getEndTime().toEpochMilli();
+            while (next < booked.size() && booked.get(next).startMillis() < end) {
+                maxBookedEnd = Math.max(maxBookedEnd, booked.get(next).endMillis());
+                next++;
+            }
+            if (maxBookedEnd > start || previousEnd > start) {
+                conflicts.add(new TimeSlotDTO(occurrence.getStartTime(), occurrence.getEndTime()));
+            }
+            previousEnd = end;
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,103 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Occupancy of one pitch on one day as a bitset of fixed length slots, bit {@code i} is set when
+ * a booking covers any part of slot {@code i} counted from the start of the day.
+ * <p>
+ * Whether a slot range is free is a handful of word-level AND operations, see {@link #isFree(long[])}.
+ * Instances are immutable once built.
+ */
+public final class PitchDayOccupancy {
+
+    private final long[] words;
+    private final int slotCount;
+
+    private PitchDayOccupancy(long[] words, int slotCount) {
+        this.words = words;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Builds the occupancy of a day from the bookings overlapping it.
+     *
+     * @param booked the booked intervals, they may reach into the previous or next day.
+     * @param dayStart the start of the day.
+     * @param dayEnd the start of the next day, days are not always 24 hours long.
+     * @param slotLength the slot length, must divide the day.
+     */
+    public static PitchDayOccupancy of(List<BookingIntervalTree.Interval> booked, Instant dayStart, Instant dayEnd, Duration slotLength) {
+        long slotMillis = slotLength.toMillis();
+        long startMillis = dayStart.toEpochMilli();
+        int slotCount = slotCount(dayStart, dayEnd, slotLength);
+        long[] words = new long[wordCount(slotCount)];
+        for (BookingIntervalTree.Interval interval : booked) {
+            long from = Math.max(interval.startMillis() - startMillis, 0);
+            long to = Math.min(interval.endMillis() - startMillis, (long) slotCount * slotMillis);
+            if (from < to) {
+                setRange(words, (int) (from / slotMillis), (int) ((to + slotMillis - 1) / slotMillis));
+            }
+        }
+        return new PitchDayOccupancy(words, slotCount);
+    }
+
+    /**
+     * @return a mask with the slots {@code [fromSlot, toSlot)} set, to be passed to {@link #isFree(long[])}.
+     */
+    public static long[] mask(int slotCount, int fromSlot, int toSlot) {
+        long[] mask = new long[wordCount(slotCount)];
+        setRange(mask, Math.max(fromSlot, 0), Math.min(toSlot, slotCount));
+        return mask;
+    }
+
+    public static int slotCount(Instant dayStart, Instant dayEnd, Duration slotLength) {
+        return (int) (Duration.between(dayStart, dayEnd).toMillis() / slotLength.toMillis());
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * @return true if none of the slots set in {@code mask} is booked.
+     */
+    public boolean isFree(long[] mask) {
+        int length = Math.min(words.length, mask.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & mask[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isBooked(int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    static int wordCount(int slotCount) {
+        return (slotCount + 63) >>> 6;
+    }
+
+    static void setRange(long[] words, int fromSlot, int toSlot) {
+        if (fromSlot >= toSlot) {
+            return;
+        }
+        int firstWord = fromSlot >>> 6;
+        int lastWord = (toSlot - 1) >>> 6;
+        long firstMask = -1L << fromSlot;
+        long lastMask = -1L >>> -toSlot;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+}
@@ -0,0 +1,189 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.Pitch;
+import team.bham.repository.PitchRepository;
+import team.bham.service.dto.PitchFreeSlotsDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Computes the open windows of every pitch on a day.
+ * <p>
+ * The free windows of a (pitch, day) are found with a sweep over the bookings ordered by start time
+ * and cached until a {@link PitchBookingChangedEvent} touches that day of the pitch.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PitchFreeSlotService {
+
+    private final Logger log = LoggerFactory.getLogger(PitchFreeSlotService.class);
+
+    private final PitchRepository pitchRepository;
+
+    private final PitchAvailabilityService pitchAvailabilityService;
+
+    private final Map<Long, PitchDays> freeWindowsByPitch = new ConcurrentHashMap<>();
+
+    public PitchFreeSlotService(PitchRepository pitchRepository, PitchAvailabilityService pitchAvailabilityService) {
+        this.pitchRepository = pitchRepository;
+        this.pitchAvailabilityService = pitchAvailabilityService;
+    }
+
+    /**
+     * Get the open windows of every pitch on a day.
+     *
+     * @param date the day.
+     * @param zone the time zone the day is taken in.
+     * @param slotLength the granularity, windows are cut to slot boundaries counted from midnight.
+     * @return the free windows per pitch, windows shorter than one slot are left out.
+     */
+    public List<PitchFreeSlotsDTO> findFreeSlots(LocalDate date, ZoneId zone, Duration slotLength) {
+        log.debug("Request to get free slots of all pitches on {} ({}) by {}", date, zone, slotLength);
+        Instant dayStart = date.atStartOfDay(zone).toInstant();
+        List<PitchFreeSlotsDTO> result = new ArrayList<>();
+        for (Pitch pitch : pitchRepository.findAll()) {
+            List<TimeSlotDTO> freeWindows = findFreeWindows(pitch.getId(), date, zone);
+            result.add(new PitchFreeSlotsDTO(pitch.getId(), pitch.getName(), date, alignToSlots(freeWindows, dayStart, slotLength)));
+        }
+        return result;
+    }
+
+    /**
+     * Get the exact open windows of a pitch on a day.
+     */
+    public List<TimeSlotDTO> findFreeWindows(Long pitchId, LocalDate date, ZoneId zone) {
+        DayKey key = new DayKey(date, zone);
+        PitchDays days = freeWindowsByPitch.computeIfAbsent(pitchId, id -> new PitchDays());
+        long version;
+        synchronized (days) {
+            List<TimeSlotDTO> cached = days.freeWindows.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            version = days.version;
+        }
+
+        List<TimeSlotDTO> freeWindows = Collections.unmodifiableList(
+            sweep(pitchAvailabilityService.findBookedIntervals(pitchId, key.start, key.end), key.start, key.end)
+        );
+
+        synchronized (days) {
+            // A booking changed while sweeping, the result may already be stale.
+            if (days.version == version) {
+                Instant yesterday = Instant.now().minus(Duration.ofDays(1));
+                days.freeWindows.keySet().removeIf(day -> day.end.isBefore(yesterday));
+                days.freeWindows.put(key, freeWindows);
+            }
+        }
+        return freeWindows;
+    }
+
+    @EventListener
+    public void onPitchBookingChanged(PitchBookingChangedEvent event) {
+        PitchDays days = freeWindowsByPitch.get(event.getPitchId());
+        if (days == null) {
+            return;
+        }
+        synchronized (days) {
+            days.version++;
+            days.freeWindows.keySet().removeIf(day -> day.start.isBefore(event.getEndTime()) && event.getStartTime().isBefore(day.end));
+        }
+    }
+
+    /**
+     * Sweeps the booked intervals ordered by start time and returns the gaps within {@code [from, to)}.
+     * Overlapping bookings are merged on the way.
+     */
+    static List<TimeSlotDTO> sweep(List<BookingIntervalTree.Interval> booked, Instant from, Instant to) {
+        List<TimeSlotDTO> freeWindows = new ArrayList<>();
+        Instant cursor = from;
+        for (BookingIntervalTree.Interval interval : booked) {
+            if (interval.getStart().isAfter(cursor)) {
+                freeWindows.add(new TimeSlotDTO(cursor, interval.getStart().isBefore(to) ? interval.getStart() : to));
+            }
+            if (interval.getEnd().isAfter(cursor)) {
+                cursor = interval.getEnd();
+            }
+            if (!cursor.isBefore(to)) {
+                return freeWindows;
+            }
+        }
+        freeWindows.add(new TimeSlotDTO(cursor, to));
+        return freeWindows;
+    }
+
+    /**
+     * Shrinks every window to whole slots counted from {@code origin} and drops windows shorter than one slot.
+     */
+    static List<TimeSlotDTO> alignToSlots(List<TimeSlotDTO> windows, Instant origin, Duration slotLength) {
+        long slotMillis = slotLength.toMillis();
+        long originMillis = origin.toEpochMilli();
+        return windows
+            .stream()
+            .map(window -> {
+                long start = window.getStart().toEpochMilli() - originMillis;
+                long end = window.getEnd().toEpochMilli() - originMillis;
+                long alignedStart = Math.floorDiv(start + slotMillis - 1, slotMillis) * slotMillis;
+                long alignedEnd = Math.floorDiv(end, slotMillis) * slotMillis;
+                return alignedEnd > alignedStart
+                    ? new TimeSlotDTO(Instant.ofEpochMilli(originMillis + alignedStart), Instant.ofEpochMilli(originMillis + alignedEnd))
+                    : null;
+            })
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private static final class PitchDays {
+
+        private long version;
+        private final Map<DayKey, List<TimeSlotDTO>> freeWindows = new HashMap<>();
+    }
+
+    private static final class DayKey {
+
+        private final LocalDate date;
+        private final ZoneId zone;
+        private final Instant start;
+        private final Instant end;
+
+        private DayKey(LocalDate date, ZoneId zone) {
+            this.date = date;
+            this.zone = zone;
+            this.start = date.atStartOfDay(zone).toInstant();
+            this.end = date.plusDays(1).atStartOfDay(zone).toInstant();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DayKey)) {
+                return false;
+            }
+            DayKey other = (DayKey) o;
+            return date.equals(other.date) && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, zone);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.domain.PitchBooking;
+import team.bham.repository.PitchRepository;
+import team.bham.service.dto.PitchHoldDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Service for the short-lived holds placed on a pitch slot while a booking is being confirmed.
+ * <p>
+ * Holds live in memory only. A held slot counts as booked in every availability query, see
+ * {@link PitchAvailabilityService}, until the hold is confirmed, released or expires. Expiry is driven
+ * by a {@link HashedTimingWheel}, so nothing sweeps the database or scans all holds.
+ */
+@Service
+public class PitchHoldService {
+
+    public static final Duration HOLD_TTL = Duration.ofMinutes(5);
+
+    private final Logger log = LoggerFactory.getLogger(PitchHoldService.class);
+
+    private final PitchAvailabilityService pitchAvailabilityService;
+
+    private final PitchBookingService pitchBookingService;
+
+    private final PitchRepository pitchRepository;
+
+    private final PitchLocks pitchLocks;
+
+    private final HashedTimingWheel timingWheel = new HashedTimingWheel(Duration.ofSeconds(1), 512);
+
+    private final AtomicLong holdIds = new AtomicLong();
+
+    private final Map<String, Hold> holdsByToken = new ConcurrentHashMap<>();
+
+    public PitchHoldService(
+        PitchAvailabilityService pitchAvailabilityService,
+        PitchBookingService pitchBookingService,
+        PitchRepository pitchRepository,
+        PitchLocks pitchLocks
+    ) {
+        this.pitchAvailabilityService = pitchAvailabilityService;
+        this.pitchBookingService = pitchBookingService;
+        this.pitchRepository = pitchRepository;
+        this.pitchLocks = pitchLocks;
+    }
+
+    @PostConstruct
+    public void start() {
+        timingWheel.start("pitch-hold-expiry");
+    }
+
+    @PreDestroy
+    public void stop() {
+        timingWheel.stop();
+    }
+
+    /**
+     * Holds a slot of a pitch for {@link #HOLD_TTL}.
+     *
+     * @return the hold, its token is needed to confirm or release it.
+     * @throws PitchBookingConflictException if a booking or another hold overlaps the slot.
+     */
+    public PitchHoldDTO hold(Long pitchId, Instant startTime, Instant endTime) {
+        log.debug("Request to hold Pitch : {} from {} to {}", pitchId, startTime, endTime);
+        long holdId = holdIds.incrementAndGet();
+        pitchLocks.lock(pitchId);
+        try {
+            if (!pitchAvailabilityService.addHold(holdId, pitchId, startTime, endTime)) {
+                throw new PitchBookingConflictException(List.of(new TimeSlotDTO(startTime, endTime)));
+            }
+        } finally {
+            pitchLocks.unlock(pitchId);
+        }
+        String token = UUID.randomUUID().toString();
+        PitchHoldDTO dto = new PitchHoldDTO(token, pitchId, startTime, endTime, Instant.now().plus(HOLD_TTL));
+        Hold hold = new Hold(holdId, dto);
+        holdsByToken.put(token, hold);
+        hold.timeout = timingWheel.schedule(() -> expire(token), HOLD_TTL);
+        return dto;
+    }
+
+    public Optional<PitchHoldDTO> findHold(String token) {
+        return Optional.ofNullable(holdsByToken.get(token)).map(hold -> hold.dto);
+    }
+
+    /**
+     * Frees the slot of a hold.
+     *
+     * @return false if there is no such hold, for example because it has expired.
+     */
+    public boolean release(String token) {
+        Hold hold = holdsByToken.remove(token);
+        if (hold == null) {
+            return false;
+        }
+        if (hold.timeout != null) {
+            hold.timeout.cancel();
+        }
+        pitchAvailabilityService.removeHold(hold.id, hold.dto.getPitchId());
+        return true;
+    }
+
+    /**
+     * Turns a hold into a booking of its slot, the hold is released once the transaction commits.
+     *
+     * @param token the token of the hold.
+     * @param pitchBooking the remaining details of the booking, its pitch and times are taken from the hold.
+     * @return the booking, or empty if there is no such hold.
+     * @throws PitchBookingConflictException if the slot has been booked regardless of the hold.
+     */
+    @Transactional
+    public Optional<PitchBooking> confirm(String token, PitchBooking pitchBooking) {
+        log.debug("Request to confirm hold : {}", token);
+        Hold hold = holdsByToken.get(token);
+        if (hold == null) {
+            return Optional.empty();
+        }
+        return pitchRepository
+            .findById(hold.dto.getPitchId())
+            .map(pitch -> {
+                pitchBooking.setPitch(pitch);
+                pitchBooking.setStartTime(hold.dto.getStartTime());
+                pitchBooking.setEndTime(hold.dto.getEndTime());
+                PitchBooking result = pitchBookingService.saveHeld(pitchBooking, hold.id);
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            release(token);
+                        }
+                    }
+                );
+                return result;
+            });
+    }
+
+    private void expire(String token) {
+        Hold hold = holdsByToken.get(token);
+        if (hold != null && release(token)) {
+            log.debug("Hold expired : {}", hold.dto);
+        }
+    }
+
+    private static final class Hold {
+
+        private final long id;
+        private final PitchHoldDTO dto;
+        private volatile HashedTimingWheel.Timeout timeout;
+
+        private Hold(long id, PitchHoldDTO dto) {
+            this.id = id;
+            this.dto = dto;
+        }
+    }
+}
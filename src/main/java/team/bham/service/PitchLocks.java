@@ -0,0 +1,78 @@
+package team.bham.service;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Striped locks serializing the writes that claim time on a pitch, bookings and holds alike.
+ * <p>
+ * One of {@link #STRIPES} locks is chosen by pitch id, so writes to pitches on different stripes run fully in parallel.
+ */
+@Component
+public class PitchLocks {
+
+    static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public PitchLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Takes the lock of the pitch, the caller must release it with {@link #unlock}.
+     */
+    public void lock(Long pitchId) {
+        lockFor(pitchId).lock();
+    }
+
+    public void unlock(Long pitchId) {
+        lockFor(pitchId).unlock();
+    }
+
+    /**
+     * Takes the lock of the pitch and releases it once the current transaction has completed, after the
+     * availability index has applied the committed bookings.
+     */
+    public void lockUntilCompletion(Long pitchId) {
+        lockUntilCompletion(lockFor(pitchId));
+    }
+
+    /**
+     * Takes the locks of all the pitches like {@link #lockUntilCompletion(Long)}. The stripes are taken in
+     * ascending order, so two writers spanning the same stripes cannot deadlock.
+     */
+    public void lockAllUntilCompletion(Collection<Long> pitchIds) {
+        pitchIds.stream().mapToInt(PitchLocks::stripe).distinct().sorted().forEach(stripe -> lockUntilCompletion(locks[stripe]));
+    }
+
+    private void lockUntilCompletion(ReentrantLock lock) {
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Without a transaction the index is updated right away, see PitchAvailabilityService#bookingSaved
+            lock.unlock();
+            throw new IllegalStateException("Pitch bookings must be written inside a transaction");
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            }
+        );
+    }
+
+    private ReentrantLock lockFor(Long pitchId) {
+        return locks[stripe(pitchId)];
+    }
+
+    private static int stripe(Long pitchId) {
+        return Math.floorMod(Long.hashCode(pitchId), STRIPES);
+    }
+}
@@ -0,0 +1,79 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import team.bham.service.dto.TeamAvailabilityWindowDTO;
+
+/**
+ * Availability of one team over a few weeks as a bitset of fixed length slots, bit {@code i} is set when
+ * the team is free for the whole of slot {@code i} counted from the origin.
+ * <p>
+ * The shared availability of two teams is an AND and a bit count per word, see {@link #sharedSlots}.
+ * Instances are immutable once built.
+ */
+public final class TeamAvailabilityBitmap {
+
+    private final long[] words;
+    private final int slotCount;
+
+    private TeamAvailabilityBitmap(long[] words, int slotCount) {
+        this.words = words;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Builds the bitmap of a team from the windows in which it is free.
+     *
+     * @param windows the windows, they may reach outside the bitmap.
+     * @param origin the start of slot 0.
+     * @param slotLength the slot length.
+     * @param slotCount the number of slots.
+     */
+    public static TeamAvailabilityBitmap of(List<TeamAvailabilityWindowDTO> windows, Instant origin, Duration slotLength, int slotCount) {
+        long slotMillis = slotLength.toMillis();
+        long originMillis = origin.toEpochMilli();
+        long[] words = new long[PitchDayOccupancy.wordCount(slotCount)];
+        for (TeamAvailabilityWindowDTO window : windows) {
+            long from = Math.max(window.getStart().toEpochMilli() - originMillis, 0);
+            long to = Math.min(window.getEnd().toEpochMilli() - originMillis, (long) slotCount * slotMillis);
+            if (from < to) {
+                PitchDayOccupancy.setRange(words, (int) ((from + slotMillis - 1) / slotMillis), (int) (to / slotMillis));
+            }
+        }
+        return new TeamAvailabilityBitmap(words, slotCount);
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public boolean isFree(int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * @return the number of slots in {@code [fromSlot, toSlot)} in which both teams are free.
+     */
+    public int sharedSlots(TeamAvailabilityBitmap other, int fromSlot, int toSlot) {
+        int from = Math.max(fromSlot, 0);
+        int to = Math.min(toSlot, Math.min(slotCount, other.slotCount));
+        if (from >= to) {
+            return 0;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        int shared = 0;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long both = words[i] & other.words[i];
+            if (i == firstWord) {
+                both &= -1L << from;
+            }
+            if (i == lastWord) {
+                both &= -1L >>> -to;
+            }
+            shared += Long.bitCount(both);
+        }
+        return shared;
+    }
+}
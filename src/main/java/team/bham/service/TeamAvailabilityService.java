@@ -0,0 +1,256 @@
+package team.bham.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.AvailableDate;
+import team.bham.domain.UserProfile;
+import team.bham.repository.AvailableDateRepository;
+import team.bham.repository.UserProfileRepository;
+import team.bham.service.dto.TeamAvailabilityWindowDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Finds the windows in which enough members of a team are free.
+ * <p>
+ * A member is free where one of their {@link AvailableDate}s marks them available and none marks them
+ * unavailable. The free windows of all members are then swept in order of their endpoints, counting how
+ * many members are free between two consecutive endpoints. Results are cached per team until an
+ * {@link AvailableDateChangedEvent} touches one of its members or the members of the team change.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TeamAvailabilityService {
+
+    private static final int MAX_CACHED_RANGES_PER_TEAM = 32;
+
+    private final Logger log = LoggerFactory.getLogger(TeamAvailabilityService.class);
+
+    private final UserProfileRepository userProfileRepository;
+
+    private final AvailableDateRepository availableDateRepository;
+
+    private final Map<Long, TeamWindows> windowsByTeam = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> teamByMember = new ConcurrentHashMap<>();
+
+    public TeamAvailabilityService(UserProfileRepository userProfileRepository, AvailableDateRepository availableDateRepository) {
+        this.userProfileRepository = userProfileRepository;
+        this.availableDateRepository = availableDateRepository;
+    }
+
+    /**
+     * Get the windows in which at least {@code minMembers} members of a team are free.
+     *
+     * @param teamId the id of the team.
+     * @param minMembers the number of members that must be free, at least 1.
+     * @param fromDate the first day, inclusive.
+     * @param toDate the last day, inclusive.
+     * @param zone the time zone the days are taken in.
+     * @return the maximal windows ordered by start, with the fewest members free within each.
+     */
+    public List<TeamAvailabilityWindowDTO> findCommonWindows(Long teamId, int minMembers, LocalDate fromDate, LocalDate toDate, ZoneId zone) {
+        log.debug("Request to get windows of Team : {} with {} members free from {} to {}", teamId, minMembers, fromDate, toDate);
+        List<Long> memberIds = userProfileRepository
+            .findByTeamId(teamId)
+            .stream()
+            .map(UserProfile::getId)
+            .sorted()
+            .collect(Collectors.toList());
+        RangeKey key = new RangeKey(fromDate, toDate, zone, minMembers);
+        TeamWindows team = windowsByTeam.computeIfAbsent(teamId, id -> new TeamWindows());
+        long version;
+        synchronized (team) {
+            if (!team.memberIds.equals(memberIds)) {
+                team.memberIds.forEach(memberId -> teamByMember.remove(memberId, teamId));
+                memberIds.forEach(memberId -> teamByMember.put(memberId, teamId));
+                team.memberIds = memberIds;
+                team.version++;
+                team.windows.clear();
+            }
+            List<TeamAvailabilityWindowDTO> cached = team.windows.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            version = team.version;
+        }
+
+        Instant from = fromDate.atStartOfDay(zone).toInstant();
+        Instant to = toDate.plusDays(1).atStartOfDay(zone).toInstant();
+        List<AvailableDate> dates = memberIds.isEmpty()
+            ? Collections.emptyList()
+            : availableDateRepository.findOverlappingByUserProfileIds(memberIds, from, to);
+        Map<Long, List<AvailableDate>> datesByMember = dates.stream().collect(Collectors.groupingBy(date -> date.getUserProfile().getId()));
+        List<TimeSlotDTO> freeWindows = new ArrayList<>();
+        for (List<AvailableDate> memberDates : datesByMember.values()) {
+            freeWindows.addAll(memberFreeWindows(memberDates, from, to));
+        }
+        List<TeamAvailabilityWindowDTO> windows = Collections.unmodifiableList(sweep(freeWindows, minMembers));
+
+        synchronized (team) {
+            // Someone's availability changed while sweeping, the result may already be stale.
+            if (team.version == version) {
+                if (team.windows.size() >= MAX_CACHED_RANGES_PER_TEAM) {
+                    team.windows.clear();
+                }
+                team.windows.put(key, windows);
+            }
+        }
+        return windows;
+    }
+
+    @EventListener
+    public void onAvailableDateChanged(AvailableDateChangedEvent event) {
+        Long teamId = teamByMember.get(event.getUserProfileId());
+        TeamWindows team = teamId == null ? null : windowsByTeam.get(teamId);
+        if (team == null) {
+            return;
+        }
+        synchronized (team) {
+            team.version++;
+            team.windows.clear();
+        }
+    }
+
+    /**
+     * Returns the windows within {@code [from, to)} covered by an available date of a member and by none
+     * of their unavailable dates, ordered by start.
+     */
+    static List<TimeSlotDTO> memberFreeWindows(List<AvailableDate> dates, Instant from, Instant to) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (AvailableDate date : dates) {
+            Instant start = date.getFromTime().isAfter(from) ? date.getFromTime() : from;
+            Instant end = date.getToTime().isBefore(to) ? date.getToTime() : to;
+            if (start.isBefore(end)) {
+                boolean available = Boolean.TRUE.equals(date.getIsAvailable());
+                endpoints.add(new Endpoint(start, available ? 1 : 0, available ? 0 : 1));
+                endpoints.add(new Endpoint(end, available ? -1 : 0, available ? 0 : -1));
+            }
+        }
+        endpoints.sort(Comparator.comparing(endpoint -> endpoint.time));
+
+        List<TimeSlotDTO> freeWindows = new ArrayList<>();
+        int available = 0;
+        int unavailable = 0;
+        Instant openedAt = null;
+        int i = 0;
+        while (i < endpoints.size()) {
+            Instant time = endpoints.get(i).time;
+            for (; i < endpoints.size() && endpoints.get(i).time.equals(time); i++) {
+                available += endpoints.get(i).availableDelta;
+                unavailable += endpoints.get(i).unavailableDelta;
+            }
+            boolean free = available > 0 && unavailable == 0;
+            if (free && openedAt == null) {
+                openedAt = time;
+            } else if (!free && openedAt != null) {
+                freeWindows.add(new TimeSlotDTO(openedAt, time));
+                openedAt = null;
+            }
+        }
+        return freeWindows;
+    }
+
+    /**
+     * Sweeps the endpoints of the members' free windows in order and returns the maximal windows in
+     * which at least {@code minMembers} of them are free. The windows of one member must not overlap.
+     */
+    static List<TeamAvailabilityWindowDTO> sweep(List<TimeSlotDTO> freeWindows, int minMembers) {
+        List<Endpoint> endpoints = new ArrayList<>(freeWindows.size() * 2);
+        for (TimeSlotDTO window : freeWindows) {
+            endpoints.add(new Endpoint(window.getStart(), 1, 0));
+            endpoints.add(new Endpoint(window.getEnd(), -1, 0));
+        }
+        endpoints.sort(Comparator.comparing(endpoint -> endpoint.time));
+
+        List<TeamAvailabilityWindowDTO> windows = new ArrayList<>();
+        int free = 0;
+        int fewest = 0;
+        Instant openedAt = null;
+        int i = 0;
+        while (i < endpoints.size()) {
+            Instant time = endpoints.get(i).time;
+            for (; i < endpoints.size() && endpoints.get(i).time.equals(time); i++) {
+                free += endpoints.get(i).availableDelta;
+            }
+            if (free >= minMembers) {
+                if (openedAt == null) {
+                    openedAt = time;
+                    fewest = free;
+                } else {
+                    fewest = Math.min(fewest, free);
+                }
+            } else if (openedAt != null) {
+                windows.add(new TeamAvailabilityWindowDTO(openedAt, time, fewest));
+                openedAt = null;
+            }
+        }
+        return windows;
+    }
+
+    private static final class Endpoint {
+
+        private final Instant time;
+        private final int availableDelta;
+        private final int unavailableDelta;
+
+        private Endpoint(Instant time, int availableDelta, int unavailableDelta) {
+            this.time = time;
+            this.availableDelta = availableDelta;
+            this.unavailableDelta = unavailableDelta;
+        }
+    }
+
+    private static final class TeamWindows {
+
+        private long version;
+        private List<Long> memberIds = Collections.emptyList();
+        private final Map<RangeKey, List<TeamAvailabilityWindowDTO>> windows = new HashMap<>();
+    }
+
+    private static final class RangeKey {
+
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final ZoneId zone;
+        private final int minMembers;
+
+        private RangeKey(LocalDate fromDate, LocalDate toDate, ZoneId zone, int minMembers) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.zone = zone;
+            this.minMembers = minMembers;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RangeKey)) {
+                return false;
+            }
+            RangeKey other = (RangeKey) o;
+            return fromDate.equals(other.fromDate) && toDate.equals(other.toDate) && zone.equals(other.zone) && minMembers == other.minMembers;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromDate, toDate, zone, minMembers);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package team.bham.service;
+
+/**
+ * Published by {@link TeamService} after a committed change to a team or to who its members are, so views
+ * derived from them can be refreshed.
+ */
+public class TeamChangedEvent {
+
+    private final Long teamId;
+
+    public TeamChangedEvent(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TeamChangedEvent{" +
+            "teamId=" + teamId +
+            "}";
+    }
+}
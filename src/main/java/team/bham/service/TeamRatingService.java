@@ -0,0 +1,178 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.Team;
+import team.bham.repository.MatchRepository;
+import team.bham.repository.TeamRepository;
+import team.bham.service.dto.TeamRatingDTO;
+
+/**
+ * Service keeping the Elo ratings of {@link Team}s, see {@link EloRatingTable}.
+ * <p>
+ * The ratings are replayed from the played matches the first time they are needed, in one scan ordered by
+ * date. From then on a {@link MatchChangedEvent} giving a match its first result rates just that match. A
+ * rated result that is corrected or deleted changes every rating after it, so the ratings are replayed
+ * again instead. The leaderboard is served from memory, and the changed ratings are written to the teams
+ * every {@link #FLUSH_SECONDS} seconds.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TeamRatingService {
+
+    static final long FLUSH_SECONDS = 10;
+
+    private final Logger log = LoggerFactory.getLogger(TeamRatingService.class);
+
+    private final MatchRepository matchRepository;
+
+    private final TeamRepository teamRepository;
+
+    // Null until replayed, and again once a rated result has changed
+    private EloRatingTable table;
+
+    private boolean stale;
+
+    private boolean resetPending;
+
+    private final Set<Long> dirtyTeamIds = new HashSet<>();
+
+    public TeamRatingService(MatchRepository matchRepository, TeamRepository teamRepository) {
+        this.matchRepository = matchRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    /**
+     * Get a page of the teams that have played a rated match, the highest rating first.
+     *
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of teams.
+     */
+    public synchronized Page<TeamRatingDTO> findLeaderboard(Pageable pageable) {
+        EloRatingTable ratings = ratings();
+        List<TeamRatingDTO> rows = new ArrayList<>(pageable.getPageSize());
+        long rank = pageable.getOffset();
+        for (EloRatingTable.Entry entry : ratings.ranked(pageable.getOffset(), pageable.getPageSize())) {
+            rows.add(new TeamRatingDTO(++rank, entry.getTeamId(), entry.getTeamName(), entry.getRating(), entry.getPlayed()));
+        }
+        return new PageImpl<>(rows, pageable, ratings.size());
+    }
+
+    /**
+     * Computes all ratings again from the played matches, they are written to the teams with the next flush.
+     *
+     * @return the number of matches rated.
+     */
+    public synchronized int replay() {
+        log.debug("Request to replay the ratings of all Teams");
+        table = null;
+        return ratings().matchCount();
+    }
+
+    @EventListener
+    public synchronized void onMatchChanged(MatchChangedEvent event) {
+        if (table == null) {
+            // Not replayed yet, the change is read with the others
+            return;
+        }
+        EloRatingTable.Result previous = table.getResult(event.getMatchId());
+        EloRatingTable.Result result = isPlayed(event)
+            ? new EloRatingTable.Result(event.getHomeTeamId(), event.getAwayTeamId(), event.getHomeScore(), event.getAwayScore())
+            : null;
+        if (previous == null) {
+            if (result != null) {
+                table.apply(event.getMatchId(), result, event.getHomeTeamName(), event.getAwayTeamName());
+                dirtyTeamIds.add(event.getHomeTeamId());
+                dirtyTeamIds.add(event.getAwayTeamId());
+            }
+        } else if (!previous.equals(result)) {
+            log.debug("Rated result of Match {} has changed, the ratings will be replayed", event.getMatchId());
+            table = null;
+            stale = true;
+        }
+    }
+
+    /**
+     * Writes the ratings that have changed since the last flush to the teams, replaying them first if a rated
+     * result has changed.
+     */
+    @Scheduled(fixedDelay = FLUSH_SECONDS, timeUnit = TimeUnit.SECONDS)
+    @Transactional
+    public void flush() {
+        boolean reset;
+        Map<Long, Double> ratings = new HashMap<>();
+        synchronized (this) {
+            if (stale) {
+                ratings();
+            }
+            if (!resetPending && dirtyTeamIds.isEmpty()) {
+                return;
+            }
+            reset = resetPending;
+            for (Long teamId : dirtyTeamIds) {
+                ratings.put(teamId, table.getRating(teamId));
+            }
+            resetPending = false;
+            dirtyTeamIds.clear();
+        }
+        if (reset) {
+            // Teams that lost all their rated matches since the last write start over
+            teamRepository.resetRatings(EloRatingTable.INITIAL_RATING);
+        }
+        ratings.forEach(teamRepository::updateRating);
+        log.debug("Saved the ratings of {} Teams", ratings.size());
+    }
+
+    private EloRatingTable ratings() {
+        if (table == null) {
+            EloRatingTable replayed = new EloRatingTable();
+            try (Stream<MatchRepository.MatchResult> results = matchRepository.streamPlayedResults()) {
+                results.forEach(result ->
+                    replayed.apply(
+                        result.getId(),
+                        new EloRatingTable.Result(
+                            result.getHomeTeamId(),
+                            result.getAwayTeamId(),
+                            result.getHomeScore(),
+                            result.getAwayScore()
+                        ),
+                        result.getHomeTeamName(),
+                        result.getAwayTeamName()
+                    )
+                );
+            }
+            log.debug("Replayed the ratings of {} Teams from {} Matches", replayed.size(), replayed.matchCount());
+            table = replayed;
+            stale = false;
+            resetPending = true;
+            dirtyTeamIds.clear();
+            dirtyTeamIds.addAll(replayed.teamIds());
+        }
+        return table;
+    }
+
+    private static boolean isPlayed(MatchChangedEvent event) {
+        return (
+            !event.isDeleted() &&
+            event.getHomeTeamId() != null &&
+            event.getAwayTeamId() != null &&
+            event.getHomeScore() != null &&
+            event.getAwayScore() != null
+        );
+    }
+}
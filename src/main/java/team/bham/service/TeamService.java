@@ -0,0 +1,45 @@
+package team.bham.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.domain.Team;
+
+/**
+ * Service for {@link Team}s, the writes of {@link team.bham.web.rest.TeamResource} are published through it
+ * as {@link TeamChangedEvent}s.
+ */
+@Service
+public class TeamService {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public TeamService(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Publishes a {@link TeamChangedEvent} for a team, once the current transaction has committed.
+     *
+     * @param teamId the id of the team that has changed, or that members have joined or left.
+     */
+    public void changed(Long teamId) {
+        if (teamId == null) {
+            return;
+        }
+        TeamChangedEvent event = new TeamChangedEvent(teamId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        applicationEventPublisher.publishEvent(event);
+                    }
+                }
+            );
+        } else {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.AvailableDate;
+import team.bham.domain.Match;
+import team.bham.domain.Pitch;
+import team.bham.domain.PitchBooking;
+import team.bham.domain.Team;
+import team.bham.domain.Tournament;
+import team.bham.repository.AvailableDateRepository;
+import team.bham.repository.MatchRepository;
+import team.bham.service.dto.TimeSlotDTO;
+import team.bham.service.dto.TournamentScheduleDTO;
+
+/**
+ * Service giving the matches of a {@link Tournament} a pitch and a kick-off time, and booking those pitches.
+ * <p>
+ * Each day of the tournament is cut into slots of one match length between a daily start and end time. A
+ * slot is open to a pitch if no booking or hold overlaps it, and to a team if it lies within the team's
+ * {@link AvailableDate}s. A team without any available dates is treated as free except where it is marked
+ * unavailable. The matches are then placed by a {@link MatchScheduler}, and the bookings of every placed
+ * match are written in one transaction.
+ */
+@Service
+@Transactional
+public class TournamentSchedulingService {
+
+    private final Logger log = LoggerFactory.getLogger(TournamentSchedulingService.class);
+
+    private final MatchRepository matchRepository;
+
+    private final AvailableDateRepository availableDateRepository;
+
+    private final PitchAvailabilityService pitchAvailabilityService;
+
+    private final PitchBookingService pitchBookingService;
+
+    private final MatchService matchService;
+
+    private final UserProfileService userProfileService;
+
+    public TournamentSchedulingService(
+        MatchRepository matchRepository,
+        AvailableDateRepository availableDateRepository,
+        PitchAvailabilityService pitchAvailabilityService,
+        PitchBookingService pitchBookingService,
+        MatchService matchService,
+        UserProfileService userProfileService
+    ) {
+        this.matchRepository = matchRepository;
+        this.availableDateRepository = availableDateRepository;
+        this.pitchAvailabilityService = pitchAvailabilityService;
+        this.pitchBookingService = pitchBookingService;
+        this.matchService = matchService;
+        this.userProfileService = userProfileService;
+    }
+
+    /**
+     * Schedules the matches of a tournament that have neither a pitch nor a score yet. The other matches
+     * keep their time and count as busy for their teams.
+     * <p>
+     * The matches are placed in the rounds given by their current dates, and a match whose teams are not
+     * known yet is only placed after every match of the earlier rounds.
+     *
+     * @param tournament the tournament.
+     * @param pitches the pitches to play on.
+     * @param matchLength the time booked for each match.
+     * @param dayStart the earliest kick-off of a day.
+     * @param dayEnd the time by which the last match of a day ends.
+     * @param zone the zone of {@code dayStart} and {@code dayEnd}.
+     * @param timeLimit how long to search for a schedule placing every match.
+     * @param allowPartial whether to save the best schedule found when it does not place every match.
+     * @return the outcome, the schedule is only saved when it is complete or {@code allowPartial} is set.
+     * @throws PitchBookingConflictException if a pitch has been booked in one of the slots while searching.
+     */
+    public TournamentScheduleDTO schedule(
+        Tournament tournament,
+        List<Pitch> pitches,
+        Duration matchLength,
+        LocalTime dayStart,
+        LocalTime dayEnd,
+        ZoneId zone,
+        Duration timeLimit,
+        boolean allowPartial
+    ) {
+        log.debug("Request to schedule Tournament : {} on {} pitches", tournament.getId(), pitches.size());
+        long deadline = System.nanoTime() + timeLimit.toNanos();
+        List<Match> matches = matchRepository.findByTournamentIdOrderByDateAscIdAsc(tournament.getId());
+        List<Match> pending = new ArrayList<>();
+        List<Match> fixed = new ArrayList<>();
+        for (Match match : matches) {
+            if (match.getPitch() == null && match.getHomeScore() == null && match.getAwayScore() == null) {
+                pending.add(match);
+            } else {
+                fixed.add(match);
+            }
+        }
+        if (pending.isEmpty()) {
+            return new TournamentScheduleDTO(true, true, 0, new ArrayList<>());
+        }
+        List<Instant> slots = slotStarts(tournament.getStartDate(), tournament.getEndDate(), matchLength, dayStart, dayEnd, zone);
+        if (slots.isEmpty() || pitches.isEmpty()) {
+            return new TournamentScheduleDTO(false, false, 0, pending.stream().map(Match::getId).collect(Collectors.toList()));
+        }
+        Instant from = slots.get(0);
+        Instant to = slots.get(slots.size() - 1).plus(matchLength);
+
+        Map<Long, Integer> teamIndex = new LinkedHashMap<>();
+        for (Match match : matches) {
+            for (Team team : Arrays.asList(match.getHome(), match.getAway())) {
+                if (team != null) {
+                    teamIndex.putIfAbsent(team.getId(), teamIndex.size());
+                }
+            }
+        }
+        boolean[][] teamFree = teamFree(teamIndex, slots, matchLength, from, to);
+        for (Match match : fixed) {
+            Instant end = match.getDate().plus(matchLength);
+            for (Team team : Arrays.asList(match.getHome(), match.getAway())) {
+                if (team != null) {
+                    markBusy(teamFree[teamIndex.get(team.getId())], slots, matchLength, match.getDate(), end);
+                }
+            }
+        }
+        boolean[][] pitchFree = new boolean[pitches.size()][slots.size()];
+        for (int p = 0; p < pitches.size(); p++) {
+            Arrays.fill(pitchFree[p], true);
+            for (BookingIntervalTree.Interval booked : pitchAvailabilityService.findBookedIntervals(pitches.get(p).getId(), from, to)) {
+                Instant bookedStart = Instant.ofEpochMilli(booked.startMillis());
+                Instant bookedEnd = Instant.ofEpochMilli(booked.endMillis());
+                markBusy(pitchFree[p], slots, matchLength, bookedStart, bookedEnd);
+            }
+        }
+
+        MatchScheduler scheduler = new MatchScheduler(slots.size(), pitchFree, teamFree);
+        int round = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            if (i > 0 && !pending.get(i).getDate().equals(pending.get(i - 1).getDate())) {
+                round++;
+            }
+            Match match = pending.get(i);
+            scheduler.addMatch(index(teamIndex, match.getHome()), index(teamIndex, match.getAway()), round);
+        }
+        MatchScheduler.Schedule schedule = scheduler.solve(deadline);
+
+        List<Long> unscheduled = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (schedule.getSlot(i) == MatchScheduler.UNSCHEDULED) {
+                unscheduled.add(pending.get(i).getId());
+            }
+        }
+        int scheduled = pending.size() - unscheduled.size();
+        if (!schedule.isComplete() && !allowPartial) {
+            log.debug("Placed {} of {} matches of Tournament : {}, nothing saved", scheduled, pending.size(), tournament.getId());
+            return new TournamentScheduleDTO(false, false, scheduled, unscheduled);
+        }
+
+        Instant now = Instant.now();
+        Long fallbackBookerId = null;
+        List<Match> placed = new ArrayList<>(scheduled);
+        List<PitchBooking> bookings = new ArrayList<>(scheduled);
+        for (int i = 0; i < pending.size(); i++) {
+            int slot = schedule.getSlot(i);
+            if (slot == MatchScheduler.UNSCHEDULED) {
+                continue;
+            }
+            Match match = pending.get(i);
+            Pitch pitch = pitches.get(schedule.getPitch(i));
+            Instant start = slots.get(slot);
+            placed.add(match.date(start).pitch(pitch));
+            Team team = match.getHome() != null ? match.getHome() : match.getAway();
+            PitchBooking booking = new PitchBooking()
+                .bookingDate(now)
+                .startTime(start)
+                .endTime(start.plus(matchLength))
+                .team(team)
+                .pitch(pitch);
+            Long bookerId = ownerId(match.getHome()) != null ? ownerId(match.getHome()) : ownerId(match.getAway());
+            if (bookerId == null) {
+                if (fallbackBookerId == null) {
+                    fallbackBookerId = userProfileService.getUserId();
+                }
+                bookerId = fallbackBookerId;
+            }
+            booking.setUserProfileId(bookerId);
+            bookings.add(booking);
+        }
+        pitchBookingService.createAll(bookings);
+        matchService.saveAll(placed);
+        return new TournamentScheduleDTO(schedule.isComplete(), true, scheduled, unscheduled);
+    }
+
+    /**
+     * @return the kick-off times of the slots, in order: every {@code matchLength} from {@code dayStart}
+     * on each day, as long as the match ends by {@code dayEnd} and within the tournament.
+     */
+    static List<Instant> slotStarts(
+        Instant startDate,
+        Instant endDate,
+        Duration matchLength,
+        LocalTime dayStart,
+        LocalTime dayEnd,
+        ZoneId zone
+    ) {
+        List<Instant> slots = new ArrayList<>();
+        LocalDate lastDay = endDate.atZone(zone).toLocalDate();
+        for (LocalDate day = startDate.atZone(zone).toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            Instant dayEndTime = day.atTime(dayEnd).atZone(zone).toInstant();
+            for (Instant start = day.atTime(dayStart).atZone(zone).toInstant(); ; start = start.plus(matchLength)) {
+                Instant end = start.plus(matchLength);
+                if (end.isAfter(dayEndTime) || end.isAfter(endDate)) {
+                    break;
+                }
+                if (!start.isBefore(startDate)) {
+                    slots.add(start);
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Marks the slots overlapping {@code [start, end)} as not free.
+     */
+    static void markBusy(boolean[] free, List<Instant> slots, Duration matchLength, Instant start, Instant end) {
+        // The first slot ending after the start
+        int slot = Collections.binarySearch(slots, start.minus(matchLength));
+        slot = slot >= 0 ? slot + 1 : -slot - 1;
+        for (; slot < slots.size() && slots.get(slot).isBefore(end); slot++) {
+            free[slot] = false;
+        }
+    }
+
+    private boolean[][] teamFree(Map<Long, Integer> teamIndex, List<Instant> slots, Duration matchLength, Instant from, Instant to) {
+        Map<Long, List<AvailableDate>> datesByTeam = new HashMap<>();
+        if (!teamIndex.isEmpty()) {
+            for (AvailableDate date : availableDateRepository.findOverlappingByTeamIds(teamIndex.keySet(), from, to)) {
+                datesByTeam.computeIfAbsent(date.getTeam().getId(), id -> new ArrayList<>()).add(date);
+            }
+        }
+        boolean[][] teamFree = new boolean[teamIndex.size()][slots.size()];
+        for (Map.Entry<Long, Integer> entry : teamIndex.entrySet()) {
+            List<AvailableDate> dates = datesByTeam.computeIfAbsent(entry.getKey(), id -> new ArrayList<>());
+            if (dates.stream().noneMatch(date -> Boolean.TRUE.equals(date.getIsAvailable()))) {
+                dates.add(new AvailableDate().fromTime(from).toTime(to).isAvailable(true));
+            }
+            List<TimeSlotDTO> windows = TeamAvailabilityService.memberFreeWindows(dates, from, to);
+            boolean[] free = teamFree[entry.getValue()];
+            int window = 0;
+            for (int slot = 0; slot < slots.size(); slot++) {
+                Instant start = slots.get(slot);
+                Instant end = start.plus(matchLength);
+                while (window < windows.size() && windows.get(window).getEnd().isBefore(end)) {
+                    window++;
+                }
+                free[slot] = window < windows.size() && !windows.get(window).getStart().isAfter(start);
+            }
+        }
+        return teamFree;
+    }
+
+    private static int index(Map<Long, Integer> teamIndex, Team team) {
+        return team == null ? MatchScheduler.UNSCHEDULED : teamIndex.get(team.getId());
+    }
+
+    private static Long ownerId(Team team) {
+        return team == null || team.getOwner() == null ? null : team.getOwner().getId();
+    }
+}
@@ -0,0 +1,67 @@
+package team.bham.service;
+
+import java.time.Instant;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.Tournament;
+import team.bham.repository.TournamentRepository;
+
+/**
+ * Service for enrolling {@link team.bham.domain.Team}s into {@link Tournament}s.
+ */
+@Service
+@Transactional
+public class TournamentService {
+
+    /**
+     * The outcome of an enrolment.
+     */
+    public enum Enrolment {
+        ENROLLED,
+        ALREADY_ENROLLED,
+        FULL,
+        NOT_FOUND,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(TournamentService.class);
+
+    private final TournamentRepository tournamentRepository;
+
+    public TournamentService(TournamentRepository tournamentRepository) {
+        this.tournamentRepository = tournamentRepository;
+    }
+
+    /**
+     * Get the open tournament starting first.
+     *
+     * @return the tournament, or empty if no tournament starts after now.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Tournament> findOpenTournament() {
+        return tournamentRepository.findFirstByStartDateAfterOrderByStartDateAscIdAsc(Instant.now());
+    }
+
+    /**
+     * Adds a team to a tournament if it has room left.
+     * <p>
+     * The row of the tournament is locked first so that concurrent enrolments into it are counted one
+     * after the other, then the team is added with a single conditional insert into the join table.
+     *
+     * @param tournamentId the id of the tournament.
+     * @param teamId the id of the team.
+     * @return whether the team has been added, and why not otherwise.
+     */
+    public Enrolment enrol(Long tournamentId, Long teamId) {
+        log.debug("Request to enrol Team : {} into Tournament : {}", teamId, tournamentId);
+        if (tournamentRepository.findByIdForUpdate(tournamentId).isEmpty()) {
+            return Enrolment.NOT_FOUND;
+        }
+        if (tournamentRepository.insertTeamIfNotFull(tournamentId, teamId) == 1) {
+            return Enrolment.ENROLLED;
+        }
+        return tournamentRepository.existsByIdAndTeamsId(tournamentId, teamId) ? Enrolment.ALREADY_ENROLLED : Enrolment.FULL;
+    }
+}
@@ -0,0 +1,171 @@
+package team.bham.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.Tournament;
+import team.bham.repository.MatchRepository;
+import team.bham.repository.TournamentRepository;
+import team.bham.service.dto.TeamStandingDTO;
+import team.bham.service.dto.TournamentStandingsDTO;
+
+/**
+ * Service serving the standings of {@link Tournament}s from memory.
+ * <p>
+ * The table of a tournament is built from its matches the first time it is asked for, and from then on
+ * every {@link MatchChangedEvent} only moves the figures of the match that changed. Each change gets a
+ * new version from a counter shared by all tournaments, so a version is never handed out twice, not even
+ * across a {@link #rebuild}. Tables are built and updated under the lock of the service, so an event
+ * committed while a table is being read from the database is applied on top of it once it is built.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TournamentStandingsService {
+
+    private final Logger log = LoggerFactory.getLogger(TournamentStandingsService.class);
+
+    private final MatchRepository matchRepository;
+
+    private final TournamentRepository tournamentRepository;
+
+    private final Map<Long, Standings> standingsByTournament = new HashMap<>();
+
+    private final Map<Long, Long> tournamentByMatch = new HashMap<>();
+
+    // Starts from the clock so that versions, and the ETags made of them, are not handed out again after a restart
+    private long version = System.currentTimeMillis();
+
+    public TournamentStandingsService(MatchRepository matchRepository, TournamentRepository tournamentRepository) {
+        this.matchRepository = matchRepository;
+        this.tournamentRepository = tournamentRepository;
+    }
+
+    /**
+     * Get the standings of a tournament.
+     *
+     * @param tournamentId the id of the tournament.
+     * @return the standings, or empty if there is no such tournament.
+     */
+    public synchronized Optional<TournamentStandingsDTO> findStandings(Long tournamentId) {
+        Standings standings = standingsByTournament.get(tournamentId);
+        if (standings == null) {
+            if (!tournamentRepository.existsById(tournamentId)) {
+                return Optional.empty();
+            }
+            standings = load(tournamentId);
+        }
+        return Optional.of(standings.snapshot(tournamentId));
+    }
+
+    /**
+     * Builds the standings of a tournament again from its matches, and replaces those kept in memory.
+     *
+     * @param tournamentId the id of the tournament.
+     * @return the rebuilt standings, or empty if there is no such tournament.
+     */
+    public synchronized Optional<TournamentStandingsDTO> rebuild(Long tournamentId) {
+        log.debug("Request to rebuild the standings of Tournament : {}", tournamentId);
+        if (!tournamentRepository.existsById(tournamentId)) {
+            evict(tournamentId);
+            return Optional.empty();
+        }
+        Standings previous = evict(tournamentId);
+        Standings rebuilt = load(tournamentId);
+        if (previous != null) {
+            List<TeamStandingDTO> kept = previous.table.rows();
+            List<TeamStandingDTO> fresh = rebuilt.table.rows();
+            if (!kept.equals(fresh)) {
+                log.warn("Standings of Tournament {} had drifted, kept {} but rebuilt {}", tournamentId, kept, fresh);
+            }
+        }
+        return Optional.of(rebuilt.snapshot(tournamentId));
+    }
+
+    @EventListener
+    public synchronized void onMatchChanged(MatchChangedEvent event) {
+        Long previousTournamentId = tournamentByMatch.remove(event.getMatchId());
+        if (previousTournamentId != null) {
+            Standings previous = standingsByTournament.get(previousTournamentId);
+            if (previous.table.remove(event.getMatchId())) {
+                previous.changed(++version);
+            }
+        }
+        if (event.isDeleted() || event.getTournamentId() == null) {
+            return;
+        }
+        Standings standings = standingsByTournament.get(event.getTournamentId());
+        if (standings == null) {
+            // Not loaded yet, it is read with the change once asked for
+            return;
+        }
+        TournamentStandingsTable.Result result = new TournamentStandingsTable.Result(
+            event.getHomeTeamId(),
+            event.getHomeTeamName(),
+            event.getAwayTeamId(),
+            event.getAwayTeamName(),
+            event.getHomeScore(),
+            event.getAwayScore()
+        );
+        tournamentByMatch.put(event.getMatchId(), event.getTournamentId());
+        if (standings.table.put(event.getMatchId(), result)) {
+            standings.changed(++version);
+        }
+    }
+
+    private Standings load(Long tournamentId) {
+        Standings standings = new Standings(++version);
+        for (MatchRepository.MatchResult match : matchRepository.findResultsByTournamentId(tournamentId)) {
+            standings.table.put(
+                match.getId(),
+                new TournamentStandingsTable.Result(
+                    match.getHomeTeamId(),
+                    match.getHomeTeamName(),
+                    match.getAwayTeamId(),
+                    match.getAwayTeamName(),
+                    match.getHomeScore(),
+                    match.getAwayScore()
+                )
+            );
+            tournamentByMatch.put(match.getId(), tournamentId);
+        }
+        standingsByTournament.put(tournamentId, standings);
+        return standings;
+    }
+
+    private Standings evict(Long tournamentId) {
+        Standings standings = standingsByTournament.remove(tournamentId);
+        if (standings != null) {
+            standings.table.matchIds().forEach(tournamentByMatch::remove);
+        }
+        return standings;
+    }
+
+    private static final class Standings {
+
+        private final TournamentStandingsTable table = new TournamentStandingsTable();
+        private long version;
+        private TournamentStandingsDTO snapshot;
+
+        private Standings(long version) {
+            this.version = version;
+        }
+
+        private void changed(long version) {
+            this.version = version;
+            this.snapshot = null;
+        }
+
+        private TournamentStandingsDTO snapshot(Long tournamentId) {
+            if (snapshot == null) {
+                snapshot = new TournamentStandingsDTO(tournamentId, version, table.rows());
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import team.bham.service.dto.TeamStandingDTO;
+
+/**
+ * The standings of one tournament, kept up to date one match at a time.
+ * <p>
+ * The table remembers what each match contributed, so a changed or deleted match is first taken out and
+ * then, if it still belongs to the tournament, put back with its new result. Putting the same match twice
+ * is harmless. A team has a row as long as it plays in at least one match of the tournament, a match only
+ * counts towards the figures once both teams and both scores are known.
+ * <p>
+ * Not thread-safe, see {@link TournamentStandingsService}.
+ */
+public final class TournamentStandingsTable {
+
+    public static final int WIN_POINTS = 3;
+
+    public static final int DRAW_POINTS = 1;
+
+    /**
+     * A match as far as the standings are concerned, any field but the id may be null.
+     */
+    public static final class Result {
+
+        private final Long homeTeamId;
+        private final String homeTeamName;
+        private final Long awayTeamId;
+        private final String awayTeamName;
+        private final Integer homeScore;
+        private final Integer awayScore;
+
+        public Result(Long homeTeamId, String homeTeamName, Long awayTeamId, String awayTeamName, Integer homeScore, Integer awayScore) {
+            this.homeTeamId = homeTeamId;
+            this.homeTeamName = homeTeamName;
+            this.awayTeamId = awayTeamId;
+            this.awayTeamName = awayTeamName;
+            this.homeScore = homeScore;
+            this.awayScore = awayScore;
+        }
+
+        private boolean isPlayed() {
+            return homeTeamId != null && awayTeamId != null && homeScore != null && awayScore != null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Result)) {
+                return false;
+            }
+            Result other = (Result) o;
+            return (
+                Objects.equals(homeTeamId, other.homeTeamId) &&
+                Objects.equals(homeTeamName, other.homeTeamName) &&
+                Objects.equals(awayTeamId, other.awayTeamId) &&
+                Objects.equals(awayTeamName, other.awayTeamName) &&
+                Objects.equals(homeScore, other.homeScore) &&
+                Objects.equals(awayScore, other.awayScore)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(homeTeamId, awayTeamId, homeScore, awayScore);
+        }
+    }
+
+    private static final Comparator<TeamStandingDTO> RANKING = Comparator
+        .comparingInt(TeamStandingDTO::getPoints)
+        .thenComparingInt(TeamStandingDTO::getGoalDifference)
+        .thenComparingInt(TeamStandingDTO::getGoalsFor)
+        .reversed()
+        .thenComparing(TeamStandingDTO::getTeamName, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(TeamStandingDTO::getTeamId);
+
+    private final Map<Long, Result> resultsByMatch = new HashMap<>();
+
+    private final Map<Long, Row> rowsByTeam = new HashMap<>();
+
+    /**
+     * Puts a match into the table, replacing what it contributed before.
+     *
+     * @return false if the table has not changed.
+     */
+    public boolean put(Long matchId, Result result) {
+        Result previous = resultsByMatch.put(matchId, result);
+        if (result.equals(previous)) {
+            return false;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(result, 1);
+        return true;
+    }
+
+    /**
+     * Takes a match out of the table.
+     *
+     * @return false if the match was not in the table.
+     */
+    public boolean remove(Long matchId) {
+        Result previous = resultsByMatch.remove(matchId);
+        if (previous == null) {
+            return false;
+        }
+        apply(previous, -1);
+        return true;
+    }
+
+    /**
+     * @return the ids of the matches in the table.
+     */
+    public List<Long> matchIds() {
+        return new ArrayList<>(resultsByMatch.keySet());
+    }
+
+    /**
+     * @return the rows ranked by points, goal difference and goals scored, then by team name.
+     */
+    public List<TeamStandingDTO> rows() {
+        List<TeamStandingDTO> rows = new ArrayList<>(rowsByTeam.size());
+        for (Map.Entry<Long, Row> entry : rowsByTeam.entrySet()) {
+            Row row = entry.getValue();
+            rows.add(
+                new TeamStandingDTO(
+                    entry.getKey(),
+                    row.teamName,
+                    row.won + row.drawn + row.lost,
+                    row.won,
+                    row.drawn,
+                    row.lost,
+                    row.goalsFor,
+                    row.goalsAgainst,
+                    row.won * WIN_POINTS + row.drawn * DRAW_POINTS
+                )
+            );
+        }
+        rows.sort(RANKING);
+        return rows;
+    }
+
+    private void apply(Result result, int sign) {
+        Row home = row(result.homeTeamId, result.homeTeamName, sign);
+        Row away = row(result.awayTeamId, result.awayTeamName, sign);
+        if (result.isPlayed()) {
+            home.add(result.homeScore, result.awayScore, sign);
+            away.add(result.awayScore, result.homeScore, sign);
+        }
+        release(result.homeTeamId, home);
+        release(result.awayTeamId, away);
+    }
+
+    private Row row(Long teamId, String teamName, int sign) {
+        if (teamId == null) {
+            return null;
+        }
+        Row row = rowsByTeam.computeIfAbsent(teamId, id -> new Row());
+        row.matches += sign;
+        if (sign > 0 && teamName != null) {
+            row.teamName = teamName;
+        }
+        return row;
+    }
+
+    private void release(Long teamId, Row row) {
+        if (row != null && row.matches == 0) {
+            rowsByTeam.remove(teamId);
+        }
+    }
+
+    private static final class Row {
+
+        private String teamName;
+        private int matches;
+        private int won;
+        private int drawn;
+        private int lost;
+        private int goalsFor;
+        private int goalsAgainst;
+
+        private void add(int scored, int conceded, int sign) {
+            goalsFor += sign * scored;
+            goalsAgainst += sign * conceded;
+            if (scored > conceded) {
+                won += sign;
+            } else if (scored == conceded) {
+                drawn += sign;
+            } else {
+                lost += sign;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package team.bham.service;
+
+/**
+ * Published after a committed change to a user profile or to the ratings it has been given in comments,
+ * so views derived from them can be refreshed.
+ */
+public class UserProfileChangedEvent {
+
+    private final Long userProfileId;
+
+    private final boolean ratingsOnly;
+
+    public UserProfileChangedEvent(Long userProfileId) {
+        this(userProfileId, false);
+    }
+
+    public UserProfileChangedEvent(Long userProfileId, boolean ratingsOnly) {
+        this.userProfileId = userProfileId;
+        this.ratingsOnly = ratingsOnly;
+    }
+
+    public Long getUserProfileId() {
+        return userProfileId;
+    }
+
+    /**
+     * @return true if only the ratings given to the user profile have changed, not the profile itself.
+     */
+    public boolean isRatingsOnly() {
+        return ratingsOnly;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserProfileChangedEvent{" +
+            "userProfileId=" + userProfileId +
+            ", ratingsOnly=" + ratingsOnly +
+            "}";
+    }
+}
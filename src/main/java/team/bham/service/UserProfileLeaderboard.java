@@ -0,0 +1,333 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import team.bham.domain.enumeration.Positions;
+
+/**
+ * Rated user profiles ranked by their Bayesian score, most ratings first between equal scores, then by id.
+ * <p>
+ * Every profile is kept in a ranking of all profiles, and in the rankings of its position, of referees or
+ * non-referees, and of its position among referees or non-referees, so a ranking filtered on either or both
+ * is read straight from its own ranking. Each ranking is a treap in which every node counts the profiles
+ * below it, so the rank of a profile and the start of a page are found in O(log n) however deep they are.
+ * Writes are serialized by the caller, see {@link UserProfileLeaderboardService}, and take the write lock;
+ * reads share the read lock.
+ */
+public final class UserProfileLeaderboard {
+
+    /**
+     * A ranked user profile.
+     */
+    public static final class Entry {
+
+        private final Long userProfileId;
+        private final String name;
+        private final Positions position;
+        private final boolean referee;
+        private final long count;
+        private final double average;
+        private final double score;
+
+        public Entry(Long userProfileId, String name, Positions position, boolean referee, long count, double average, double score) {
+            this.userProfileId = userProfileId;
+            this.name = name;
+            this.position = position;
+            this.referee = referee;
+            this.count = count;
+            this.average = average;
+            this.score = score;
+        }
+
+        public Long getUserProfileId() {
+            return userProfileId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Positions getPosition() {
+            return position;
+        }
+
+        public boolean isReferee() {
+            return referee;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getAverage() {
+            return average;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator
+        .comparingDouble(Entry::getScore)
+        .reversed()
+        .thenComparing(Comparator.comparingLong(Entry::getCount).reversed())
+        .thenComparing(Entry::getUserProfileId);
+
+    /**
+     * Profiles in ranking order, as a treap whose nodes count the profiles in their subtree.
+     */
+    private static final class Ranking {
+
+        private static final class Node {
+
+            private final Entry entry;
+            private final int priority;
+            private Node left;
+            private Node right;
+            private int size = 1;
+
+            private Node(Entry entry, int priority) {
+                this.entry = entry;
+                this.priority = priority;
+            }
+
+            private Node update() {
+                size = 1 + size(left) + size(right);
+                return this;
+            }
+        }
+
+        private Node root;
+
+        private int size() {
+            return size(root);
+        }
+
+        private void add(Entry entry) {
+            Node[] split = split(root, entry, false);
+            root = merge(merge(split[0], new Node(entry, ThreadLocalRandom.current().nextInt())), split[1]);
+        }
+
+        private void remove(Entry entry) {
+            Node[] below = split(root, entry, false);
+            Node[] above = split(below[1], entry, true);
+            root = merge(below[0], above[1]);
+        }
+
+        /**
+         * @return the number of profiles ranked above the entry.
+         */
+        private int countAbove(Entry entry) {
+            int count = 0;
+            Node node = root;
+            while (node != null) {
+                if (RANKING.compare(entry, node.entry) <= 0) {
+                    node = node.left;
+                } else {
+                    count += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Adds the profiles of a subtree from the {@code skip}th on to a page, until it holds {@code limit}.
+         */
+        private static void collect(Node node, long skip, int limit, List<Entry> page) {
+            if (node == null || page.size() >= limit || skip >= node.size) {
+                return;
+            }
+            int leftSize = size(node.left);
+            if (skip < leftSize) {
+                collect(node.left, skip, limit, page);
+            }
+            if (skip <= leftSize && page.size() < limit) {
+                page.add(node.entry);
+            }
+            collect(node.right, Math.max(skip - leftSize - 1, 0), limit, page);
+        }
+
+        /**
+         * Splits a subtree into the profiles ranked above the entry and the others, or into the profiles up
+         * to and including the entry and the others.
+         */
+        private static Node[] split(Node node, Entry entry, boolean including) {
+            if (node == null) {
+                return new Node[2];
+            }
+            int comparison = RANKING.compare(node.entry, entry);
+            if (comparison < 0 || (including && comparison == 0)) {
+                Node[] split = split(node.right, entry, including);
+                node.right = split[0];
+                split[0] = node.update();
+                return split;
+            }
+            Node[] split = split(node.left, entry, including);
+            node.left = split[1];
+            split[1] = node.update();
+            return split;
+        }
+
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                return left.update();
+            }
+            right.left = merge(left, right.left);
+            return right.update();
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private final Ranking all = new Ranking();
+
+    private final Ranking[] byReferee = { new Ranking(), new Ranking() };
+
+    private final Map<Positions, Ranking> byPosition = new EnumMap<>(Positions.class);
+
+    private final Map<Positions, Ranking[]> byPositionAndReferee = new EnumMap<>(Positions.class);
+
+    public UserProfileLeaderboard() {
+        for (Positions position : Positions.values()) {
+            byPosition.put(position, new Ranking());
+            byPositionAndReferee.put(position, new Ranking[] { new Ranking(), new Ranking() });
+        }
+    }
+
+    /**
+     * Adds a user profile, or moves it to where its new entry ranks.
+     */
+    public void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(entry.getUserProfileId());
+            entries.put(entry.getUserProfileId(), entry);
+            for (Ranking ranking : rankingsOf(entry)) {
+                ranking.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user profile if it is ranked.
+     */
+    public void remove(Long userProfileId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(userProfileId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Entry> get(Long userProfileId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(entries.get(userProfileId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param position the position to rank the profiles of, or null for all positions.
+     * @param referee whether to rank referees or non-referees, or null for both.
+     * @return the number of ranked profiles matching the filter.
+     */
+    public int size(Positions position, Boolean referee) {
+        lock.readLock().lock();
+        try {
+            return ranking(position, referee).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param position the position to rank the profiles of, or null for all positions.
+     * @param referee whether to rank referees or non-referees, or null for both.
+     * @return the profiles matching the filter from {@code offset}, best first, at most {@code limit} of them.
+     */
+    public List<Entry> ranked(Positions position, Boolean referee, long offset, int limit) {
+        List<Entry> page = new ArrayList<>(Math.min(limit, 100));
+        lock.readLock().lock();
+        try {
+            Ranking.collect(ranking(position, referee).root, offset, limit, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return page;
+    }
+
+    /**
+     * @param position the position to rank the profiles of, or null for all positions.
+     * @param referee whether to rank referees or non-referees, or null for both.
+     * @return the rank of the profile from 1, or empty if it is not ranked or does not match the filter.
+     */
+    public Optional<Integer> rank(Long userProfileId, Positions position, Boolean referee) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(userProfileId);
+            if (
+                entry == null || (position != null && position != entry.getPosition()) || (referee != null && referee != entry.isReferee())
+            ) {
+                return Optional.empty();
+            }
+            return Optional.of(ranking(position, referee).countAbove(entry) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeEntry(Long userProfileId) {
+        Entry entry = entries.remove(userProfileId);
+        if (entry != null) {
+            for (Ranking ranking : rankingsOf(entry)) {
+                ranking.remove(entry);
+            }
+        }
+    }
+
+    private Ranking ranking(Positions position, Boolean referee) {
+        if (position == null) {
+            return referee == null ? all : byReferee[referee ? 1 : 0];
+        }
+        return referee == null ? byPosition.get(position) : byPositionAndReferee.get(position)[referee ? 1 : 0];
+    }
+
+    private List<Ranking> rankingsOf(Entry entry) {
+        List<Ranking> rankings = new ArrayList<>(4);
+        rankings.add(all);
+        rankings.add(ranking(null, entry.isReferee()));
+        if (entry.getPosition() != null) {
+            rankings.add(ranking(entry.getPosition(), null));
+            rankings.add(ranking(entry.getPosition(), entry.isReferee()));
+        }
+        return rankings;
+    }
+}
@@ -0,0 +1,140 @@
+package team.bham.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.domain.UserProfile;
+import team.bham.domain.enumeration.Positions;
+import team.bham.repository.UserProfileRatingRepository;
+import team.bham.service.dto.UserProfileRankDTO;
+import team.bham.service.dto.UserRatingDTO;
+
+/**
+ * Service ranking the {@link UserProfile}s that have been rated in comments, see {@link UserProfileLeaderboard}.
+ * <p>
+ * The leaderboard is read from the rating aggregates the first time it is needed. From then on a
+ * {@link UserProfileChangedEvent} reads the aggregate and profile of just that user profile again and moves
+ * it on the leaderboard, so rankings are served from memory.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserProfileLeaderboardService {
+
+    private final Logger log = LoggerFactory.getLogger(UserProfileLeaderboardService.class);
+
+    private final UserProfileRatingRepository userProfileRatingRepository;
+
+    // Null until read
+    private volatile UserProfileLeaderboard leaderboard;
+
+    public UserProfileLeaderboardService(UserProfileRatingRepository userProfileRatingRepository) {
+        this.userProfileRatingRepository = userProfileRatingRepository;
+    }
+
+    /**
+     * Get a page of the rated user profiles, the best score first.
+     *
+     * @param position the position of the profiles, or null for all positions.
+     * @param referee whether the profiles are referees, or null for both.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of ranked profiles.
+     */
+    public Page<UserProfileRankDTO> findLeaderboard(Positions position, Boolean referee, Pageable pageable) {
+        UserProfileLeaderboard ranked = leaderboard();
+        List<UserProfileRankDTO> rows = new ArrayList<>(pageable.getPageSize());
+        long rank = pageable.getOffset();
+        for (UserProfileLeaderboard.Entry entry : ranked.ranked(position, referee, pageable.getOffset(), pageable.getPageSize())) {
+            rows.add(toDto(++rank, entry));
+        }
+        return new PageImpl<>(rows, pageable, ranked.size(position, referee));
+    }
+
+    /**
+     * Get the rank of a user profile among the rated profiles.
+     *
+     * @param userProfileId the id of the user profile.
+     * @param position the position to rank the profile among, or null for all positions.
+     * @param referee whether to rank the profile among referees or non-referees, or null for both.
+     * @return the ranked profile, or empty if it has no ratings or does not match the filter.
+     */
+    public Optional<UserProfileRankDTO> findRank(Long userProfileId, Positions position, Boolean referee) {
+        UserProfileLeaderboard ranked = leaderboard();
+        return ranked
+            .get(userProfileId)
+            .flatMap(entry -> ranked.rank(userProfileId, position, referee).map(rank -> toDto(rank, entry)));
+    }
+
+    /**
+     * Forgets the leaderboard, so it is read from the rating aggregates again the next time it is needed.
+     */
+    public synchronized void reset() {
+        leaderboard = null;
+    }
+
+    @EventListener
+    public synchronized void onUserProfileChanged(UserProfileChangedEvent event) {
+        if (leaderboard == null) {
+            // Not read yet, the change is read with the others
+            return;
+        }
+        Optional<UserProfileRatingRepository.RatedProfile> rated = userProfileRatingRepository.findRatedProfile(event.getUserProfileId());
+        if (rated.isPresent()) {
+            leaderboard.put(toEntry(rated.get()));
+        } else {
+            leaderboard.remove(event.getUserProfileId());
+        }
+    }
+
+    private UserProfileLeaderboard leaderboard() {
+        UserProfileLeaderboard ranked = leaderboard;
+        if (ranked != null) {
+            return ranked;
+        }
+        synchronized (this) {
+            if (leaderboard == null) {
+                UserProfileLeaderboard read = new UserProfileLeaderboard();
+                try (Stream<UserProfileRatingRepository.RatedProfile> rated = userProfileRatingRepository.streamRatedProfiles()) {
+                    rated.forEach(profile -> read.put(toEntry(profile)));
+                }
+                log.debug("Read the ratings of {} UserProfiles", read.size(null, null));
+                leaderboard = read;
+            }
+            return leaderboard;
+        }
+    }
+
+    private static UserProfileLeaderboard.Entry toEntry(UserProfileRatingRepository.RatedProfile profile) {
+        UserRatingDTO rating = CommentService.toDto(profile.getRating());
+        return new UserProfileLeaderboard.Entry(
+            rating.getUserProfileId(),
+            profile.getName(),
+            profile.getPosition(),
+            Boolean.TRUE.equals(profile.getReferee()),
+            rating.getCount(),
+            rating.getAverage(),
+            rating.getBayesianScore()
+        );
+    }
+
+    private static UserProfileRankDTO toDto(long rank, UserProfileLeaderboard.Entry entry) {
+        return new UserProfileRankDTO(
+            rank,
+            entry.getUserProfileId(),
+            entry.getName(),
+            entry.getPosition(),
+            entry.isReferee(),
+            entry.getCount(),
+            entry.getAverage(),
+            entry.getScore()
+        );
+    }
+}
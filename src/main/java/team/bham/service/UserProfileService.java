@@ -4,8 +4,11 @@ import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import team.bham.domain.User;
 import team.bham.domain.UserProfile;
 import team.bham.repository.UserProfileRepository;
@@ -27,10 +30,16 @@ public class UserProfileService {
     private final Logger log = LoggerFactory.getLogger(UserProfileService.class);
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
-    public UserProfileService(UserRepository userRepository, UserProfileRepository userProfileRepository) {
+    public UserProfileService(
+        UserRepository userRepository,
+        UserProfileRepository userProfileRepository,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.userRepository = userRepository;
         this.userProfileRepository = userProfileRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     public long getUserId() {
@@ -51,4 +60,42 @@ public class UserProfileService {
         Optional<UserProfile> potentialUserProfile = userProfileRepository.findById(userId);
         return potentialUserProfile;
     }
+
+    /**
+     * Publishes a {@link UserProfileChangedEvent} for a user profile, once the current transaction has committed.
+     *
+     * @param userProfileId the id of the user profile that has changed.
+     */
+    public void changed(Long userProfileId) {
+        publish(userProfileId, false);
+    }
+
+    /**
+     * Publishes a {@link UserProfileChangedEvent} for the ratings given to a user profile, once the current
+     * transaction has committed.
+     *
+     * @param userProfileId the id of the user profile whose ratings have changed.
+     */
+    public void ratingsChanged(Long userProfileId) {
+        publish(userProfileId, true);
+    }
+
+    private void publish(Long userProfileId, boolean ratingsOnly) {
+        if (userProfileId == null) {
+            return;
+        }
+        UserProfileChangedEvent event = new UserProfileChangedEvent(userProfileId, ratingsOnly);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        applicationEventPublisher.publishEvent(event);
+                    }
+                }
+            );
+        } else {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the number of likes of a comment.
+ */
+public class CommentLikesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long commentId;
+
+    private int likeCount;
+
+    public CommentLikesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CommentLikesDTO(Long commentId, int likeCount) {
+        this.commentId = commentId;
+        this.likeCount = likeCount;
+    }
+
+    public Long getCommentId() {
+        return commentId;
+    }
+
+    public void setCommentId(Long commentId) {
+        this.commentId = commentId;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommentLikesDTO{" +
+            "commentId=" + commentId +
+            ", likeCount=" + likeCount +
+            "}";
+    }
+}
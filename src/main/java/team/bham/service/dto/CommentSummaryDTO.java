@@ -0,0 +1,121 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a comment with the ids of what it refers to and the name of its author.
+ */
+public class CommentSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Integer rating;
+
+    private String content;
+
+    private Integer likeCount;
+
+    private Long replyingToId;
+
+    private Long authorId;
+
+    private String authorName;
+
+    private Long targetUserId;
+
+    private Long matchId;
+
+    public CommentSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+
+    public void setRating(Integer rating) {
+        this.rating = rating;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public Long getReplyingToId() {
+        return replyingToId;
+    }
+
+    public void setReplyingToId(Long replyingToId) {
+        this.replyingToId = replyingToId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public Long getTargetUserId() {
+        return targetUserId;
+    }
+
+    public void setTargetUserId(Long targetUserId) {
+        this.targetUserId = targetUserId;
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommentSummaryDTO{" +
+            "id=" + id +
+            ", rating=" + rating +
+            ", content='" + content + "'" +
+            ", likeCount=" + likeCount +
+            ", replyingToId=" + replyingToId +
+            ", authorId=" + authorId +
+            ", authorName='" + authorName + "'" +
+            ", targetUserId=" + targetUserId +
+            ", matchId=" + matchId +
+            "}";
+    }
+}
@@ -0,0 +1,57 @@
+package team.bham.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing a comment with the replies to it, nested.
+ */
+public class CommentThreadDTO extends CommentSummaryDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private long replyCount;
+
+    private List<CommentThreadDTO> replies = new ArrayList<>();
+
+    public CommentThreadDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * @return the number of direct replies to the comment, which is more than the size of {@link #getReplies()} when the thread was cut short.
+     */
+    public long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(long replyCount) {
+        this.replyCount = replyCount;
+    }
+
+    public List<CommentThreadDTO> getReplies() {
+        return replies;
+    }
+
+    public void setReplies(List<CommentThreadDTO> replies) {
+        this.replies = replies;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommentThreadDTO{" +
+            "id=" + getId() +
+            ", rating=" + getRating() +
+            ", content='" + getContent() + "'" +
+            ", likeCount=" + getLikeCount() +
+            ", replyingToId=" + getReplyingToId() +
+            ", authorId=" + getAuthorId() +
+            ", authorName='" + getAuthorName() + "'" +
+            ", targetUserId=" + getTargetUserId() +
+            ", matchId=" + getMatchId() +
+            ", replyCount=" + replyCount +
+            ", replies=" + replies.size() +
+            "}";
+    }
+}
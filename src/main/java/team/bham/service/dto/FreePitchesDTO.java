@@ -0,0 +1,52 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the pitches that are free for a time window on one day.
+ */
+public class FreePitchesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate date;
+
+    private List<Long> pitchIds = new ArrayList<>();
+
+    public FreePitchesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FreePitchesDTO(LocalDate date, List<Long> pitchIds) {
+        this.date = date;
+        this.pitchIds = pitchIds;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public List<Long> getPitchIds() {
+        return pitchIds;
+    }
+
+    public void setPitchIds(List<Long> pitchIds) {
+        this.pitchIds = pitchIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FreePitchesDTO{" +
+            "date='" + date + "'" +
+            ", pitchIds=" + pitchIds +
+            "}";
+    }
+}
@@ -0,0 +1,219 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing a match as shown on its own page: its teams with their members, and just enough of
+ * its referee, pitch and tournament to display them and link to them.
+ */
+public class MatchDetailDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id, name and profile picture of a team member.
+     */
+    public static class Member implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String name;
+
+        private byte[] profilePic;
+
+        private String profilePicContentType;
+
+        public Member() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public Member(Long id, String name, byte[] profilePic, String profilePicContentType) {
+            this.id = id;
+            this.name = name;
+            this.profilePic = profilePic;
+            this.profilePicContentType = profilePicContentType;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public byte[] getProfilePic() {
+            return profilePic;
+        }
+
+        public void setProfilePic(byte[] profilePic) {
+            this.profilePic = profilePic;
+        }
+
+        public String getProfilePicContentType() {
+            return profilePicContentType;
+        }
+
+        public void setProfilePicContentType(String profilePicContentType) {
+            this.profilePicContentType = profilePicContentType;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Member{" +
+                "id=" + id +
+                ", name='" + name + "'" +
+                "}";
+        }
+    }
+
+    /**
+     * The id, name and image of a team, and its members ordered by name.
+     */
+    public static class Team extends MatchSummaryDTO.TeamReference {
+
+        private static final long serialVersionUID = 1L;
+
+        private List<Member> members = new ArrayList<>();
+
+        public Team() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public Team(Long id, String name, byte[] image, String imageContentType) {
+            super(id, name, image, imageContentType);
+        }
+
+        public List<Member> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<Member> members) {
+            this.members = members;
+        }
+    }
+
+    private Long id;
+
+    private Integer homeScore;
+
+    private Integer awayScore;
+
+    private Instant date;
+
+    private MatchSummaryDTO.Reference referee;
+
+    private MatchSummaryDTO.Reference pitch;
+
+    private Team home;
+
+    private Team away;
+
+    private MatchSummaryDTO.Reference tournament;
+
+    public MatchDetailDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getHomeScore() {
+        return homeScore;
+    }
+
+    public void setHomeScore(Integer homeScore) {
+        this.homeScore = homeScore;
+    }
+
+    public Integer getAwayScore() {
+        return awayScore;
+    }
+
+    public void setAwayScore(Integer awayScore) {
+        this.awayScore = awayScore;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public MatchSummaryDTO.Reference getReferee() {
+        return referee;
+    }
+
+    public void setReferee(MatchSummaryDTO.Reference referee) {
+        this.referee = referee;
+    }
+
+    public MatchSummaryDTO.Reference getPitch() {
+        return pitch;
+    }
+
+    public void setPitch(MatchSummaryDTO.Reference pitch) {
+        this.pitch = pitch;
+    }
+
+    public Team getHome() {
+        return home;
+    }
+
+    public void setHome(Team home) {
+        this.home = home;
+    }
+
+    public Team getAway() {
+        return away;
+    }
+
+    public void setAway(Team away) {
+        this.away = away;
+    }
+
+    public MatchSummaryDTO.Reference getTournament() {
+        return tournament;
+    }
+
+    public void setTournament(MatchSummaryDTO.Reference tournament) {
+        this.tournament = tournament;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MatchDetailDTO{" +
+            "id=" + id +
+            ", homeScore=" + homeScore +
+            ", awayScore=" + awayScore +
+            ", date='" + date + "'" +
+            ", referee=" + referee +
+            ", pitch=" + pitch +
+            ", home=" + home +
+            ", away=" + away +
+            ", tournament=" + tournament +
+            "}";
+    }
+}
@@ -0,0 +1,128 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing the score of a match as pushed to the spectators of the match or of its tournament.
+ */
+public class MatchScoreDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long matchId;
+
+    private Long tournamentId;
+
+    private Instant date;
+
+    private Long homeTeamId;
+
+    private String homeTeamName;
+
+    private Long awayTeamId;
+
+    private String awayTeamName;
+
+    private Integer homeScore;
+
+    private Integer awayScore;
+
+    private boolean deleted;
+
+    public MatchScoreDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+
+    public Long getTournamentId() {
+        return tournamentId;
+    }
+
+    public void setTournamentId(Long tournamentId) {
+        this.tournamentId = tournamentId;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public Long getHomeTeamId() {
+        return homeTeamId;
+    }
+
+    public void setHomeTeamId(Long homeTeamId) {
+        this.homeTeamId = homeTeamId;
+    }
+
+    public String getHomeTeamName() {
+        return homeTeamName;
+    }
+
+    public void setHomeTeamName(String homeTeamName) {
+        this.homeTeamName = homeTeamName;
+    }
+
+    public Long getAwayTeamId() {
+        return awayTeamId;
+    }
+
+    public void setAwayTeamId(Long awayTeamId) {
+        this.awayTeamId = awayTeamId;
+    }
+
+    public String getAwayTeamName() {
+        return awayTeamName;
+    }
+
+    public void setAwayTeamName(String awayTeamName) {
+        this.awayTeamName = awayTeamName;
+    }
+
+    public Integer getHomeScore() {
+        return homeScore;
+    }
+
+    public void setHomeScore(Integer homeScore) {
+        this.homeScore = homeScore;
+    }
+
+    public Integer getAwayScore() {
+        return awayScore;
+    }
+
+    public void setAwayScore(Integer awayScore) {
+        this.awayScore = awayScore;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MatchScoreDTO{" +
+            "matchId=" + matchId +
+            ", tournamentId=" + tournamentId +
+            ", homeScore=" + homeScore +
+            ", awayScore=" + awayScore +
+            ", deleted=" + deleted +
+            "}";
+    }
+}
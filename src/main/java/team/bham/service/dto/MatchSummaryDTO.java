@@ -0,0 +1,207 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing a match as shown in the calendar, with just enough of its teams, referee, pitch and
+ * tournament to display them and link to them.
+ */
+public class MatchSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id and name of a related entity.
+     */
+    public static class Reference implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String name;
+
+        public Reference() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public Reference(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Reference{" +
+                "id=" + id +
+                ", name='" + name + "'" +
+                "}";
+        }
+    }
+
+    /**
+     * The id, name and image of a team.
+     */
+    public static class TeamReference extends Reference {
+
+        private static final long serialVersionUID = 1L;
+
+        private byte[] image;
+
+        private String imageContentType;
+
+        public TeamReference() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public TeamReference(Long id, String name, byte[] image, String imageContentType) {
+            super(id, name);
+            this.image = image;
+            this.imageContentType = imageContentType;
+        }
+
+        public byte[] getImage() {
+            return image;
+        }
+
+        public void setImage(byte[] image) {
+            this.image = image;
+        }
+
+        public String getImageContentType() {
+            return imageContentType;
+        }
+
+        public void setImageContentType(String imageContentType) {
+            this.imageContentType = imageContentType;
+        }
+    }
+
+    private Long id;
+
+    private Integer homeScore;
+
+    private Integer awayScore;
+
+    private Instant date;
+
+    private Reference referee;
+
+    private Reference pitch;
+
+    private TeamReference home;
+
+    private TeamReference away;
+
+    private Reference tournament;
+
+    public MatchSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getHomeScore() {
+        return homeScore;
+    }
+
+    public void setHomeScore(Integer homeScore) {
+        this.homeScore = homeScore;
+    }
+
+    public Integer getAwayScore() {
+        return awayScore;
+    }
+
+    public void setAwayScore(Integer awayScore) {
+        this.awayScore = awayScore;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public Reference getReferee() {
+        return referee;
+    }
+
+    public void setReferee(Reference referee) {
+        this.referee = referee;
+    }
+
+    public Reference getPitch() {
+        return pitch;
+    }
+
+    public void setPitch(Reference pitch) {
+        this.pitch = pitch;
+    }
+
+    public TeamReference getHome() {
+        return home;
+    }
+
+    public void setHome(TeamReference home) {
+        this.home = home;
+    }
+
+    public TeamReference getAway() {
+        return away;
+    }
+
+    public void setAway(TeamReference away) {
+        this.away = away;
+    }
+
+    public Reference getTournament() {
+        return tournament;
+    }
+
+    public void setTournament(Reference tournament) {
+        this.tournament = tournament;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MatchSummaryDTO{" +
+            "id=" + id +
+            ", homeScore=" + homeScore +
+            ", awayScore=" + awayScore +
+            ", date='" + date + "'" +
+            ", referee=" + referee +
+            ", pitch=" + pitch +
+            ", home=" + home +
+            ", away=" + away +
+            ", tournament=" + tournament +
+            "}";
+    }
+}
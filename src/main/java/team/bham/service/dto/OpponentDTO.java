@@ -0,0 +1,86 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import team.bham.domain.enumeration.PlayType;
+
+/**
+ * A DTO representing a possible opponent of a team and how much availability the two teams share.
+ */
+public class OpponentDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long teamId;
+
+    private String name;
+
+    private PlayType playType;
+
+    private String location;
+
+    private long sharedMinutes;
+
+    public OpponentDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OpponentDTO(Long teamId, String name, PlayType playType, String location, long sharedMinutes) {
+        this.teamId = teamId;
+        this.name = name;
+        this.playType = playType;
+        this.location = location;
+        this.sharedMinutes = sharedMinutes;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public PlayType getPlayType() {
+        return playType;
+    }
+
+    public void setPlayType(PlayType playType) {
+        this.playType = playType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public long getSharedMinutes() {
+        return sharedMinutes;
+    }
+
+    public void setSharedMinutes(long sharedMinutes) {
+        this.sharedMinutes = sharedMinutes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OpponentDTO{" +
+            "teamId=" + teamId +
+            ", name='" + name + "'" +
+            ", playType='" + playType + "'" +
+            ", location='" + location + "'" +
+            ", sharedMinutes=" + sharedMinutes +
+            "}";
+    }
+}
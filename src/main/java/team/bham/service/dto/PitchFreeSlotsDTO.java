@@ -0,0 +1,76 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the open windows of a pitch on one day.
+ */
+public class PitchFreeSlotsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long pitchId;
+
+    private String pitchName;
+
+    private LocalDate date;
+
+    private List<TimeSlotDTO> freeSlots = new ArrayList<>();
+
+    public PitchFreeSlotsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PitchFreeSlotsDTO(Long pitchId, String pitchName, LocalDate date, List<TimeSlotDTO> freeSlots) {
+        this.pitchId = pitchId;
+        this.pitchName = pitchName;
+        this.date = date;
+        this.freeSlots = freeSlots;
+    }
+
+    public Long getPitchId() {
+        return pitchId;
+    }
+
+    public void setPitchId(Long pitchId) {
+        this.pitchId = pitchId;
+    }
+
+    public String getPitchName() {
+        return pitchName;
+    }
+
+    public void setPitchName(String pitchName) {
+        this.pitchName = pitchName;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public List<TimeSlotDTO> getFreeSlots() {
+        return freeSlots;
+    }
+
+    public void setFreeSlots(List<TimeSlotDTO> freeSlots) {
+        this.freeSlots = freeSlots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PitchFreeSlotsDTO{" +
+            "pitchId=" + pitchId +
+            ", pitchName='" + pitchName + "'" +
+            ", date='" + date + "'" +
+            ", freeSlots=" + freeSlots +
+            "}";
+    }
+}
@@ -0,0 +1,90 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing a short-lived hold on a pitch slot, taken while the booking is being confirmed.
+ */
+public class PitchHoldDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String token;
+
+    @NotNull
+    private Long pitchId;
+
+    @NotNull
+    private Instant startTime;
+
+    @NotNull
+    private Instant endTime;
+
+    private Instant expiresAt;
+
+    public PitchHoldDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PitchHoldDTO(String token, Long pitchId, Instant startTime, Instant endTime, Instant expiresAt) {
+        this.token = token;
+        this.pitchId = pitchId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Long getPitchId() {
+        return pitchId;
+    }
+
+    public void setPitchId(Long pitchId) {
+        this.pitchId = pitchId;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PitchHoldDTO{" +
+            "token='" + token + "'" +
+            ", pitchId=" + pitchId +
+            ", startTime='" + startTime + "'" +
+            ", endTime='" + endTime + "'" +
+            ", expiresAt='" + expiresAt + "'" +
+            "}";
+    }
+}
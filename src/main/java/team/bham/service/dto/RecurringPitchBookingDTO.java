@@ -0,0 +1,89 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import team.bham.domain.PitchBooking;
+
+/**
+ * A DTO representing a booking repeated at a fixed frequency until a date.
+ */
+public class RecurringPitchBookingDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+    }
+
+    /**
+     * The first occurrence, every further occurrence keeps its wall-clock start time and its length.
+     */
+    @NotNull
+    @Valid
+    private PitchBooking booking;
+
+    @NotNull
+    private Frequency frequency;
+
+    @Min(1)
+    @Max(52)
+    private int interval = 1;
+
+    /**
+     * The last day an occurrence may start on, inclusive.
+     */
+    @NotNull
+    private LocalDate until;
+
+    public RecurringPitchBookingDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PitchBooking getBooking() {
+        return booking;
+    }
+
+    public void setBooking(PitchBooking booking) {
+        this.booking = booking;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDate until) {
+        this.until = until;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RecurringPitchBookingDTO{" +
+            "booking=" + booking +
+            ", frequency='" + frequency + "'" +
+            ", interval=" + interval +
+            ", until='" + until + "'" +
+            "}";
+    }
+}
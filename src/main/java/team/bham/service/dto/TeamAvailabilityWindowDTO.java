@@ -0,0 +1,65 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing a window {@code [start, end)} in which enough members of a team are free.
+ */
+public class TeamAvailabilityWindowDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant start;
+
+    private Instant end;
+
+    private int availableMembers;
+
+    public TeamAvailabilityWindowDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TeamAvailabilityWindowDTO(Instant start, Instant end, int availableMembers) {
+        this.start = start;
+        this.end = end;
+        this.availableMembers = availableMembers;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public void setEnd(Instant end) {
+        this.end = end;
+    }
+
+    /**
+     * The fewest members free at any point of the window.
+     */
+    public int getAvailableMembers() {
+        return availableMembers;
+    }
+
+    public void setAvailableMembers(int availableMembers) {
+        this.availableMembers = availableMembers;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TeamAvailabilityWindowDTO{" +
+            "start='" + start + "'" +
+            ", end='" + end + "'" +
+            ", availableMembers=" + availableMembers +
+            "}";
+    }
+}
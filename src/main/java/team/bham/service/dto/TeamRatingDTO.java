@@ -0,0 +1,85 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a team on the rating leaderboard.
+ */
+public class TeamRatingDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long rank;
+
+    private Long teamId;
+
+    private String teamName;
+
+    private double rating;
+
+    private int played;
+
+    public TeamRatingDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TeamRatingDTO(long rank, Long teamId, String teamName, double rating, int played) {
+        this.rank = rank;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.rating = rating;
+        this.played = played;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public void setRank(long rank) {
+        this.rank = rank;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public int getPlayed() {
+        return played;
+    }
+
+    public void setPlayed(int played) {
+        this.played = played;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TeamRatingDTO{" +
+            "rank=" + rank +
+            ", teamId=" + teamId +
+            ", teamName='" + teamName + "'" +
+            ", rating=" + rating +
+            ", played=" + played +
+            "}";
+    }
+}
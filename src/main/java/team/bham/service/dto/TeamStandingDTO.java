@@ -0,0 +1,175 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO representing the row of a team in the standings of a tournament.
+ */
+public class TeamStandingDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long teamId;
+
+    private String teamName;
+
+    private int played;
+
+    private int won;
+
+    private int drawn;
+
+    private int lost;
+
+    private int goalsFor;
+
+    private int goalsAgainst;
+
+    private int points;
+
+    public TeamStandingDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TeamStandingDTO(
+        Long teamId,
+        String teamName,
+        int played,
+        int won,
+        int drawn,
+        int lost,
+        int goalsFor,
+        int goalsAgainst,
+        int points
+    ) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.played = played;
+        this.won = won;
+        this.drawn = drawn;
+        this.lost = lost;
+        this.goalsFor = goalsFor;
+        this.goalsAgainst = goalsAgainst;
+        this.points = points;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    public int getPlayed() {
+        return played;
+    }
+
+    public void setPlayed(int played) {
+        this.played = played;
+    }
+
+    public int getWon() {
+        return won;
+    }
+
+    public void setWon(int won) {
+        this.won = won;
+    }
+
+    public int getDrawn() {
+        return drawn;
+    }
+
+    public void setDrawn(int drawn) {
+        this.drawn = drawn;
+    }
+
+    public int getLost() {
+        return lost;
+    }
+
+    public void setLost(int lost) {
+        this.lost = lost;
+    }
+
+    public int getGoalsFor() {
+        return goalsFor;
+    }
+
+    public void setGoalsFor(int goalsFor) {
+        this.goalsFor = goalsFor;
+    }
+
+    public int getGoalsAgainst() {
+        return goalsAgainst;
+    }
+
+    public void setGoalsAgainst(int goalsAgainst) {
+        this.goalsAgainst = goalsAgainst;
+    }
+
+    public int getGoalDifference() {
+        return goalsFor - goalsAgainst;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TeamStandingDTO)) {
+            return false;
+        }
+        TeamStandingDTO other = (TeamStandingDTO) o;
+        return (
+            Objects.equals(teamId, other.teamId) &&
+            Objects.equals(teamName, other.teamName) &&
+            played == other.played &&
+            won == other.won &&
+            drawn == other.drawn &&
+            lost == other.lost &&
+            goalsFor == other.goalsFor &&
+            goalsAgainst == other.goalsAgainst &&
+            points == other.points
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(teamId, played, won, drawn, lost, goalsFor, goalsAgainst, points);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TeamStandingDTO{" +
+            "teamId=" + teamId +
+            ", teamName='" + teamName + "'" +
+            ", played=" + played +
+            ", won=" + won +
+            ", drawn=" + drawn +
+            ", lost=" + lost +
+            ", goalsFor=" + goalsFor +
+            ", goalsAgainst=" + goalsAgainst +
+            ", points=" + points +
+            "}";
+    }
+}
@@ -0,0 +1,50 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing a time window {@code [start, end)}.
+ */
+public class TimeSlotDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant start;
+
+    private Instant end;
+
+    public TimeSlotDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TimeSlotDTO(Instant start, Instant end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public void setEnd(Instant end) {
+        this.end = end;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TimeSlotDTO{" +
+            "start='" + start + "'" +
+            ", end='" + end + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,81 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of scheduling the matches of a tournament onto pitches.
+ */
+public class TournamentScheduleDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private boolean complete;
+
+    private boolean saved;
+
+    private int scheduledMatches;
+
+    private List<Long> unscheduledMatchIds = new ArrayList<>();
+
+    public TournamentScheduleDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TournamentScheduleDTO(boolean complete, boolean saved, int scheduledMatches, List<Long> unscheduledMatchIds) {
+        this.complete = complete;
+        this.saved = saved;
+        this.scheduledMatches = scheduledMatches;
+        this.unscheduledMatchIds = unscheduledMatchIds;
+    }
+
+    /**
+     * @return true if every match has been given a pitch and a time.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    /**
+     * @return true if the schedule has been written, false if it was incomplete and partial schedules were not allowed.
+     */
+    public boolean isSaved() {
+        return saved;
+    }
+
+    public void setSaved(boolean saved) {
+        this.saved = saved;
+    }
+
+    public int getScheduledMatches() {
+        return scheduledMatches;
+    }
+
+    public void setScheduledMatches(int scheduledMatches) {
+        this.scheduledMatches = scheduledMatches;
+    }
+
+    public List<Long> getUnscheduledMatchIds() {
+        return unscheduledMatchIds;
+    }
+
+    public void setUnscheduledMatchIds(List<Long> unscheduledMatchIds) {
+        this.unscheduledMatchIds = unscheduledMatchIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TournamentScheduleDTO{" +
+            "complete=" + complete +
+            ", saved=" + saved +
+            ", scheduledMatches=" + scheduledMatches +
+            ", unscheduledMatchIds=" + unscheduledMatchIds +
+            "}";
+    }
+}
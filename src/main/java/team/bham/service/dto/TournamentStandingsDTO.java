@@ -0,0 +1,69 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the standings of a tournament at one version.
+ */
+public class TournamentStandingsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long tournamentId;
+
+    private long version;
+
+    private List<TeamStandingDTO> standings = new ArrayList<>();
+
+    public TournamentStandingsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TournamentStandingsDTO(Long tournamentId, long version, List<TeamStandingDTO> standings) {
+        this.tournamentId = tournamentId;
+        this.version = version;
+        this.standings = standings;
+    }
+
+    public Long getTournamentId() {
+        return tournamentId;
+    }
+
+    public void setTournamentId(Long tournamentId) {
+        this.tournamentId = tournamentId;
+    }
+
+    /**
+     * @return a number that changes whenever the standings do, and never goes back to an earlier value.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * @return the rows, best team first.
+     */
+    public List<TeamStandingDTO> getStandings() {
+        return standings;
+    }
+
+    public void setStandings(List<TeamStandingDTO> standings) {
+        this.standings = standings;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TournamentStandingsDTO{" +
+            "tournamentId=" + tournamentId +
+            ", version=" + version +
+            ", standings=" + standings +
+            "}";
+    }
+}
@@ -0,0 +1,134 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import team.bham.domain.enumeration.Positions;
+
+/**
+ * A DTO representing the place of a user profile on the leaderboard of ratings given in comments.
+ */
+public class UserProfileRankDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long rank;
+
+    private Long userProfileId;
+
+    private String name;
+
+    private Positions position;
+
+    private boolean referee;
+
+    private long count;
+
+    private double average;
+
+    private double score;
+
+    public UserProfileRankDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserProfileRankDTO(
+        long rank,
+        Long userProfileId,
+        String name,
+        Positions position,
+        boolean referee,
+        long count,
+        double average,
+        double score
+    ) {
+        this.rank = rank;
+        this.userProfileId = userProfileId;
+        this.name = name;
+        this.position = position;
+        this.referee = referee;
+        this.count = count;
+        this.average = average;
+        this.score = score;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public void setRank(long rank) {
+        this.rank = rank;
+    }
+
+    public Long getUserProfileId() {
+        return userProfileId;
+    }
+
+    public void setUserProfileId(Long userProfileId) {
+        this.userProfileId = userProfileId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Positions getPosition() {
+        return position;
+    }
+
+    public void setPosition(Positions position) {
+        this.position = position;
+    }
+
+    public boolean isReferee() {
+        return referee;
+    }
+
+    public void setReferee(boolean referee) {
+        this.referee = referee;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public void setAverage(double average) {
+        this.average = average;
+    }
+
+    /**
+     * @return the average rating pulled towards the middle of the scale, the less so the more ratings there are.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserProfileRankDTO{" +
+            "rank=" + rank +
+            ", userProfileId=" + userProfileId +
+            ", name='" + name + "'" +
+            ", position=" + position +
+            ", referee=" + referee +
+            ", count=" + count +
+            ", average=" + average +
+            ", score=" + score +
+            "}";
+    }
+}
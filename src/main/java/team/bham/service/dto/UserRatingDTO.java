@@ -0,0 +1,95 @@
+package team.bham.service.dto;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A DTO representing the ratings a user profile has been given in comments.
+ */
+public class UserRatingDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userProfileId;
+
+    private long count;
+
+    private double average;
+
+    private double bayesianScore;
+
+    private long[] distribution;
+
+    public UserRatingDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserRatingDTO(Long userProfileId, long count, double average, double bayesianScore, long[] distribution) {
+        this.userProfileId = userProfileId;
+        this.count = count;
+        this.average = average;
+        this.bayesianScore = bayesianScore;
+        this.distribution = distribution;
+    }
+
+    public Long getUserProfileId() {
+        return userProfileId;
+    }
+
+    public void setUserProfileId(Long userProfileId) {
+        this.userProfileId = userProfileId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * @return the mean rating, 0 if there are none.
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    public void setAverage(double average) {
+        this.average = average;
+    }
+
+    /**
+     * @return the mean rating pulled towards the middle of the scale, the less so the more ratings there are.
+     */
+    public double getBayesianScore() {
+        return bayesianScore;
+    }
+
+    public void setBayesianScore(double bayesianScore) {
+        this.bayesianScore = bayesianScore;
+    }
+
+    /**
+     * @return the number of ratings of each value, indexed by the value.
+     */
+    public long[] getDistribution() {
+        return distribution;
+    }
+
+    public void setDistribution(long[] distribution) {
+        this.distribution = distribution;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserRatingDTO{" +
+            "userProfileId=" + userProfileId +
+            ", count=" + count +
+            ", average=" + average +
+            ", bayesianScore=" + bayesianScore +
+            ", distribution=" + Arrays.toString(distribution) +
+            "}";
+    }
+}
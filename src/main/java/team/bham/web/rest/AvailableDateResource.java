@@ -2,6 +2,7 @@ package team.bham.web.rest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import team.bham.domain.AvailableDate;
 import team.bham.repository.AvailableDateRepository;
+import team.bham.service.AvailableDateService;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -32,13 +34,20 @@ public class AvailableDateResource {
 
     private static final String ENTITY_NAME = "availableDate";
 
+    private static final Instant RANGE_MIN = Instant.EPOCH;
+
+    private static final Instant RANGE_MAX = Instant.parse("9999-12-31T00:00:00Z");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final AvailableDateRepository availableDateRepository;
 
-    public AvailableDateResource(AvailableDateRepository availableDateRepository) {
+    private final AvailableDateService availableDateService;
+
+    public AvailableDateResource(AvailableDateRepository availableDateRepository, AvailableDateService availableDateService) {
         this.availableDateRepository = availableDateRepository;
+        this.availableDateService = availableDateService;
     }
 
     /**
@@ -54,7 +63,7 @@ public class AvailableDateResource {
         if (availableDate.getId() != null) {
             throw new BadRequestAlertException("A new availableDate cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        AvailableDate result = availableDateRepository.save(availableDate);
+        AvailableDate result = availableDateService.save(availableDate);
         return ResponseEntity
             .created(new URI("/api/available-dates/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -88,7 +97,7 @@ public class AvailableDateResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        AvailableDate result = availableDateRepository.save(availableDate);
+        AvailableDate result = availableDateService.save(availableDate);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, availableDate.getId().toString()))
@@ -138,7 +147,7 @@ public class AvailableDateResource {
 
                 return existingAvailableDate;
             })
-            .map(availableDateRepository::save);
+            .map(availableDateService::save);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -170,23 +179,61 @@ public class AvailableDateResource {
         return ResponseUtil.wrapOrNotFound(availableDate);
     }
 
+    /**
+     * {@code GET  /available-dates/user/:userId} : get the availableDates of a user profile.
+     *
+     * @param userId the id of the user profile.
+     * @param from only return availableDates ending after this instant.
+     * @param to only return availableDates starting before this instant.
+     * @param futureOnly only return availableDates that have not ended yet.
+     * @return the list of availableDates overlapping the range, ordered by start.
+     */
     @GetMapping("/available-dates/user/{userId}")
-    public List<AvailableDate> getUserAvaliableDate(@PathVariable Long userId) {
-        log.debug("REST request to get AvailableDate of user : {}", userId);
-
-        List<AvailableDate> allAvailableDate = availableDateRepository.findAll();
-
-        List<AvailableDate> usersDate = new ArrayList<>();
-
-        for (AvailableDate ad : allAvailableDate) {
-            if (ad.getUserProfile() != null) {
-                if (Objects.equals(ad.getUserProfile().getId(), userId)) {
-                    usersDate.add(ad);
-                }
-            }
+    @Transactional(readOnly = true)
+    public List<AvailableDate> getUserAvaliableDate(
+        @PathVariable Long userId,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(defaultValue = "false") boolean futureOnly
+    ) {
+        log.debug("REST request to get AvailableDate of user : {} from {} to {}", userId, from, to);
+        Instant lower = from != null ? from : RANGE_MIN;
+        if (futureOnly) {
+            Instant now = Instant.now();
+            lower = lower.isAfter(now) ? lower : now;
         }
+        Instant upper = to != null ? to : RANGE_MAX;
+        if (!lower.isBefore(upper)) {
+            return new ArrayList<>();
+        }
+        return availableDateRepository.findOverlappingByUserProfileId(userId, lower, upper);
+    }
 
-        return usersDate;
+    /**
+     * {@code DELETE  /available-dates/user/:userId} : clear a range from the availableDates of a user profile,
+     * splitting the dates that cross it.
+     *
+     * @param userId the id of the user profile.
+     * @param from the start of the range.
+     * @param to the end of the range.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the range is not valid.
+     */
+    @DeleteMapping("/available-dates/user/{userId}")
+    public ResponseEntity<Void> deleteUserAvailableDateRange(
+        @PathVariable Long userId,
+        @RequestParam Instant from,
+        @RequestParam Instant to
+    ) {
+        log.debug("REST request to delete AvailableDates of user : {} from {} to {}", userId, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The range must end after it starts", ENTITY_NAME, "invalidtimeslot");
+        }
+        availableDateService.deleteRange(userId, from, to);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, userId.toString()))
+            .build();
     }
 
     /**
@@ -198,7 +245,7 @@ public class AvailableDateResource {
     @DeleteMapping("/available-dates/{id}")
     public ResponseEntity<Void> deleteAvailableDate(@PathVariable Long id) {
         log.debug("REST request to delete AvailableDate : {}", id);
-        availableDateRepository.deleteById(id);
+        availableDateService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
@@ -2,7 +2,7 @@ package team.bham.web.rest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -11,15 +11,25 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import team.bham.domain.Comment;
-import team.bham.domain.UserProfile;
 import team.bham.repository.CommentRepository;
+import team.bham.service.CommentLikeService;
 import team.bham.service.CommentService;
+import team.bham.service.dto.CommentLikesDTO;
+import team.bham.service.dto.CommentSummaryDTO;
+import team.bham.service.dto.CommentThreadDTO;
+import team.bham.service.dto.UserRatingDTO;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -34,15 +44,23 @@ public class CommentResource {
 
     private static final String ENTITY_NAME = "comment";
 
+    private static final String DEFAULT_THREAD_DEPTH = "3";
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CommentRepository commentRepository;
     private final CommentService commentService;
+    private final CommentLikeService commentLikeService;
 
-    public CommentResource(CommentRepository commentRepository, CommentService commentService) {
+    public CommentResource(CommentRepository commentRepository, CommentService commentService, CommentLikeService commentLikeService) {
         this.commentRepository = commentRepository;
         this.commentService = commentService;
+        this.commentLikeService = commentLikeService;
     }
 
     /**
@@ -58,7 +76,7 @@ public class CommentResource {
         if (comment.getId() != null) {
             throw new BadRequestAlertException("A new comment cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Comment result = commentRepository.save(comment);
+        Comment result = commentService.save(comment);
         return ResponseEntity
             .created(new URI("/api/comments/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -92,7 +110,7 @@ public class CommentResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Comment result = commentRepository.save(comment);
+        Comment result = commentService.save(comment);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, comment.getId().toString()))
@@ -127,22 +145,7 @@ public class CommentResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Comment> result = commentRepository
-            .findById(comment.getId())
-            .map(existingComment -> {
-                if (comment.getRating() != null) {
-                    existingComment.setRating(comment.getRating());
-                }
-                if (comment.getContent() != null) {
-                    existingComment.setContent(comment.getContent());
-                }
-                if (comment.getLikeCount() != null) {
-                    existingComment.setLikeCount(comment.getLikeCount());
-                }
-
-                return existingComment;
-            })
-            .map(commentRepository::save);
+        Optional<Comment> result = commentService.partialUpdate(comment);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -174,6 +177,174 @@ public class CommentResource {
         return ResponseUtil.wrapOrNotFound(comment);
     }
 
+    /**
+     * {@code GET  /comments/match/:matchId} : get a page of the comments on a match, newest first.
+     * <p>
+     * Pages are keyset based: the next page starts before the id of the last comment of the previous one, and
+     * its URL is sent in the {@code Link} header with {@code rel="next"}.
+     *
+     * @param matchId the id of the match.
+     * @param beforeId the id of the last comment of the previous page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of comments in body.
+     */
+    @GetMapping("/comments/match/{matchId}")
+    public ResponseEntity<List<CommentSummaryDTO>> getCommentsByMatchId(
+        @PathVariable Long matchId,
+        @RequestParam(required = false) Long beforeId,
+        @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.debug("REST request to get Comments by matchId : {}", matchId);
+        checkSize(size);
+        return keysetPage(commentService.findFeedByMatch(matchId, beforeId, size + 1), size);
+    }
+
+    /**
+     * {@code GET  /comments/target-user/:targetUserId} : get a page of the comments about a user profile, newest first.
+     * <p>
+     * Paginated like {@link #getCommentsByMatchId}.
+     *
+     * @param targetUserId the id of the user profile.
+     * @param beforeId the id of the last comment of the previous page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of comments in body.
+     */
+    @GetMapping("/comments/target-user/{targetUserId}")
+    public ResponseEntity<List<CommentSummaryDTO>> getCommentsByTargetUserId(
+        @PathVariable Long targetUserId,
+        @RequestParam(required = false) Long beforeId,
+        @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.debug("REST request to get Comments by targetUserId : {}", targetUserId);
+        checkSize(size);
+        return keysetPage(commentService.findFeedByTargetUser(targetUserId, beforeId, size + 1), size);
+    }
+
+    /**
+     * {@code GET  /comments/author/:authorId} : get a page of the comments written by a user profile, newest first.
+     * <p>
+     * Paginated like {@link #getCommentsByMatchId}.
+     *
+     * @param authorId the id of the user profile.
+     * @param beforeId the id of the last comment of the previous page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of comments in body.
+     */
+    @GetMapping("/comments/author/{authorId}")
+    public ResponseEntity<List<CommentSummaryDTO>> getCommentsByAuthorId(
+        @PathVariable Long authorId,
+        @RequestParam(required = false) Long beforeId,
+        @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.debug("REST request to get Comments by authorId : {}", authorId);
+        checkSize(size);
+        return keysetPage(commentService.findFeedByAuthor(authorId, beforeId, size + 1), size);
+    }
+
+    private void checkSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestAlertException("The page size must be between 1 and " + MAX_PAGE_SIZE, ENTITY_NAME, "invalidsize");
+        }
+    }
+
+    /**
+     * Trims the one extra comment fetched to find out whether there is a next page and links to that page.
+     */
+    private ResponseEntity<List<CommentSummaryDTO>> keysetPage(List<CommentSummaryDTO> comments, int size) {
+        if (comments.size() <= size) {
+            return ResponseEntity.ok().body(comments);
+        }
+        List<CommentSummaryDTO> page = comments.subList(0, size);
+        String next = ServletUriComponentsBuilder
+            .fromCurrentRequest()
+            .replaceQueryParam("beforeId", page.get(size - 1).getId())
+            .replaceQueryParam("size", size)
+            .toUriString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        return ResponseEntity.ok().headers(headers).body(new ArrayList<>(page));
+    }
+
+    /**
+     * {@code GET  /comments/:id/thread} : get the "id" comment with its replies, nested.
+     *
+     * @param id the id of the comment to retrieve.
+     * @param depth the deepest level of replies to get, at most {@link CommentService#MAX_THREAD_DEPTH}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the thread, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/comments/{id}/thread")
+    public ResponseEntity<CommentThreadDTO> getCommentThread(
+        @PathVariable Long id,
+        @RequestParam(value = "depth", defaultValue = DEFAULT_THREAD_DEPTH) int depth
+    ) {
+        log.debug("REST request to get the thread of Comment : {}", id);
+        return ResponseUtil.wrapOrNotFound(commentService.findThread(id, depth));
+    }
+
+    /**
+     * {@code GET  /comments/threads} : get a page of the comment threads on a match or about a user profile, newest first.
+     *
+     * @param matchId the id of the match, if {@code targetUserId} is not given.
+     * @param targetUserId the id of the user profile, if {@code matchId} is not given.
+     * @param depth the deepest level of replies to get, at most {@link CommentService#MAX_THREAD_DEPTH}.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of threads in body,
+     * or with status {@code 400 (Bad Request)} unless exactly one of the match and the user profile is given.
+     */
+    @GetMapping("/comments/threads")
+    public ResponseEntity<List<CommentThreadDTO>> getCommentThreads(
+        @RequestParam(value = "match", required = false) Long matchId,
+        @RequestParam(value = "targetUser", required = false) Long targetUserId,
+        @RequestParam(value = "depth", defaultValue = DEFAULT_THREAD_DEPTH) int depth,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of Comment threads of Match : {}, UserProfile : {}", matchId, targetUserId);
+        if ((matchId == null) == (targetUserId == null)) {
+            throw new BadRequestAlertException("Either a match or a target user is needed", ENTITY_NAME, "threadfilter");
+        }
+        Page<CommentThreadDTO> page = matchId != null
+            ? commentService.findThreadsByMatch(matchId, depth, pageable)
+            : commentService.findThreadsByTargetUser(targetUserId, depth, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@code GET  /comments/:id/likes} : get the number of likes of the "id" comment.
+     *
+     * @param id the id of the comment.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of likes, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/comments/{id}/likes")
+    public ResponseEntity<CommentLikesDTO> getCommentLikes(@PathVariable Long id) {
+        log.debug("REST request to get the likes of Comment : {}", id);
+        return ResponseUtil.wrapOrNotFound(commentLikeService.findLikes(id));
+    }
+
+    /**
+     * {@code POST  /comments/:id/like} : like the "id" comment.
+     *
+     * @param id the id of the comment.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of likes, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/comments/{id}/like")
+    public ResponseEntity<CommentLikesDTO> likeComment(@PathVariable Long id) {
+        log.debug("REST request to like Comment : {}", id);
+        return ResponseUtil.wrapOrNotFound(commentLikeService.like(id));
+    }
+
+    /**
+     * {@code DELETE  /comments/:id/like} : take back a like of the "id" comment.
+     *
+     * @param id the id of the comment.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of likes, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/comments/{id}/like")
+    public ResponseEntity<CommentLikesDTO> unlikeComment(@PathVariable Long id) {
+        log.debug("REST request to unlike Comment : {}", id);
+        return ResponseUtil.wrapOrNotFound(commentLikeService.unlike(id));
+    }
+
     /**
      * {@code DELETE  /comments/:id} : delete the "id" comment.
      *
@@ -183,19 +354,23 @@ public class CommentResource {
     @DeleteMapping("/comments/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable Long id) {
         log.debug("REST request to delete Comment : {}", id);
-        commentRepository.deleteById(id);
+        commentService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
 
+    /**
+     * {@code GET  /calculate-averagerate/:targetUserId} : get the ratings the "targetUserId" user profile has been given.
+     *
+     * @param targetUserId the id of the user profile.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the count, average, Bayesian score and distribution
+     * of the ratings, or with status {@code 404 (Not Found)}.
+     */
     @GetMapping("/calculate-averagerate/{targetUserId}")
-    public ResponseEntity<Double> calculateAverageRate(@PathVariable UserProfile targetUserId) {
-        //        log.debug("REST request to calculate average rate for target user : {}", targetUserId);
-        //        UserProfile targetUser = commentService.getUserProfile(targetUserId);
-
-        double averageRate = commentService.calculateAverageRate(targetUserId);
-        return ResponseEntity.ok().body(averageRate);
+    public ResponseEntity<UserRatingDTO> calculateAverageRate(@PathVariable Long targetUserId) {
+        log.debug("REST request to get the ratings of UserProfile : {}", targetUserId);
+        return ResponseUtil.wrapOrNotFound(commentService.findRating(targetUserId));
     }
 }
@@ -0,0 +1,113 @@
+package team.bham.web.rest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import team.bham.repository.MatchRepository;
+import team.bham.repository.TournamentRepository;
+import team.bham.service.LiveScoreBroadcaster;
+import team.bham.service.dto.MatchScoreDTO;
+
+/**
+ * REST controller streaming the scores of {@link team.bham.domain.Match}es as Server-Sent Events.
+ * <p>
+ * Each change of a match is sent as a {@code score} event whose data is a {@link MatchScoreDTO}. A stream
+ * ends after {@link #STREAM_TIMEOUT}, or when the client falls behind, and the client is expected to
+ * reconnect.
+ */
+@RestController
+@RequestMapping("/api")
+public class LiveScoreResource {
+
+    static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+    private final Logger log = LoggerFactory.getLogger(LiveScoreResource.class);
+
+    private final LiveScoreBroadcaster liveScoreBroadcaster;
+
+    private final MatchRepository matchRepository;
+
+    private final TournamentRepository tournamentRepository;
+
+    public LiveScoreResource(
+        LiveScoreBroadcaster liveScoreBroadcaster,
+        MatchRepository matchRepository,
+        TournamentRepository tournamentRepository
+    ) {
+        this.liveScoreBroadcaster = liveScoreBroadcaster;
+        this.matchRepository = matchRepository;
+        this.tournamentRepository = tournamentRepository;
+    }
+
+    /**
+     * {@code GET  /matches/:id/scores} : stream the score changes of the "id" match.
+     *
+     * @param id the id of the match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the event stream as body, with status
+     * {@code 404 (Not Found)}, or with status {@code 503 (Service Unavailable)} if there are too many streams open.
+     */
+    @GetMapping(path = "/matches/{id}/scores", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMatchScores(@PathVariable Long id) {
+        log.debug("REST request to stream the scores of Match : {}", id);
+        if (!matchRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return stream(sink -> liveScoreBroadcaster.subscribeToMatch(id, sink));
+    }
+
+    /**
+     * {@code GET  /tournaments/:id/scores} : stream the score changes of the matches of the "id" tournament.
+     *
+     * @param id the id of the tournament.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the event stream as body, with status
+     * {@code 404 (Not Found)}, or with status {@code 503 (Service Unavailable)} if there are too many streams open.
+     */
+    @GetMapping(path = "/tournaments/{id}/scores", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTournamentScores(@PathVariable Long id) {
+        log.debug("REST request to stream the scores of Tournament : {}", id);
+        if (!tournamentRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return stream(sink -> liveScoreBroadcaster.subscribeToTournament(id, sink));
+    }
+
+    private ResponseEntity<SseEmitter> stream(
+        Function<LiveScoreBroadcaster.Sink, Optional<LiveScoreBroadcaster.Subscription>> subscribe
+    ) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        Optional<LiveScoreBroadcaster.Subscription> subscription = subscribe.apply(
+            new LiveScoreBroadcaster.Sink() {
+                @Override
+                public void send(MatchScoreDTO score) throws IOException {
+                    emitter.send(SseEmitter.event().name("score").data(score, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void heartbeat() throws IOException {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+
+                @Override
+                public void close() {
+                    emitter.complete();
+                }
+            }
+        );
+        if (subscription.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(subscription.get()::cancel);
+        emitter.onError(e -> subscription.get().cancel());
+        // Ends the stream normally rather than with an error, the client reconnects
+        emitter.onTimeout(emitter::complete);
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+}
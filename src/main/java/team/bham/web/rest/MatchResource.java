@@ -10,16 +10,20 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import team.bham.config.Constants;
 import team.bham.domain.Match;
-import team.bham.domain.Team;
-import team.bham.domain.UserProfile;
 import team.bham.repository.MatchRepository;
-import team.bham.repository.UserProfileRepository;
 import team.bham.security.AuthoritiesConstants;
+import team.bham.service.MatchCalendarService;
+import team.bham.service.MatchService;
+import team.bham.service.dto.MatchDetailDTO;
+import team.bham.service.dto.MatchSummaryDTO;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -35,16 +39,20 @@ public class MatchResource {
     private final Logger log = LoggerFactory.getLogger(MatchResource.class);
 
     private static final String ENTITY_NAME = "match";
-    private final UserProfileRepository userProfileRepository;
 
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final MatchRepository matchRepository;
 
-    public MatchResource(MatchRepository matchRepository, UserProfileRepository userProfileRepository) {
-        this.userProfileRepository = userProfileRepository;
+    private final MatchService matchService;
+
+    private final MatchCalendarService matchCalendarService;
+
+    public MatchResource(MatchRepository matchRepository, MatchService matchService, MatchCalendarService matchCalendarService) {
         this.matchRepository = matchRepository;
+        this.matchService = matchService;
+        this.matchCalendarService = matchCalendarService;
     }
 
     /**
@@ -61,7 +69,7 @@ public class MatchResource {
         if (match.getId() != null) {
             throw new BadRequestAlertException("A new match cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Match result = matchRepository.save(match);
+        Match result = matchService.save(match);
         return ResponseEntity
             .created(new URI("/api/matches/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -94,7 +102,7 @@ public class MatchResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Match result = matchRepository.save(match);
+        Match result = matchService.save(match);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, match.getId().toString()))
@@ -145,7 +153,7 @@ public class MatchResource {
 
                 return existingMatch;
             })
-            .map(matchRepository::save);
+            .map(matchService::save);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -154,61 +162,55 @@ public class MatchResource {
     }
 
     /**
-     * {@code GET  /matches} : get all the matches.
+     * {@code GET  /matches} : get the matches of a calendar month.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matches in body.
+     * @param date a day of the month as {@code dd-MM-yyyy}, defaults to today.
+     * @param zone the time zone the month starts and ends in, defaults to the time zone of the application.
+     * @param ifNoneMatch the ETag of the month the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matches in body,
+     * with status {@code 304 (Not Modified)} if they have not changed since {@code ifNoneMatch},
+     * or with status {@code 400 (Bad Request)} if the time zone is not valid.
      */
     @GetMapping("/matches")
-    public List<Match> getAllMatches(@RequestParam(required = false) String date) {
+    public ResponseEntity<List<MatchSummaryDTO>> getAllMatches(
+        @RequestParam(required = false) String date,
+        @RequestParam(required = false) String zone,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         log.debug("REST request to get all Matches");
 
+        ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone != null ? zone : Constants.DEFAULT_TIME_ZONE);
+        } catch (DateTimeException e) {
+            throw new BadRequestAlertException("Invalid time zone", ENTITY_NAME, "invalidzone");
+        }
         LocalDate theMonth;
         try {
             theMonth = LocalDate.parse(date, formatter);
         } catch (Exception e) {
-            theMonth = LocalDate.now();
+            theMonth = LocalDate.now(zoneId);
         }
-        LocalDate date1 = theMonth.withDayOfMonth(1);
-        Instant instant = date1.atStartOfDay(ZoneId.of("Europe/London")).toInstant();
 
-        LocalDate date2 = theMonth.withDayOfMonth(theMonth.lengthOfMonth());
-        Instant instant2 = date2.atStartOfDay(ZoneId.of("Europe/London")).toInstant();
-
-        return matchRepository.findByDateBetween(instant, instant2);
+        MatchCalendarService.CalendarMonth month = matchCalendarService.findMonth(YearMonth.from(theMonth), zoneId);
+        String eTag = "\"" + month.getVersion() + "\"";
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(month.getMatches());
     }
 
     /**
      * {@code GET  /matches/:id} : get the "id" match.
      *
      * @param id the id of the match to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the match, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the match with the members of both teams, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/matches/{id}")
-    public ResponseEntity<Match> getMatch(@PathVariable Long id) {
+    public ResponseEntity<MatchDetailDTO> getMatch(@PathVariable Long id) {
         log.debug("REST request to get Match : {}", id);
-        Optional<Match> match = matchRepository.findById(id);
-        if (match.isPresent()) {
-            Team home = match.get().getHome();
-            // Get team members.
-            if (home != null) {
-                log.debug("OK getting team members!");
-                Set<UserProfile> teamMembers = new HashSet<>(userProfileRepository.findByTeamId(home.getId()));
-                match.get().getHome().setMembers(teamMembers);
-                log.debug("Found " + teamMembers.size() + " team members.");
-            }
-
-            Team away = match.get().getAway();
-            if (away != null) {
-                // Get team members.
-                log.debug("OK getting team members!");
-                Set<UserProfile> teamMembersA = new HashSet<>(userProfileRepository.findByTeamId(away.getId()));
-                match.get().getAway().setMembers(teamMembersA);
-                log.debug("Found " + teamMembersA.size() + " team members.");
-            }
-        }
-
-        return ResponseUtil.wrapOrNotFound(match);
+        return ResponseUtil.wrapOrNotFound(matchService.findDetail(id));
     }
 
     /**
@@ -221,7 +223,7 @@ public class MatchResource {
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<Void> deleteMatch(@PathVariable Long id) {
         log.debug("REST request to delete Match : {}", id);
-        matchRepository.deleteById(id);
+        matchService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
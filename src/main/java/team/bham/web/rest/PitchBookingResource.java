@@ -9,12 +9,22 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import team.bham.config.Constants;
 import team.bham.domain.Pitch;
 import team.bham.domain.PitchBooking;
 import team.bham.repository.PitchBookingRepository;
+import team.bham.service.PitchAvailabilityService;
+import team.bham.service.PitchBookingConflictException;
+import team.bham.service.PitchBookingService;
+import team.bham.service.PitchFreeSlotService;
+import team.bham.service.dto.PitchFreeSlotsDTO;
+import team.bham.service.dto.RecurringPitchBookingDTO;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -31,13 +41,33 @@ public class PitchBookingResource {
 
     private static final String ENTITY_NAME = "pitchBooking";
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Bounds used when a page is not restricted to a time range
+    private static final Instant KEYSET_MIN = Instant.EPOCH;
+
+    private static final Instant KEYSET_MAX = Instant.parse("9999-12-31T00:00:00Z");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PitchBookingRepository pitchBookingRepository;
+    private final PitchAvailabilityService pitchAvailabilityService;
+    private final PitchFreeSlotService pitchFreeSlotService;
+    private final PitchBookingService pitchBookingService;
 
-    public PitchBookingResource(PitchBookingRepository pitchBookingRepository) {
+    public PitchBookingResource(
+        PitchBookingRepository pitchBookingRepository,
+        PitchAvailabilityService pitchAvailabilityService,
+        PitchFreeSlotService pitchFreeSlotService,
+        PitchBookingService pitchBookingService
+    ) {
         this.pitchBookingRepository = pitchBookingRepository;
+        this.pitchAvailabilityService = pitchAvailabilityService;
+        this.pitchFreeSlotService = pitchFreeSlotService;
+        this.pitchBookingService = pitchBookingService;
     }
 
     /**
@@ -65,40 +95,73 @@ public class PitchBookingResource {
     public ResponseEntity<PitchBooking> createPitchBooking(@Valid @RequestBody PitchBooking pitchBooking) throws URISyntaxException {
         log.debug("REST request to save PitchBooking : {}", pitchBooking);
 
-        // Check if the pitch is already booked for the specified time slot
-        boolean isPitchAvailable = checkPitchAvailability(
-            pitchBooking.getPitch().getId(),
-            pitchBooking.getStartTime(),
-            pitchBooking.getEndTime()
-        );
-        log.debug("is available? " + isPitchAvailable);
-
-        if (!isPitchAvailable) {
-            throw new BadRequestAlertException("The pitch is already booked for the specified time slot", ENTITY_NAME, "pitchBooked");
-        }
-
-        // Proceed with saving the new pitchBooking
         if (pitchBooking.getId() != null) {
             throw new BadRequestAlertException("A new pitchBooking cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        PitchBooking result = pitchBookingRepository.save(pitchBooking);
+
+        checkTimeSlot(pitchBooking);
+
+        // Fails if the pitch is already booked for the specified time slot
+        PitchBooking result = save(pitchBooking);
         return ResponseEntity
             .created(new URI("/api/pitch-bookings/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
-    private boolean checkPitchAvailability(Long pitchId, Instant startTime, Instant endTime) {
-        // Retrieve existing bookings for the specified pitch and time range
-        List<PitchBooking> existingBookings = pitchBookingRepository.findByPitchIdAndStartTimeLessThanEqualAndEndTimeGreaterThanEqual(
-            pitchId,
-            startTime,
-            endTime
-        );
-        //should always return empty array
-        log.debug("existing bookings: " + existingBookings);
-        // If there are no existing bookings, the pitch is available
-        return existingBookings.isEmpty();
+    /**
+     * {@code POST  /pitch-bookings/recurring} : Create every occurrence of a recurring pitchBooking.
+     *
+     * @param series the first occurrence and the recurrence rule, occurrences may start until one year after the first one.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new pitchBookings,
+     * or with status {@code 400 (Bad Request)} if the series is not valid or any occurrence clashes, in which case nothing is booked.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/pitch-bookings/recurring")
+    public ResponseEntity<List<PitchBooking>> createRecurringPitchBooking(@Valid @RequestBody RecurringPitchBookingDTO series)
+        throws URISyntaxException {
+        log.debug("REST request to save recurring PitchBooking : {}", series);
+        PitchBooking first = series.getBooking();
+        if (first.getId() != null) {
+            throw new BadRequestAlertException("A new pitchBooking cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (first.getPitch() == null || first.getPitch().getId() == null) {
+            throw new BadRequestAlertException("A recurring pitchBooking needs a pitch", ENTITY_NAME, "pitchnull");
+        }
+        if (!first.getStartTime().isBefore(first.getEndTime())) {
+            throw new BadRequestAlertException("The booking must end after it starts", ENTITY_NAME, "invalidtimeslot");
+        }
+        LocalDate firstDay = LocalDate.ofInstant(first.getStartTime(), ZoneId.of(Constants.DEFAULT_TIME_ZONE));
+        if (series.getUntil().isBefore(firstDay) || series.getUntil().isAfter(firstDay.plusYears(1))) {
+            throw new BadRequestAlertException("The series must end within a year of its first occurrence", ENTITY_NAME, "invalidrecurrence");
+        }
+
+        List<PitchBooking> result;
+        try {
+            result = pitchBookingService.createSeries(series);
+        } catch (PitchBookingConflictException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "pitchBooked");
+        }
+        return ResponseEntity
+            .created(new URI("/api/pitch-bookings/" + result.get(0).getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.get(0).getId().toString()))
+            .body(result);
+    }
+
+    private void checkTimeSlot(PitchBooking pitchBooking) {
+        if (pitchBooking.getStartTime() != null && pitchBooking.getEndTime() != null) {
+            if (!pitchBooking.getStartTime().isBefore(pitchBooking.getEndTime())) {
+                throw new BadRequestAlertException("The booking must end after it starts", ENTITY_NAME, "invalidtimeslot");
+            }
+        }
+    }
+
+    private PitchBooking save(PitchBooking pitchBooking) {
+        try {
+            return pitchBookingService.save(pitchBooking);
+        } catch (PitchBookingConflictException e) {
+            throw new BadRequestAlertException("The pitch is already booked for the specified time slot", ENTITY_NAME, "pitchBooked");
+        }
     }
 
     /**
@@ -128,7 +191,9 @@ public class PitchBookingResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        PitchBooking result = pitchBookingRepository.save(pitchBooking);
+        checkTimeSlot(pitchBooking);
+
+        PitchBooking result = save(pitchBooking);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, pitchBooking.getId().toString()))
@@ -175,10 +240,11 @@ public class PitchBookingResource {
                 if (pitchBooking.getEndTime() != null) {
                     existingPitchBooking.setEndTime(pitchBooking.getEndTime());
                 }
+                checkTimeSlot(existingPitchBooking);
 
                 return existingPitchBooking;
             })
-            .map(pitchBookingRepository::save);
+            .map(this::save);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -187,21 +253,104 @@ public class PitchBookingResource {
     }
 
     /**
-     * {@code GET  /pitch-bookings} : get all the pitchBookings.
+     * {@code GET  /pitch-bookings} : get a page of the pitchBookings ordered by start time.
+     * <p>
+     * Pages are keyset based: the next page starts after the {@code (startTime, id)} of the last booking of
+     * the previous one, and its URL is sent in the {@code Link} header with {@code rel="next"}.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pitchBookings in body.
+     * @param from only bookings starting at or after this instant.
+     * @param to only bookings starting before this instant.
+     * @param afterStartTime the start time of the last booking of the previous page.
+     * @param afterId the id of the last booking of the previous page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of pitchBookings in body.
      */
     @GetMapping("/pitch-bookings")
-    public List<PitchBooking> getAllPitchBookings() {
-        log.debug("REST request to get all PitchBookings");
-        return pitchBookingRepository.findAll();
+    public ResponseEntity<List<PitchBooking>> getAllPitchBookings(
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(required = false) Instant afterStartTime,
+        @RequestParam(required = false) Long afterId,
+        @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.debug("REST request to get a page of PitchBookings");
+        Instant lower = from != null ? from : KEYSET_MIN;
+        Instant upper = to != null ? to : KEYSET_MAX;
+        checkPage(afterStartTime, afterId, size);
+        List<PitchBooking> pitchBookings = pitchBookingRepository.findPage(
+            lower,
+            upper,
+            afterStartTime != null ? afterStartTime : lower,
+            afterId != null ? afterId : Long.MIN_VALUE,
+            PageRequest.of(0, size + 1)
+        );
+        return keysetPage(pitchBookings, size);
     }
 
+    /**
+     * {@code GET  /pitch-bookings/user/:userProfileId} : get a page of the pitchBookings of a user profile ordered by start time.
+     * <p>
+     * Paginated like {@link #getAllPitchBookings}.
+     *
+     * @param userProfileId the id of the user profile.
+     * @param from only bookings starting at or after this instant.
+     * @param to only bookings starting before this instant.
+     * @param afterStartTime the start time of the last booking of the previous page.
+     * @param afterId the id of the last booking of the previous page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of pitchBookings in body.
+     */
     @GetMapping("/pitch-bookings/user/{userProfileId}")
-    public ResponseEntity<List<PitchBooking>> getPitchBookingsByUserProfileId(@PathVariable Long userProfileId) {
+    public ResponseEntity<List<PitchBooking>> getPitchBookingsByUserProfileId(
+        @PathVariable Long userProfileId,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(required = false) Instant afterStartTime,
+        @RequestParam(required = false) Long afterId,
+        @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
         log.debug("REST request to get PitchBookings by userProfileId : {}", userProfileId);
-        List<PitchBooking> pitchBookings = pitchBookingRepository.findByUserProfileId(userProfileId);
-        return ResponseEntity.ok().body(pitchBookings);
+        Instant lower = from != null ? from : KEYSET_MIN;
+        Instant upper = to != null ? to : KEYSET_MAX;
+        checkPage(afterStartTime, afterId, size);
+        List<PitchBooking> pitchBookings = pitchBookingRepository.findPageByUserProfileId(
+            userProfileId,
+            lower,
+            upper,
+            afterStartTime != null ? afterStartTime : lower,
+            afterId != null ? afterId : Long.MIN_VALUE,
+            PageRequest.of(0, size + 1)
+        );
+        return keysetPage(pitchBookings, size);
+    }
+
+    private void checkPage(Instant afterStartTime, Long afterId, int size) {
+        if ((afterStartTime == null) != (afterId == null)) {
+            throw new BadRequestAlertException("afterStartTime and afterId go together", ENTITY_NAME, "invalidcursor");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestAlertException("The page size must be between 1 and " + MAX_PAGE_SIZE, ENTITY_NAME, "invalidsize");
+        }
+    }
+
+    /**
+     * Trims the one extra row fetched to find out whether there is a next page and links to that page.
+     */
+    private ResponseEntity<List<PitchBooking>> keysetPage(List<PitchBooking> pitchBookings, int size) {
+        if (pitchBookings.size() <= size) {
+            return ResponseEntity.ok().body(pitchBookings);
+        }
+        List<PitchBooking> page = pitchBookings.subList(0, size);
+        PitchBooking last = page.get(size - 1);
+        String next = ServletUriComponentsBuilder
+            .fromCurrentRequest()
+            .replaceQueryParam("afterStartTime", last.getStartTime().toString())
+            .replaceQueryParam("afterId", last.getId())
+            .replaceQueryParam("size", size)
+            .toUriString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        return ResponseEntity.ok().headers(headers).body(new ArrayList<>(page));
     }
 
     /**
@@ -218,19 +367,31 @@ public class PitchBookingResource {
     }
 
     /**
-     * GET /pitch-bookings/available-time-slots : Get available time slots for a specified date.
+     * GET /time-slots : Get the free windows of every pitch on the day of the specified date.
      *
-     * @param date the date for which to get available time slots
-     * @return the ResponseEntity with status 200 (OK) and the list of available time slots, or with status 404 (Not Found)
+     * @param date an instant on the requested day, the day is taken in the {@code zone} time zone.
+     * @param granularity the slot length in minutes, windows are cut to whole slots.
+     * @param zone the time zone of the day, defaults to the zone the pitches are in.
+     * @return the ResponseEntity with status 200 (OK) and the free windows per pitch, or with status 400 (Bad Request)
      */
     @GetMapping("/time-slots")
-    public ResponseEntity<List<PitchBooking>> getAvailableTimeSlots(@RequestParam(required = true) Instant date) {
+    public ResponseEntity<List<PitchFreeSlotsDTO>> getAvailableTimeSlots(
+        @RequestParam(required = true) Instant date,
+        @RequestParam(required = false, defaultValue = "30") int granularity,
+        @RequestParam(required = false, defaultValue = Constants.DEFAULT_TIME_ZONE) String zone
+    ) {
         log.debug("REST request to get available time slots for date: {}", date);
-
-        // Retrieve the list of booked pitches based on the provided date
-        List<PitchBooking> bookedPitchesBasedOnDate = pitchBookingRepository.findBookedPitchesBasedOnDate(date);
-        System.out.print(bookedPitchesBasedOnDate);
-        return ResponseEntity.ok().body(bookedPitchesBasedOnDate);
+        if (granularity <= 0 || granularity > 24 * 60) {
+            throw new BadRequestAlertException("The slot granularity must be between 1 and 1440 minutes", ENTITY_NAME, "invalidgranularity");
+        }
+        ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new BadRequestAlertException("Unknown time zone", ENTITY_NAME, "invalidzone");
+        }
+        LocalDate day = LocalDate.ofInstant(date, zoneId);
+        return ResponseEntity.ok().body(pitchFreeSlotService.findFreeSlots(day, zoneId, Duration.ofMinutes(granularity)));
     }
 
     /**
@@ -264,6 +425,7 @@ public class PitchBookingResource {
     public ResponseEntity<Void> deletePitchBooking(@PathVariable Long id) {
         log.debug("REST request to delete PitchBooking : {}", id);
         pitchBookingRepository.deleteById(id);
+        pitchAvailabilityService.bookingDeleted(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
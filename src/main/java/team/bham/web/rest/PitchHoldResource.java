@@ -0,0 +1,141 @@
+package team.bham.web.rest;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.Optional;
+import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import team.bham.domain.PitchBooking;
+import team.bham.repository.PitchRepository;
+import team.bham.service.PitchBookingConflictException;
+import team.bham.service.PitchHoldService;
+import team.bham.service.dto.PitchHoldDTO;
+import team.bham.web.rest.errors.BadRequestAlertException;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for holding pitch slots while a {@link team.bham.domain.PitchBooking} is being confirmed.
+ */
+@RestController
+@RequestMapping("/api")
+@Transactional
+public class PitchHoldResource {
+
+    private final Logger log = LoggerFactory.getLogger(PitchHoldResource.class);
+
+    private static final String ENTITY_NAME = "pitchHold";
+
+    private static final String BOOKING_ENTITY_NAME = "pitchBooking";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final PitchHoldService pitchHoldService;
+
+    private final PitchRepository pitchRepository;
+
+    public PitchHoldResource(PitchHoldService pitchHoldService, PitchRepository pitchRepository) {
+        this.pitchHoldService = pitchHoldService;
+        this.pitchRepository = pitchRepository;
+    }
+
+    /**
+     * {@code POST  /pitch-holds} : Hold a slot of a pitch for a few minutes.
+     *
+     * @param pitchHold the pitch and the slot to hold.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the hold and its token,
+     * or with status {@code 400 (Bad Request)} if the slot is not valid or is already booked or held.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/pitch-holds")
+    public ResponseEntity<PitchHoldDTO> createPitchHold(@Valid @RequestBody PitchHoldDTO pitchHold) throws URISyntaxException {
+        log.debug("REST request to hold : {}", pitchHold);
+        if (!pitchHold.getStartTime().isBefore(pitchHold.getEndTime())) {
+            throw new BadRequestAlertException("The booking must end after it starts", ENTITY_NAME, "invalidtimeslot");
+        }
+        if (pitchHold.getEndTime().isBefore(Instant.now())) {
+            throw new BadRequestAlertException("The slot is in the past", ENTITY_NAME, "invalidtimeslot");
+        }
+        if (!pitchRepository.existsById(pitchHold.getPitchId())) {
+            throw new BadRequestAlertException("Pitch not found", ENTITY_NAME, "idnotfound");
+        }
+
+        PitchHoldDTO result;
+        try {
+            result = pitchHoldService.hold(pitchHold.getPitchId(), pitchHold.getStartTime(), pitchHold.getEndTime());
+        } catch (PitchBookingConflictException e) {
+            throw new BadRequestAlertException("The pitch is already booked for the specified time slot", ENTITY_NAME, "pitchBooked");
+        }
+        return ResponseEntity.created(new URI("/api/pitch-holds/" + result.getToken())).body(result);
+    }
+
+    /**
+     * {@code GET  /pitch-holds/:token} : get a hold that has not expired yet.
+     *
+     * @param token the token of the hold.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the hold, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/pitch-holds/{token}")
+    public ResponseEntity<PitchHoldDTO> getPitchHold(@PathVariable String token) {
+        log.debug("REST request to get hold : {}", token);
+        return ResponseUtil.wrapOrNotFound(pitchHoldService.findHold(token));
+    }
+
+    /**
+     * {@code POST  /pitch-holds/:token/confirm} : turn a hold into a pitchBooking.
+     *
+     * @param token the token of the hold.
+     * @param pitchBooking the remaining details of the booking, its pitch and times are taken from the hold.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new pitchBooking,
+     * or with status {@code 400 (Bad Request)} if the hold has expired or the booking is not valid.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/pitch-holds/{token}/confirm")
+    public ResponseEntity<PitchBooking> confirmPitchHold(@PathVariable String token, @RequestBody PitchBooking pitchBooking)
+        throws URISyntaxException {
+        log.debug("REST request to confirm hold : {}, {}", token, pitchBooking);
+        if (pitchBooking.getId() != null) {
+            throw new BadRequestAlertException("A new pitchBooking cannot already have an ID", BOOKING_ENTITY_NAME, "idexists");
+        }
+        if (pitchBooking.getUserProfileId() == null) {
+            throw new BadRequestAlertException("A pitchBooking needs a user profile", BOOKING_ENTITY_NAME, "userprofileidnull");
+        }
+        if (pitchBooking.getBookingDate() == null) {
+            pitchBooking.setBookingDate(Instant.now());
+        }
+
+        Optional<PitchBooking> result;
+        try {
+            result = pitchHoldService.confirm(token, pitchBooking);
+        } catch (PitchBookingConflictException e) {
+            throw new BadRequestAlertException("The pitch is already booked for the specified time slot", BOOKING_ENTITY_NAME, "pitchBooked");
+        }
+        PitchBooking booking = result.orElseThrow(() ->
+            new BadRequestAlertException("The hold has expired", ENTITY_NAME, "holdexpired")
+        );
+        return ResponseEntity
+            .created(new URI("/api/pitch-bookings/" + booking.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, BOOKING_ENTITY_NAME, booking.getId().toString()))
+            .body(booking);
+    }
+
+    /**
+     * {@code DELETE  /pitch-holds/:token} : release a hold.
+     *
+     * @param token the token of the hold.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/pitch-holds/{token}")
+    public ResponseEntity<Void> deletePitchHold(@PathVariable String token) {
+        log.debug("REST request to release hold : {}", token);
+        pitchHoldService.release(token);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,9 @@ package team.bham.web.rest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -13,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import team.bham.domain.Pitch;
 import team.bham.repository.PitchRepository;
+import team.bham.service.PitchOccupancyService;
+import team.bham.service.dto.FreePitchesDTO;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -32,10 +37,15 @@ public class PitchResource {
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
+    private static final int MAX_FREE_PITCH_DAYS = 366;
+
     private final PitchRepository pitchRepository;
 
-    public PitchResource(PitchRepository pitchRepository) {
+    private final PitchOccupancyService pitchOccupancyService;
+
+    public PitchResource(PitchRepository pitchRepository, PitchOccupancyService pitchOccupancyService) {
         this.pitchRepository = pitchRepository;
+        this.pitchOccupancyService = pitchOccupancyService;
     }
 
     /**
@@ -147,6 +157,38 @@ public class PitchResource {
         return pitchRepository.findAll();
     }
 
+    /**
+     * {@code GET  /pitches/free} : get the pitches that are free for a time window on every day of a date range.
+     *
+     * @param fromDate the first day, inclusive.
+     * @param toDate the last day, inclusive, defaults to {@code fromDate}.
+     * @param startTime the start of the window on every day.
+     * @param endTime the end of the window on every day, {@code 00:00} means the end of the day.
+     * @param pitchIds the candidate pitches, defaults to all pitches.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the free pitch ids per day in body,
+     * or with status {@code 400 (Bad Request)} if the range or the window is not valid.
+     */
+    @GetMapping("/pitches/free")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<FreePitchesDTO>> getFreePitches(
+        @RequestParam LocalDate fromDate,
+        @RequestParam(required = false) LocalDate toDate,
+        @RequestParam LocalTime startTime,
+        @RequestParam LocalTime endTime,
+        @RequestParam(required = false) List<Long> pitchIds
+    ) {
+        log.debug("REST request to get free Pitches from {} to {} between {} and {}", fromDate, toDate, startTime, endTime);
+        LocalDate lastDate = toDate != null ? toDate : fromDate;
+        if (lastDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, lastDate) >= MAX_FREE_PITCH_DAYS) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "invaliddaterange");
+        }
+        if (!LocalTime.MIDNIGHT.equals(endTime) && !startTime.isBefore(endTime)) {
+            throw new BadRequestAlertException("The start time must be before the end time", ENTITY_NAME, "invalidtimeslot");
+        }
+        List<Long> candidates = pitchIds != null ? pitchIds : pitchRepository.findAllIds();
+        return ResponseEntity.ok().body(pitchOccupancyService.findFreePitches(candidates, fromDate, lastDate, startTime, endTime));
+    }
+
     /**
      * {@code GET  /pitches/:id} : get the "id" pitch.
      *
@@ -0,0 +1,68 @@
+package team.bham.web.rest;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import team.bham.security.AuthoritiesConstants;
+import team.bham.service.TeamRatingService;
+import team.bham.service.dto.TeamRatingDTO;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for the ratings of {@link team.bham.domain.Team}s.
+ */
+@RestController
+@RequestMapping("/api")
+public class TeamRatingResource {
+
+    private final Logger log = LoggerFactory.getLogger(TeamRatingResource.class);
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final TeamRatingService teamRatingService;
+
+    public TeamRatingResource(TeamRatingService teamRatingService) {
+        this.teamRatingService = teamRatingService;
+    }
+
+    /**
+     * {@code GET  /teams/ratings} : get the rating leaderboard.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of rated teams in body, the highest rating first.
+     */
+    @GetMapping("/teams/ratings")
+    public ResponseEntity<List<TeamRatingDTO>> getTeamRatings(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Team ratings");
+        Page<TeamRatingDTO> page = teamRatingService.findLeaderboard(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@code POST  /teams/ratings/replay} : compute all ratings again from the played matches.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/teams/ratings/replay")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> replayTeamRatings() {
+        log.debug("REST request to replay the Team ratings");
+        int matches = teamRatingService.replay();
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createAlert(applicationName, "Ratings have been replayed from " + matches + " matches", String.valueOf(matches)))
+            .build();
+    }
+}
@@ -2,6 +2,9 @@ package team.bham.web.rest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -13,16 +16,23 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import team.bham.config.Constants;
 import team.bham.domain.Authority;
 import team.bham.domain.Team;
 import team.bham.domain.User;
 import team.bham.domain.UserProfile;
+import team.bham.domain.enumeration.PlayType;
 import team.bham.repository.TeamRepository;
 import team.bham.repository.UserProfileRepository;
 import team.bham.repository.UserRepository;
 import team.bham.security.AuthoritiesConstants;
 import team.bham.security.SecurityUtils;
+import team.bham.service.OpponentMatchmakingService;
+import team.bham.service.TeamAvailabilityService;
+import team.bham.service.TeamService;
 import team.bham.service.UserProfileService;
+import team.bham.service.dto.OpponentDTO;
+import team.bham.service.dto.TeamAvailabilityWindowDTO;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -39,6 +49,10 @@ public class TeamResource {
 
     private static final String ENTITY_NAME = "team";
 
+    private static final int MAX_AVAILABILITY_DAYS = 92;
+
+    private static final int MAX_OPPONENTS = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,16 +60,25 @@ public class TeamResource {
     private final UserProfileRepository userProfileRepository;
     private final UserProfileService userProfileService;
     private final UserRepository userRepository;
+    private final TeamAvailabilityService teamAvailabilityService;
+    private final OpponentMatchmakingService opponentMatchmakingService;
+    private final TeamService teamService;
 
     public TeamResource(
         TeamRepository teamRepository,
         UserProfileRepository userProfileRepository,
         UserProfileService userProfileService,
-        UserRepository userRepository
+        UserRepository userRepository,
+        TeamAvailabilityService teamAvailabilityService,
+        OpponentMatchmakingService opponentMatchmakingService,
+        TeamService teamService
     ) {
         this.teamRepository = teamRepository;
         this.userProfileRepository = userProfileRepository;
         this.userRepository = userRepository;
+        this.teamAvailabilityService = teamAvailabilityService;
+        this.opponentMatchmakingService = opponentMatchmakingService;
+        this.teamService = teamService;
 
         this.userProfileService = userProfileService;
     }
@@ -88,6 +111,7 @@ public class TeamResource {
         }
 
         Team result = teamRepository.save(team);
+        teamService.changed(result.getId());
         return ResponseEntity
             .created(new URI("/api/teams/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -127,6 +151,7 @@ public class TeamResource {
         }
 
         Team result = teamRepository.save(team);
+        teamService.changed(result.getId());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, team.getId().toString()))
@@ -165,12 +190,16 @@ public class TeamResource {
             Optional<UserProfile> result = userProfileRepository
                 .findById(userProfile.get().getId())
                 .map(existingUserProfile -> {
+                    if (existingUserProfile.getTeam() != null) {
+                        teamService.changed(existingUserProfile.getTeam().getId());
+                    }
                     existingUserProfile.setTeam(team.get());
                     // existingUserProfile.setTeamOwned(null); // maybe ??
 
                     return existingUserProfile;
                 })
                 .map(userProfileRepository::save);
+            teamService.changed(id);
 
             Optional<Team> updatedTeam = teamRepository.findById(id);
             if (updatedTeam.isPresent()) {
@@ -252,6 +281,7 @@ public class TeamResource {
                 return existingTeam;
             })
             .map(teamRepository::save);
+        result.ifPresent(saved -> teamService.changed(saved.getId()));
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -267,15 +297,8 @@ public class TeamResource {
     @GetMapping("/teams")
     public List<Team> getAllTeams() {
         log.debug("REST request to get all Teams");
-        List<Team> searchResults = teamRepository.findAll();
-
-        // Get team members.
-        for (Team team : searchResults) {
-            Set<UserProfile> teamMembers = new HashSet<>(userProfileRepository.findByTeamId(team.getId()));
-            team.setMembers(teamMembers);
-        }
-
-        return searchResults;
+        // Members are fetched together with the teams, not one query per team.
+        return teamRepository.findAllWithMembers();
     }
 
     /**
@@ -288,20 +311,10 @@ public class TeamResource {
     public List<Team> searchTeams(@RequestParam(required = false) String name) {
         log.debug("REST request to search Teams by name : {}", name);
 
-        List<Team> searchResults;
         if (name != null) {
-            searchResults = teamRepository.findByNameContainingIgnoreCaseWithEagerRelationships(name);
-        } else {
-            searchResults = teamRepository.findAll();
-        }
-
-        // Get team members.
-        for (Team team : searchResults) {
-            Set<UserProfile> teamMembers = new HashSet<>(userProfileRepository.findByTeamId(team.getId()));
-            team.setMembers(teamMembers);
+            return teamRepository.findByNameContainingIgnoreCaseWithMembers(name);
         }
-
-        return searchResults;
+        return teamRepository.findAllWithMembers();
     }
 
     /**
@@ -316,6 +329,75 @@ public class TeamResource {
         return userProfileRepository.findByTeamId(teamId);
     }
 
+    /**
+     * {@code GET  /teams/:id/availability} : get the windows in which enough members of the "id" team are free.
+     *
+     * @param id the id of the team.
+     * @param fromDate the first day, inclusive.
+     * @param toDate the last day, inclusive, defaults to {@code fromDate}.
+     * @param minMembers the number of members that must be free, defaults to all members.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the windows in body,
+     * or with status {@code 400 (Bad Request)} if the range or the number of members is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such team.
+     */
+    @GetMapping("/teams/{id}/availability")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TeamAvailabilityWindowDTO>> getTeamAvailability(
+        @PathVariable Long id,
+        @RequestParam LocalDate fromDate,
+        @RequestParam(required = false) LocalDate toDate,
+        @RequestParam(required = false) Integer minMembers
+    ) {
+        log.debug("REST request to get availability of Team : {} from {} to {} for {} members", id, fromDate, toDate, minMembers);
+        LocalDate lastDate = toDate != null ? toDate : fromDate;
+        if (lastDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, lastDate) >= MAX_AVAILABILITY_DAYS) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "invaliddaterange");
+        }
+        if (minMembers != null && minMembers < 1) {
+            throw new BadRequestAlertException("At least one member must be free", ENTITY_NAME, "invalidminmembers");
+        }
+        if (!teamRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        int required = minMembers != null ? minMembers : (int) Math.max(userProfileRepository.countByTeamId(id), 1);
+        ZoneId zone = ZoneId.of(Constants.DEFAULT_TIME_ZONE);
+        return ResponseEntity.ok().body(teamAvailabilityService.findCommonWindows(id, required, fromDate, lastDate, zone));
+    }
+
+    /**
+     * {@code GET  /teams/:id/opponents} : get the teams sharing the most availability with the "id" team.
+     *
+     * @param id the id of the team.
+     * @param days the number of days to look ahead, today included.
+     * @param playType only return teams of this play type.
+     * @param location only return teams whose owner is in this location.
+     * @param size the maximum number of teams.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the opponents in body, the most shared availability first,
+     * or with status {@code 400 (Bad Request)} if the number of days or the size is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such team.
+     */
+    @GetMapping("/teams/{id}/opponents")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<OpponentDTO>> getTeamOpponents(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "14") int days,
+        @RequestParam(required = false) PlayType playType,
+        @RequestParam(required = false) String location,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        log.debug("REST request to get opponents of Team : {} over {} days", id, days);
+        if (days < 1 || days > OpponentMatchmakingService.HORIZON_DAYS) {
+            throw new BadRequestAlertException("Invalid number of days", ENTITY_NAME, "invaliddaterange");
+        }
+        if (size < 1 || size > MAX_OPPONENTS) {
+            throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "invalidsize");
+        }
+        if (!teamRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().body(opponentMatchmakingService.rankOpponents(id, days, playType, location, size));
+    }
+
     /**
      * {@code GET  /teams/:id} : get the "id" team.
      *
@@ -378,6 +460,7 @@ public class TeamResource {
         }
 
         teamRepository.deleteById(id);
+        teamService.changed(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
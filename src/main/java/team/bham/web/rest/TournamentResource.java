@@ -2,11 +2,14 @@ package team.bham.web.rest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Collectors;
 import javax.management.RuntimeErrorException;
 import javax.swing.text.html.Option;
 import javax.validation.Valid;
@@ -17,17 +20,29 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.method.P;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import team.bham.config.Constants;
+import team.bham.domain.Match;
+import team.bham.domain.Pitch;
 import team.bham.domain.Team;
 import team.bham.domain.Tournament;
 import team.bham.domain.User;
 import team.bham.domain.UserProfile;
+import team.bham.repository.MatchRepository;
+import team.bham.repository.PitchRepository;
 import team.bham.repository.TeamRepository;
 import team.bham.repository.TournamentRepository;
 import team.bham.repository.UserProfileRepository;
 import team.bham.repository.UserRepository;
+import team.bham.security.AuthoritiesConstants;
 import team.bham.security.SecurityUtils;
+import team.bham.service.FixtureService;
+import team.bham.service.PitchBookingConflictException;
+import team.bham.service.TournamentSchedulingService;
+import team.bham.service.TournamentService;
+import team.bham.service.dto.TournamentScheduleDTO;
 import team.bham.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -44,6 +59,10 @@ public class TournamentResource {
 
     private static final String ENTITY_NAME = "tournament";
 
+    private static final int MAX_SCHEDULE_DAYS = 366;
+
+    private static final int MAX_SCHEDULE_SECONDS = 30;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -51,17 +70,32 @@ public class TournamentResource {
     private final TeamRepository teamRepository;
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
+    private final TournamentService tournamentService;
+    private final MatchRepository matchRepository;
+    private final FixtureService fixtureService;
+    private final TournamentSchedulingService tournamentSchedulingService;
+    private final PitchRepository pitchRepository;
 
     public TournamentResource(
         TournamentRepository tournamentRepository,
         TeamRepository teamRepository,
         UserProfileRepository userProfileRepository,
-        UserRepository userRepository
+        UserRepository userRepository,
+        TournamentService tournamentService,
+        MatchRepository matchRepository,
+        FixtureService fixtureService,
+        TournamentSchedulingService tournamentSchedulingService,
+        PitchRepository pitchRepository
     ) {
         this.tournamentRepository = tournamentRepository;
         this.teamRepository = teamRepository;
         this.userProfileRepository = userProfileRepository;
         this.userRepository = userRepository;
+        this.tournamentService = tournamentService;
+        this.matchRepository = matchRepository;
+        this.fixtureService = fixtureService;
+        this.tournamentSchedulingService = tournamentSchedulingService;
+        this.pitchRepository = pitchRepository;
     }
 
     /**
@@ -119,93 +153,165 @@ public class TournamentResource {
     }
 
     /**
-     * {@code PATCH  /tournaments/join} : Partial updates given fields of an existing tournament, field will ignore if it is null
+     * {@code PATCH  /tournaments/join} : Enrol the team of the current user into the open tournament starting first.
      *
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated tournament,
-     * or with status {@code 400 (Bad Request)} if the tournament is not valid,
-     * or with status {@code 404 (Not Found)} if the tournament is not found,
-     * or with status {@code 500 (Internal Server Error)} if the tournament couldn't be updated.
+     * or with status {@code 404 (Not Found)} if the user is not logged in,
+     * or with status {@code 500 (Internal Server Error)} if there is no open tournament, it is full,
+     * or the team could not be enrolled.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/tournaments/join")
     public ResponseEntity<Optional<Tournament>> joinTournament() throws URISyntaxException {
-        List<Tournament> allTournaments = tournamentRepository.findAll();
-        if (allTournaments.size() == 0) {
-            throw new RuntimeException("Sorry, there are no active tournaments right now.");
-        }
-
-        Tournament tournament = allTournaments.get(0);
+        Tournament tournament = tournamentService
+            .findOpenTournament()
+            .orElseThrow(() -> new RuntimeException("Sorry, there are no active tournaments right now."));
         Long id = tournament.getId();
         log.debug("REST request to join a tournament with: {}", id);
 
-        if (!tournamentRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        // Our part
         Optional<User> userLoggedIn = SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
-        if (userLoggedIn.isPresent()) {
-            Optional<UserProfile> user = userProfileRepository.findById(userLoggedIn.get().getId());
-            if (user.isPresent()) {
-                Team teamToAddToTournament = user.get().getTeam();
-                if (teamToAddToTournament != null) {
-                    Set<Team> teamsInTournament = tournament.getTeams();
-                    if (teamsInTournament.size() >= tournament.getMaxTeams()) {
-                        // RETURN error message,
-                        throw new RuntimeException("Maximum number of teams in the tournament has been reached.");
-                    }
-
-                    boolean isTeamAlreadyInTournament = false;
-                    for (Team team : teamsInTournament) {
-                        if (team.getId() == teamToAddToTournament.getId()) {
-                            isTeamAlreadyInTournament = true;
-                            break;
-                        }
-                    }
-
-                    if (isTeamAlreadyInTournament) {
-                        // RETURN SOMETHING SAYING THAT ITS ALREADY IN
-                        //return ResponseEntity. .....
-                        throw new RuntimeException("Your team is already participating in the tournament.");
-                    }
-
-                    teamsInTournament.add(teamToAddToTournament);
-                    tournament.setTeams(teamsInTournament);
+        if (userLoggedIn.isEmpty()) {
+            Optional<Tournament> emptyTournamentOptional = Optional.empty();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(emptyTournamentOptional);
+        }
+        Optional<UserProfile> user = userProfileRepository.findById(userLoggedIn.get().getId());
+        if (user.isEmpty()) {
+            throw new RuntimeException("You must create a user profile and join a team before you can enroll into a tournament!");
+        }
+        Team teamToAddToTournament = user.get().getTeam();
+        if (teamToAddToTournament == null) {
+            throw new RuntimeException("You must be a member of a team before you can join this tournament.");
+        }
 
-                    // Update the teams of the tournament.
+        switch (tournamentService.enrol(id, teamToAddToTournament.getId())) {
+            case FULL:
+                throw new RuntimeException("Maximum number of teams in the tournament has been reached.");
+            case ALREADY_ENROLLED:
+                throw new RuntimeException("Your team is already participating in the tournament.");
+            case NOT_FOUND:
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            default:
+                break;
+        }
 
-                    Optional<Tournament> result = tournamentRepository
-                        .findById(tournament.getId())
-                        .map(existingTournament -> {
-                            existingTournament.setTeams(teamsInTournament);
+        return ResponseEntity
+            .status(HttpStatus.OK)
+            .header("app-alert", "Your team has been added to the tournament: " + tournament.getName())
+            .body(tournamentRepository.findOneWithEagerRelationships(id));
+    }
 
-                            return existingTournament;
-                        })
-                        .map(tournamentRepository::save);
+    /**
+     * {@code POST  /tournaments/:id/fixtures} : Create the matches of the "id" tournament.
+     *
+     * @param id the id of the tournament.
+     * @param format a round-robin, where every team meets every other once, or a knockout.
+     * @param seeds the ids of the teams of the tournament, best seed first, defaults to the teams ordered by id.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new matches,
+     * or with status {@code 400 (Bad Request)} if the tournament already has matches, has too few teams or the seeds are not valid.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/tournaments/{id}/fixtures")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<Match>> createTournamentFixtures(
+        @PathVariable Long id,
+        @RequestParam FixtureService.Format format,
+        @RequestParam(required = false) List<Long> seeds
+    ) throws URISyntaxException {
+        log.debug("REST request to create {} fixtures of Tournament : {}", format, id);
+        Tournament tournament = tournamentRepository
+            .findOneWithEagerRelationships(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (!tournament.getStartDate().isBefore(tournament.getEndDate())) {
+            throw new BadRequestAlertException("The tournament must end after it starts", ENTITY_NAME, "invaliddaterange");
+        }
+        if (tournament.getTeams().size() < 2) {
+            throw new BadRequestAlertException("A tournament needs at least two teams", ENTITY_NAME, "notenoughteams");
+        }
+        if (matchRepository.existsByTournamentId(id)) {
+            throw new BadRequestAlertException("The tournament already has matches", ENTITY_NAME, "fixturesexist");
+        }
+        List<Long> teamIds = tournament.getTeams().stream().map(Team::getId).sorted().collect(Collectors.toList());
+        if (seeds != null && (seeds.size() != teamIds.size() || !new HashSet<>(seeds).equals(new HashSet<>(teamIds)))) {
+            throw new BadRequestAlertException("The seeds must list every team of the tournament once", ENTITY_NAME, "invalidseeds");
+        }
 
-                    return ResponseEntity
-                        .status(HttpStatus.OK)
-                        .header("app-alert", "Your team has been added to the tournament: " + tournament.getName())
-                        .body(result);
-                    /*
-                    return ResponseUtil.wrapOrNotFound(
-                        result,
-                        HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, tournament.getId().toString())
-                    );
-                    */
-                } else {
-                    throw new RuntimeException("You must be a member of a team before you can join this tournament.");
-                }
-            } else {
-                throw new RuntimeException("You must create a user profile and join a team before you can enroll into a tournament!");
-            }
-            //
+        List<Match> result = fixtureService.generate(tournament, format, seeds != null ? seeds : teamIds);
+        return ResponseEntity
+            .created(new URI("/api/tournaments/" + id))
+            .headers(HeaderUtil.createAlert(applicationName, result.size() + " matches have been created", id.toString()))
+            .body(result);
+    }
 
+    /**
+     * {@code POST  /tournaments/:id/schedule} : Give the matches of the "id" tournament a pitch and a kick-off time, and book those pitches.
+     *
+     * @param id the id of the tournament.
+     * @param pitchIds the ids of the pitches to play on.
+     * @param matchMinutes the time booked for each match.
+     * @param dayStart the earliest kick-off of a day, in the default time zone.
+     * @param dayEnd the time by which the last match of a day ends, in the default time zone.
+     * @param timeLimitSeconds how long to search for a schedule placing every match.
+     * @param allowPartial whether to save the best schedule found when it does not place every match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome,
+     * or with status {@code 400 (Bad Request)} if the parameters are not valid or a pitch has been booked meanwhile.
+     */
+    @PostMapping("/tournaments/{id}/schedule")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<TournamentScheduleDTO> scheduleTournament(
+        @PathVariable Long id,
+        @RequestParam List<Long> pitchIds,
+        @RequestParam(defaultValue = "90") int matchMinutes,
+        @RequestParam(defaultValue = "09:00") LocalTime dayStart,
+        @RequestParam(defaultValue = "21:00") LocalTime dayEnd,
+        @RequestParam(defaultValue = "5") int timeLimitSeconds,
+        @RequestParam(defaultValue = "false") boolean allowPartial
+    ) {
+        log.debug("REST request to schedule Tournament : {} on Pitches : {}", id, pitchIds);
+        Tournament tournament = tournamentRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (
+            !tournament.getStartDate().isBefore(tournament.getEndDate()) ||
+            Duration.between(tournament.getStartDate(), tournament.getEndDate()).toDays() > MAX_SCHEDULE_DAYS
+        ) {
+            throw new BadRequestAlertException(
+                "The tournament must end after it starts and last at most " + MAX_SCHEDULE_DAYS + " days",
+                ENTITY_NAME,
+                "invaliddaterange"
+            );
+        }
+        if (matchMinutes < 1 || !dayStart.isBefore(dayEnd) || dayStart.plusMinutes(matchMinutes).isAfter(dayEnd)) {
+            throw new BadRequestAlertException("A match must fit between the start and the end of the day", ENTITY_NAME, "invalidtimeslot");
+        }
+        if (timeLimitSeconds < 1 || timeLimitSeconds > MAX_SCHEDULE_SECONDS) {
+            throw new BadRequestAlertException(
+                "The time limit must be between 1 and " + MAX_SCHEDULE_SECONDS + " seconds",
+                ENTITY_NAME,
+                "invalidtimelimit"
+            );
+        }
+        List<Pitch> pitches = pitchRepository.findAllById(new HashSet<>(pitchIds));
+        if (pitches.isEmpty() || pitches.size() != new HashSet<>(pitchIds).size()) {
+            throw new BadRequestAlertException("Pitch not found", "pitch", "idnotfound");
         }
-        //OurPart ends here
 
-        Optional<Tournament> emptyTournamentOptional = Optional.empty();
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(emptyTournamentOptional);
+        TournamentScheduleDTO result;
+        try {
+            result =
+                tournamentSchedulingService.schedule(
+                    tournament,
+                    pitches,
+                    Duration.ofMinutes(matchMinutes),
+                    dayStart,
+                    dayEnd,
+                    ZoneId.of(Constants.DEFAULT_TIME_ZONE),
+                    Duration.ofSeconds(timeLimitSeconds),
+                    allowPartial
+                );
+        } catch (PitchBookingConflictException e) {
+            throw new BadRequestAlertException("A pitch has been booked meanwhile, try again", "pitchBooking", "pitchBooked");
+        }
+        return ResponseEntity.ok().body(result);
     }
 
     /**
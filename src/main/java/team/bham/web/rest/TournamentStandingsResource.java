@@ -0,0 +1,73 @@
+package team.bham.web.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import team.bham.security.AuthoritiesConstants;
+import team.bham.service.TournamentStandingsService;
+import team.bham.service.dto.TournamentStandingsDTO;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the standings of a {@link team.bham.domain.Tournament}.
+ */
+@RestController
+@RequestMapping("/api")
+public class TournamentStandingsResource {
+
+    private final Logger log = LoggerFactory.getLogger(TournamentStandingsResource.class);
+
+    private final TournamentStandingsService tournamentStandingsService;
+
+    public TournamentStandingsResource(TournamentStandingsService tournamentStandingsService) {
+        this.tournamentStandingsService = tournamentStandingsService;
+    }
+
+    /**
+     * {@code GET  /tournaments/:id/standings} : get the standings of the "id" tournament.
+     *
+     * @param id the id of the tournament.
+     * @param ifNoneMatch the ETag of the standings the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the standings,
+     * with status {@code 304 (Not Modified)} if they have not changed since {@code ifNoneMatch},
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/tournaments/{id}/standings")
+    public ResponseEntity<TournamentStandingsDTO> getTournamentStandings(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        log.debug("REST request to get the standings of Tournament : {}", id);
+        return tournamentStandingsService
+            .findStandings(id)
+            .map(standings -> {
+                String eTag = eTag(standings);
+                if (eTag.equals(ifNoneMatch)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<TournamentStandingsDTO>build();
+                }
+                return ResponseEntity.ok().eTag(eTag).body(standings);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code POST  /tournaments/:id/standings/rebuild} : build the standings of the "id" tournament again from its matches.
+     *
+     * @param id the id of the tournament.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the rebuilt standings, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/tournaments/{id}/standings/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<TournamentStandingsDTO> rebuildTournamentStandings(@PathVariable Long id) {
+        log.debug("REST request to rebuild the standings of Tournament : {}", id);
+        return ResponseUtil.wrapOrNotFound(tournamentStandingsService.rebuild(id));
+    }
+
+    private static String eTag(TournamentStandingsDTO standings) {
+        return "\"" + standings.getTournamentId() + "-" + standings.getVersion() + "\"";
+    }
+}
@@ -0,0 +1,72 @@
+package team.bham.web.rest;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import team.bham.domain.enumeration.Positions;
+import team.bham.service.UserProfileLeaderboardService;
+import team.bham.service.dto.UserProfileRankDTO;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the leaderboard of {@link team.bham.domain.UserProfile}s rated in comments.
+ */
+@RestController
+@RequestMapping("/api")
+public class UserProfileLeaderboardResource {
+
+    private final Logger log = LoggerFactory.getLogger(UserProfileLeaderboardResource.class);
+
+    private final UserProfileLeaderboardService userProfileLeaderboardService;
+
+    public UserProfileLeaderboardResource(UserProfileLeaderboardService userProfileLeaderboardService) {
+        this.userProfileLeaderboardService = userProfileLeaderboardService;
+    }
+
+    /**
+     * {@code GET  /user-profiles/leaderboard} : get the leaderboard of rated user profiles.
+     *
+     * @param position the position of the user profiles, all positions if not given.
+     * @param referee whether the user profiles are referees, both if not given.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of ranked user profiles in body, the best score first.
+     */
+    @GetMapping("/user-profiles/leaderboard")
+    public ResponseEntity<List<UserProfileRankDTO>> getUserProfileLeaderboard(
+        @RequestParam(value = "position", required = false) Positions position,
+        @RequestParam(value = "referee", required = false) Boolean referee,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the UserProfile leaderboard, position : {}, referee : {}", position, referee);
+        Page<UserProfileRankDTO> page = userProfileLeaderboardService.findLeaderboard(position, referee, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@code GET  /user-profiles/leaderboard/:id} : get the rank of the "id" user profile.
+     *
+     * @param id the id of the user profile.
+     * @param position the position to rank the user profile among, all positions if not given.
+     * @param referee whether to rank the user profile among referees or non-referees, both if not given.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ranked user profile,
+     * or with status {@code 404 (Not Found)} if it has no ratings or does not match the filter.
+     */
+    @GetMapping("/user-profiles/leaderboard/{id}")
+    public ResponseEntity<UserProfileRankDTO> getUserProfileRank(
+        @PathVariable Long id,
+        @RequestParam(value = "position", required = false) Positions position,
+        @RequestParam(value = "referee", required = false) Boolean referee
+    ) {
+        log.debug("REST request to get the rank of UserProfile : {}, position : {}, referee : {}", id, position, referee);
+        return ResponseUtil.wrapOrNotFound(userProfileLeaderboardService.findRank(id, position, referee));
+    }
+}
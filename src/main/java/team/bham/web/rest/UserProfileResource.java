@@ -81,6 +81,7 @@ public class UserProfileResource {
         }
         userProfile.setId(userId);
         UserProfile result = userProfileRepository.save(userProfile);
+        userProfileService.changed(result.getId());
         return ResponseEntity
             .created(new URI("/api/user-profiles/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -120,6 +121,7 @@ public class UserProfileResource {
         }
 
         UserProfile result = userProfileRepository.save(userProfile);
+        userProfileService.changed(result.getId());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, userProfile.getId().toString()))
@@ -190,6 +192,7 @@ public class UserProfileResource {
                 return existingUserProfile;
             })
             .map(userProfileRepository::save);
+        userProfileService.changed(id);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -262,6 +265,7 @@ public class UserProfileResource {
         }
         log.debug("REST request to delete UserProfile : {}", id);
         userProfileRepository.deleteById(id);
+        userProfileService.changed(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
@@ -58,9 +58,10 @@ export class AvailableDateService {
       .pipe(map(res => this.convertResponseFromServer(res)));
   }
 
-  findUser(userId: number): Observable<EntityArrayResponseType> {
+  findUser(userId: number, req?: any): Observable<EntityArrayResponseType> {
+    const options = createRequestOption(req);
     return this.http
-      .get<RestAvailableDate[]>(`${this.resourceUrl}/user/${userId}`, { observe: 'response' })
+      .get<RestAvailableDate[]>(`${this.resourceUrl}/user/${userId}`, { params: options, observe: 'response' })
       .pipe(map(res => this.convertResponseArrayFromServer(res)));
   }
 
@@ -13,3 +13,8 @@ export interface IComment {
 }
 
 export type NewComment = Omit<IComment, 'id'> & { id: null };
+
+export interface ICommentLikes {
+  commentId: number;
+  likeCount: number;
+}
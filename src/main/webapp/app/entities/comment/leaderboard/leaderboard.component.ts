@@ -108,11 +108,12 @@ export class LeaderboardComponent implements OnInit {
   }
   toggleLike(comment: IComment & { isLiked?: boolean }) {
     comment.isLiked = !comment.isLiked;
-    if (comment.isLiked == true) {
-      comment!.likeCount! += 1;
-    } else if (comment.isLiked == false) {
-      comment!.likeCount! -= 1;
-    }
-    this.commentService.update(comment).subscribe();
+    // The server counts the like, so concurrent likes of the same comment are not lost
+    const request = comment.isLiked ? this.commentService.like(comment.id) : this.commentService.unlike(comment.id);
+    request.subscribe(response => {
+      if (response.body) {
+        comment.likeCount = response.body.likeCount;
+      }
+    });
   }
 }
@@ -96,6 +96,22 @@ describe('Comment Service', () => {
       expect(expectedResult).toBe(expected);
     });
 
+    it('should like a Comment', () => {
+      service.like(123).subscribe(resp => (expectedResult = resp.body?.likeCount === 4));
+
+      const req = httpMock.expectOne({ method: 'POST', url: 'api/comments/123/like' });
+      req.flush({ commentId: 123, likeCount: 4 });
+      expect(expectedResult).toBe(true);
+    });
+
+    it('should unlike a Comment', () => {
+      service.unlike(123).subscribe(resp => (expectedResult = resp.body?.likeCount === 3));
+
+      const req = httpMock.expectOne({ method: 'DELETE', url: 'api/comments/123/like' });
+      req.flush({ commentId: 123, likeCount: 3 });
+      expect(expectedResult).toBe(true);
+    });
+
     describe('addCommentToCollectionIfMissing', () => {
       it('should add a Comment to an empty array', () => {
         const comment: IComment = sampleWithRequiredData;
@@ -5,7 +5,7 @@ import { Observable } from 'rxjs';
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 import { createRequestOption } from 'app/core/request/request-util';
-import { IComment, NewComment } from '../comment.model';
+import { IComment, ICommentLikes, NewComment } from '../comment.model';
 import { IUserProfile } from '../../user-profile/user-profile.model';
 
 export type PartialUpdateComment = Partial<IComment> & Pick<IComment, 'id'>;
@@ -44,6 +44,14 @@ export class CommentService {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
 
+  like(id: number): Observable<HttpResponse<ICommentLikes>> {
+    return this.http.post<ICommentLikes>(`${this.resourceUrl}/${id}/like`, null, { observe: 'response' });
+  }
+
+  unlike(id: number): Observable<HttpResponse<ICommentLikes>> {
+    return this.http.delete<ICommentLikes>(`${this.resourceUrl}/${id}/like`, { observe: 'response' });
+  }
+
   getUserAverage(userid: number): Observable<HttpResponse<number>> {
     return this.http.get<number>(`${this.resourceUrl}/${userid}`, { observe: 'response' });
   }
@@ -37,6 +37,7 @@ export class PitchBookingComponent implements OnInit {
   account: Account | null = null;
   fontSizeMultiplier: number = 1; // Font size multiplier property
   user_profile_id: number | null = null; // User profile ID
+  nextPage: { afterStartTime: string; afterId: string } | null = null;
 
   constructor(
     protected pitchBookingService: PitchBookingService,
@@ -202,19 +203,31 @@ export class PitchBookingComponent implements OnInit {
 
   queryByUserProfileIdBackend(): void {
     this.isLoading = true;
-    const queryObject = {
-      sort: this.getSortQueryParam(), // You can pass additional parameters if needed
-    };
-
     this.pitchBookingService.queryByUserProfileId(this.user_profile_id).subscribe({
       next: (res: EntityArrayResponseType) => {
         this.isLoading = false;
+        this.nextPage = this.pitchBookingService.getNextPageCursor(res);
         this.onResponseSuccess(res);
-        console.log('Pitch Bookings:', res.body);
       },
-      error: error => {
+      error: () => {
+        this.isLoading = false;
+      },
+    });
+  }
+
+  loadMore(): void {
+    if (!this.nextPage) {
+      return;
+    }
+    this.isLoading = true;
+    this.pitchBookingService.queryByUserProfileId(this.user_profile_id, this.nextPage).subscribe({
+      next: (res: EntityArrayResponseType) => {
+        this.isLoading = false;
+        this.nextPage = this.pitchBookingService.getNextPageCursor(res);
+        this.pitchBookings = this.refineData([...(this.pitchBookings ?? []), ...this.fillComponentAttributesFromResponseBody(res.body)]);
+      },
+      error: () => {
         this.isLoading = false;
-        // Handle error
       },
     });
   }
@@ -25,6 +25,15 @@ export type NewRestPitchBooking = RestOf<NewPitchBooking>;
 
 export type PartialUpdateRestPitchBooking = RestOf<PartialUpdatePitchBooking>;
 
+export interface IPitchFreeSlots {
+  pitchId: number;
+  pitchName?: string | null;
+  date: string;
+  freeSlots: { start: dayjs.Dayjs; end: dayjs.Dayjs }[];
+}
+
+type RestPitchFreeSlots = Omit<IPitchFreeSlots, 'freeSlots'> & { freeSlots: { start: string; end: string }[] };
+
 export type EntityResponseType = HttpResponse<IPitchBooking>;
 export type EntityArrayResponseType = HttpResponse<IPitchBooking[]>;
 
@@ -68,21 +77,39 @@ export class PitchBookingService {
       .pipe(map(res => this.convertResponseArrayFromServer(res)));
   }
 
-  queryByUserProfileId(userProfileId: number | null): Observable<HttpResponse<IPitchBooking[]>> {
-    const options = createRequestOption({ userProfileId }); // Include userProfileId in the request parameters
-    const url = `${this.resourceUrl}/user/${userProfileId}`; // Append userProfileId to the URL path
-    // Log the URL being passed over
-    console.log('URL:', url);
+  queryByUserProfileId(userProfileId: number | null, req?: any): Observable<EntityArrayResponseType> {
+    const options = createRequestOption(req);
+    return this.http
+      .get<RestPitchBooking[]>(`${this.resourceUrl}/user/${userProfileId}`, { params: options, observe: 'response' })
+      .pipe(map(res => this.convertResponseArrayFromServer(res)));
+  }
 
-    return this.http.get<IPitchBooking[]>(url, { observe: 'response' });
+  // Keyset cursor of the next page, taken from the rel="next" Link header
+  getNextPageCursor(res: HttpResponse<unknown>): { afterStartTime: string; afterId: string } | null {
+    const link = res.headers.get('link');
+    const next = link?.split(',').find(part => part.includes('rel="next"'));
+    if (!next) {
+      return null;
+    }
+    const params = new URL(next.replace(/.*<(.*)>.*/, '$1'), window.location.origin).searchParams;
+    const afterStartTime = params.get('afterStartTime');
+    const afterId = params.get('afterId');
+    return afterStartTime && afterId ? { afterStartTime, afterId } : null;
   }
 
   // Method to get available time slots for a specified date
-  getAvailableTimeSlots(date: Dayjs): Observable<EntityArrayResponseType> {
+  getAvailableTimeSlots(date: Dayjs): Observable<IPitchFreeSlots[]> {
     const isoDateString = date.toISOString(); // Convert Dayjs to ISO string bcs its weird
     return this.http
-      .get<RestPitchBooking[]>(`api/time-slots`, { params: { date: isoDateString }, observe: 'response' })
-      .pipe(map(res => this.convertResponseArrayFromServer(res)));
+      .get<RestPitchFreeSlots[]>(`api/time-slots`, { params: { date: isoDateString } })
+      .pipe(
+        map(res =>
+          res.map(pitchSlots => ({
+            ...pitchSlots,
+            freeSlots: pitchSlots.freeSlots.map(slot => ({ start: dayjs(slot.start), end: dayjs(slot.end) })),
+          }))
+        )
+      );
   }
 
   delete(id: number): Observable<HttpResponse<{}>> {
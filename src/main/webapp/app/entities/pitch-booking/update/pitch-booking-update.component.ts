@@ -5,7 +5,7 @@ import { catchError, finalize, map } from 'rxjs/operators';
 import { NgbDateStruct, NgbModule, NgbTimeStruct } from '@ng-bootstrap/ng-bootstrap';
 import { PitchBookingFormService, PitchBookingFormGroup } from './pitch-booking-form.service';
 import { IPitchBooking } from '../pitch-booking.model';
-import { PitchBookingService, RestPitchBooking } from '../service/pitch-booking.service';
+import { IPitchFreeSlots, PitchBookingService, RestPitchBooking } from '../service/pitch-booking.service';
 import { ITeam } from 'app/entities/team/team.model';
 import { EntityArrayResponseType, TeamService } from 'app/entities/team/service/team.service';
 import { IPitch } from 'app/entities/pitch/pitch.model';
@@ -52,8 +52,8 @@ export class PitchBookingUpdateComponent implements OnInit {
 
     // Add more slots as needed
   ];
-  existingBookings: { startTime: Dayjs | null | undefined; endTime: Dayjs | null | undefined }[] = [];
-  // Filtered time slots based on existing bookings
+  freeSlots: IPitchFreeSlots[] = [];
+  // Filtered time slots based on the free windows of the pitch
   filteredTimeSlots: { value: string; viewValue: string }[] = [];
   user_profile_id: number | null = null; // User profile ID
 
@@ -228,40 +228,25 @@ export class PitchBookingUpdateComponent implements OnInit {
     }
     const conver = this.convertToDate(selectedDate);
     this.pitchBookingService.getAvailableTimeSlots(conver).subscribe(
-      response => {
-        console.log('Available time slots:', response);
-        const responseBody: IPitchBooking[] = response.body ?? []; // Extract the array from the response body
-        console.log(responseBody);
-        // Handle  response data
-        this.existingBookings = responseBody.map(storedBooking => ({
-          startTime: storedBooking.startTime,
-          endTime: storedBooking.endTime,
-        }));
-        this.filterTimeSlots();
+      freeSlots => {
+        this.freeSlots = freeSlots;
+        this.filterTimeSlots(conver);
       },
       error => {
         console.error('Error fetching available time slots:', error);
       }
     );
-    console.log(this.existingBookings);
   }
 
-  filterTimeSlots(): void {
-    // Reset filtered time slots
-    this.filteredTimeSlots = [...this.timeSlots];
-    console.log('the current time slots: ' + this.filteredTimeSlots);
-    // Iterate through existing bookings
-    this.existingBookings.forEach(booking => {
-      // Extract start and end time from existing booking
-      const startTime = booking.startTime?.format('HH:mm');
-      console.log(startTime);
-      const endTime = booking.endTime?.format('HH:mm');
-      // Filter out the time slots that match existing booking
-      this.filteredTimeSlots = this.filteredTimeSlots.filter(slot => {
-        const [slotStartTime, slotEndTime] = slot.value.split('-');
-        console.log(this.filteredTimeSlots);
-        return !(startTime === slotStartTime && endTime === slotEndTime);
-      });
+  filterTimeSlots(day: dayjs.Dayjs): void {
+    const pitchId = this.editForm.get('pitch')?.value?.id ?? this.selectedPitchId;
+    const freeWindows = this.freeSlots.find(pitchSlots => pitchSlots.pitchId === pitchId)?.freeSlots ?? [];
+    // Keep the time slots that lie completely inside one free window of the pitch
+    this.filteredTimeSlots = this.timeSlots.filter(slot => {
+      const [slotStartTime, slotEndTime] = slot.value.split('-');
+      const slotStart = dayjs(`${day.format('YYYY-MM-DD')}T${slotStartTime}`);
+      const slotEnd = dayjs(`${day.format('YYYY-MM-DD')}T${slotEndTime}`);
+      return freeWindows.some(window => !window.start.isAfter(slotStart) && !window.end.isBefore(slotEnd));
     });
   }
 
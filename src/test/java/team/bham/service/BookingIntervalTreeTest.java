@@ -0,0 +1,112 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BookingIntervalTree}.
+ */
+class BookingIntervalTreeTest {
+
+    private static final Instant BASE = Instant.parse("2024-05-04T00:00:00Z");
+
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    public void init() {
+        tree = new BookingIntervalTree();
+    }
+
+    @Test
+    void detectsPartialOverlapOnBothSides() {
+        tree.put(1L, at(60), at(120));
+
+        assertThat(tree.overlaps(at(30), at(90), null)).isTrue();
+        assertThat(tree.overlaps(at(90), at(150), null)).isTrue();
+        assertThat(tree.overlaps(at(70), at(80), null)).isTrue();
+        assertThat(tree.overlaps(at(0), at(180), null)).isTrue();
+    }
+
+    @Test
+    void adjacentBookingsDoNotOverlap() {
+        tree.put(1L, at(60), at(120));
+
+        assertThat(tree.overlaps(at(0), at(60), null)).isFalse();
+        assertThat(tree.overlaps(at(120), at(180), null)).isFalse();
+    }
+
+    @Test
+    void ignoresTheBookingBeingMoved() {
+        tree.put(1L, at(60), at(120));
+        tree.put(2L, at(180), at(240));
+
+        assertThat(tree.overlaps(at(90), at(150), 1L)).isFalse();
+        assertThat(tree.overlaps(at(90), at(200), 1L)).isTrue();
+    }
+
+    @Test
+    void putReplacesAndRemoveForgetsBookings() {
+        tree.put(1L, at(60), at(120));
+        tree.put(1L, at(300), at(360));
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(at(60), at(120), null)).isFalse();
+
+        tree.remove(1L);
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.overlaps(at(300), at(360), null)).isFalse();
+    }
+
+    @Test
+    void matchesBruteForceOnRandomBookings() {
+        Random random = new Random(42);
+        Map<Long, long[]> bookings = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(300);
+            tree.put(id, at(start), at(end));
+            bookings.put(id, new long[] { start, end });
+            if (random.nextInt(4) == 0) {
+                long removed = 1 + random.nextInt((int) id);
+                tree.remove(removed);
+                bookings.remove(removed);
+            }
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            long from = random.nextInt(100_000);
+            long to = from + 1 + random.nextInt(500);
+            List<Long> expected = bookings
+                .entrySet()
+                .stream()
+                .filter(e -> e.getValue()[0] < to && from < e.getValue()[1])
+                .sorted(Comparator.comparing((Map.Entry<Long, long[]> e) -> e.getValue()[0]).thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+            List<Long> actual = new ArrayList<>();
+            tree.findOverlapping(at(from), at(to)).forEach(interval -> actual.add(interval.getBookingId()));
+
+            assertThat(actual).isEqualTo(expected);
+            assertThat(tree.overlaps(at(from), at(to), null)).isEqualTo(!expected.isEmpty());
+            if (!expected.isEmpty()) {
+                assertThat(tree.overlaps(at(from), at(to), expected.get(0))).isEqualTo(expected.size() > 1);
+            }
+        }
+    }
+
+    private static Instant at(long minutes) {
+        return BASE.plusSeconds(minutes * 60);
+    }
+}
@@ -0,0 +1,69 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link EloRatingTable}.
+ */
+class EloRatingTableTest {
+
+    private EloRatingTable table;
+
+    @BeforeEach
+    public void init() {
+        table = new EloRatingTable();
+    }
+
+    @Test
+    void winBetweenEqualTeamsMovesHalfTheKFactor() {
+        assertThat(table.apply(1L, result(10L, 20L, 1, 0), "ten", "twenty")).isTrue();
+
+        assertThat(table.getRating(10L)).isEqualTo(EloRatingTable.INITIAL_RATING + EloRatingTable.K_FACTOR / 2);
+        assertThat(table.getRating(20L)).isEqualTo(EloRatingTable.INITIAL_RATING - EloRatingTable.K_FACTOR / 2);
+    }
+
+    @Test
+    void widerWinsMoveMore() {
+        assertThat(EloRatingTable.change(1500, 1500, 2, 0)).isEqualTo(16 * 1.5);
+        assertThat(EloRatingTable.change(1500, 1500, 0, 3)).isEqualTo(-16 * 1.75);
+        assertThat(EloRatingTable.change(1500, 1500, 2, 2)).isZero();
+    }
+
+    @Test
+    void upsetMovesMoreThanExpectedWin() {
+        double expectedWin = EloRatingTable.change(1700, 1500, 1, 0);
+        double upset = EloRatingTable.change(1500, 1700, 1, 0);
+
+        assertThat(upset).isGreaterThan(expectedWin);
+        assertThat(upset + expectedWin).isCloseTo(EloRatingTable.K_FACTOR, offset(1e-9));
+    }
+
+    @Test
+    void ratesAMatchOnlyOnce() {
+        table.apply(1L, result(10L, 20L, 1, 0), "ten", "twenty");
+
+        assertThat(table.apply(1L, result(10L, 20L, 5, 0), "ten", "twenty")).isFalse();
+        assertThat(table.getResult(1L)).isEqualTo(result(10L, 20L, 1, 0));
+        assertThat(table.getRating(10L)).isEqualTo(EloRatingTable.INITIAL_RATING + EloRatingTable.K_FACTOR / 2);
+    }
+
+    @Test
+    void ranksByRatingThenTeamId() {
+        table.apply(1L, result(10L, 20L, 0, 1), "ten", "twenty");
+        table.apply(2L, result(30L, 40L, 0, 0), "thirty", "forty");
+        table.apply(3L, result(30L, 30L, 4, 0), "thirty", "thirty");
+
+        assertThat(table.ranked(0, 10)).extracting(EloRatingTable.Entry::getTeamId).containsExactly(20L, 30L, 40L, 10L);
+        assertThat(table.ranked(1, 2)).extracting(EloRatingTable.Entry::getTeamId).containsExactly(30L, 40L);
+        assertThat(table.ranked(0, 10)).extracting(EloRatingTable.Entry::getPlayed).containsExactly(1, 1, 1, 1);
+        assertThat(table.matchCount()).isEqualTo(3);
+    }
+
+    private static EloRatingTable.Result result(Long homeTeamId, Long awayTeamId, int homeScore, int awayScore) {
+        return new EloRatingTable.Result(homeTeamId, awayTeamId, homeScore, awayScore);
+    }
+}
@@ -0,0 +1,58 @@
+package team.bham.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the {@link FixtureGenerator} up to the 32 teams a tournament may have.
+ * <p>
+ * Not run by the build, start it with {@code ./mvnw test-compile} and then run {@link #main} from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixtureGeneratorBenchmark {
+
+    @Param({ "4", "17", "32" })
+    public int teams;
+
+    private List<Long> teamIds;
+
+    @Setup
+    public void setup() {
+        teamIds = LongStream.rangeClosed(1, teams).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<FixtureGenerator.Fixture> roundRobin() {
+        return FixtureGenerator.roundRobin(teamIds);
+    }
+
+    @Benchmark
+    public List<FixtureGenerator.Fixture> knockout() {
+        return FixtureGenerator.knockout(teamIds);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FixtureGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
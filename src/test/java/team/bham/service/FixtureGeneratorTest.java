@@ -0,0 +1,61 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FixtureGenerator}.
+ */
+class FixtureGeneratorTest {
+
+    @Test
+    void roundRobinPairsEveryTeamOnceWithOneMatchPerTeamAndRound() {
+        for (int teams = 2; teams <= 32; teams++) {
+            List<FixtureGenerator.Fixture> fixtures = FixtureGenerator.roundRobin(teamIds(teams));
+
+            Set<Set<Long>> pairs = new HashSet<>();
+            Map<Integer, Set<Long>> teamsByRound = new HashMap<>();
+            for (FixtureGenerator.Fixture fixture : fixtures) {
+                assertThat(pairs.add(Set.of(fixture.getHome(), fixture.getAway()))).isTrue();
+                Set<Long> playing = teamsByRound.computeIfAbsent(fixture.getRound(), round -> new HashSet<>());
+                assertThat(playing.add(fixture.getHome())).isTrue();
+                assertThat(playing.add(fixture.getAway())).isTrue();
+            }
+            assertThat(pairs).hasSize(teams * (teams - 1) / 2);
+            assertThat(FixtureGenerator.roundCount(fixtures)).isEqualTo(teams % 2 == 0 ? teams - 1 : teams);
+        }
+    }
+
+    @Test
+    void knockoutKeepsTheTopSeedsApart() {
+        List<FixtureGenerator.Fixture> fixtures = FixtureGenerator.knockout(teamIds(8));
+
+        assertThat(fixtures).hasSize(7);
+        assertThat(fixtures.subList(0, 4))
+            .extracting(FixtureGenerator.Fixture::getHome, FixtureGenerator.Fixture::getAway)
+            .containsExactly(tuple(1L, 8L), tuple(4L, 5L), tuple(2L, 7L), tuple(3L, 6L));
+        assertThat(fixtures.subList(4, 7)).extracting(FixtureGenerator.Fixture::getRound).containsExactly(2, 2, 3);
+    }
+
+    @Test
+    void knockoutGivesByesToTheTopSeeds() {
+        List<FixtureGenerator.Fixture> fixtures = FixtureGenerator.knockout(teamIds(6));
+
+        assertThat(fixtures)
+            .extracting(FixtureGenerator.Fixture::getRound, FixtureGenerator.Fixture::getHome, FixtureGenerator.Fixture::getAway)
+            .containsExactly(tuple(1, 4L, 5L), tuple(1, 3L, 6L), tuple(2, 1L, null), tuple(2, 2L, null), tuple(3, null, null));
+    }
+
+    private static List<Long> teamIds(int teams) {
+        return LongStream.rangeClosed(1, teams).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HashedTimingWheel}.
+ */
+class HashedTimingWheelTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private HashedTimingWheel wheel;
+
+    private List<String> fired;
+
+    @BeforeEach
+    public void init() {
+        now.set(0);
+        wheel = new HashedTimingWheel(Duration.ofSeconds(1), 8, now::get);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    void firesOnceTheDelayHasPassedAndNotBefore() {
+        wheel.schedule(() -> fired.add("a"), Duration.ofMillis(2500));
+
+        advanceTo(Duration.ofMillis(2999));
+        assertThat(fired).isEmpty();
+
+        advanceTo(Duration.ofSeconds(3));
+        assertThat(fired).containsExactly("a");
+
+        advanceTo(Duration.ofSeconds(30));
+        assertThat(fired).containsExactly("a");
+    }
+
+    @Test
+    void delaysLongerThanOneTurnWaitForTheirRound() {
+        wheel.schedule(() -> fired.add("late"), Duration.ofSeconds(20));
+        wheel.schedule(() -> fired.add("early"), Duration.ofSeconds(4));
+
+        advanceTo(Duration.ofSeconds(12));
+        assertThat(fired).containsExactly("early");
+
+        advanceTo(Duration.ofSeconds(19));
+        assertThat(fired).containsExactly("early");
+
+        advanceTo(Duration.ofSeconds(20));
+        assertThat(fired).containsExactly("early", "late");
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        HashedTimingWheel.Timeout timeout = wheel.schedule(() -> fired.add("a"), Duration.ofSeconds(2));
+        advanceTo(Duration.ofSeconds(1));
+
+        timeout.cancel();
+        advanceTo(Duration.ofSeconds(10));
+
+        assertThat(fired).isEmpty();
+        assertThat(timeout.isCancelled()).isTrue();
+    }
+
+    @Test
+    void timeoutsScheduledLaterAreMeasuredFromThen() {
+        advanceTo(Duration.ofMillis(5500));
+        wheel.schedule(() -> fired.add("a"), Duration.ofSeconds(1));
+
+        advanceTo(Duration.ofMillis(6400));
+        assertThat(fired).isEmpty();
+
+        advanceTo(Duration.ofSeconds(7));
+        assertThat(fired).containsExactly("a");
+    }
+
+    private void advanceTo(Duration elapsed) {
+        now.set(elapsed.toNanos());
+        wheel.advance();
+    }
+}
@@ -0,0 +1,180 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import team.bham.domain.Match;
+import team.bham.domain.Tournament;
+import team.bham.service.dto.MatchScoreDTO;
+
+/**
+ * Unit tests for {@link LiveScoreBroadcaster}.
+ */
+class LiveScoreBroadcasterTest {
+
+    private ExecutorService senders;
+
+    private LiveScoreBroadcaster broadcaster;
+
+    @BeforeEach
+    public void init() {
+        senders = Executors.newFixedThreadPool(2);
+        broadcaster = new LiveScoreBroadcaster(senders, 3);
+    }
+
+    @AfterEach
+    public void destroy() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void sendsChangesToTheSubscribersOfTheMatchAndOfItsTournament() throws Exception {
+        RecordingSink matchSink = new RecordingSink();
+        RecordingSink tournamentSink = new RecordingSink();
+        RecordingSink otherSink = new RecordingSink();
+        broadcaster.subscribeToMatch(1L, matchSink);
+        broadcaster.subscribeToTournament(10L, tournamentSink);
+        broadcaster.subscribeToMatch(2L, otherSink);
+
+        broadcaster.onMatchChanged(new MatchChangedEvent(match(1L, 10L, 2, 1), false));
+
+        MatchScoreDTO score = matchSink.next();
+        assertThat(score.getMatchId()).isEqualTo(1L);
+        assertThat(score.getHomeScore()).isEqualTo(2);
+        assertThat(score.getAwayScore()).isEqualTo(1);
+        assertThat(tournamentSink.next().getMatchId()).isEqualTo(1L);
+        broadcaster.onMatchChanged(new MatchChangedEvent(match(2L, null, 0, 0), true));
+        assertThat(otherSink.next().isDeleted()).isTrue();
+        assertThat(matchSink.scores).isEmpty();
+        assertThat(tournamentSink.scores).isEmpty();
+    }
+
+    @Test
+    void sendsOnlyTheLatestScoreOfEachMatchToASlowSubscriber() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slowSink = new RecordingSink() {
+            @Override
+            public void send(MatchScoreDTO score) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(score);
+            }
+        };
+        broadcaster.subscribeToTournament(10L, slowSink);
+
+        broadcaster.onMatchChanged(new MatchChangedEvent(match(1L, 10L, 0, 0), false));
+        // Far more changes than matches, as when a whole schedule is saved
+        for (int i = 0; i < 10 * LiveScoreBroadcaster.MAX_PENDING_MATCHES; i++) {
+            broadcaster.onMatchChanged(new MatchChangedEvent(match(2L + i % 2, 10L, i, 0), false));
+        }
+        release.countDown();
+
+        assertThat(slowSink.next().getMatchId()).isEqualTo(1L);
+        MatchScoreDTO second = slowSink.next();
+        MatchScoreDTO third = slowSink.next();
+        assertThat(second.getMatchId()).isEqualTo(2L);
+        assertThat(second.getHomeScore()).isEqualTo(10 * LiveScoreBroadcaster.MAX_PENDING_MATCHES - 2);
+        assertThat(third.getMatchId()).isEqualTo(3L);
+        assertThat(third.getHomeScore()).isEqualTo(10 * LiveScoreBroadcaster.MAX_PENDING_MATCHES - 1);
+        assertThat(slowSink.scores.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(slowSink.closed.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsASlowSubscriberWithoutHoldingUpTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slowSink = new RecordingSink() {
+            @Override
+            public void send(MatchScoreDTO score) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSink fastSink = new RecordingSink();
+        broadcaster.subscribeToTournament(10L, slowSink);
+        broadcaster.subscribeToTournament(10L, fastSink);
+
+        // The slow subscriber takes at most one score off its backlog, so this overflows it
+        for (int i = 0; i < LiveScoreBroadcaster.MAX_PENDING_MATCHES + 2; i++) {
+            broadcaster.onMatchChanged(new MatchChangedEvent(match((long) i, 10L, i, 0), false));
+            assertThat(fastSink.next().getMatchId()).isEqualTo((long) i);
+        }
+
+        assertThat(slowSink.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fastSink.closed.getCount()).isEqualTo(1);
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void refusesSubscribersOverTheLimitUntilOneCancels() {
+        LiveScoreBroadcaster.Subscription first = broadcaster.subscribeToMatch(1L, new RecordingSink()).orElseThrow();
+        broadcaster.subscribeToMatch(2L, new RecordingSink());
+        broadcaster.subscribeToTournament(10L, new RecordingSink());
+
+        assertThat(broadcaster.subscribeToMatch(3L, new RecordingSink())).isEmpty();
+        first.cancel();
+        assertThat(broadcaster.subscribeToMatch(3L, new RecordingSink())).isPresent();
+    }
+
+    @Test
+    void cancelledSubscriberIsNotSentToNorClosed() throws Exception {
+        RecordingSink cancelledSink = new RecordingSink();
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribeToMatch(1L, cancelledSink).orElseThrow().cancel();
+        broadcaster.subscribeToMatch(1L, sink);
+
+        broadcaster.onMatchChanged(new MatchChangedEvent(match(1L, null, 1, 0), false));
+
+        assertThat(sink.next().getMatchId()).isEqualTo(1L);
+        assertThat(cancelledSink.scores).isEmpty();
+        assertThat(cancelledSink.closed.getCount()).isEqualTo(1);
+    }
+
+    private static Match match(Long id, Long tournamentId, int homeScore, int awayScore) {
+        Match match = new Match().id(id).homeScore(homeScore).awayScore(awayScore);
+        if (tournamentId != null) {
+            match.setTournament(new Tournament().id(tournamentId));
+        }
+        return match;
+    }
+
+    private static class RecordingSink implements LiveScoreBroadcaster.Sink {
+
+        final BlockingQueue<MatchScoreDTO> scores = new LinkedBlockingQueue<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        MatchScoreDTO next() throws InterruptedException {
+            MatchScoreDTO score = scores.poll(5, TimeUnit.SECONDS);
+            assertThat(score).isNotNull();
+            return score;
+        }
+
+        @Override
+        public void send(MatchScoreDTO score) {
+            scores.add(score);
+        }
+
+        @Override
+        public void heartbeat() {}
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link MatchScheduler}.
+ */
+class MatchSchedulerTest {
+
+    @Test
+    void placesMatchesOnlyWhereTheirTeamsAndAPitchAreFree() {
+        boolean[][] pitchFree = { { false, true, true } };
+        boolean[][] teamFree = { { true, true, true }, { true, false, true }, { true, true, true } };
+        MatchScheduler scheduler = new MatchScheduler(3, pitchFree, teamFree);
+        int first = scheduler.addMatch(0, 1, 0);
+        int second = scheduler.addMatch(0, 2, 0);
+
+        MatchScheduler.Schedule schedule = scheduler.solve(deadline());
+
+        assertThat(schedule.isComplete()).isTrue();
+        assertThat(schedule.getSlot(first)).isEqualTo(2);
+        assertThat(schedule.getSlot(second)).isEqualTo(1);
+        assertThat(schedule.getPitch(first)).isZero();
+        assertThat(schedule.getPitch(second)).isZero();
+    }
+
+    @Test
+    void backtracksWhenTheEarliestSlotBlocksALaterMatch() {
+        boolean[][] pitchFree = { { true, true } };
+        boolean[][] teamFree = { { true, true }, { true, true }, { true, false } };
+        MatchScheduler scheduler = new MatchScheduler(2, pitchFree, teamFree);
+        // Team 2 can only play in the first slot, which the other match takes first
+        int flexible = scheduler.addMatch(0, 1, 0);
+        int constrained = scheduler.addMatch(2, 1, 1);
+
+        MatchScheduler.Schedule schedule = scheduler.solve(deadline());
+
+        assertThat(schedule.isComplete()).isTrue();
+        assertThat(schedule.getSlot(constrained)).isZero();
+        assertThat(schedule.getSlot(flexible)).isEqualTo(1);
+    }
+
+    @Test
+    void matchesWithUnknownTeamsStartAfterTheEarlierRounds() {
+        boolean[][] pitchFree = { { true, true, true, true }, { true, true, true, true } };
+        boolean[][] teamFree = new boolean[4][4];
+        for (boolean[] free : teamFree) {
+            Arrays.fill(free, true);
+        }
+        MatchScheduler scheduler = new MatchScheduler(4, pitchFree, teamFree);
+        int semiFinal = scheduler.addMatch(0, 1, 0);
+        scheduler.addMatch(2, 3, 0);
+        int finalMatch = scheduler.addMatch(MatchScheduler.UNSCHEDULED, MatchScheduler.UNSCHEDULED, 1);
+
+        MatchScheduler.Schedule schedule = scheduler.solve(deadline());
+
+        assertThat(schedule.isComplete()).isTrue();
+        assertThat(schedule.getSlot(semiFinal)).isZero();
+        assertThat(schedule.getPitch(semiFinal)).isZero();
+        assertThat(schedule.getSlot(finalMatch)).isEqualTo(1);
+    }
+
+    @Test
+    void returnsWhatFitsWhenNotEveryMatchCanBePlaced() {
+        boolean[][] pitchFree = { { true, true }, { true, true } };
+        boolean[][] teamFree = { { true, true }, { true, true }, { true, true } };
+        MatchScheduler scheduler = new MatchScheduler(2, pitchFree, teamFree);
+        // Any two of these matches share a team, so each slot holds one of them at most
+        scheduler.addMatch(0, 1, 0);
+        scheduler.addMatch(0, 2, 0);
+        scheduler.addMatch(1, 2, 0);
+
+        MatchScheduler.Schedule schedule = scheduler.solve(deadline());
+
+        assertThat(schedule.isComplete()).isFalse();
+        int placed = 0;
+        for (int match = 0; match < 3; match++) {
+            if (schedule.getSlot(match) != MatchScheduler.UNSCHEDULED) {
+                placed++;
+            }
+        }
+        assertThat(placed).isEqualTo(2);
+    }
+
+    @Test
+    void schedulesAThirtyTwoTeamRoundRobinWithinItsTimeLimit() {
+        int teams = 32;
+        int slots = 8 * 21;
+        int pitches = 5;
+        Random random = new Random(42);
+        boolean[][] pitchFree = new boolean[pitches][slots];
+        for (boolean[] free : pitchFree) {
+            for (int slot = 0; slot < slots; slot++) {
+                free[slot] = random.nextInt(4) != 0;
+            }
+        }
+        boolean[][] teamFree = new boolean[teams][slots];
+        for (boolean[] free : teamFree) {
+            for (int slot = 0; slot < slots; slot++) {
+                free[slot] = random.nextInt(3) != 0;
+            }
+        }
+        List<Long> teamIds = new ArrayList<>();
+        for (long team = 0; team < teams; team++) {
+            teamIds.add(team);
+        }
+        List<FixtureGenerator.Fixture> fixtures = FixtureGenerator.roundRobin(teamIds);
+        MatchScheduler scheduler = new MatchScheduler(slots, pitchFree, teamFree);
+        for (FixtureGenerator.Fixture fixture : fixtures) {
+            scheduler.addMatch(fixture.getHome().intValue(), fixture.getAway().intValue(), fixture.getRound() - 1);
+        }
+
+        long start = System.nanoTime();
+        MatchScheduler.Schedule schedule = scheduler.solve(start + TimeUnit.SECONDS.toNanos(5));
+
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(6));
+        assertThat(fixtures).hasSize(496);
+        assertThat(schedule.isComplete()).isTrue();
+        Set<String> taken = new HashSet<>();
+        for (int match = 0; match < fixtures.size(); match++) {
+            int slot = schedule.getSlot(match);
+            int pitch = schedule.getPitch(match);
+            FixtureGenerator.Fixture fixture = fixtures.get(match);
+            assertThat(pitchFree[pitch][slot]).isTrue();
+            assertThat(teamFree[fixture.getHome().intValue()][slot]).isTrue();
+            assertThat(teamFree[fixture.getAway().intValue()][slot]).isTrue();
+            assertThat(taken.add("pitch " + pitch + " in " + slot)).isTrue();
+            assertThat(taken.add("team " + fixture.getHome() + " in " + slot)).isTrue();
+            assertThat(taken.add("team " + fixture.getAway() + " in " + slot)).isTrue();
+        }
+    }
+
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,117 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import team.bham.service.dto.TeamAvailabilityWindowDTO;
+
+/**
+ * Compares ranking every team by the availability it shares with one team over the next two weeks using
+ * the {@link TeamAvailabilityBitmap} summaries against intersecting the free windows of each pair of teams.
+ * <p>
+ * Not run by the build, start it with {@code ./mvnw test-compile} and then run {@link #main} from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpponentMatchmakingBenchmark {
+
+    private static final Instant ORIGIN = Instant.parse("2024-05-06T00:00:00Z");
+    private static final int DAYS = 14;
+    private static final int SLOTS_PER_DAY = 48;
+
+    @Param({ "1000" })
+    public int teams;
+
+    @Param({ "3" })
+    public int windowsPerDay;
+
+    private final List<List<TeamAvailabilityWindowDTO>> windows = new ArrayList<>();
+    private final List<TeamAvailabilityBitmap> bitmaps = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int slotCount = OpponentMatchmakingService.HORIZON_DAYS * SLOTS_PER_DAY;
+        for (int t = 0; t < teams; t++) {
+            List<TeamAvailabilityWindowDTO> teamWindows = new ArrayList<>();
+            for (int d = 0; d < OpponentMatchmakingService.HORIZON_DAYS; d++) {
+                Instant cursor = ORIGIN.plus(Duration.ofDays(d)).plus(Duration.ofHours(8));
+                for (int w = 0; w < windowsPerDay; w++) {
+                    Instant start = cursor.plus(OpponentMatchmakingService.SLOT_LENGTH.multipliedBy(random.nextInt(4)));
+                    Instant end = start.plus(OpponentMatchmakingService.SLOT_LENGTH.multipliedBy(1 + random.nextInt(6)));
+                    teamWindows.add(new TeamAvailabilityWindowDTO(start, end, 1));
+                    cursor = end;
+                }
+            }
+            windows.add(teamWindows);
+            bitmaps.add(TeamAvailabilityBitmap.of(teamWindows, ORIGIN, OpponentMatchmakingService.SLOT_LENGTH, slotCount));
+        }
+    }
+
+    @Benchmark
+    public void pairwiseIntervalIntersection(Blackhole blackhole) {
+        Instant horizon = ORIGIN.plus(Duration.ofDays(DAYS));
+        List<TeamAvailabilityWindowDTO> mine = windows.get(0);
+        for (int t = 1; t < teams; t++) {
+            List<TeamAvailabilityWindowDTO> theirs = windows.get(t);
+            long sharedMillis = 0;
+            int i = 0;
+            int j = 0;
+            while (i < mine.size() && j < theirs.size()) {
+                Instant start = max(mine.get(i).getStart(), theirs.get(j).getStart());
+                Instant end = min(min(mine.get(i).getEnd(), theirs.get(j).getEnd()), horizon);
+                if (start.isBefore(end)) {
+                    sharedMillis += Duration.between(start, end).toMillis();
+                }
+                if (mine.get(i).getEnd().isBefore(theirs.get(j).getEnd())) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            blackhole.consume(sharedMillis);
+        }
+    }
+
+    @Benchmark
+    public void bitmapIntersection(Blackhole blackhole) {
+        TeamAvailabilityBitmap mine = bitmaps.get(0);
+        for (int t = 1; t < teams; t++) {
+            blackhole.consume(mine.sharedSlots(bitmaps.get(t), 0, DAYS * SLOTS_PER_DAY));
+        }
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OpponentMatchmakingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
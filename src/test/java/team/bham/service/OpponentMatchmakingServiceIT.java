@@ -0,0 +1,186 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.IntegrationTest;
+import team.bham.config.Constants;
+import team.bham.domain.AvailableDate;
+import team.bham.domain.Team;
+import team.bham.domain.UserProfile;
+import team.bham.domain.enumeration.Genders;
+import team.bham.domain.enumeration.PlayType;
+
+/**
+ * Integration tests for the ranking of {@link OpponentMatchmakingService}.
+ */
+@IntegrationTest
+@Transactional
+class OpponentMatchmakingServiceIT {
+
+    private static final String LOCATION = "Birmingham";
+
+    private static final ZoneId ZONE = ZoneId.of(Constants.DEFAULT_TIME_ZONE);
+
+    private static Random random = new Random();
+    private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private OpponentMatchmakingService opponentMatchmakingService;
+
+    private Team mine;
+
+    @BeforeEach
+    void initTest() {
+        mine = team(PlayType.SOCIAL, LOCATION);
+        free(mine, 1, 10, 14);
+        free(mine, 5, 10, 14);
+    }
+
+    @Test
+    void rankOpponentsFiltersOnPlayTypeAndLocation() {
+        Team twoHours = team(PlayType.SOCIAL, LOCATION);
+        free(twoHours, 1, 10, 12);
+        Team oneHour = team(PlayType.SOCIAL, LOCATION);
+        free(oneHour, 1, 10, 11);
+        Team competitive = team(PlayType.COMPETITIVE, LOCATION);
+        free(competitive, 1, 10, 14);
+        Team elsewhere = team(PlayType.SOCIAL, "London");
+        free(elsewhere, 1, 10, 13);
+        Team neverFree = team(PlayType.SOCIAL, LOCATION);
+        free(neverFree, 1, 15, 16);
+        teamsChanged();
+
+        assertThat(rank(2, PlayType.SOCIAL, "birmingham", 10)).containsExactly(shared(twoHours, 120), shared(oneHour, 60));
+        assertThat(rank(2, null, LOCATION, 10)).containsExactly(shared(competitive, 240), shared(twoHours, 120), shared(oneHour, 60));
+        assertThat(rank(2, PlayType.SOCIAL, "London", 10)).containsExactly(shared(elsewhere, 180));
+    }
+
+    @Test
+    void rankOpponentsOnlyCountsTheRequestedDays() {
+        Team soon = team(PlayType.SOCIAL, LOCATION);
+        free(soon, 1, 10, 12);
+        Team later = team(PlayType.SOCIAL, LOCATION);
+        free(later, 5, 9, 15);
+        teamsChanged();
+
+        assertThat(rank(2, PlayType.SOCIAL, LOCATION, 10)).containsExactly(shared(soon, 120));
+        assertThat(rank(7, PlayType.SOCIAL, LOCATION, 10)).containsExactly(shared(later, 240), shared(soon, 120));
+    }
+
+    @Test
+    void rankOpponentsReturnsAtMostTheLimit() {
+        Team first = team(PlayType.SOCIAL, LOCATION);
+        free(first, 1, 10, 13);
+        Team second = team(PlayType.SOCIAL, LOCATION);
+        free(second, 1, 10, 12);
+        Team third = team(PlayType.SOCIAL, LOCATION);
+        free(third, 1, 10, 11);
+        teamsChanged();
+
+        assertThat(rank(2, PlayType.SOCIAL, LOCATION, 2)).containsExactly(shared(first, 180), shared(second, 120));
+    }
+
+    @Test
+    void rankOpponentsOfATeamWithoutMembersIsEmpty() {
+        Team empty = new Team().created(Instant.now()).name("empty").playType(PlayType.SOCIAL);
+        em.persist(empty);
+        em.flush();
+        teamsChanged();
+
+        assertThat(opponentMatchmakingService.rankOpponents(empty.getId(), 2, null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void rankOpponentsReadsTeamsAgainAfterAChange() {
+        Team opponent = team(PlayType.SOCIAL, LOCATION);
+        free(opponent, 1, 10, 12);
+        teamsChanged();
+        assertThat(rank(2, PlayType.SOCIAL, LOCATION, 10)).containsExactly(shared(opponent, 120));
+
+        opponent.getOwner().setLocation("London");
+        em.flush();
+        // A new rating of the owner leaves the teams as they were read
+        opponentMatchmakingService.onUserProfileChanged(new UserProfileChangedEvent(opponent.getOwner().getId(), true));
+        assertThat(rank(2, PlayType.SOCIAL, LOCATION, 10)).containsExactly(shared(opponent, 120));
+
+        opponentMatchmakingService.onUserProfileChanged(new UserProfileChangedEvent(opponent.getOwner().getId()));
+        assertThat(rank(2, PlayType.SOCIAL, LOCATION, 10)).isEmpty();
+
+        opponent.setPlayType(PlayType.COMPETITIVE);
+        em.flush();
+        opponentMatchmakingService.onTeamChanged(new TeamChangedEvent(opponent.getId()));
+        assertThat(rank(2, null, "London", 10)).containsExactly(shared(opponent, 120));
+        assertThat(rank(2, PlayType.SOCIAL, "London", 10)).isEmpty();
+    }
+
+    /**
+     * Creates a team whose owner is its only member.
+     */
+    private Team team(PlayType playType, String location) {
+        UserProfile owner = new UserProfile()
+            .id(count.incrementAndGet())
+            .created(Instant.now())
+            .name("owner")
+            .gender(Genders.MALE)
+            .referee(false)
+            .location(location);
+        em.persist(owner);
+        Team team = new Team().created(Instant.now()).name("team").playType(playType).owner(owner);
+        em.persist(team);
+        owner.setTeam(team);
+        em.flush();
+        return team;
+    }
+
+    /**
+     * Marks the owner of a team available from one hour to another, some days from today.
+     */
+    private void free(Team team, int daysFromToday, int fromHour, int toHour) {
+        LocalDate day = LocalDate.now(ZONE).plusDays(daysFromToday);
+        em.persist(
+            new AvailableDate()
+                .fromTime(at(day, fromHour))
+                .toTime(at(day, toHour))
+                .isAvailable(true)
+                .userProfile(team.getOwner())
+                .team(team)
+        );
+        em.flush();
+    }
+
+    private void teamsChanged() {
+        // The test transaction never commits, so the event of the new teams is published by hand
+        opponentMatchmakingService.onTeamChanged(new TeamChangedEvent(mine.getId()));
+    }
+
+    private List<String> rank(int days, PlayType playType, String location, int limit) {
+        return opponentMatchmakingService
+            .rankOpponents(mine.getId(), days, playType, location, limit)
+            .stream()
+            .map(opponent -> opponent.getTeamId() + "=" + opponent.getSharedMinutes())
+            .collect(Collectors.toList());
+    }
+
+    private static String shared(Team team, long minutes) {
+        return team.getId() + "=" + minutes;
+    }
+
+    private static Instant at(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atZone(ZONE).toInstant();
+    }
+}
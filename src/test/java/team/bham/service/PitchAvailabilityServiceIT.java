@@ -0,0 +1,70 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.IntegrationTest;
+import team.bham.domain.Pitch;
+import team.bham.domain.PitchBooking;
+import team.bham.domain.UserProfile;
+import team.bham.domain.enumeration.Genders;
+
+/**
+ * Integration tests for the in-memory indexes of {@link PitchAvailabilityService} and {@link PitchOccupancyService}.
+ */
+@IntegrationTest
+@Transactional
+class PitchAvailabilityServiceIT {
+
+    private static final LocalDate DAY = LocalDate.of(2031, 6, 7);
+
+    private static final Instant START = Instant.parse("2031-06-07T10:00:00Z");
+
+    private static final Instant END = Instant.parse("2031-06-07T11:00:00Z");
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PitchAvailabilityService pitchAvailabilityService;
+
+    @Autowired
+    private PitchOccupancyService pitchOccupancyService;
+
+    @Test
+    void unknownPitchesAreFreeWithoutBeingIndexed() {
+        Long unknownPitchId = Long.MAX_VALUE;
+
+        assertThat(pitchAvailabilityService.isAvailable(unknownPitchId, START, END)).isTrue();
+        assertThat(pitchAvailabilityService.findBookedIntervals(unknownPitchId, START, END)).isEmpty();
+        assertThat(pitchOccupancyService.findFreePitches(List.of(unknownPitchId), DAY, DAY, LocalTime.of(9, 0), LocalTime.of(12, 0)))
+            .singleElement()
+            .satisfies(free -> assertThat(free.getPitchIds()).containsExactly(unknownPitchId));
+        assertThat(pitchAvailabilityService.isIndexed(unknownPitchId)).isFalse();
+    }
+
+    @Test
+    void existingPitchesAreIndexedWithTheirBookings() {
+        UserProfile userProfile = new UserProfile().id(900_101L).created(Instant.now()).name("indexed").gender(Genders.MALE).referee(false);
+        em.persist(userProfile);
+        Pitch pitch = new Pitch().name("indexed").location("test");
+        em.persist(pitch);
+        PitchBooking booking = new PitchBooking().bookingDate(Instant.now()).startTime(START).endTime(END).pitch(pitch);
+        booking.setUserProfileId(userProfile.getId());
+        em.persist(booking);
+        em.flush();
+
+        assertThat(pitchAvailabilityService.isAvailable(pitch.getId(), START, END)).isFalse();
+        assertThat(pitchAvailabilityService.isIndexed(pitch.getId())).isTrue();
+        assertThat(pitchOccupancyService.findFreePitches(List.of(pitch.getId()), DAY, DAY, LocalTime.of(9, 0), LocalTime.of(12, 0)))
+            .singleElement()
+            .satisfies(free -> assertThat(free.getPitchIds()).isEmpty());
+    }
+}
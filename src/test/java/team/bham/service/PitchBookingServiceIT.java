@@ -0,0 +1,144 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.bham.IntegrationTest;
+import team.bham.domain.Pitch;
+import team.bham.domain.PitchBooking;
+import team.bham.domain.UserProfile;
+import team.bham.domain.enumeration.Genders;
+import team.bham.repository.PitchBookingRepository;
+import team.bham.repository.PitchRepository;
+import team.bham.repository.UserProfileRepository;
+
+/**
+ * Integration tests for the concurrent writes of {@link PitchBookingService}.
+ */
+@IntegrationTest
+class PitchBookingServiceIT {
+
+    private static final Instant DAY = Instant.parse("2031-06-07T00:00:00Z");
+
+    private static final int THREADS = 16;
+
+    private static final int ATTEMPTS_PER_THREAD = 40;
+
+    @Autowired
+    private PitchBookingService pitchBookingService;
+
+    @Autowired
+    private PitchBookingRepository pitchBookingRepository;
+
+    @Autowired
+    private PitchRepository pitchRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Pitch> pitches = new ArrayList<>();
+
+    private UserProfile userProfile;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userProfile = userProfileRepository.save(
+            new UserProfile().id(900_001L).created(Instant.now()).name("stress").gender(Genders.MALE).referee(false)
+        );
+        for (int i = 0; i < 3; i++) {
+            pitches.add(pitchRepository.save(new Pitch().name("stress " + i).location("test")));
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (Pitch pitch : pitches) {
+            pitchBookingRepository.deleteAll(pitchBookingRepository.findByPitchId(pitch.getId()));
+        }
+        pitchRepository.deleteAll(pitches);
+        userProfileRepository.delete(userProfile);
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            Callable<Void> worker = () -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    // Few pitches and a narrow range of start times so that most attempts contend
+                    Pitch pitch = pitches.get(random.nextInt(pitches.size()));
+                    Instant startTime = DAY.plusSeconds(60L * 15 * random.nextInt(24));
+                    Instant endTime = startTime.plusSeconds(60L * 15 * (1 + random.nextInt(4)));
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            PitchBooking pitchBooking = new PitchBooking()
+                                .bookingDate(Instant.now())
+                                .startTime(startTime)
+                                .endTime(endTime)
+                                .pitch(pitch);
+                            pitchBooking.setUserProfileId(userProfile.getId());
+                            pitchBookingService.save(pitchBooking);
+                        });
+                        booked.incrementAndGet();
+                    } catch (PitchBookingConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            };
+            futures.add(executor.submit(worker));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(booked.get() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(booked.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+        int stored = 0;
+        for (Pitch pitch : pitches) {
+            List<PitchBooking> bookings = pitchBookingRepository
+                .findByPitchId(pitch.getId())
+                .stream()
+                .sorted(Comparator.comparing(PitchBooking::getStartTime))
+                .collect(Collectors.toList());
+            for (int i = 1; i < bookings.size(); i++) {
+                assertThat(bookings.get(i).getStartTime()).isAfterOrEqualTo(bookings.get(i - 1).getEndTime());
+            }
+            stored += bookings.size();
+        }
+        assertThat(stored).isEqualTo(booked.get());
+    }
+}
@@ -0,0 +1,89 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import team.bham.domain.Pitch;
+import team.bham.domain.PitchBooking;
+import team.bham.service.dto.RecurringPitchBookingDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Unit tests for the recurring booking expansion and conflict check of {@link PitchBookingService}.
+ */
+class PitchBookingServiceTest {
+
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+    @Test
+    void weeklySeriesKeepsTheWallClockTimeAcrossAClockChange() {
+        // 19:00 GMT on Tuesday 19 March, the clocks go forward on 31 March
+        RecurringPitchBookingDTO series = series("2024-03-19T19:00:00Z", "2024-03-19T20:00:00Z", RecurringPitchBookingDTO.Frequency.WEEKLY, 1);
+        series.setUntil(LocalDate.of(2024, 4, 2));
+
+        List<PitchBooking> occurrences = PitchBookingService.expand(series, LONDON);
+
+        assertThat(occurrences.stream().map(PitchBooking::getStartTime).collect(Collectors.toList()))
+            .containsExactly(
+                Instant.parse("2024-03-19T19:00:00Z"),
+                Instant.parse("2024-03-26T19:00:00Z"),
+                Instant.parse("2024-04-02T18:00:00Z")
+            );
+        assertThat(occurrences).allSatisfy(booking -> assertThat(booking.getEndTime()).isEqualTo(booking.getStartTime().plusSeconds(3600)));
+        assertThat(occurrences).allSatisfy(booking -> assertThat(booking.getUserProfileId()).isEqualTo(7L));
+    }
+
+    @Test
+    void everyOtherDayUntilIsInclusive() {
+        RecurringPitchBookingDTO series = series("2024-05-01T10:00:00Z", "2024-05-01T11:00:00Z", RecurringPitchBookingDTO.Frequency.DAILY, 2);
+        series.setUntil(LocalDate.of(2024, 5, 7));
+
+        assertThat(PitchBookingService.expand(series, LONDON)).hasSize(4);
+    }
+
+    @Test
+    void findsOccurrencesClashingWithBookingsInOnePass() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        // A long booking starting before the second occurrence and reaching into the third
+        tree.put(1L, Instant.parse("2024-05-08T09:00:00Z"), Instant.parse("2024-05-15T10:30:00Z"));
+        tree.put(2L, Instant.parse("2024-05-29T11:00:00Z"), Instant.parse("2024-05-29T12:00:00Z"));
+        RecurringPitchBookingDTO series = series("2024-05-01T10:00:00Z", "2024-05-01T11:00:00Z", RecurringPitchBookingDTO.Frequency.WEEKLY, 1);
+        series.setUntil(LocalDate.of(2024, 5, 29));
+        List<PitchBooking> occurrences = PitchBookingService.expand(series, LONDON);
+
+        List<TimeSlotDTO> conflicts = PitchBookingService.findConflicts(
+            tree.findOverlapping(occurrences.get(0).getStartTime(), occurrences.get(occurrences.size() - 1).getEndTime()),
+            occurrences
+        );
+
+        assertThat(conflicts.stream().map(TimeSlotDTO::getStart).collect(Collectors.toList()))
+            .containsExactly(Instant.parse("2024-05-08T10:00:00Z"), Instant.parse("2024-05-15T10:00:00Z"));
+    }
+
+    @Test
+    void findsOccurrencesClashingWithEachOther() {
+        RecurringPitchBookingDTO series = series("2024-05-01T10:00:00Z", "2024-05-02T12:00:00Z", RecurringPitchBookingDTO.Frequency.DAILY, 1);
+        series.setUntil(LocalDate.of(2024, 5, 2));
+
+        assertThat(PitchBookingService.findConflicts(List.of(), PitchBookingService.expand(series, LONDON))).hasSize(1);
+    }
+
+    private static RecurringPitchBookingDTO series(String start, String end, RecurringPitchBookingDTO.Frequency frequency, int interval) {
+        PitchBooking booking = new PitchBooking()
+            .bookingDate(Instant.parse("2024-03-01T00:00:00Z"))
+            .startTime(Instant.parse(start))
+            .endTime(Instant.parse(end))
+            .pitch(new Pitch().id(1L));
+        booking.setUserProfileId(7L);
+        RecurringPitchBookingDTO series = new RecurringPitchBookingDTO();
+        series.setBooking(booking);
+        series.setFrequency(frequency);
+        series.setInterval(interval);
+        return series;
+    }
+}
@@ -0,0 +1,81 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PitchDayOccupancy}.
+ */
+class PitchDayOccupancyTest {
+
+    private static final Instant BASE = Instant.parse("2024-05-04T00:00:00Z");
+    private static final Duration SLOT = Duration.ofMinutes(5);
+
+    @Test
+    void marksEverySlotTouchedByABooking() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, at(62), at(120));
+
+        PitchDayOccupancy occupancy = PitchDayOccupancy.of(tree.findOverlapping(at(0), at(1440)), at(0), at(1440), SLOT);
+
+        assertThat(occupancy.isBooked(11)).isFalse();
+        assertThat(occupancy.isBooked(12)).isTrue();
+        assertThat(occupancy.isBooked(23)).isTrue();
+        assertThat(occupancy.isBooked(24)).isFalse();
+        assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, 0, 12))).isTrue();
+        assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, 24, 288))).isTrue();
+        assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, 20, 30))).isFalse();
+    }
+
+    @Test
+    void clipsBookingsReachingIntoOtherDays() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, at(-60), at(10));
+        tree.put(2L, at(1430), at(1500));
+
+        PitchDayOccupancy occupancy = PitchDayOccupancy.of(tree.findOverlapping(at(0), at(1440)), at(0), at(1440), SLOT);
+
+        assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, 0, 2))).isFalse();
+        assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, 2, 286))).isTrue();
+        assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, 286, 288))).isFalse();
+    }
+
+    @Test
+    void followsTheLengthOfDaylightSavingDays() {
+        ZoneId london = ZoneId.of("Europe/London");
+        LocalDate springForward = LocalDate.of(2024, 3, 31);
+        Instant dayStart = springForward.atStartOfDay(london).toInstant();
+        Instant dayEnd = springForward.plusDays(1).atStartOfDay(london).toInstant();
+
+        assertThat(PitchDayOccupancy.slotCount(dayStart, dayEnd, SLOT)).isEqualTo(23 * 12);
+    }
+
+    @Test
+    void matchesIntervalQueriesOnRandomBookings() {
+        Random random = new Random(7);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (long id = 1; id <= 40; id++) {
+            long start = random.nextInt(1440);
+            tree.put(id, at(start), at(start + 1 + random.nextInt(90)));
+        }
+        PitchDayOccupancy occupancy = PitchDayOccupancy.of(tree.findOverlapping(at(0), at(1440)), at(0), at(1440), SLOT);
+
+        for (int i = 0; i < 1000; i++) {
+            int fromSlot = random.nextInt(288);
+            int toSlot = fromSlot + 1 + random.nextInt(288 - fromSlot);
+            boolean expected = !tree.overlaps(at(fromSlot * 5L), at(toSlot * 5L), null);
+
+            assertThat(occupancy.isFree(PitchDayOccupancy.mask(288, fromSlot, toSlot))).isEqualTo(expected);
+        }
+    }
+
+    private static Instant at(long minutes) {
+        return BASE.plusSeconds(minutes * 60);
+    }
+}
@@ -0,0 +1,76 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Unit tests for the free window computation of {@link PitchFreeSlotService}.
+ */
+class PitchFreeSlotServiceTest {
+
+    private static final Instant BASE = Instant.parse("2024-05-04T00:00:00Z");
+
+    @Test
+    void emptyDayIsOneWindow() {
+        List<TimeSlotDTO> windows = PitchFreeSlotService.sweep(List.of(), at(0), at(1440));
+
+        assertThat(render(windows)).containsExactly("0-1440");
+    }
+
+    @Test
+    void sweepMergesOverlappingBookingsAndClipsToTheDay() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, at(-60), at(60));
+        tree.put(2L, at(600), at(720));
+        tree.put(3L, at(660), at(690));
+        tree.put(4L, at(700), at(780));
+        tree.put(5L, at(1400), at(1500));
+
+        List<TimeSlotDTO> windows = PitchFreeSlotService.sweep(tree.findOverlapping(at(0), at(1440)), at(0), at(1440));
+
+        assertThat(render(windows)).containsExactly("60-600", "780-1400");
+    }
+
+    @Test
+    void adjacentBookingsLeaveNoGap() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, at(0), at(720));
+        tree.put(2L, at(720), at(1440));
+
+        assertThat(PitchFreeSlotService.sweep(tree.findOverlapping(at(0), at(1440)), at(0), at(1440))).isEmpty();
+    }
+
+    @Test
+    void alignToSlotsShrinksWindowsToWholeSlots() {
+        List<TimeSlotDTO> windows = List.of(
+            new TimeSlotDTO(at(10), at(100)),
+            new TimeSlotDTO(at(130), at(150)),
+            new TimeSlotDTO(at(180), at(240))
+        );
+
+        List<TimeSlotDTO> aligned = PitchFreeSlotService.alignToSlots(windows, at(0), Duration.ofMinutes(30));
+
+        assertThat(render(aligned)).containsExactly("30-90", "180-240");
+    }
+
+    private static List<String> render(List<TimeSlotDTO> windows) {
+        return windows
+            .stream()
+            .map(w -> minutes(w.getStart()) + "-" + minutes(w.getEnd()))
+            .collect(Collectors.toList());
+    }
+
+    private static long minutes(Instant instant) {
+        return Duration.between(BASE, instant).toMinutes();
+    }
+
+    private static Instant at(long minutes) {
+        return BASE.plusSeconds(minutes * 60);
+    }
+}
@@ -0,0 +1,100 @@
+package team.bham.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares "which pitches are free 18:00–20:00 on each day of the next week" answered with the
+ * {@link PitchDayOccupancy} bitsets against one interval range query per pitch and day, which is
+ * what the booking checks did so far.
+ * <p>
+ * Not run by the build, start it with {@code ./mvnw test-compile} and then run {@link #main} from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PitchOccupancyBenchmark {
+
+    private static final Instant FIRST_DAY = Instant.parse("2024-05-06T00:00:00Z");
+    private static final Duration DAY = Duration.ofDays(1);
+    private static final int DAYS = 7;
+
+    @Param({ "50", "500" })
+    public int pitches;
+
+    @Param({ "20" })
+    public int bookingsPerDay;
+
+    private final List<BookingIntervalTree> trees = new ArrayList<>();
+    private final List<PitchDayOccupancy[]> occupancies = new ArrayList<>();
+    private long[] mask;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        long bookingId = 0;
+        for (int p = 0; p < pitches; p++) {
+            BookingIntervalTree tree = new BookingIntervalTree();
+            PitchDayOccupancy[] days = new PitchDayOccupancy[DAYS];
+            for (int d = 0; d < DAYS; d++) {
+                Instant dayStart = FIRST_DAY.plus(DAY.multipliedBy(d));
+                for (int b = 0; b < bookingsPerDay; b++) {
+                    Instant start = dayStart.plus(Duration.ofMinutes(15L * random.nextInt(92)));
+                    tree.put(++bookingId, start, start.plus(Duration.ofMinutes(15L * (1 + random.nextInt(4)))));
+                }
+                Instant dayEnd = dayStart.plus(DAY);
+                days[d] = PitchDayOccupancy.of(tree.findOverlapping(dayStart, dayEnd), dayStart, dayEnd, PitchOccupancyService.SLOT_LENGTH);
+            }
+            trees.add(tree);
+            occupancies.add(days);
+        }
+        int slotsPerHour = (int) (Duration.ofHours(1).toMillis() / PitchOccupancyService.SLOT_LENGTH.toMillis());
+        mask = PitchDayOccupancy.mask(24 * slotsPerHour, 18 * slotsPerHour, 20 * slotsPerHour);
+    }
+
+    @Benchmark
+    public void rangeQueryPerPitch(Blackhole blackhole) {
+        for (int d = 0; d < DAYS; d++) {
+            Instant windowStart = FIRST_DAY.plus(DAY.multipliedBy(d)).plus(Duration.ofHours(18));
+            Instant windowEnd = windowStart.plus(Duration.ofHours(2));
+            for (BookingIntervalTree tree : trees) {
+                blackhole.consume(tree.findOverlapping(windowStart, windowEnd).isEmpty());
+            }
+        }
+    }
+
+    @Benchmark
+    public void bitmapPerPitch(Blackhole blackhole) {
+        for (int d = 0; d < DAYS; d++) {
+            for (PitchDayOccupancy[] days : occupancies) {
+                blackhole.consume(days[d].isFree(mask));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PitchOccupancyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import team.bham.service.dto.TeamAvailabilityWindowDTO;
+
+/**
+ * Unit tests for {@link TeamAvailabilityBitmap}.
+ */
+class TeamAvailabilityBitmapTest {
+
+    private static final Instant ORIGIN = Instant.parse("2024-05-06T00:00:00Z");
+
+    private static final Duration SLOT = Duration.ofMinutes(30);
+
+    @Test
+    void onlySlotsFreeForTheirWholeLengthAreSet() {
+        TeamAvailabilityBitmap bitmap = TeamAvailabilityBitmap.of(List.of(window(15, 90)), ORIGIN, SLOT, 8);
+
+        assertThat(bitmap.isFree(0)).isFalse();
+        assertThat(bitmap.isFree(1)).isTrue();
+        assertThat(bitmap.isFree(2)).isTrue();
+        assertThat(bitmap.isFree(3)).isFalse();
+    }
+
+    @Test
+    void windowsOutsideTheBitmapAreClipped() {
+        TeamAvailabilityBitmap bitmap = TeamAvailabilityBitmap.of(List.of(window(-120, 30), window(200, 10_000)), ORIGIN, SLOT, 10);
+
+        assertThat(bitmap.isFree(0)).isTrue();
+        assertThat(bitmap.isFree(6)).isFalse();
+        assertThat(bitmap.isFree(7)).isTrue();
+        assertThat(bitmap.isFree(9)).isTrue();
+    }
+
+    @Test
+    void sharedSlotsCountsTheOverlapWithinTheRangeAcrossWords() {
+        int slotCount = 28 * 48;
+        TeamAvailabilityBitmap mine = TeamAvailabilityBitmap.of(List.of(window(0, 30 * 200)), ORIGIN, SLOT, slotCount);
+        TeamAvailabilityBitmap theirs = TeamAvailabilityBitmap.of(List.of(window(30 * 50, 30 * 400)), ORIGIN, SLOT, slotCount);
+
+        assertThat(mine.sharedSlots(theirs, 0, slotCount)).isEqualTo(150);
+        assertThat(mine.sharedSlots(theirs, 60, 130)).isEqualTo(70);
+        assertThat(mine.sharedSlots(theirs, 0, 64)).isEqualTo(14);
+        assertThat(mine.sharedSlots(theirs, 150, 150)).isZero();
+        assertThat(theirs.sharedSlots(mine, 0, slotCount)).isEqualTo(150);
+    }
+
+    private static TeamAvailabilityWindowDTO window(long fromMinutes, long toMinutes) {
+        return new TeamAvailabilityWindowDTO(ORIGIN.plus(Duration.ofMinutes(fromMinutes)), ORIGIN.plus(Duration.ofMinutes(toMinutes)), 1);
+    }
+}
@@ -0,0 +1,80 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import team.bham.domain.AvailableDate;
+import team.bham.service.dto.TeamAvailabilityWindowDTO;
+import team.bham.service.dto.TimeSlotDTO;
+
+/**
+ * Unit tests for the sweeps of {@link TeamAvailabilityService}.
+ */
+class TeamAvailabilityServiceTest {
+
+    private static final Instant FROM = Instant.parse("2024-05-01T00:00:00Z");
+
+    private static final Instant TO = Instant.parse("2024-05-02T00:00:00Z");
+
+    @Test
+    void memberIsFreeWhereAvailableAndNotMarkedUnavailable() {
+        List<TimeSlotDTO> free = TeamAvailabilityService.memberFreeWindows(
+            List.of(date("09:00", "12:00", true), date("12:00", "15:00", true), date("10:00", "11:00", false)),
+            FROM,
+            TO
+        );
+
+        assertThat(free).extracting(TimeSlotDTO::getStart, TimeSlotDTO::getEnd).containsExactly(
+            tuple(at("09:00"), at("10:00")),
+            tuple(at("11:00"), at("15:00"))
+        );
+    }
+
+    @Test
+    void memberWindowsAreClippedToTheRange() {
+        List<TimeSlotDTO> free = TeamAvailabilityService.memberFreeWindows(
+            List.of(new AvailableDate().fromTime(FROM.minusSeconds(3600)).toTime(at("01:00")).isAvailable(true)),
+            FROM,
+            TO
+        );
+
+        assertThat(free).extracting(TimeSlotDTO::getStart, TimeSlotDTO::getEnd).containsExactly(
+            tuple(FROM, at("01:00"))
+        );
+    }
+
+    @Test
+    void sweepReturnsWindowsWithEnoughMembersFree() {
+        List<TimeSlotDTO> free = List.of(slot("09:00", "13:00"), slot("10:00", "12:00"), slot("11:00", "14:00"), slot("13:00", "14:00"));
+
+        List<TeamAvailabilityWindowDTO> two = TeamAvailabilityService.sweep(free, 2);
+        List<TeamAvailabilityWindowDTO> three = TeamAvailabilityService.sweep(free, 3);
+
+        assertThat(two)
+            .extracting(TeamAvailabilityWindowDTO::getStart, TeamAvailabilityWindowDTO::getEnd, TeamAvailabilityWindowDTO::getAvailableMembers)
+            .containsExactly(tuple(at("10:00"), at("14:00"), 2));
+        assertThat(three)
+            .extracting(TeamAvailabilityWindowDTO::getStart, TeamAvailabilityWindowDTO::getEnd, TeamAvailabilityWindowDTO::getAvailableMembers)
+            .containsExactly(tuple(at("11:00"), at("12:00"), 3));
+    }
+
+    @Test
+    void sweepFindsNothingWhenTooFewMembersAreEverFree() {
+        assertThat(TeamAvailabilityService.sweep(List.of(slot("09:00", "10:00"), slot("10:00", "11:00")), 2)).isEmpty();
+    }
+
+    private static AvailableDate date(String from, String to, boolean available) {
+        return new AvailableDate().fromTime(at(from)).toTime(at(to)).isAvailable(available);
+    }
+
+    private static TimeSlotDTO slot(String from, String to) {
+        return new TimeSlotDTO(at(from), at(to));
+    }
+
+    private static Instant at(String time) {
+        return Instant.parse("2024-05-01T" + time + ":00Z");
+    }
+}
@@ -0,0 +1,120 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.bham.IntegrationTest;
+import team.bham.domain.Team;
+import team.bham.domain.Tournament;
+import team.bham.domain.enumeration.PlayType;
+import team.bham.repository.TeamRepository;
+import team.bham.repository.TournamentRepository;
+
+/**
+ * Integration tests for the concurrent enrolments of {@link TournamentService}.
+ */
+@IntegrationTest
+class TournamentServiceIT {
+
+    private static final int MAX_TEAMS = 4;
+
+    private static final int TEAMS = 12;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Tournament tournament;
+
+    private final List<Team> teams = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Instant startDate = Instant.now().plus(30, ChronoUnit.DAYS);
+        tournament =
+            tournamentRepository.save(
+                new Tournament()
+                    .name("enrolment")
+                    .startDate(startDate)
+                    .endDate(startDate.plus(2, ChronoUnit.DAYS))
+                    .location("test")
+                    .maxTeams(MAX_TEAMS)
+            );
+        for (int i = 0; i < TEAMS; i++) {
+            teams.add(teamRepository.save(new Team().created(Instant.now()).name("enrolment " + i).playType(PlayType.SOCIAL)));
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        tournamentRepository.delete(tournament);
+        teamRepository.deleteAll(teams);
+    }
+
+    @Test
+    void concurrentEnrolmentsNeverExceedMaxTeams() throws Exception {
+        Map<Long, TournamentService.Enrolment> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(TEAMS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Team team : teams) {
+            Callable<Void> worker = () -> {
+                start.await();
+                outcomes.put(team.getId(), transactionTemplate.execute(status -> tournamentService.enrol(tournament.getId(), team.getId())));
+                return null;
+            };
+            futures.add(executor.submit(worker));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(outcomes.values().stream().filter(TournamentService.Enrolment.ENROLLED::equals)).hasSize(MAX_TEAMS);
+        assertThat(outcomes.values().stream().filter(TournamentService.Enrolment.FULL::equals)).hasSize(TEAMS - MAX_TEAMS);
+        Tournament stored = tournamentRepository.findOneWithEagerRelationships(tournament.getId()).orElseThrow();
+        assertThat(stored.getTeams()).hasSize(MAX_TEAMS);
+    }
+
+    @Test
+    void enrollingTwiceIsRejected() {
+        Long teamId = teams.get(0).getId();
+
+        assertThat(enrol(tournament.getId(), teamId)).isEqualTo(TournamentService.Enrolment.ENROLLED);
+        assertThat(enrol(tournament.getId(), teamId)).isEqualTo(TournamentService.Enrolment.ALREADY_ENROLLED);
+        assertThat(enrol(Long.MAX_VALUE, teamId)).isEqualTo(TournamentService.Enrolment.NOT_FOUND);
+    }
+
+    private TournamentService.Enrolment enrol(Long tournamentId, Long teamId) {
+        return transactionTemplate.execute(status -> tournamentService.enrol(tournamentId, teamId));
+    }
+}
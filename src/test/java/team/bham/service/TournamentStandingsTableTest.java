@@ -0,0 +1,96 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import team.bham.service.dto.TeamStandingDTO;
+
+/**
+ * Unit tests for {@link TournamentStandingsTable}.
+ */
+class TournamentStandingsTableTest {
+
+    private TournamentStandingsTable table;
+
+    @BeforeEach
+    public void init() {
+        table = new TournamentStandingsTable();
+    }
+
+    @Test
+    void ranksTeamsByPointsThenGoalDifference() {
+        table.put(1L, result(10L, 20L, 2, 0));
+        table.put(2L, result(20L, 30L, 1, 1));
+        table.put(3L, result(30L, 10L, 3, 1));
+
+        assertThat(table.rows())
+            .extracting(
+                TeamStandingDTO::getTeamId,
+                TeamStandingDTO::getPlayed,
+                TeamStandingDTO::getWon,
+                TeamStandingDTO::getDrawn,
+                TeamStandingDTO::getLost,
+                TeamStandingDTO::getGoalDifference,
+                TeamStandingDTO::getPoints
+            )
+            .containsExactly(tuple(30L, 2, 1, 1, 0, 2, 4), tuple(10L, 2, 1, 0, 1, 0, 3), tuple(20L, 2, 0, 1, 1, -2, 1));
+    }
+
+    @Test
+    void replacingAResultMovesOnlyItsOwnFigures() {
+        table.put(1L, result(10L, 20L, 2, 0));
+        table.put(2L, result(10L, 30L, 1, 0));
+
+        assertThat(table.put(1L, result(10L, 20L, 0, 1))).isTrue();
+        assertThat(table.put(1L, result(10L, 20L, 0, 1))).isFalse();
+
+        TournamentStandingsTable rebuilt = new TournamentStandingsTable();
+        rebuilt.put(2L, result(10L, 30L, 1, 0));
+        rebuilt.put(1L, result(10L, 20L, 0, 1));
+        assertThat(table.rows()).isEqualTo(rebuilt.rows());
+        assertThat(table.rows().get(0).getTeamId()).isEqualTo(20L);
+    }
+
+    @Test
+    void unplayedMatchesListTheirTeamsWithoutFigures() {
+        table.put(1L, result(10L, 20L, null, null));
+        table.put(2L, result(30L, null, null, null));
+
+        assertThat(table.rows())
+            .extracting(TeamStandingDTO::getTeamId, TeamStandingDTO::getPlayed, TeamStandingDTO::getPoints)
+            .containsExactlyInAnyOrder(tuple(10L, 0, 0), tuple(20L, 0, 0), tuple(30L, 0, 0));
+    }
+
+    @Test
+    void removingTheLastMatchOfATeamRemovesItsRow() {
+        table.put(1L, result(10L, 20L, 1, 0));
+        table.put(2L, result(10L, 30L, 0, 0));
+
+        assertThat(table.remove(2L)).isTrue();
+        assertThat(table.remove(2L)).isFalse();
+
+        assertThat(table.rows()).extracting(TeamStandingDTO::getTeamId).containsExactly(10L, 20L);
+        assertThat(table.rows().get(0).getDrawn()).isZero();
+    }
+
+    @Test
+    void resultWithoutTeamNamesKeepsTheKnownNames() {
+        table.put(1L, result(10L, 20L, 1, 0));
+        table.put(2L, new TournamentStandingsTable.Result(10L, null, 20L, null, 2, 2));
+
+        assertThat(table.rows()).extracting(TeamStandingDTO::getTeamName).containsExactly("team 10", "team 20");
+    }
+
+    private static TournamentStandingsTable.Result result(Long home, Long away, Integer homeScore, Integer awayScore) {
+        return new TournamentStandingsTable.Result(
+            home,
+            home == null ? null : "team " + home,
+            away,
+            away == null ? null : "team " + away,
+            homeScore,
+            awayScore
+        );
+    }
+}
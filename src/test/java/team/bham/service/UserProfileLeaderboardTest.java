@@ -0,0 +1,107 @@
+package team.bham.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import team.bham.domain.enumeration.Positions;
+
+/**
+ * Unit tests for {@link UserProfileLeaderboard}.
+ */
+class UserProfileLeaderboardTest {
+
+    private UserProfileLeaderboard leaderboard;
+
+    @BeforeEach
+    public void init() {
+        leaderboard = new UserProfileLeaderboard();
+        leaderboard.put(entry(1L, Positions.GK, false, 3, 4.0));
+        leaderboard.put(entry(2L, Positions.ST, false, 10, 4.5));
+        leaderboard.put(entry(3L, Positions.ST, true, 5, 4.0));
+        leaderboard.put(entry(4L, null, true, 1, 1.0));
+    }
+
+    @Test
+    void ranksByScoreThenCountThenId() {
+        leaderboard.put(entry(5L, Positions.CB, false, 3, 4.0));
+
+        assertThat(ids(leaderboard.ranked(null, null, 0, 10))).containsExactly(2L, 3L, 1L, 5L, 4L);
+        assertThat(ids(leaderboard.ranked(null, null, 1, 2))).containsExactly(3L, 1L);
+        assertThat(leaderboard.rank(5L, null, null)).contains(4);
+        assertThat(leaderboard.size(null, null)).isEqualTo(5);
+    }
+
+    @Test
+    void filtersByPositionAndReferee() {
+        assertThat(ids(leaderboard.ranked(Positions.ST, null, 0, 10))).containsExactly(2L, 3L);
+        assertThat(ids(leaderboard.ranked(null, true, 0, 10))).containsExactly(3L, 4L);
+        assertThat(ids(leaderboard.ranked(Positions.ST, true, 0, 10))).containsExactly(3L);
+        assertThat(leaderboard.size(Positions.GK, true)).isZero();
+
+        assertThat(leaderboard.rank(3L, Positions.ST, true)).contains(1);
+        assertThat(leaderboard.rank(3L, Positions.ST, null)).contains(2);
+        assertThat(leaderboard.rank(3L, Positions.GK, null)).isEmpty();
+        assertThat(leaderboard.rank(4L, null, false)).isEmpty();
+    }
+
+    @Test
+    void movesAndRemovesProfiles() {
+        leaderboard.put(entry(1L, Positions.ST, true, 20, 4.8));
+        leaderboard.remove(2L);
+
+        assertThat(ids(leaderboard.ranked(null, null, 0, 10))).containsExactly(1L, 3L, 4L);
+        assertThat(leaderboard.ranked(Positions.GK, null, 0, 10)).isEmpty();
+        assertThat(leaderboard.rank(1L, Positions.ST, true)).contains(1);
+        assertThat(leaderboard.rank(2L, null, null)).isEmpty();
+        assertThat(leaderboard.size(Positions.ST, null)).isEqualTo(2);
+    }
+
+    @Test
+    void ranksAndPagesDeepIntoALargeLeaderboard() {
+        Random random = new Random(42);
+        leaderboard = new UserProfileLeaderboard();
+        List<UserProfileLeaderboard.Entry> expected = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            double score = random.nextInt(50) / 10.0;
+            UserProfileLeaderboard.Entry entry = entry(id, Positions.ST, random.nextBoolean(), random.nextInt(5), score);
+            leaderboard.put(entry);
+            expected.add(entry);
+        }
+        // Move a tenth of the profiles, as new ratings do
+        for (int i = 0; i < 500; i++) {
+            int index = random.nextInt(expected.size());
+            Long id = expected.get(index).getUserProfileId();
+            UserProfileLeaderboard.Entry moved = entry(id, Positions.ST, false, 7, random.nextInt(50) / 10.0);
+            leaderboard.put(moved);
+            expected.set(index, moved);
+        }
+        expected.sort(
+            Comparator
+                .comparingDouble(UserProfileLeaderboard.Entry::getScore)
+                .reversed()
+                .thenComparing(Comparator.comparingLong(UserProfileLeaderboard.Entry::getCount).reversed())
+                .thenComparing(UserProfileLeaderboard.Entry::getUserProfileId)
+        );
+
+        assertThat(leaderboard.size(null, null)).isEqualTo(5000);
+        assertThat(ids(leaderboard.ranked(null, null, 4990, 20))).isEqualTo(ids(expected.subList(4990, 5000)));
+        assertThat(ids(leaderboard.ranked(Positions.ST, null, 2500, 3))).isEqualTo(ids(expected.subList(2500, 2503)));
+        for (int rank = 1; rank <= expected.size(); rank += 97) {
+            assertThat(leaderboard.rank(expected.get(rank - 1).getUserProfileId(), null, null)).contains(rank);
+        }
+    }
+
+    private static List<Long> ids(List<UserProfileLeaderboard.Entry> entries) {
+        return entries.stream().map(UserProfileLeaderboard.Entry::getUserProfileId).collect(Collectors.toList());
+    }
+
+    private static UserProfileLeaderboard.Entry entry(Long id, Positions position, boolean referee, long count, double score) {
+        return new UserProfileLeaderboard.Entry(id, "profile " + id, position, referee, count, score, score);
+    }
+}
@@ -1,6 +1,8 @@
 package team.bham.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import team.bham.IntegrationTest;
 import team.bham.domain.AvailableDate;
+import team.bham.domain.UserProfile;
 import team.bham.repository.AvailableDateRepository;
 
 /**
@@ -37,6 +40,8 @@ class AvailableDateResourceIT {
     private static final Instant DEFAULT_TO_TIME = Instant.ofEpochMilli(0L);
     private static final Instant UPDATED_TO_TIME = Instant.now().truncatedTo(ChronoUnit.MILLIS);
 
+    private static final Instant FAR_FUTURE = Instant.parse("9999-12-31T00:00:00Z");
+
     private static final Boolean DEFAULT_IS_AVAILABLE = false;
     private static final Boolean UPDATED_IS_AVAILABLE = true;
 
@@ -218,6 +223,105 @@ class AvailableDateResourceIT {
         restAvailableDateMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getAvailableDatesOfUserInRange() throws Exception {
+        UserProfile userProfile = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(userProfile);
+        UserProfile other = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(other);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        AvailableDate past = new AvailableDate().fromTime(now.minus(3, ChronoUnit.DAYS)).toTime(now.minus(2, ChronoUnit.DAYS));
+        AvailableDate soon = new AvailableDate().fromTime(now.plus(1, ChronoUnit.DAYS)).toTime(now.plus(2, ChronoUnit.DAYS));
+        AvailableDate later = new AvailableDate().fromTime(now.plus(10, ChronoUnit.DAYS)).toTime(now.plus(11, ChronoUnit.DAYS));
+        AvailableDate someoneElse = new AvailableDate().fromTime(soon.getFromTime()).toTime(soon.getToTime());
+        for (AvailableDate date : List.of(past, soon, later)) {
+            em.persist(date.isAvailable(true).userProfile(userProfile));
+        }
+        em.persist(someoneElse.isAvailable(true).userProfile(other));
+        em.flush();
+
+        restAvailableDateMockMvc
+            .perform(get(ENTITY_API_URL + "/user/{userId}", userProfile.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(past.getId().intValue(), soon.getId().intValue(), later.getId().intValue())));
+        restAvailableDateMockMvc
+            .perform(get(ENTITY_API_URL + "/user/{userId}?futureOnly=true", userProfile.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(soon.getId().intValue(), later.getId().intValue())));
+        restAvailableDateMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/user/{userId}", userProfile.getId())
+                    .param("from", now.toString())
+                    .param("to", now.plus(5, ChronoUnit.DAYS).toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(soon.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void createAvailableDateMergesOverlappingAndAdjacentDates() throws Exception {
+        UserProfile userProfile = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(userProfile);
+        Instant start = Instant.parse("2024-06-01T09:00:00Z");
+        AvailableDate before = new AvailableDate().fromTime(start).toTime(start.plus(2, ChronoUnit.HOURS));
+        AvailableDate after = new AvailableDate().fromTime(start.plus(3, ChronoUnit.HOURS)).toTime(start.plus(4, ChronoUnit.HOURS));
+        AvailableDate unavailable = new AvailableDate().fromTime(start).toTime(start.plus(4, ChronoUnit.HOURS)).isAvailable(false);
+        em.persist(before.isAvailable(true).userProfile(userProfile));
+        em.persist(after.isAvailable(true).userProfile(userProfile));
+        em.persist(unavailable.userProfile(userProfile));
+        em.flush();
+
+        // Overlaps the first date and touches the second one
+        AvailableDate bridge = new AvailableDate()
+            .fromTime(start.plus(1, ChronoUnit.HOURS))
+            .toTime(start.plus(3, ChronoUnit.HOURS))
+            .isAvailable(true)
+            .userProfile(userProfile);
+        restAvailableDateMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bridge)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.fromTime").value(start.toString()))
+            .andExpect(jsonPath("$.toTime").value(start.plus(4, ChronoUnit.HOURS).toString()));
+
+        List<AvailableDate> dates = availableDateRepository.findOverlappingByUserProfileId(userProfile.getId(), Instant.EPOCH, FAR_FUTURE);
+        assertThat(dates).hasSize(2);
+        assertThat(dates).extracting(AvailableDate::getIsAvailable).containsExactlyInAnyOrder(true, false);
+    }
+
+    @Test
+    @Transactional
+    void deleteRangeSplitsAndTrimsDates() throws Exception {
+        UserProfile userProfile = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(userProfile);
+        Instant start = Instant.parse("2024-06-01T09:00:00Z");
+        AvailableDate spanning = new AvailableDate().fromTime(start).toTime(start.plus(8, ChronoUnit.HOURS));
+        AvailableDate crossing = new AvailableDate().fromTime(start.plus(3, ChronoUnit.HOURS)).toTime(start.plus(10, ChronoUnit.HOURS));
+        AvailableDate inside = new AvailableDate().fromTime(start.plus(3, ChronoUnit.HOURS)).toTime(start.plus(4, ChronoUnit.HOURS));
+        em.persist(spanning.isAvailable(true).userProfile(userProfile));
+        em.persist(crossing.isAvailable(false).userProfile(userProfile));
+        em.persist(inside.isAvailable(false).userProfile(userProfile));
+        em.flush();
+
+        restAvailableDateMockMvc
+            .perform(
+                delete(ENTITY_API_URL + "/user/{userId}", userProfile.getId())
+                    .param("from", start.plus(2, ChronoUnit.HOURS).toString())
+                    .param("to", start.plus(5, ChronoUnit.HOURS).toString())
+            )
+            .andExpect(status().isNoContent());
+
+        List<AvailableDate> dates = availableDateRepository.findOverlappingByUserProfileId(userProfile.getId(), Instant.EPOCH, FAR_FUTURE);
+        assertThat(dates)
+            .extracting(AvailableDate::getFromTime, AvailableDate::getToTime, AvailableDate::getIsAvailable)
+            .containsExactlyInAnyOrder(
+                tuple(start, start.plus(2, ChronoUnit.HOURS), true),
+                tuple(start.plus(5, ChronoUnit.HOURS), start.plus(8, ChronoUnit.HOURS), true),
+                tuple(start.plus(5, ChronoUnit.HOURS), start.plus(10, ChronoUnit.HOURS), false)
+            );
+    }
+
     @Test
     @Transactional
     void putExistingAvailableDate() throws Exception {
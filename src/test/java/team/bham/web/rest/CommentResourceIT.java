@@ -1,13 +1,17 @@
 package team.bham.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,7 +23,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import team.bham.IntegrationTest;
 import team.bham.domain.Comment;
+import team.bham.domain.UserProfile;
 import team.bham.repository.CommentRepository;
+import team.bham.service.CommentLikeService;
+import team.bham.service.CommentService;
+import team.bham.service.dto.UserRatingDTO;
 
 /**
  * Integration tests for the {@link CommentResource} REST controller.
@@ -47,6 +55,12 @@ class CommentResourceIT {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private CommentLikeService commentLikeService;
+
+    @Autowired
+    private CommentService commentService;
+
     @Autowired
     private EntityManager em;
 
@@ -398,4 +412,264 @@ class CommentResourceIT {
         List<Comment> commentList = commentRepository.findAll();
         assertThat(commentList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void calculateAverageRateCountsCommentWrites() throws Exception {
+        UserProfile targetUser = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(targetUser);
+        em.flush();
+
+        for (int rating : new int[] { 5, 4, 4 }) {
+            Comment rated = new Comment().rating(rating).content(DEFAULT_CONTENT).likeCount(DEFAULT_LIKE_COUNT).targetUser(targetUser);
+            restCommentMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(rated)))
+                .andExpect(status().isCreated());
+        }
+
+        restCommentMockMvc
+            .perform(get("/api/calculate-averagerate/{id}", targetUser.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.userProfileId").value(targetUser.getId().intValue()))
+            .andExpect(jsonPath("$.count").value(3))
+            .andExpect(jsonPath("$.average").value(13.0 / 3))
+            .andExpect(jsonPath("$.bayesianScore").value((5 * 2.5 + 13) / 8))
+            .andExpect(jsonPath("$.distribution").value(contains(0, 0, 0, 0, 2, 1)));
+
+        // Rate one of the 4s down to 1, then delete the 5
+        List<Comment> comments = commentRepository
+            .findAll()
+            .stream()
+            .filter(c -> c.getTargetUser() != null && targetUser.getId().equals(c.getTargetUser().getId()))
+            .collect(Collectors.toList());
+        Comment four = comments.stream().filter(c -> c.getRating() == 4).findFirst().get();
+        Comment five = comments.stream().filter(c -> c.getRating() == 5).findFirst().get();
+        Comment partialUpdatedComment = new Comment().rating(1);
+        partialUpdatedComment.setId(four.getId());
+        restCommentMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, four.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedComment))
+            )
+            .andExpect(status().isOk());
+        restCommentMockMvc.perform(delete(ENTITY_API_URL_ID, five.getId())).andExpect(status().isNoContent());
+
+        restCommentMockMvc
+            .perform(get("/api/calculate-averagerate/{id}", targetUser.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(2))
+            .andExpect(jsonPath("$.average").value(2.5))
+            .andExpect(jsonPath("$.distribution").value(contains(0, 1, 0, 0, 1, 0)));
+    }
+
+    @Test
+    @Transactional
+    void updateCommentRatingsKeepsAggregate() throws Exception {
+        UserProfile first = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        UserProfile second = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(first);
+        em.persist(second);
+        em.flush();
+
+        Comment rated = commentService.save(createEntity(em).rating(5).targetUser(first));
+        commentService.save(createEntity(em).rating(0).targetUser(first));
+        Long id = rated.getId();
+        em.flush();
+        em.clear();
+
+        restCommentMockMvc
+            .perform(put(ENTITY_API_URL_ID, id).contentType(MediaType.APPLICATION_JSON).content(ratingUpdate(id, 2, first)))
+            .andExpect(status().isOk());
+        restCommentMockMvc
+            .perform(patch(ENTITY_API_URL_ID, id).contentType("application/merge-patch+json").content(ratingUpdate(id, 4, null)))
+            .andExpect(status().isOk());
+        // Moved to the other user profile, then rated again
+        restCommentMockMvc
+            .perform(put(ENTITY_API_URL_ID, id).contentType(MediaType.APPLICATION_JSON).content(ratingUpdate(id, 1, second)))
+            .andExpect(status().isOk());
+        restCommentMockMvc
+            .perform(patch(ENTITY_API_URL_ID, id).contentType("application/merge-patch+json").content(ratingUpdate(id, 3, null)))
+            .andExpect(status().isOk());
+        em.flush();
+        em.clear();
+
+        assertRatingsRecounted(first);
+        assertRatingsRecounted(second);
+        assertThat(commentService.findRating(first.getId()).get().getDistribution()).containsExactly(1, 0, 0, 0, 0, 0);
+        assertThat(commentService.findRating(second.getId()).get().getDistribution()).containsExactly(0, 0, 0, 1, 0, 0);
+    }
+
+    private byte[] ratingUpdate(Long id, int rating, UserProfile targetUser) throws Exception {
+        Comment update = new Comment().rating(rating).content(DEFAULT_CONTENT).likeCount(DEFAULT_LIKE_COUNT).targetUser(targetUser);
+        update.setId(id);
+        return TestUtil.convertObjectToJsonBytes(update);
+    }
+
+    private void assertRatingsRecounted(UserProfile targetUser) {
+        long[] recount = new long[6];
+        commentRepository
+            .findAll()
+            .stream()
+            .filter(c -> c.getTargetUser() != null && targetUser.getId().equals(c.getTargetUser().getId()))
+            .forEach(c -> recount[c.getRating()]++);
+        UserRatingDTO rating = commentService.findRating(targetUser.getId()).get();
+        assertThat(rating.getDistribution()).containsExactly(recount);
+        assertThat(rating.getCount()).isEqualTo(Arrays.stream(recount).sum());
+    }
+
+    @Test
+    @Transactional
+    void calculateAverageRateWithoutRatings() throws Exception {
+        UserProfile targetUser = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(targetUser);
+        em.flush();
+
+        restCommentMockMvc
+            .perform(get("/api/calculate-averagerate/{id}", targetUser.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(0))
+            .andExpect(jsonPath("$.average").value(0.0))
+            .andExpect(jsonPath("$.bayesianScore").value(2.5));
+        restCommentMockMvc.perform(get("/api/calculate-averagerate/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getCommentThread() throws Exception {
+        Comment root = commentRepository.saveAndFlush(createEntity(em));
+        Comment first = commentRepository.saveAndFlush(createEntity(em).replyingTo(root));
+        Comment second = commentRepository.saveAndFlush(createEntity(em).replyingTo(root));
+        Comment nested = commentRepository.saveAndFlush(createEntity(em).replyingTo(first));
+        commentRepository.saveAndFlush(createEntity(em).replyingTo(nested));
+
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/thread?depth=2", root.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(root.getId().intValue()))
+            .andExpect(jsonPath("$.replyCount").value(2))
+            .andExpect(jsonPath("$.replies.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(jsonPath("$.replies.[0].replies.[*].id").value(contains(nested.getId().intValue())))
+            .andExpect(jsonPath("$.replies.[0].replies.[0].replyCount").value(1))
+            .andExpect(jsonPath("$.replies.[0].replies.[0].replies").isEmpty())
+            .andExpect(jsonPath("$.replies.[1].replies").isEmpty());
+
+        restCommentMockMvc.perform(get(ENTITY_API_URL_ID + "/thread", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getCommentThreadsByTargetUser() throws Exception {
+        UserProfile targetUser = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(targetUser);
+        Comment older = commentRepository.saveAndFlush(createEntity(em).targetUser(targetUser));
+        Comment newer = commentRepository.saveAndFlush(createEntity(em).targetUser(targetUser));
+        Comment reply = commentRepository.saveAndFlush(createEntity(em).targetUser(targetUser).replyingTo(older));
+
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL + "/threads?targetUser={id}&page=0&size=10", targetUser.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(contains(newer.getId().intValue(), older.getId().intValue())))
+            .andExpect(jsonPath("$.[1].replies.[*].id").value(contains(reply.getId().intValue())));
+
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL + "/threads?targetUser={id}&page=1&size=1", targetUser.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(older.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getCommentThreadsNeedsOneFilter() throws Exception {
+        restCommentMockMvc.perform(get(ENTITY_API_URL + "/threads")).andExpect(status().isBadRequest());
+        restCommentMockMvc.perform(get(ENTITY_API_URL + "/threads?match=1&targetUser=1")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void likeComment() throws Exception {
+        commentRepository.saveAndFlush(comment);
+
+        restCommentMockMvc.perform(post(ENTITY_API_URL_ID + "/like", comment.getId())).andExpect(status().isOk());
+        restCommentMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/like", comment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.commentId").value(comment.getId().intValue()))
+            .andExpect(jsonPath("$.likeCount").value(DEFAULT_LIKE_COUNT + 2));
+        restCommentMockMvc
+            .perform(delete(ENTITY_API_URL_ID + "/like", comment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likeCount").value(DEFAULT_LIKE_COUNT + 1));
+
+        // The like is counted before it is written to the comment
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/likes", comment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likeCount").value(DEFAULT_LIKE_COUNT + 1));
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/thread", comment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likeCount").value(DEFAULT_LIKE_COUNT + 1));
+
+        commentLikeService.flush();
+        em.clear();
+        assertThat(commentRepository.findById(comment.getId()).get().getLikeCount()).isEqualTo(DEFAULT_LIKE_COUNT + 1);
+    }
+
+    @Test
+    @Transactional
+    void unlikeCommentWithoutLikes() throws Exception {
+        commentRepository.saveAndFlush(comment.likeCount(null));
+
+        restCommentMockMvc
+            .perform(delete(ENTITY_API_URL_ID + "/like", comment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.likeCount").value(0));
+        restCommentMockMvc.perform(post(ENTITY_API_URL_ID + "/like", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getCommentsByAuthorId() throws Exception {
+        UserProfile author = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(author);
+        Comment first = commentRepository.saveAndFlush(createEntity(em).author(author));
+        Comment second = commentRepository.saveAndFlush(createEntity(em).author(author));
+        Comment third = commentRepository.saveAndFlush(createEntity(em).author(author));
+
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL + "/author/{id}?size=2", author.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", containsString("beforeId=" + second.getId())))
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue(), second.getId().intValue())))
+            .andExpect(jsonPath("$.[0].authorId").value(author.getId().intValue()))
+            .andExpect(jsonPath("$.[0].authorName").value(author.getName()));
+
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL + "/author/{id}?size=2&beforeId={beforeId}", author.getId(), second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getCommentsByTargetUserId() throws Exception {
+        UserProfile targetUser = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(targetUser);
+        Comment root = commentRepository.saveAndFlush(createEntity(em).targetUser(targetUser));
+        Comment reply = commentRepository.saveAndFlush(createEntity(em).targetUser(targetUser).replyingTo(root));
+        commentRepository.saveAndFlush(createEntity(em));
+
+        restCommentMockMvc
+            .perform(get(ENTITY_API_URL + "/target-user/{id}", targetUser.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(reply.getId().intValue(), root.getId().intValue())))
+            .andExpect(jsonPath("$.[0].replyingToId").value(root.getId().intValue()))
+            .andExpect(jsonPath("$.[0].targetUserId").value(targetUser.getId().intValue()))
+            .andExpect(jsonPath("$.[1].replyingToId").isEmpty());
+
+        restCommentMockMvc.perform(get(ENTITY_API_URL + "/target-user/{id}?size=0", targetUser.getId())).andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,73 @@
+package team.bham.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.IntegrationTest;
+import team.bham.domain.Match;
+import team.bham.service.LiveScoreBroadcaster;
+import team.bham.service.MatchChangedEvent;
+
+/**
+ * Integration tests for the {@link LiveScoreResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class LiveScoreResourceIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private LiveScoreBroadcaster liveScoreBroadcaster;
+
+    @Autowired
+    private MockMvc restLiveScoreMockMvc;
+
+    @Test
+    @Transactional
+    void streamMatchScores() throws Exception {
+        Match match = new Match().date(Instant.now().truncatedTo(ChronoUnit.MILLIS)).homeScore(0).awayScore(0);
+        em.persist(match);
+        em.flush();
+
+        MockHttpServletResponse response = restLiveScoreMockMvc
+            .perform(get("/api/matches/{id}/scores", match.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+        // The test transaction never commits, so the event of the update is published by hand
+        liveScoreBroadcaster.onMatchChanged(new MatchChangedEvent(match.homeScore(1), false));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains("event:score") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(response.getContentAsString()).contains("event:score").contains("\"matchId\":" + match.getId()).contains("\"homeScore\":1");
+    }
+
+    @Test
+    @Transactional
+    void streamScoresOfNonExistingMatch() throws Exception {
+        restLiveScoreMockMvc.perform(get("/api/matches/{id}/scores", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void streamScoresOfNonExistingTournament() throws Exception {
+        restLiveScoreMockMvc.perform(get("/api/tournaments/{id}/scores", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+}
@@ -1,11 +1,15 @@
 package team.bham.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Random;
@@ -15,13 +19,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import team.bham.IntegrationTest;
 import team.bham.domain.Match;
+import team.bham.domain.Team;
+import team.bham.domain.UserProfile;
 import team.bham.repository.MatchRepository;
+import team.bham.service.MatchCalendarService;
+import team.bham.service.MatchChangedEvent;
 
 /**
  * Integration tests for the {@link MatchResource} REST controller.
@@ -49,6 +58,9 @@ class MatchResourceIT {
     @Autowired
     private MatchRepository matchRepository;
 
+    @Autowired
+    private MatchCalendarService matchCalendarService;
+
     @Autowired
     private EntityManager em;
 
@@ -154,6 +166,43 @@ class MatchResourceIT {
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getMatchesOfMonth() throws Exception {
+        // The last evening of the month, which a range ending at the start of the last day would miss
+        match.setDate(LocalDate.of(2031, 3, 31).atTime(20, 0).atZone(ZoneId.of("Europe/London")).toInstant());
+        matchRepository.saveAndFlush(match);
+
+        String eTag = restMatchMockMvc
+            .perform(get(ENTITY_API_URL + "?date=15-03-2031"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(match.getId().intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restMatchMockMvc
+            .perform(get(ENTITY_API_URL + "?date=01-03-2031").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // The test transaction never commits, so the event of the deletion is published by hand
+        matchRepository.delete(match);
+        matchRepository.flush();
+        matchCalendarService.onMatchChanged(new MatchChangedEvent(match, true));
+
+        restMatchMockMvc
+            .perform(get(ENTITY_API_URL + "?date=15-03-2031").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(match.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getMatchesOfMonthWithInvalidZone() throws Exception {
+        restMatchMockMvc.perform(get(ENTITY_API_URL + "?zone=Nowhere/Atlantis")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getMatch() throws Exception {
@@ -171,6 +220,36 @@ class MatchResourceIT {
             .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getMatchWithTeamMembers() throws Exception {
+        Team home = TeamResourceIT.createEntity(em).name("detail home");
+        Team away = TeamResourceIT.createEntity(em).name("detail away");
+        em.persist(home);
+        em.persist(away);
+        UserProfile homePlayer = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet()).name("home player").team(home);
+        UserProfile awayPlayer = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet()).name("away player").team(away);
+        UserProfile referee = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet()).name("the referee");
+        em.persist(homePlayer);
+        em.persist(awayPlayer);
+        em.persist(referee);
+        matchRepository.saveAndFlush(match.home(home).away(away).referee(referee));
+        em.clear();
+
+        restMatchMockMvc
+            .perform(get(ENTITY_API_URL_ID, match.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.home.id").value(home.getId().intValue()))
+            .andExpect(jsonPath("$.home.name").value("detail home"))
+            .andExpect(jsonPath("$.home.image").exists())
+            .andExpect(jsonPath("$.home.members.[*].id").value(contains(homePlayer.getId().intValue())))
+            .andExpect(jsonPath("$.home.members.[0].name").value("home player"))
+            .andExpect(jsonPath("$.away.members.[*].id").value(contains(awayPlayer.getId().intValue())))
+            .andExpect(jsonPath("$.referee.name").value("the referee"))
+            .andExpect(jsonPath("$.referee.profilePic").doesNotExist())
+            .andExpect(jsonPath("$.pitch").isEmpty());
+    }
+
     @Test
     @Transactional
     void getNonExistingMatch() throws Exception {
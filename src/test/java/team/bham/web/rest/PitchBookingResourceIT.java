@@ -1,12 +1,16 @@
 package team.bham.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
+import java.net.URI;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -15,12 +19,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import team.bham.IntegrationTest;
 import team.bham.domain.PitchBooking;
+import team.bham.domain.UserProfile;
 import team.bham.repository.PitchBookingRepository;
 
 /**
@@ -194,6 +201,65 @@ class PitchBookingResourceIT {
             .andExpect(jsonPath("$.[*].endTime").value(hasItem(DEFAULT_END_TIME.toString())));
     }
 
+    @Test
+    @Transactional
+    void getPitchBookingsByUserProfileIdIsKeysetPaginated() throws Exception {
+        UserProfile userProfile = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(userProfile);
+        Instant start = Instant.parse("2024-05-04T10:00:00Z");
+        // Two bookings share a start time, so the id has to break the tie between pages
+        for (int i = 0; i < 5; i++) {
+            Instant startTime = start.plus(i == 4 ? 1 : i, ChronoUnit.DAYS);
+            PitchBooking booking = new PitchBooking()
+                .bookingDate(DEFAULT_BOOKING_DATE)
+                .startTime(startTime)
+                .endTime(startTime.plus(1, ChronoUnit.HOURS));
+            booking.setUserProfileId(userProfile.getId());
+            em.persist(booking);
+        }
+        em.flush();
+
+        MvcResult first = restPitchBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/user/{userProfileId}?size=2", userProfile.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        List<String> firstPage = JsonPath.read(first.getResponse().getContentAsString(), "$[*].startTime");
+        List<String> seen = new ArrayList<>(firstPage);
+
+        String next = first.getResponse().getHeader(HttpHeaders.LINK).replaceAll("<(.*)>.*", "$1");
+        MvcResult second = restPitchBookingMockMvc
+            .perform(get(URI.create(next)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn();
+        seen.addAll(JsonPath.read(second.getResponse().getContentAsString(), "$[*].startTime"));
+
+        next = second.getResponse().getHeader(HttpHeaders.LINK).replaceAll("<(.*)>.*", "$1");
+        MvcResult third = restPitchBookingMockMvc
+            .perform(get(URI.create(next)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andReturn();
+        seen.addAll(JsonPath.read(third.getResponse().getContentAsString(), "$[*].startTime"));
+
+        assertThat(seen)
+            .containsExactly(
+                "2024-05-04T10:00:00Z",
+                "2024-05-05T10:00:00Z",
+                "2024-05-05T10:00:00Z",
+                "2024-05-06T10:00:00Z",
+                "2024-05-07T10:00:00Z"
+            );
+
+        restPitchBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/user/{userProfileId}?from=2024-05-05T00:00:00Z&to=2024-05-07T00:00:00Z", userProfile.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3));
+    }
+
     @Test
     @Transactional
     void getPitchBooking() throws Exception {
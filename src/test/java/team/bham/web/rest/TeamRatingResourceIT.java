@@ -0,0 +1,111 @@
+package team.bham.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.IntegrationTest;
+import team.bham.domain.Match;
+import team.bham.domain.Team;
+import team.bham.domain.enumeration.PlayType;
+import team.bham.security.AuthoritiesConstants;
+import team.bham.service.EloRatingTable;
+import team.bham.service.MatchChangedEvent;
+import team.bham.service.TeamRatingService;
+
+/**
+ * Integration tests for the {@link TeamRatingResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class TeamRatingResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/teams/ratings";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TeamRatingService teamRatingService;
+
+    @Autowired
+    private MockMvc restTeamRatingMockMvc;
+
+    private Team strong;
+
+    private Team weak;
+
+    private Instant date;
+
+    @BeforeEach
+    public void initTest() {
+        date = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        strong = new Team().created(date).name("rating strong").playType(PlayType.SOCIAL);
+        weak = new Team().created(date).name("rating weak").playType(PlayType.SOCIAL);
+    }
+
+    @Test
+    @Transactional
+    void getTeamRatingsReplaysPlayedMatches() throws Exception {
+        em.persist(strong);
+        em.persist(weak);
+        em.persist(new Match().date(date).home(strong).away(weak).homeScore(3).awayScore(0));
+        em.persist(new Match().date(date.plus(1, ChronoUnit.DAYS)).home(weak).away(strong));
+        em.flush();
+        teamRatingService.replay();
+
+        restTeamRatingMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].teamId").value(contains(strong.getId().intValue(), weak.getId().intValue())))
+            .andExpect(jsonPath("$.[*].rank").value(contains(1, 2)))
+            .andExpect(jsonPath("$.[0].rating").value(greaterThan(EloRatingTable.INITIAL_RATING)))
+            .andExpect(jsonPath("$.[0].played").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getTeamRatingsRatesNewResults() throws Exception {
+        em.persist(strong);
+        em.persist(weak);
+        em.flush();
+        teamRatingService.replay();
+
+        // The test transaction never commits, so the event of the result is published by hand
+        Match match = new Match().date(date).home(weak).away(strong).homeScore(2).awayScore(1);
+        em.persist(match);
+        teamRatingService.onMatchChanged(new MatchChangedEvent(match, false));
+
+        restTeamRatingMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].teamId").value(contains(weak.getId().intValue(), strong.getId().intValue())))
+            .andExpect(jsonPath("$.[0].teamName").value("rating weak"));
+    }
+
+    @Test
+    @Transactional
+    void replayTeamRatingsIsForAdmins() throws Exception {
+        restTeamRatingMockMvc.perform(post(ENTITY_API_URL + "/replay")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void replayTeamRatings() throws Exception {
+        restTeamRatingMockMvc.perform(post(ENTITY_API_URL + "/replay")).andExpect(status().isNoContent());
+    }
+}
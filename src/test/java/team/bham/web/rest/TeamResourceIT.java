@@ -11,6 +11,8 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Base64Utils;
 import team.bham.IntegrationTest;
 import team.bham.domain.Team;
+import team.bham.domain.UserProfile;
 import team.bham.domain.enumeration.PlayType;
 import team.bham.repository.TeamRepository;
 
@@ -213,6 +216,50 @@ class TeamResourceIT {
             .andExpect(jsonPath("$.[*].playType").value(hasItem(DEFAULT_PLAY_TYPE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllTeamsUsesConstantNumberOfStatements() throws Exception {
+        createTeamsWithMembers(3, 2);
+        long statementsForFewTeams = countStatements(ENTITY_API_URL);
+
+        createTeamsWithMembers(30, 2);
+        long statementsForManyTeams = countStatements(ENTITY_API_URL);
+
+        assertThat(statementsForManyTeams).isEqualTo(statementsForFewTeams);
+        assertThat(countStatements(ENTITY_API_URL + "/search?name=" + DEFAULT_NAME)).isLessThanOrEqualTo(statementsForFewTeams + 1);
+    }
+
+    private void createTeamsWithMembers(int teams, int membersPerTeam) {
+        for (int i = 0; i < teams; i++) {
+            Team newTeam = createEntity(em);
+            em.persist(newTeam);
+            for (int j = 0; j < membersPerTeam; j++) {
+                UserProfile member = UserProfileResourceIT.createEntity(em);
+                member.setId(count.incrementAndGet());
+                member.setTeam(newTeam);
+                em.persist(member);
+                if (j == 0) {
+                    newTeam.setOwner(member);
+                }
+            }
+        }
+        em.flush();
+    }
+
+    private long countStatements(String url) throws Exception {
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        restTeamMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].members[*].id").isNotEmpty());
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return statements;
+    }
+
     @Test
     @Transactional
     void getTeam() throws Exception {
@@ -0,0 +1,165 @@
+package team.bham.web.rest;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.bham.IntegrationTest;
+import team.bham.domain.Match;
+import team.bham.domain.Team;
+import team.bham.domain.Tournament;
+import team.bham.domain.enumeration.PlayType;
+import team.bham.security.AuthoritiesConstants;
+import team.bham.service.MatchChangedEvent;
+import team.bham.service.MatchService;
+import team.bham.service.TournamentStandingsService;
+
+/**
+ * Integration tests for the {@link TournamentStandingsResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class TournamentStandingsResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/tournaments/{id}/standings";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TournamentStandingsService tournamentStandingsService;
+
+    @Autowired
+    private MockMvc restTournamentStandingsMockMvc;
+
+    private Tournament tournament;
+
+    private Team home;
+
+    private Team away;
+
+    @BeforeEach
+    public void initTest() {
+        Instant startDate = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        tournament =
+            new Tournament().name("standings").startDate(startDate).endDate(startDate.plus(7, ChronoUnit.DAYS)).location("test").maxTeams(8);
+        home = new Team().created(startDate).name("standings home").playType(PlayType.SOCIAL);
+        away = new Team().created(startDate).name("standings away").playType(PlayType.SOCIAL);
+    }
+
+    @Test
+    @Transactional
+    void getTournamentStandings() throws Exception {
+        em.persist(tournament);
+        em.persist(home);
+        em.persist(away);
+        em.persist(new Match().date(tournament.getStartDate()).home(home).away(away).homeScore(2).awayScore(1).tournament(tournament));
+        em.flush();
+
+        restTournamentStandingsMockMvc
+            .perform(get(ENTITY_API_URL, tournament.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.tournamentId").value(tournament.getId().intValue()))
+            .andExpect(jsonPath("$.standings[0].teamId").value(home.getId().intValue()))
+            .andExpect(jsonPath("$.standings[0].won").value(1))
+            .andExpect(jsonPath("$.standings[0].points").value(3))
+            .andExpect(jsonPath("$.standings[1].teamId").value(away.getId().intValue()))
+            .andExpect(jsonPath("$.standings[1].lost").value(1))
+            .andExpect(jsonPath("$.standings[1].goalDifference").value(-1));
+    }
+
+    @Test
+    @Transactional
+    void getUnchangedTournamentStandings() throws Exception {
+        em.persist(tournament);
+        em.persist(home);
+        em.persist(away);
+        Match match = new Match().date(tournament.getStartDate()).home(home).away(away).tournament(tournament);
+        em.persist(match);
+        em.flush();
+
+        String eTag = restTournamentStandingsMockMvc
+            .perform(get(ENTITY_API_URL, tournament.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.standings[0].played").value(0))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restTournamentStandingsMockMvc
+            .perform(get(ENTITY_API_URL, tournament.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // The test transaction never commits, so the event of the score is published by hand
+        match.homeScore(0).awayScore(0);
+        tournamentStandingsService.onMatchChanged(new MatchChangedEvent(match, false));
+
+        restTournamentStandingsMockMvc
+            .perform(get(ENTITY_API_URL, tournament.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.standings[0].drawn").value(1))
+            .andExpect(jsonPath("$.standings[1].drawn").value(1));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getTournamentStandingsAfterCreatingAMatchWithTeamIdsOnly() throws Exception {
+        em.persist(tournament);
+        em.persist(home);
+        em.persist(away);
+        em.flush();
+        restTournamentStandingsMockMvc
+            .perform(get(ENTITY_API_URL, tournament.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.standings").isEmpty());
+
+        String match = String.format(
+            "{\"date\":\"%s\",\"homeScore\":2,\"awayScore\":1,\"home\":{\"id\":%d},\"away\":{\"id\":%d},\"tournament\":{\"id\":%d}}",
+            tournament.getStartDate(),
+            home.getId(),
+            away.getId(),
+            tournament.getId()
+        );
+        restTournamentStandingsMockMvc
+            .perform(post("/api/matches").contentType(MediaType.APPLICATION_JSON).content(match))
+            .andExpect(status().isCreated());
+        // The test transaction never commits, so the event registered by the match service is published by hand
+        TransactionSynchronizationManager
+            .getSynchronizations()
+            .stream()
+            .filter(synchronization -> synchronization.getClass().getName().startsWith(MatchService.class.getName()))
+            .forEach(TransactionSynchronization::afterCommit);
+
+        restTournamentStandingsMockMvc
+            .perform(get(ENTITY_API_URL, tournament.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.standings[0].teamId").value(home.getId().intValue()))
+            .andExpect(jsonPath("$.standings[0].teamName").value("standings home"))
+            .andExpect(jsonPath("$.standings[1].teamId").value(away.getId().intValue()))
+            .andExpect(jsonPath("$.standings[1].teamName").value("standings away"));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingTournamentStandings() throws Exception {
+        restTournamentStandingsMockMvc.perform(get(ENTITY_API_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+}
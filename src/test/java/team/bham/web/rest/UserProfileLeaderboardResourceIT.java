@@ -0,0 +1,127 @@
+package team.bham.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import team.bham.IntegrationTest;
+import team.bham.domain.Comment;
+import team.bham.domain.UserProfile;
+import team.bham.domain.enumeration.Positions;
+import team.bham.service.CommentService;
+import team.bham.service.UserProfileChangedEvent;
+import team.bham.service.UserProfileLeaderboardService;
+import team.bham.service.dto.UserProfileRankDTO;
+
+/**
+ * Integration tests for the {@link UserProfileLeaderboardResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class UserProfileLeaderboardResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/user-profiles/leaderboard";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    private static Random random = new Random();
+    private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserProfileLeaderboardService userProfileLeaderboardService;
+
+    @Autowired
+    private MockMvc restUserProfileLeaderboardMockMvc;
+
+    @BeforeEach
+    public void initTest() {
+        // Other tests leave the profiles they rated on the leaderboard though their transactions roll back
+        userProfileLeaderboardService.reset();
+    }
+
+    @Test
+    @Transactional
+    void getUserProfileRank() throws Exception {
+        UserProfile striker = rated(Positions.ST, false, 5, 5, 4);
+        UserProfile referee = rated(Positions.ST, true, 2);
+        UserProfile keeper = rated(Positions.GK, false, 5, 4);
+
+        restUserProfileLeaderboardMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?position=ST&referee=false", striker.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.userProfileId").value(striker.getId().intValue()))
+            .andExpect(jsonPath("$.position").value("ST"))
+            .andExpect(jsonPath("$.referee").value(false))
+            .andExpect(jsonPath("$.count").value(3));
+
+        assertThat(rank(striker, null, null)).isEqualTo(1);
+        assertThat(rank(keeper, null, null)).isEqualTo(2);
+        assertThat(rank(referee, null, null)).isEqualTo(3);
+        assertThat(rank(referee, Positions.ST, true)).isEqualTo(1);
+        assertThat(rank(referee, Positions.ST, null)).isEqualTo(2);
+        assertThat(rank(keeper, null, false)).isEqualTo(2);
+
+        restUserProfileLeaderboardMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?position=GK", referee.getId()))
+            .andExpect(status().isNotFound());
+        restUserProfileLeaderboardMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?referee=true", keeper.getId()))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getUserProfileLeaderboard() throws Exception {
+        UserProfile striker = rated(Positions.ST, false, 5);
+
+        restUserProfileLeaderboardMockMvc
+            .perform(get(ENTITY_API_URL + "?position=ST&referee=false&page=0&size=1000"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].userProfileId").value(striker.getId().intValue()))
+            .andExpect(jsonPath("$.[0].rank").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getUserProfileRankWithoutRatings() throws Exception {
+        UserProfile unrated = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet());
+        em.persist(unrated);
+        em.flush();
+        userProfileLeaderboardService.onUserProfileChanged(new UserProfileChangedEvent(unrated.getId()));
+
+        restUserProfileLeaderboardMockMvc.perform(get(ENTITY_API_URL_ID, unrated.getId())).andExpect(status().isNotFound());
+    }
+
+    private UserProfile rated(Positions position, boolean referee, int... ratings) {
+        UserProfile profile = UserProfileResourceIT.createEntity(em).id(count.incrementAndGet()).position(position).referee(referee);
+        em.persist(profile);
+        for (int rating : ratings) {
+            commentService.save(new Comment().rating(rating).targetUser(profile));
+        }
+        em.flush();
+        // The test transaction never commits, so the event of the ratings is published by hand
+        userProfileLeaderboardService.onUserProfileChanged(new UserProfileChangedEvent(profile.getId()));
+        return profile;
+    }
+
+    private long rank(UserProfile profile, Positions position, Boolean referee) {
+        return userProfileLeaderboardService.findRank(profile.getId(), position, referee).map(UserProfileRankDTO::getRank).orElseThrow();
+    }
+}